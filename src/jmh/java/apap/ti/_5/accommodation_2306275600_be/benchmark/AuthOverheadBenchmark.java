@@ -0,0 +1,97 @@
+package apap.ti._5.accommodation_2306275600_be.benchmark;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import apap.ti._5.accommodation_2306275600_be.external.AuthServiceImpl;
+import apap.ti._5.accommodation_2306275600_be.security.JwtTokenProvider;
+import apap.ti._5.accommodation_2306275600_be.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+
+/**
+ * Auth work for one request: what the filter does, plus authCallsPerRequest
+ * calls to AuthService (an RBAC method and its isXxx(UUID) checks).
+ *
+ * tokenPerCall is the old flow: the filter verified the token four times and
+ * every service call decoded the payload again from the request.
+ * principalFromContext is the new flow: one verify-and-parse in the filter,
+ * service calls read the principal. Neither includes the INFO payload logging
+ * the old path also did on every call.
+ *
+ * Run with: ./gradlew jmh
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuthOverheadBenchmark {
+
+    @Param({"3", "6"})
+    private int authCallsPerRequest;
+
+    private JwtTokenProvider tokenProvider;
+    private AuthServiceImpl authService;
+    private String jwt;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "benchmarkSecretKeyWithAtLeast32Characters!");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 3_600_000L);
+        tokenProvider.init();
+        authService = new AuthServiceImpl();
+        jwt = tokenProvider.generateToken(UUID.randomUUID().toString(), "bench_user", "Customer");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/booking");
+        request.addHeader("Authorization", "Bearer " + jwt);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void tokenPerCall(Blackhole blackhole) throws Exception {
+        blackhole.consume(tokenProvider.validateToken(jwt));
+        blackhole.consume(tokenProvider.getUserIdFromToken(jwt));
+        blackhole.consume(tokenProvider.getUsernameFromToken(jwt));
+        blackhole.consume(tokenProvider.getRoleFromToken(jwt));
+        // No principal in the context, so AuthServiceImpl decodes from the request like before
+        SecurityContextHolder.clearContext();
+        for (int i = 0; i < authCallsPerRequest; i++) {
+            blackhole.consume(authService.getAuthenticatedUser());
+        }
+    }
+
+    @Benchmark
+    public void principalFromContext(Blackhole blackhole) throws Exception {
+        Claims claims = tokenProvider.parseValidClaims(jwt);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(UserPrincipal.fromClaims(claims), null, List.of()));
+        for (int i = 0; i < authCallsPerRequest; i++) {
+            blackhole.consume(authService.getAuthenticatedUser());
+        }
+        SecurityContextHolder.clearContext();
+    }
+}
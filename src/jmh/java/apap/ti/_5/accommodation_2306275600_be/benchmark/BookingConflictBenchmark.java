@@ -0,0 +1,135 @@
+package apap.ti._5.accommodation_2306275600_be.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the old conflict check (SELECT of conflicting rows) with the
+ * EXISTS query booking create and update now run under the room lock.
+ *
+ * Run with: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingConflictBenchmark {
+
+    private static final String SELECT_CONFLICTS =
+        "SELECT * FROM booking WHERE room_id = ? AND status NOT IN (3, 4) "
+            + "AND check_in_date <= ? AND check_out_date >= ?";
+
+    private static final String EXISTS_CONFLICT =
+        "SELECT COUNT(*) > 0 FROM booking WHERE room_id = ? AND status NOT IN (3, 4) "
+            + "AND check_in_date <= ? AND check_out_date >= ?";
+
+    @Param({"100"})
+    private int rooms;
+
+    @Param({"50", "500"})
+    private int bookingsPerRoom;
+
+    private Connection connection;
+    private PreparedStatement selectConflicts;
+    private PreparedStatement existsConflict;
+    private UUID[] roomIds;
+    private LocalDateTime base;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:conflict_bench;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS booking");
+            statement.execute("CREATE TABLE booking ("
+                + "booking_id UUID PRIMARY KEY, room_id UUID NOT NULL, status INT, "
+                + "check_in_date TIMESTAMP, check_out_date TIMESTAMP, customer_name VARCHAR(255), "
+                + "total_price INT)");
+            statement.execute("CREATE INDEX idx_booking_room ON booking (room_id)");
+        }
+
+        roomIds = new UUID[rooms];
+        base = LocalDateTime.of(2025, 1, 1, 14, 0);
+
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO booking VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int r = 0; r < rooms; r++) {
+                roomIds[r] = UUID.randomUUID();
+                for (int b = 0; b < bookingsPerRoom; b++) {
+                    UUID bookingId = UUID.randomUUID();
+                    // Back-to-back 2-night stays with a 1-day gap
+                    LocalDateTime checkIn = base.plusDays(b * 3L);
+                    LocalDateTime checkOut = checkIn.plusDays(2);
+                    int status = b % 10 == 0 ? 2 : 1;
+
+                    insert.setObject(1, bookingId);
+                    insert.setObject(2, roomIds[r]);
+                    insert.setInt(3, status);
+                    insert.setTimestamp(4, Timestamp.valueOf(checkIn));
+                    insert.setTimestamp(5, Timestamp.valueOf(checkOut));
+                    insert.setString(6, "Customer " + b);
+                    insert.setInt(7, 500000);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+
+        selectConflicts = connection.prepareStatement(SELECT_CONFLICTS);
+        existsConflict = connection.prepareStatement(EXISTS_CONFLICT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        selectConflicts.close();
+        existsConflict.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public int selectConflictingRows() throws SQLException {
+        bind(selectConflicts);
+        int count = 0;
+        try (ResultSet rs = selectConflicts.executeQuery()) {
+            while (rs.next()) {
+                rs.getObject(1);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public boolean existsConflictQuery() throws SQLException {
+        bind(existsConflict);
+        try (ResultSet rs = existsConflict.executeQuery()) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private void bind(PreparedStatement statement) throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime checkIn = base.plusDays(random.nextInt(bookingsPerRoom * 3));
+        statement.setObject(1, roomIds[random.nextInt(rooms)]);
+        statement.setTimestamp(2, Timestamp.valueOf(checkIn.plusDays(2)));
+        statement.setTimestamp(3, Timestamp.valueOf(checkIn));
+    }
+}
@@ -0,0 +1,175 @@
+package apap.ti._5.accommodation_2306275600_be.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import apap.ti._5.accommodation_2306275600_be.service.BookingSearchIndex;
+
+/**
+ * Booking list search by property name or room ID over a seeded booking table.
+ *
+ * likeJoinQuery is the old path: LOWER(...) LIKE '%kw%' across booking, room,
+ * room_type and property, which has to look at every booking.
+ * indexedSearch is the new path: BookingSearchIndex picks the matching
+ * bookings in memory, then only their list columns are read by primary key.
+ *
+ * The keyword matches 10 of 2,000 properties, about 0.5% of the bookings.
+ *
+ * Run with: ./gradlew jmh (seeding a million rows needs a heap of ~2 GB)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BookingSearchBenchmark {
+
+    private static final String LIST_COLUMNS =
+        "SELECT b.booking_id, p.property_name, r.name, b.check_in_date, b.check_out_date, b.total_price, b.status "
+            + "FROM booking b JOIN room r ON r.room_id = b.room_id "
+            + "JOIN room_type rt ON rt.room_type_id = r.room_type_id "
+            + "JOIN property p ON p.property_id = rt.property_id ";
+
+    private static final String LIKE_SEARCH = LIST_COLUMNS
+        + "WHERE LOWER(p.property_name) LIKE ? OR LOWER(CAST(r.room_id AS VARCHAR)) LIKE ? "
+        + "ORDER BY b.booking_id DESC";
+
+    private static final String FETCH_BY_IDS = LIST_COLUMNS + "WHERE b.booking_id = ANY(?)";
+
+    private static final int PROPERTIES = 2_000;
+    private static final int ROOMS_PER_PROPERTY = 10;
+
+    @Param({"1000000"})
+    private int bookings;
+
+    @Param({"melati 017"})
+    private String keyword;
+
+    private Connection connection;
+    private PreparedStatement likeSearch;
+    private PreparedStatement fetchByIds;
+    private BookingSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:booking_search_bench;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("CREATE TABLE property (property_id UUID PRIMARY KEY, property_name VARCHAR(255))");
+            statement.execute("CREATE TABLE room_type (room_type_id UUID PRIMARY KEY, property_id UUID)");
+            statement.execute("CREATE TABLE room (room_id UUID PRIMARY KEY, name VARCHAR(255), room_type_id UUID)");
+            statement.execute("CREATE TABLE booking (booking_id UUID PRIMARY KEY, room_id UUID NOT NULL, "
+                + "check_in_date TIMESTAMP, check_out_date TIMESTAMP, total_price INT, status INT)");
+            statement.execute("CREATE INDEX idx_booking_room ON booking (room_id)");
+        }
+
+        index = new BookingSearchIndex();
+        UUID[] roomIds = new UUID[PROPERTIES * ROOMS_PER_PROPERTY];
+        UUID[] propertyIdByRoom = new UUID[roomIds.length];
+        String[] propertyNameByRoom = new String[roomIds.length];
+
+        try (PreparedStatement property = connection.prepareStatement("INSERT INTO property VALUES (?, ?)");
+             PreparedStatement roomType = connection.prepareStatement("INSERT INTO room_type VALUES (?, ?)");
+             PreparedStatement room = connection.prepareStatement("INSERT INTO room VALUES (?, ?, ?)")) {
+            for (int p = 0; p < PROPERTIES; p++) {
+                UUID propertyId = UUID.randomUUID();
+                UUID roomTypeId = UUID.randomUUID();
+                String name = String.format("Hotel Melati %04d", p);
+                property.setObject(1, propertyId);
+                property.setString(2, name);
+                property.addBatch();
+                roomType.setObject(1, roomTypeId);
+                roomType.setObject(2, propertyId);
+                roomType.addBatch();
+                for (int r = 0; r < ROOMS_PER_PROPERTY; r++) {
+                    int slot = p * ROOMS_PER_PROPERTY + r;
+                    roomIds[slot] = UUID.randomUUID();
+                    propertyIdByRoom[slot] = propertyId;
+                    propertyNameByRoom[slot] = name;
+                    room.setObject(1, roomIds[slot]);
+                    room.setString(2, "Room " + r);
+                    room.setObject(3, roomTypeId);
+                    room.addBatch();
+                }
+            }
+            property.executeBatch();
+            roomType.executeBatch();
+            room.executeBatch();
+        }
+
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO booking VALUES (?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 500000, ?)")) {
+            for (int b = 0; b < bookings; b++) {
+                UUID bookingId = UUID.randomUUID();
+                int slot = b % roomIds.length;
+                insert.setObject(1, bookingId);
+                insert.setObject(2, roomIds[slot]);
+                insert.setInt(3, b % 3);
+                insert.addBatch();
+                if (b % 10_000 == 9_999) {
+                    insert.executeBatch();
+                }
+
+                index.put(bookingId, roomIds[slot], propertyIdByRoom[slot], propertyNameByRoom[slot]);
+            }
+            insert.executeBatch();
+        }
+
+        likeSearch = connection.prepareStatement(LIKE_SEARCH);
+        fetchByIds = connection.prepareStatement(FETCH_BY_IDS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        likeSearch.close();
+        fetchByIds.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public int likeJoinQuery() throws SQLException {
+        String pattern = "%" + keyword.toLowerCase() + "%";
+        likeSearch.setString(1, pattern);
+        likeSearch.setString(2, pattern);
+        return drain(likeSearch);
+    }
+
+    @Benchmark
+    public int indexedSearch() throws SQLException {
+        Set<UUID> matches = index.search(keyword);
+        fetchByIds.setObject(1, matches.toArray(new UUID[0]));
+        return drain(fetchByIds);
+    }
+
+    @Benchmark
+    public int indexLookupOnly() {
+        return index.search(keyword).size();
+    }
+
+    private static int drain(PreparedStatement statement) throws SQLException {
+        int count = 0;
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                rs.getObject(1);
+                count++;
+            }
+        }
+        return count;
+    }
+}
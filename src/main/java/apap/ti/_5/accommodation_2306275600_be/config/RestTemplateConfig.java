@@ -1,13 +1,67 @@
 package apap.ti._5.accommodation_2306275600_be.config;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Outbound HTTP goes through one pooled, keep-alive client with hard timeouts,
+ * so a hung remote service can hold a connection for at most the read timeout.
+ * Reactor Netty is already on the classpath through webflux, so no extra
+ * client library is needed.
+ */
 @Configuration
 public class RestTemplateConfig {
+
+    static final String POOL_NAME = "outbound";
+
+    /**
+     * Pool limits apply per remote host. Pool gauges are published as
+     * reactor.netty.connection.provider.* (active, idle, pending, total).
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider outboundConnectionProvider(
+            @Value("${http.client.max-connections-per-host:50}") int maxConnections,
+            @Value("${http.client.max-pending-acquires:200}") int maxPendingAcquires,
+            @Value("${http.client.pending-acquire-timeout-ms:2000}") long pendingAcquireTimeoutMs,
+            @Value("${http.client.max-idle-seconds:30}") long maxIdleSeconds,
+            @Value("${http.client.max-life-seconds:300}") long maxLifeSeconds) {
+        return ConnectionProvider.builder(POOL_NAME)
+            .maxConnections(maxConnections)
+            .pendingAcquireMaxCount(maxPendingAcquires)
+            .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+            // Drop idle sockets before the remote side or a load balancer silently does
+            .maxIdleTime(Duration.ofSeconds(maxIdleSeconds))
+            .maxLifeTime(Duration.ofSeconds(maxLifeSeconds))
+            .evictInBackground(Duration.ofSeconds(maxIdleSeconds))
+            .metrics(true)
+            .build();
+    }
+
+    /**
+     * Shared by RestTemplate and WebClient, so both draw from the same pool
+     */
+    @Bean
+    public HttpClient outboundHttpClient(
+            ConnectionProvider outboundConnectionProvider,
+            @Value("${http.client.connect-timeout-ms:2000}") int connectTimeoutMs,
+            @Value("${http.client.read-timeout-ms:5000}") long readTimeoutMs) {
+        return HttpClient.create(outboundConnectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+            .keepAlive(true)
+            .responseTimeout(Duration.ofMillis(readTimeoutMs));
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(HttpClient outboundHttpClient) {
+        return new RestTemplate(new ReactorClientHttpRequestFactory(outboundHttpClient));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package apap.ti._5.accommodation_2306275600_be.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.netty.http.client.HttpClient;
+
+@Configuration
+public class WebClientConfig {
+
+    // Same pool and timeouts as the RestTemplate (see RestTemplateConfig)
+    @Bean
+    public WebClient outboundWebClient(HttpClient outboundHttpClient) {
+        return WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(outboundHttpClient))
+            .build();
+    }
+}
@@ -8,8 +8,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import apap.ti._5.accommodation_2306275600_be.model.Customer;
-import apap.ti._5.accommodation_2306275600_be.repository.CustomerRepository;
+import apap.ti._5.accommodation_2306275600_be.model.BalanceLedgerEntry;
+import apap.ti._5.accommodation_2306275600_be.service.BalanceLedgerService;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -17,22 +17,19 @@ import lombok.RequiredArgsConstructor;
 public class ProfileServiceImpl implements ProfileService {
     
     private static final Logger logger = LoggerFactory.getLogger(ProfileServiceImpl.class);
-    private final CustomerRepository customerRepository;
+    private final BalanceLedgerService balanceLedgerService;
 
     @Override
     @Transactional
     public void addBalance(String userId, Long amount) {
         try {
             UUID customerId = UUID.fromString(userId);
-            Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new RuntimeException("Customer not found with ID: " + userId));
-            
-            BigDecimal currentBalance = customer.getSaldo();
             BigDecimal amountToAdd = BigDecimal.valueOf(amount);
-            BigDecimal newBalance = currentBalance.add(amountToAdd);
             
-            customer.setSaldo(newBalance);
-            customerRepository.save(customer);
+            // Append-only credit: concurrent top-ups never wait on each other or on payments
+            BigDecimal newBalance = balanceLedgerService.credit(
+                customerId, amountToAdd, BalanceLedgerEntry.TYPE_TOP_UP, null);
+            BigDecimal currentBalance = newBalance.subtract(amountToAdd);
             
             logger.info("💰 Balance updated successfully:");
             logger.info("   Customer ID: {}", userId);
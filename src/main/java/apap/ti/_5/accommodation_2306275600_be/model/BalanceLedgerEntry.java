@@ -0,0 +1,67 @@
+package apap.ti._5.accommodation_2306275600_be.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One balance movement of a customer. Rows are only ever inserted; the
+ * balance is the latest BalanceSnapshot plus the deltas recorded after it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Entity
+@Table(name = "balance_ledger", indexes = {
+    @Index(name = "idx_balance_ledger_customer_entry", columnList = "customer_id, entry_id")
+})
+public class BalanceLedgerEntry {
+
+    public static final String TYPE_OPENING = "OPENING";
+    public static final String TYPE_TOP_UP = "TOP_UP";
+    public static final String TYPE_BILL_PAYMENT = "BILL_PAYMENT";
+
+    // Increasing id gives the order of entries per customer
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "entry_id", nullable = false)
+    private Long entryId;
+
+    @Column(name = "customer_id", nullable = false, columnDefinition = "uuid")
+    private UUID customerId;
+
+    // Positive for credits, negative for debits
+    @Column(name = "delta", nullable = false, precision = 15, scale = 2)
+    private BigDecimal delta;
+
+    @Column(name = "entry_type", nullable = false, length = 30)
+    private String entryType;
+
+    // Bill ID, top-up transaction ID, ...
+    @Column(name = "reference_id")
+    private String referenceId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
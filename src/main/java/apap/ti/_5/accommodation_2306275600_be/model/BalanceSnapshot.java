@@ -0,0 +1,50 @@
+package apap.ti._5.accommodation_2306275600_be.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Balance of a customer after every ledger entry up to lastEntryId. Written
+ * by the compaction job; older snapshots are kept for point-in-time queries.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Entity
+@Table(name = "balance_snapshot", indexes = {
+    @Index(name = "idx_balance_snapshot_customer_entry", columnList = "customer_id, last_entry_id")
+})
+public class BalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "snapshot_id", nullable = false)
+    private Long snapshotId;
+
+    @Column(name = "customer_id", nullable = false, columnDefinition = "uuid")
+    private UUID customerId;
+
+    // 0 for an opening snapshot taken before any ledger entry
+    @Column(name = "last_entry_id", nullable = false)
+    private long lastEntryId;
+
+    @Column(name = "balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal balance;
+
+    @Column(name = "snapshot_at", nullable = false)
+    private LocalDateTime snapshotAt;
+}
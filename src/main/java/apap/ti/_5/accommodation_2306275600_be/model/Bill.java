@@ -14,7 +14,14 @@ import java.util.UUID;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "bill")
+@Table(name = "bill", indexes = {
+    // Admin and customer listings filter by customer and status, newest first
+    @Index(name = "idx_bill_customer_status_created", columnList = "customer_id, status, created_at"),
+    @Index(name = "idx_bill_service_status", columnList = "service_name, status")
+}, uniqueConstraints = {
+    // One bill per originating booking or top-up; a repeated create returns it instead
+    @UniqueConstraint(name = "uk_bill_service_reference", columnNames = {"service_name", "service_reference_id"})
+})
 public class Bill {
 
     @Id
@@ -7,6 +7,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
@@ -23,7 +24,17 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "booking")
+@Table(name = "booking", indexes = {
+    // Overlap checks always filter on room first, then the stay dates
+    @Index(name = "idx_booking_room_dates", columnList = "room_id, check_in_date, check_out_date"),
+    // Statistics filter on a status and a check-out range
+    @Index(name = "idx_booking_status_checkout", columnList = "status, check_out_date"),
+    // Keyset pages of the booking list, with and without a status filter
+    @Index(name = "idx_booking_status_created", columnList = "status, created_date, booking_id"),
+    @Index(name = "idx_booking_created", columnList = "created_date, booking_id"),
+    // Search index sync reads the rows changed since its last run
+    @Index(name = "idx_booking_updated", columnList = "updated_date")
+})
 public class Booking {
 
     @Id
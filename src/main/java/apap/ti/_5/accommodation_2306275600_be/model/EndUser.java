@@ -14,7 +14,12 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "enduser")
+@Table(name = "enduser", indexes = {
+    @Index(name = "idx_enduser_gender_created", columnList = "gender, created_at, id"),
+    @Index(name = "idx_enduser_created", columnList = "created_at, id"),
+    // Customer search index sync reads the users changed since its last run
+    @Index(name = "idx_enduser_updated", columnList = "updated_at")
+})
 @Inheritance(strategy = InheritanceType.JOINED)
 @Data
 @NoArgsConstructor
@@ -0,0 +1,85 @@
+package apap.ti._5.accommodation_2306275600_be.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A call to another service, written in the same transaction as the change
+ * that caused it and delivered afterwards by the outbox dispatcher.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Entity
+@Table(name = "outbox_message", indexes = {
+    @Index(name = "idx_outbox_status_next_attempt", columnList = "status, next_attempt_at, message_id")
+})
+public class OutboxMessage {
+
+    public static final String TYPE_BILL_CREATE = "BILL_CREATE";
+
+    public static final int STATUS_PENDING = 0;
+    public static final int STATUS_SENT = 1;
+    public static final int STATUS_DEAD = 2;
+
+    // Increasing id keeps delivery roughly in commit order
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "message_id", nullable = false)
+    private Long messageId;
+
+    @Column(name = "message_type", nullable = false, length = 50)
+    private String messageType;
+
+    // Booking ID, top-up transaction ID, ...
+    @Column(name = "reference_id")
+    private String referenceId;
+
+    // JSON body of the call
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    // 0 = Pending, 1 = Sent, 2 = Dead (gave up, needs a look)
+    @Builder.Default
+    @Column(name = "status", nullable = false)
+    private Integer status = STATUS_PENDING;
+
+    @Builder.Default
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
@@ -10,6 +10,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -27,7 +28,13 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "property")
+@Table(name = "property", indexes = {
+    // Listings are active properties, newest first, optionally narrowed by type/province/owner
+    @Index(name = "idx_property_active_created", columnList = "active_status, created_date, property_id"),
+    @Index(name = "idx_property_owner_active_created", columnList = "owner_id, active_status, created_date"),
+    // Search index sync reads the rows changed since its last run
+    @Index(name = "idx_property_updated", columnList = "updated_date")
+})
 public class Property {
 
     @Id
@@ -0,0 +1,63 @@
+package apap.ti._5.accommodation_2306275600_be.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rollup of completed (status 4) bookings per property per check-out month.
+ * Feeds the booking chart without touching the booking table.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Entity
+@IdClass(PropertyMonthlyRevenue.PropertyMonthlyRevenueId.class)
+@Table(name = "property_monthly_revenue")
+public class PropertyMonthlyRevenue {
+
+    @Id
+    @Column(name = "property_id", nullable = false, columnDefinition = "uuid")
+    private UUID propertyID;
+
+    // year * 12 + (month - 1), same encoding as RoomCalendarMonth
+    @Id
+    @Column(name = "month_key", nullable = false)
+    private int monthKey;
+
+    @Column(name = "total_bookings", nullable = false)
+    private int totalBookings;
+
+    @Column(name = "total_revenue", nullable = false)
+    private long totalRevenue;
+
+    @Column(name = "updated_date", nullable = false)
+    private LocalDateTime updatedDate;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedDate = LocalDateTime.now();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PropertyMonthlyRevenueId implements Serializable {
+        private UUID propertyID;
+        private int monthKey;
+    }
+}
@@ -0,0 +1,82 @@
+package apap.ti._5.accommodation_2306275600_be.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Room inventory calendar: one row per room per month.
+ * Bit (day - 1) of each mask is set when a booking or maintenance window
+ * touches that day of the month at any time, so a month fits in a single long.
+ * Days are coarser than the check-in/check-out times: a clear bit proves the
+ * room free, a set bit only means the datetime overlap has to be checked.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Entity
+@IdClass(RoomCalendarMonth.RoomCalendarMonthId.class)
+@Table(name = "room_calendar_month", indexes = {
+    @Index(name = "idx_room_calendar_property_month", columnList = "property_id, month_key")
+})
+public class RoomCalendarMonth {
+
+    @Id
+    @Column(name = "room_id", nullable = false, columnDefinition = "uuid")
+    private UUID roomID;
+
+    // year * 12 + (month - 1)
+    @Id
+    @Column(name = "month_key", nullable = false)
+    private int monthKey;
+
+    @Column(name = "property_id", nullable = false, columnDefinition = "uuid")
+    private UUID propertyID;
+
+    // Column names kept from the first schema so ddl-auto update reuses the existing columns
+    @Column(name = "booked_nights", nullable = false)
+    private long bookedDays;
+
+    @Column(name = "maintenance_nights", nullable = false)
+    private long maintenanceDays;
+
+    @Column(name = "updated_date", nullable = false)
+    private LocalDateTime updatedDate;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedDate = LocalDateTime.now();
+    }
+
+    public static int monthKeyOf(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    public static LocalDate firstDayOf(int monthKey) {
+        return LocalDate.of(monthKey / 12, monthKey % 12 + 1, 1);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RoomCalendarMonthId implements Serializable {
+        private UUID roomID;
+        private int monthKey;
+    }
+}
@@ -0,0 +1,38 @@
+package apap.ti._5.accommodation_2306275600_be.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row per scheduled job. The node named in holder may run the job until
+ * expiresAt; after that any node can take the lease over.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Entity
+@Table(name = "scheduler_lease")
+public class SchedulerLease {
+
+    @Id
+    @Column(name = "lease_name", nullable = false, length = 100)
+    private String leaseName;
+
+    @Column(name = "holder", nullable = false)
+    private String holder;
+
+    @Column(name = "acquired_at", nullable = false)
+    private LocalDateTime acquiredAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,68 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import apap.ti._5.accommodation_2306275600_be.model.BalanceLedgerEntry;
+
+@Repository
+public interface BalanceLedgerRepository extends JpaRepository<BalanceLedgerEntry, Long> {
+
+    @Query("SELECT COALESCE(SUM(l.delta), 0) FROM BalanceLedgerEntry l " +
+           "WHERE l.customerId = :customerId AND l.entryId > :afterEntryId")
+    BigDecimal sumDeltasAfter(@Param("customerId") UUID customerId, @Param("afterEntryId") long afterEntryId);
+
+    @Query("SELECT COALESCE(SUM(l.delta), 0) FROM BalanceLedgerEntry l " +
+           "WHERE l.customerId = :customerId AND l.entryId > :afterEntryId AND l.entryId <= :upToEntryId")
+    BigDecimal sumDeltasBetween(@Param("customerId") UUID customerId,
+                                @Param("afterEntryId") long afterEntryId,
+                                @Param("upToEntryId") long upToEntryId);
+
+    @Query("SELECT COALESCE(SUM(l.delta), 0) FROM BalanceLedgerEntry l " +
+           "WHERE l.customerId = :customerId AND l.entryId > :afterEntryId AND l.createdAt <= :at")
+    BigDecimal sumDeltasAfterUpToTime(@Param("customerId") UUID customerId,
+                                      @Param("afterEntryId") long afterEntryId,
+                                      @Param("at") LocalDateTime at);
+
+    /**
+     * Sum of the entries not yet folded into each customer's latest snapshot.
+     * Customers without such entries are absent from the result.
+     */
+    @Query("SELECT l.customerId AS customerId, SUM(l.delta) AS delta FROM BalanceLedgerEntry l " +
+           "WHERE l.customerId IN :customerIds " +
+           "AND l.entryId > COALESCE((SELECT MAX(s.lastEntryId) FROM BalanceSnapshot s WHERE s.customerId = l.customerId), 0) " +
+           "GROUP BY l.customerId")
+    List<CustomerDeltaView> sumUnsnapshottedDeltas(@Param("customerIds") Collection<UUID> customerIds);
+
+    @Query("SELECT MAX(l.entryId) FROM BalanceLedgerEntry l WHERE l.customerId = :customerId AND l.createdAt < :cutoff")
+    Long findMaxEntryIdCreatedBefore(@Param("customerId") UUID customerId, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Customers with at least minEntries entries older than the cutoff that
+     * are not covered by a snapshot yet, busiest first.
+     */
+    @Query("SELECT l.customerId FROM BalanceLedgerEntry l " +
+           "WHERE l.createdAt < :cutoff " +
+           "AND l.entryId > COALESCE((SELECT MAX(s.lastEntryId) FROM BalanceSnapshot s WHERE s.customerId = l.customerId), 0) " +
+           "GROUP BY l.customerId HAVING COUNT(l) >= :minEntries " +
+           "ORDER BY COUNT(l) DESC")
+    List<UUID> findCustomersToCompact(@Param("cutoff") LocalDateTime cutoff,
+                                      @Param("minEntries") long minEntries,
+                                      Pageable pageable);
+
+    boolean existsByCustomerId(UUID customerId);
+
+    interface CustomerDeltaView {
+        UUID getCustomerId();
+        BigDecimal getDelta();
+    }
+}
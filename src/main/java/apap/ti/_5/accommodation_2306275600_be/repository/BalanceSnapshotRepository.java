@@ -0,0 +1,42 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import apap.ti._5.accommodation_2306275600_be.model.BalanceSnapshot;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    Optional<BalanceSnapshot> findFirstByCustomerIdOrderByLastEntryIdDesc(UUID customerId);
+
+    Optional<BalanceSnapshot> findFirstByCustomerIdAndSnapshotAtLessThanEqualOrderByLastEntryIdDesc(
+        UUID customerId, LocalDateTime at);
+
+    @Query("SELECT s FROM BalanceSnapshot s WHERE s.customerId IN :customerIds " +
+           "AND s.lastEntryId = (SELECT MAX(s2.lastEntryId) FROM BalanceSnapshot s2 WHERE s2.customerId = s.customerId)")
+    List<BalanceSnapshot> findLatestByCustomerIds(@Param("customerIds") Collection<UUID> customerIds);
+
+    /**
+     * Customers that predate the ledger: no snapshot and no ledger entry yet,
+     * so their stored saldo is the opening balance.
+     */
+    @Query("SELECT c.id AS customerId, c.saldo AS saldo FROM Customer c " +
+           "WHERE NOT EXISTS (SELECT 1 FROM BalanceSnapshot s WHERE s.customerId = c.id) " +
+           "AND NOT EXISTS (SELECT 1 FROM BalanceLedgerEntry l WHERE l.customerId = c.id)")
+    List<OpeningBalanceView> findCustomersWithoutBalanceHistory();
+
+    interface OpeningBalanceView {
+        UUID getCustomerId();
+        BigDecimal getSaldo();
+    }
+}
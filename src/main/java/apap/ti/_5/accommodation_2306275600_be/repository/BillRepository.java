@@ -1,58 +1,53 @@
 package apap.ti._5.accommodation_2306275600_be.repository;
 
 import apap.ti._5.accommodation_2306275600_be.model.Bill;
-import apap.ti._5.accommodation_2306275600_be.model.Customer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface BillRepository extends JpaRepository<Bill, UUID> {
+public interface BillRepository extends JpaRepository<Bill, UUID>, JpaSpecificationExecutor<Bill> {
+
+    // Customer is always rendered in the list, so load it with the page instead of one query per row
+    @Override
+    @EntityGraph(attributePaths = "customer")
+    Page<Bill> findAll(Specification<Bill> spec, Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "customer")
+    List<Bill> findAll(Specification<Bill> spec, Sort sort);
 
     @Query("SELECT b FROM Bill b WHERE b.deletedAt IS NULL")
     List<Bill> findAllNotDeleted();
 
+    Optional<Bill> findByServiceNameAndServiceReferenceId(String serviceName, String serviceReferenceId);
+
     @Query("SELECT b FROM Bill b WHERE b.billId = :billId AND b.deletedAt IS NULL")
     Optional<Bill> findByIdNotDeleted(@Param("billId") UUID billId);
 
-    @Query("SELECT b FROM Bill b WHERE b.customer = :customer AND b.deletedAt IS NULL")
-    List<Bill> findByCustomerNotDeleted(@Param("customer") Customer customer);
-
-    @Query("SELECT b FROM Bill b WHERE b.customer = :customer AND b.status = :status AND b.deletedAt IS NULL")
-    List<Bill> findByCustomerAndStatusNotDeleted(@Param("customer") Customer customer, @Param("status") int status);
-
-    @Query("SELECT b FROM Bill b WHERE b.serviceName = :serviceName AND b.deletedAt IS NULL")
-    List<Bill> findByServiceNameNotDeleted(@Param("serviceName") String serviceName);
-
-    @Query("SELECT b FROM Bill b WHERE b.serviceName = :serviceName AND b.status = :status AND b.deletedAt IS NULL")
-    List<Bill> findByServiceNameAndStatusNotDeleted(@Param("serviceName") String serviceName, @Param("status") int status);
-
-    @Query("SELECT b FROM Bill b WHERE b.serviceName = :serviceName AND b.customer.id = :customerId AND b.deletedAt IS NULL")
-    List<Bill> findByServiceNameAndCustomerIdNotDeleted(@Param("serviceName") String serviceName, @Param("customerId") UUID customerId);
-
-    @Query("SELECT b FROM Bill b WHERE b.status = :status AND b.deletedAt IS NULL")
-    List<Bill> findByStatusNotDeleted(@Param("status") int status);
-
-    @Query("SELECT b FROM Bill b WHERE b.customer = :customer AND b.deletedAt IS NULL ORDER BY b.createdAt ASC")
-    List<Bill> findByCustomerOrderByCreatedAtAsc(@Param("customer") Customer customer);
-
-    @Query("SELECT b FROM Bill b WHERE b.customer = :customer AND b.deletedAt IS NULL ORDER BY b.createdAt DESC")
-    List<Bill> findByCustomerOrderByCreatedAtDesc(@Param("customer") Customer customer);
-
-    @Query("SELECT b FROM Bill b WHERE b.customer = :customer AND b.deletedAt IS NULL ORDER BY b.serviceName ASC")
-    List<Bill> findByCustomerOrderByServiceNameAsc(@Param("customer") Customer customer);
-
-    @Query("SELECT b FROM Bill b WHERE b.customer = :customer AND b.deletedAt IS NULL ORDER BY b.serviceName DESC")
-    List<Bill> findByCustomerOrderByServiceNameDesc(@Param("customer") Customer customer);
-
-    @Query("SELECT b FROM Bill b WHERE b.customer = :customer AND b.status = :status AND b.deletedAt IS NULL ORDER BY b.createdAt ASC")
-    List<Bill> findByCustomerAndStatusOrderByCreatedAtAsc(@Param("customer") Customer customer, @Param("status") int status);
-
-    @Query("SELECT b FROM Bill b WHERE b.customer = :customer AND b.status = :status AND b.deletedAt IS NULL ORDER BY b.createdAt DESC")
-    List<Bill> findByCustomerAndStatusOrderByCreatedAtDesc(@Param("customer") Customer customer, @Param("status") int status);
+    /**
+     * Unpaid -> Paid as a conditional update, so only one of several concurrent
+     * payments of the same bill can win.
+     *
+     * @return 1 when this call marked the bill paid, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Bill b SET b.status = 1, b.paymentTimestamp = :now, b.updatedAt = :now " +
+           "WHERE b.billId = :billId AND b.status = 0 AND b.deletedAt IS NULL")
+    int markPaid(@Param("billId") UUID billId, @Param("now") LocalDateTime now);
+
+    // Customer/service/status filters and keyset paging are composed with BillSpecifications
 }
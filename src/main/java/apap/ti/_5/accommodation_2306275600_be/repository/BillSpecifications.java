@@ -0,0 +1,60 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import apap.ti._5.accommodation_2306275600_be.model.Bill;
+
+/**
+ * Composable filters for Bill. Each factory returns null when its argument is
+ * absent, which Specification.where/and simply skip.
+ */
+public final class BillSpecifications {
+
+    // Keyset order; the id makes it total so pages never overlap
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "billId");
+
+    private BillSpecifications() {
+    }
+
+    public static Specification<Bill> notDeleted() {
+        return (root, query, cb) -> cb.isNull(root.get("deletedAt"));
+    }
+
+    public static Specification<Bill> hasCustomer(UUID customerId) {
+        if (customerId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("customer").get("id"), customerId);
+    }
+
+    // Exact match on the stored value so idx_bill_service_status stays usable
+    public static Specification<Bill> hasServiceName(String serviceName) {
+        if (serviceName == null || serviceName.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("serviceName"), serviceName);
+    }
+
+    public static Specification<Bill> hasStatus(Integer status) {
+        if (status == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    // Rows strictly after the cursor in NEWEST_FIRST order
+    public static Specification<Bill> after(KeysetCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+            cb.lessThan(root.<LocalDateTime>get("createdAt"), cursor.createdAt()),
+            cb.and(
+                cb.equal(root.get("createdAt"), cursor.createdAt()),
+                cb.lessThan(root.<UUID>get("billId"), cursor.id())));
+    }
+}
@@ -1,12 +1,16 @@
 package apap.ti._5.accommodation_2306275600_be.repository;
 
 import apap.ti._5.accommodation_2306275600_be.model.Booking;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,32 +27,174 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
         @Param("checkOut") LocalDateTime checkOut
     );
     
+    // Existence-only variant of findConflictingBookings; run while holding RoomRepository.lockForBooking
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.room.roomID = :roomID " +
+           "AND b.status NOT IN (3, 4) " +
+           "AND ((b.checkInDate <= :checkOut AND b.checkOutDate >= :checkIn))")
+    boolean existsConflictingBookings(
+        @Param("roomID") UUID roomID,
+        @Param("checkIn") LocalDateTime checkIn,
+        @Param("checkOut") LocalDateTime checkOut
+    );
+    
+    // Same as above but ignores the booking being updated
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.room.roomID = :roomID " +
+           "AND b.bookingID <> :excludeBookingID " +
+           "AND b.status NOT IN (3, 4) " +
+           "AND ((b.checkInDate <= :checkOut AND b.checkOutDate >= :checkIn))")
+    boolean existsConflictingBookingsExcluding(
+        @Param("roomID") UUID roomID,
+        @Param("checkIn") LocalDateTime checkIn,
+        @Param("checkOut") LocalDateTime checkOut,
+        @Param("excludeBookingID") UUID excludeBookingID
+    );
+    
+    /**
+     * Load only the interval columns of bookings that still block a room
+     * Used to backfill the room calendar at startup
+     */
+    @Query("SELECT b.bookingID AS bookingID, b.room.roomID AS roomID, " +
+           "b.checkInDate AS checkInDate, b.checkOutDate AS checkOutDate " +
+           "FROM Booking b WHERE b.status NOT IN (3, 4)")
+    List<BookingIntervalView> findActiveBookingIntervals();
+    
+    /**
+     * Interval columns of blocking bookings for one room that overlap a period
+     * Used to recompute the booked days of the room calendar
+     */
+    @Query("SELECT b.bookingID AS bookingID, b.room.roomID AS roomID, " +
+           "b.checkInDate AS checkInDate, b.checkOutDate AS checkOutDate " +
+           "FROM Booking b WHERE b.room.roomID = :roomID " +
+           "AND b.status NOT IN (3, 4) " +
+           "AND b.checkInDate < :endDate AND b.checkOutDate > :startDate")
+    List<BookingIntervalView> findActiveBookingIntervalsByRoomAndPeriod(
+        @Param("roomID") UUID roomID,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
+    );
+    
+    interface BookingIntervalView {
+        UUID getBookingID();
+        UUID getRoomID();
+        LocalDateTime getCheckInDate();
+        LocalDateTime getCheckOutDate();
+    }
+    
+    /*
+     * Booking list page queries
+     * Return only the BookingListItemDTO columns with explicit joins, so one page
+     * is one SQL statement instead of lazy room -> roomType -> property loads per row
+     */
+    String BOOKING_LIST_ITEM_SELECT =
+        "SELECT b.bookingID AS bookingID, p.propertyName AS propertyName, r.name AS roomNumber, " +
+        "b.checkInDate AS checkInDate, b.checkOutDate AS checkOutDate, " +
+        "b.totalPrice AS totalPrice, b.status AS status, b.createdDate AS createdDate " +
+        "FROM Booking b JOIN b.room r JOIN r.roomType rt JOIN rt.property p ";
+    
     // Find all bookings ordered by booking ID
-    @Query("SELECT b FROM Booking b ORDER BY b.bookingID DESC")
-    List<Booking> findAllOrderedByBookingID();
+    @Query(BOOKING_LIST_ITEM_SELECT + "ORDER BY b.bookingID DESC")
+    List<BookingListItemView> findListItemsOrderedByBookingID();
     
     // Find bookings by status
-    @Query("SELECT b FROM Booking b WHERE b.status = :status ORDER BY b.bookingID DESC")
-    List<Booking> findByStatusOrderedByBookingID(@Param("status") int status);
+    @Query(BOOKING_LIST_ITEM_SELECT + "WHERE b.status = :status ORDER BY b.bookingID DESC")
+    List<BookingListItemView> findListItemsByStatusOrderedByBookingID(@Param("status") int status);
     
     // Search bookings by property name or room number
-    @Query("SELECT b FROM Booking b WHERE " +
-           "LOWER(b.room.roomType.property.propertyName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(CAST(b.room.roomID AS string)) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+    @Query(BOOKING_LIST_ITEM_SELECT + "WHERE " +
+           "LOWER(p.propertyName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+           "LOWER(CAST(r.roomID AS string)) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
            "ORDER BY b.bookingID DESC")
-    List<Booking> searchByPropertyOrRoom(@Param("keyword") String keyword);
+    List<BookingListItemView> searchListItemsByPropertyOrRoom(@Param("keyword") String keyword);
     
-    // Perbaiki juga query ini
-    @Query("SELECT b FROM Booking b WHERE " +
-           "(LOWER(b.room.roomType.property.propertyName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(CAST(b.room.roomID AS string)) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+    @Query(BOOKING_LIST_ITEM_SELECT + "WHERE " +
+           "(LOWER(p.propertyName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+           "LOWER(CAST(r.roomID AS string)) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
            "AND b.status = :status " +
            "ORDER BY b.bookingID DESC")
-    List<Booking> searchByPropertyOrRoomAndStatus(
+    List<BookingListItemView> searchListItemsByPropertyOrRoomAndStatus(
         @Param("keyword") String keyword,
         @Param("status") int status
     );
     
+    /*
+     * Keyset pages of the booking list, newest first
+     * (created_date, booking_id) is a total order, so a page continues strictly
+     * after the last row of the previous one; pass PageRequest.of(0, size) as the limit
+     */
+    @Query(BOOKING_LIST_ITEM_SELECT + "ORDER BY b.createdDate DESC, b.bookingID DESC")
+    List<BookingListItemView> findListItemsPage(Pageable limit);
+    
+    @Query(BOOKING_LIST_ITEM_SELECT + "WHERE b.createdDate < :createdDate " +
+           "OR (b.createdDate = :createdDate AND b.bookingID < :bookingID) " +
+           "ORDER BY b.createdDate DESC, b.bookingID DESC")
+    List<BookingListItemView> findListItemsPageAfter(
+        @Param("createdDate") LocalDateTime createdDate,
+        @Param("bookingID") UUID bookingID,
+        Pageable limit
+    );
+    
+    @Query(BOOKING_LIST_ITEM_SELECT + "WHERE b.status = :status " +
+           "ORDER BY b.createdDate DESC, b.bookingID DESC")
+    List<BookingListItemView> findListItemsPageByStatus(@Param("status") int status, Pageable limit);
+    
+    @Query(BOOKING_LIST_ITEM_SELECT + "WHERE b.status = :status " +
+           "AND (b.createdDate < :createdDate " +
+           "OR (b.createdDate = :createdDate AND b.bookingID < :bookingID)) " +
+           "ORDER BY b.createdDate DESC, b.bookingID DESC")
+    List<BookingListItemView> findListItemsPageByStatusAfter(
+        @Param("status") int status,
+        @Param("createdDate") LocalDateTime createdDate,
+        @Param("bookingID") UUID bookingID,
+        Pageable limit
+    );
+    
+    // List items for bookings matched by the in-memory search index
+    @Query(BOOKING_LIST_ITEM_SELECT + "WHERE b.bookingID IN :bookingIDs")
+    List<BookingListItemView> findListItemsByBookingIDs(@Param("bookingIDs") Collection<UUID> bookingIDs);
+    
+    @Query(BOOKING_LIST_ITEM_SELECT + "WHERE b.bookingID IN :bookingIDs AND b.status = :status")
+    List<BookingListItemView> findListItemsByBookingIDsAndStatus(
+        @Param("bookingIDs") Collection<UUID> bookingIDs,
+        @Param("status") int status
+    );
+    
+    /**
+     * Search keys of every booking: its room and the property name
+     * Used to warm the in-memory booking search index at startup
+     */
+    @Query("SELECT b.bookingID AS bookingID, r.roomID AS roomID, " +
+           "p.propertyID AS propertyID, p.propertyName AS propertyName " +
+           "FROM Booking b JOIN b.room r JOIN r.roomType rt JOIN rt.property p")
+    List<BookingSearchKeyView> findBookingSearchKeys();
+    
+    /**
+     * Search keys of bookings created or changed since the given time
+     * Used to pull changes made on other nodes into the booking search index
+     */
+    @Query("SELECT b.bookingID AS bookingID, r.roomID AS roomID, " +
+           "p.propertyID AS propertyID, p.propertyName AS propertyName " +
+           "FROM Booking b JOIN b.room r JOIN r.roomType rt JOIN rt.property p " +
+           "WHERE b.updatedDate >= :since")
+    List<BookingSearchKeyView> findBookingSearchKeysUpdatedSince(@Param("since") LocalDateTime since);
+    
+    interface BookingSearchKeyView {
+        UUID getBookingID();
+        UUID getRoomID();
+        UUID getPropertyID();
+        String getPropertyName();
+    }
+    
+    interface BookingListItemView {
+        UUID getBookingID();
+        String getPropertyName();
+        String getRoomNumber();
+        LocalDateTime getCheckInDate();
+        LocalDateTime getCheckOutDate();
+        int getTotalPrice();
+        int getStatus();
+        LocalDateTime getCreatedDate();
+    }
+    
     // Find bookings that need status update (auto check-in)
     @Query("SELECT b FROM Booking b WHERE b.status = 1 " +
            "AND b.checkInDate <= :currentDate")
@@ -66,34 +212,140 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
     
     List<Booking> findByRoom_RoomID(UUID roomID);
 
+    /**
+     * Lock the next chunk of booking IDs in a status whose check-in is before the cutoff
+     * Used by the lifecycle job, which updates the chunk with updateStatusForBookings.
+     * Rows locked by another transaction are skipped, so two runs never move the same booking.
+     */
+    @Query(value = "SELECT booking_id FROM booking WHERE status = :status AND check_in_date < :cutoff " +
+                   "ORDER BY check_in_date LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<UUID> lockBookingIDsByStatusAndCheckInBefore(
+        @Param("status") int status,
+        @Param("cutoff") LocalDateTime cutoff,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Lock the next chunk of booking IDs in a status whose check-out is at or before the cutoff
+     */
+    @Query(value = "SELECT booking_id FROM booking WHERE status = :status AND check_out_date <= :cutoff " +
+                   "ORDER BY check_out_date LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<UUID> lockBookingIDsByStatusAndCheckOutBefore(
+        @Param("status") int status,
+        @Param("cutoff") LocalDateTime cutoff,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Move a set of bookings from one status to another in a single statement
+     * The status guard skips rows another request changed in the meantime
+     *
+     * @return number of bookings actually moved
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :toStatus, b.updatedDate = :now " +
+           "WHERE b.bookingID IN :bookingIDs AND b.status = :fromStatus")
+    int updateStatusForBookings(
+        @Param("bookingIDs") Collection<UUID> bookingIDs,
+        @Param("fromStatus") int fromStatus,
+        @Param("toStatus") int toStatus,
+        @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Find all bookings with status DONE (4) checked out in [start, end)
+     * Plain range on check_out_date so idx_booking_status_checkout can be used
+     */
+    @Query("SELECT b FROM Booking b " +
+       "WHERE b.status = 4 " +  // Only Completed/Done bookings
+       "AND b.checkOutDate >= :start " +
+       "AND b.checkOutDate < :end")
+    List<Booking> findDoneBookingsByCheckOutBetween(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+
     /**
      * Find all bookings with status DONE (4) for a specific month and year
      * Used for statistics/chart
      * Only includes completed bookings (status = 4)
      */
-    @Query("SELECT b FROM Booking b " +
-       "WHERE b.status = 4 " +  // Only Completed/Done bookings
-       "AND MONTH(b.checkOutDate) = :month " +
-       "AND YEAR(b.checkOutDate) = :year")
-    List<Booking> findDoneBookingsByMonthAndYear(
-        @Param("month") int month, 
-        @Param("year") int year
+    default List<Booking> findDoneBookingsByMonthAndYear(int month, int year) {
+        LocalDateTime start = LocalDate.of(year, month, 1).atStartOfDay();
+        return findDoneBookingsByCheckOutBetween(start, start.plusMonths(1));
+    }
+
+    /**
+     * Done revenue per property for check-outs in [start, end), highest revenue first
+     * Used by the statistics endpoint when the range does not line up with whole months
+     */
+    @Query("SELECT p.propertyID AS propertyID, p.propertyName AS propertyName, p.type AS propertyType, " +
+           "COUNT(b) AS totalBookings, SUM(b.totalPrice) AS totalRevenue " +
+           "FROM Booking b JOIN b.room r JOIN r.roomType rt JOIN rt.property p " +
+           "WHERE b.status = 4 " +
+           "AND b.checkOutDate >= :start " +
+           "AND b.checkOutDate < :end " +
+           "GROUP BY p.propertyID, p.propertyName, p.type " +
+           "ORDER BY SUM(b.totalPrice) DESC")
+    List<PropertyRevenueView> aggregateDoneRevenueByPropertyBetween(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
     );
     
     /**
-     * Count done bookings by property for a specific period
+     * Completed (status 4) revenue grouped by property and check-out month
+     * Used to backfill the property_monthly_revenue rollup
+     */
+    @Query("SELECT b.room.roomType.property.propertyID AS propertyID, " +
+           "YEAR(b.checkOutDate) AS periodYear, MONTH(b.checkOutDate) AS periodMonth, " +
+           "COUNT(b) AS totalBookings, SUM(b.totalPrice) AS totalRevenue " +
+           "FROM Booking b WHERE b.status = 4 " +
+           "GROUP BY b.room.roomType.property.propertyID, YEAR(b.checkOutDate), MONTH(b.checkOutDate)")
+    List<MonthlyRevenueAggregate> aggregateDoneRevenueByPropertyAndMonth();
+
+    /**
+     * Same aggregate restricted to the given bookings, used when a chunk moves to status 4
+     */
+    @Query("SELECT b.room.roomType.property.propertyID AS propertyID, " +
+           "YEAR(b.checkOutDate) AS periodYear, MONTH(b.checkOutDate) AS periodMonth, " +
+           "COUNT(b) AS totalBookings, SUM(b.totalPrice) AS totalRevenue " +
+           "FROM Booking b WHERE b.status = 4 AND b.bookingID IN :bookingIDs " +
+           "GROUP BY b.room.roomType.property.propertyID, YEAR(b.checkOutDate), MONTH(b.checkOutDate)")
+    List<MonthlyRevenueAggregate> aggregateDoneRevenueByPropertyAndMonthForBookings(
+        @Param("bookingIDs") Collection<UUID> bookingIDs
+    );
+    
+    interface MonthlyRevenueAggregate {
+        UUID getPropertyID();
+        Integer getPeriodYear();
+        Integer getPeriodMonth();
+        Long getTotalBookings();
+        Long getTotalRevenue();
+    }
+    
+    /**
+     * Count done bookings by property checked out in [start, end)
      * Only includes completed bookings (status = 4)
      */
     @Query("SELECT COUNT(b) FROM Booking b " +
        "WHERE b.status = 4 " +  // Only Completed/Done bookings
        "AND b.room.roomType.property.propertyID = :propertyID " +
-       "AND MONTH(b.checkOutDate) = :month " +
-       "AND YEAR(b.checkOutDate) = :year")
-    long countDoneBookingsByPropertyAndPeriod(
-        @Param("propertyID") String propertyID,
-        @Param("month") int month,
-        @Param("year") int year
+       "AND b.checkOutDate >= :start " +
+       "AND b.checkOutDate < :end")
+    long countDoneBookingsByPropertyAndCheckOutBetween(
+        @Param("propertyID") UUID propertyID,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
     );
+
+    /**
+     * Count done bookings by property for a specific period
+     * Only includes completed bookings (status = 4)
+     */
+    default long countDoneBookingsByPropertyAndPeriod(String propertyID, int month, int year) {
+        LocalDateTime start = LocalDate.of(year, month, 1).atStartOfDay();
+        return countDoneBookingsByPropertyAndCheckOutBetween(UUID.fromString(propertyID), start, start.plusMonths(1));
+    }
     
     /**
      * Check if property has any active bookings (not cancelled or completed)
@@ -131,4 +383,18 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
         @Param("startDate") LocalDateTime startDate,
         @Param("endDate") LocalDateTime endDate
     );
+    
+    /**
+     * Same overlap rule as findBookedRoomIDsByPropertyAndPeriod, limited to the given rooms
+     * Used to confirm the candidates of the room calendar
+     */
+    @Query("SELECT DISTINCT b.room.roomID FROM Booking b " +
+           "WHERE b.room.roomID IN :roomIDs " +
+           "AND b.status NOT IN (3, 4) " + // Exclude cancelled and completed
+           "AND b.checkInDate < :endDate AND b.checkOutDate > :startDate")
+    List<UUID> findBookedRoomIDsAmongRoomsAndPeriod(
+        @Param("roomIDs") Collection<UUID> roomIDs,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
+    );
 }
\ No newline at end of file
@@ -1,12 +1,17 @@
 package apap.ti._5.accommodation_2306275600_be.repository;
 
 import apap.ti._5.accommodation_2306275600_be.model.Customer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -18,8 +23,72 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
            "LOWER(c.username) LIKE LOWER(CONCAT('%', :search, '%'))")
     List<Customer> searchCustomers(@Param("search") String search);
     
+    @Query("SELECT c FROM Customer c WHERE c.gender = :gender AND (" +
+           "LOWER(c.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(c.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(c.username) LIKE LOWER(CONCAT('%', :search, '%')))")
+    List<Customer> searchCustomersByGender(@Param("search") String search, @Param("gender") String gender);
+    
     List<Customer> findByGender(String gender);
     
     @Query("SELECT c FROM Customer c ORDER BY c.createdAt DESC")
     List<Customer> findAllOrderByCreatedAtDesc();
+    
+    @Query("SELECT c FROM Customer c WHERE c.gender = :gender ORDER BY c.createdAt DESC")
+    List<Customer> findByGenderOrderByCreatedAtDesc(@Param("gender") String gender);
+    
+    // Keyset pages for the customer directory, newest first (backed by idx_enduser_created / idx_enduser_gender_created)
+    @Query("SELECT c FROM Customer c ORDER BY c.createdAt DESC, c.id DESC")
+    List<Customer> findPage(Pageable pageable);
+    
+    @Query("SELECT c FROM Customer c WHERE c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Customer> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+    
+    @Query("SELECT c FROM Customer c WHERE c.gender = :gender ORDER BY c.createdAt DESC, c.id DESC")
+    List<Customer> findPageByGender(@Param("gender") String gender, Pageable pageable);
+    
+    @Query("SELECT c FROM Customer c WHERE c.gender = :gender AND " +
+           "(c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Customer> findPageByGenderAfter(@Param("gender") String gender, @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") UUID id, Pageable pageable);
+    
+    /**
+     * Everything the in-memory customer search index needs, without loading the entities
+     */
+    @Query("SELECT c.id AS id, c.createdAt AS createdAt, c.gender AS gender, " +
+           "c.username AS username, c.name AS name, c.email AS email FROM Customer c")
+    List<CustomerSearchKeyView> findCustomerSearchKeys();
+
+    @Query("SELECT c.id AS id, c.createdAt AS createdAt, c.gender AS gender, " +
+           "c.username AS username, c.name AS name, c.email AS email FROM Customer c " +
+           "WHERE c.updatedAt >= :since")
+    List<CustomerSearchKeyView> findCustomerSearchKeysUpdatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Lock the customer row for the rest of the transaction. Debits take it so
+     * two payments cannot both spend the same balance; the row itself is not written.
+     *
+     * @return the customer ID, empty when the customer does not exist
+     */
+    @Query(value = "SELECT enduser_id FROM customer WHERE enduser_id = :customerId FOR UPDATE", nativeQuery = true)
+    Optional<UUID> lockForBalanceChange(@Param("customerId") UUID customerId);
+
+    /**
+     * Copy a snapshot balance into the saldo column, which is kept only as the
+     * balance as of the latest snapshot. The live balance comes from BalanceLedgerService.
+     */
+    @Modifying
+    @Query(value = "UPDATE customer SET saldo = :saldo WHERE enduser_id = :customerId", nativeQuery = true)
+    int updateSnapshotSaldo(@Param("customerId") UUID customerId, @Param("saldo") BigDecimal saldo);
+
+    interface CustomerSearchKeyView {
+        UUID getId();
+        LocalDateTime getCreatedAt();
+        String getGender();
+        String getUsername();
+        String getName();
+        String getEmail();
+    }
 }
@@ -10,7 +10,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface EndUserRepository extends JpaRepository<EndUser, UUID> {
+public interface EndUserRepository extends JpaRepository<EndUser, UUID>, EndUserRepositoryCustom {
     
     Optional<EndUser> findByEmail(String email);
     
@@ -0,0 +1,17 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface EndUserRepositoryCustom {
+    /**
+     * Login lookup by email or username on a short-lived EntityManager of its own.
+     * The request's EntityManager stays open until the response is written
+     * (open-in-view) and would keep its connection that long; this one is closed,
+     * and its connection returned, before the caller checks the password.
+     */
+    Optional<LoginCredentials> findLoginCredentials(String identifier);
+
+    record LoginCredentials(UUID id, String username, String name, String email, String role, String password) {
+    }
+}
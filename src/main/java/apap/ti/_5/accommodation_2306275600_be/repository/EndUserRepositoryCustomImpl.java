@@ -0,0 +1,31 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
+
+public class EndUserRepositoryCustomImpl implements EndUserRepositoryCustom {
+
+    private static final String LOGIN_QUERY =
+        "SELECT u.id, u.username, u.name, u.email, u.role, u.password FROM EndUser u " +
+        "WHERE u.email = :identifier OR u.username = :identifier";
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public Optional<LoginCredentials> findLoginCredentials(String identifier) {
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            return entityManager.createQuery(LOGIN_QUERY, Object[].class)
+                .setParameter("identifier", identifier)
+                .getResultList()
+                .stream()
+                .findFirst()
+                .map(row -> new LoginCredentials((UUID) row[0], (String) row[1], (String) row[2],
+                    (String) row[3], (String) row[4], (String) row[5]));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Position in a list ordered by (created date DESC, id DESC). Handed to clients
+ * as an opaque string; the next page continues strictly after it, so deep pages
+ * cost the same as the first one (no OFFSET scan).
+ */
+public record KeysetCursor(LocalDateTime createdAt, UUID id) {
+
+    /**
+     * The list order itself, for lists paged in memory: newer first, ties by id DESC
+     * compared as unsigned bytes, the way uuid columns sort in SQL.
+     */
+    public static final Comparator<KeysetCursor> LIST_ORDER = Comparator
+        .comparing(KeysetCursor::createdAt, Comparator.reverseOrder())
+        .thenComparing((a, b) -> {
+            int high = Long.compareUnsigned(b.id().getMostSignificantBits(), a.id().getMostSignificantBits());
+            return high != 0 ? high
+                : Long.compareUnsigned(b.id().getLeastSignificantBits(), a.id().getLeastSignificantBits());
+        });
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return null for a null or blank cursor (first page)
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new KeysetCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+}
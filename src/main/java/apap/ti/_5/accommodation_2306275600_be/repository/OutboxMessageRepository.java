@@ -0,0 +1,34 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import apap.ti._5.accommodation_2306275600_be.model.OutboxMessage;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    /**
+     * Pending messages whose next attempt is due, oldest first
+     */
+    @Query("SELECT m FROM OutboxMessage m " +
+           "WHERE m.status = 0 AND m.nextAttemptAt <= :now " +
+           "ORDER BY m.messageId")
+    List<OutboxMessage> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // One statement for every message of a batch that went through
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = 1, m.sentAt = :now, m.attempts = m.attempts + 1, m.lastError = NULL " +
+           "WHERE m.messageId IN :messageIds AND m.status = 0")
+    int markSent(@Param("messageIds") Collection<Long> messageIds, @Param("now") LocalDateTime now);
+
+    long countByStatus(Integer status);
+}
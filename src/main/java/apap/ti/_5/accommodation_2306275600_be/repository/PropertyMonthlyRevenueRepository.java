@@ -0,0 +1,32 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import java.util.List;
+
+import apap.ti._5.accommodation_2306275600_be.model.PropertyMonthlyRevenue;
+import apap.ti._5.accommodation_2306275600_be.model.PropertyMonthlyRevenue.PropertyMonthlyRevenueId;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PropertyMonthlyRevenueRepository
+        extends JpaRepository<PropertyMonthlyRevenue, PropertyMonthlyRevenueId>, PropertyMonthlyRevenueRepositoryCustom {
+
+    /**
+     * Revenue per property for a range of months, summed, with property name and type
+     * One row per property, highest revenue first
+     */
+    @Query("SELECT r.propertyID AS propertyID, p.propertyName AS propertyName, p.type AS propertyType, " +
+           "SUM(r.totalBookings) AS totalBookings, SUM(r.totalRevenue) AS totalRevenue " +
+           "FROM PropertyMonthlyRevenue r, Property p " +
+           "WHERE p.propertyID = r.propertyID " +
+           "AND r.monthKey BETWEEN :fromMonthKey AND :toMonthKey " +
+           "GROUP BY r.propertyID, p.propertyName, p.type " +
+           "ORDER BY SUM(r.totalRevenue) DESC")
+    List<PropertyRevenueView> findRevenueByMonthKeyRange(
+        @Param("fromMonthKey") int fromMonthKey,
+        @Param("toMonthKey") int toMonthKey
+    );
+}
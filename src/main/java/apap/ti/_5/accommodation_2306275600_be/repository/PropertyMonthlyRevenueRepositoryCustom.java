@@ -0,0 +1,13 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface PropertyMonthlyRevenueRepositoryCustom {
+    /**
+     * Add bookings and revenue to a property month in one statement, creating
+     * the row when it does not exist yet. Safe when two transactions add to the
+     * same new month at once: neither sees a primary-key violation.
+     */
+    void addRevenue(UUID propertyID, int monthKey, int bookings, long revenue, LocalDateTime now);
+}
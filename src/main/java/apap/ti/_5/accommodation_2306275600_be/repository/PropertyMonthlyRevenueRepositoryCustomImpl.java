@@ -0,0 +1,59 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+public class PropertyMonthlyRevenueRepositoryCustomImpl implements PropertyMonthlyRevenueRepositoryCustom {
+
+    // Postgres: the conflicting insert waits for the other transaction and then updates
+    private static final String UPSERT_POSTGRES =
+        "INSERT INTO property_monthly_revenue (property_id, month_key, total_bookings, total_revenue, updated_date) " +
+        "VALUES (:propertyID, :monthKey, :bookings, :revenue, :now) " +
+        "ON CONFLICT (property_id, month_key) DO UPDATE SET " +
+        "total_bookings = property_monthly_revenue.total_bookings + EXCLUDED.total_bookings, " +
+        "total_revenue = property_monthly_revenue.total_revenue + EXCLUDED.total_revenue, " +
+        "updated_date = EXCLUDED.updated_date";
+
+    // H2 (tests) has no ON CONFLICT ... DO UPDATE, but runs MERGE atomically
+    private static final String UPSERT_MERGE =
+        "MERGE INTO property_monthly_revenue r " +
+        "USING (SELECT CAST(:propertyID AS UUID) AS property_id, CAST(:monthKey AS INT) AS month_key, " +
+        "CAST(:bookings AS INT) AS total_bookings, CAST(:revenue AS BIGINT) AS total_revenue, " +
+        "CAST(:now AS TIMESTAMP) AS updated_date) v " +
+        "ON r.property_id = v.property_id AND r.month_key = v.month_key " +
+        "WHEN MATCHED THEN UPDATE SET total_bookings = r.total_bookings + v.total_bookings, " +
+        "total_revenue = r.total_revenue + v.total_revenue, updated_date = v.updated_date " +
+        "WHEN NOT MATCHED THEN INSERT (property_id, month_key, total_bookings, total_revenue, updated_date) " +
+        "VALUES (v.property_id, v.month_key, v.total_bookings, v.total_revenue, v.updated_date)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile String upsertSql;
+
+    @Override
+    public void addRevenue(UUID propertyID, int monthKey, int bookings, long revenue, LocalDateTime now) {
+        entityManager.createNativeQuery(upsertSql())
+            .setParameter("propertyID", propertyID)
+            .setParameter("monthKey", monthKey)
+            .setParameter("bookings", bookings)
+            .setParameter("revenue", revenue)
+            .setParameter("now", now)
+            .executeUpdate();
+    }
+
+    private String upsertSql() {
+        if (upsertSql == null) {
+            boolean postgres = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+            upsertSql = postgres ? UPSERT_POSTGRES : UPSERT_MERGE;
+        }
+        return upsertSql;
+    }
+}
@@ -1,16 +1,19 @@
 package apap.ti._5.accommodation_2306275600_be.repository;
 
 import apap.ti._5.accommodation_2306275600_be.model.Property;
+import apap.ti._5.accommodation_2306275600_be.model.RoomType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface PropertyRepository extends JpaRepository<Property, UUID> {
+public interface PropertyRepository extends JpaRepository<Property, UUID>, JpaSpecificationExecutor<Property> {
     @Query("SELECT p FROM Property p WHERE p.owner.id = :ownerId")
     List<Property> findByOwnerID(@Param("ownerId") UUID ownerId);
     
@@ -19,29 +22,99 @@ public interface PropertyRepository extends JpaRepository<Property, UUID> {
     
     // Filter for active properties only
     List<Property> findByActiveStatusOrderByCreatedDateDesc(int activeStatus);
-    
-    // Filter by name (case-insensitive) and active status
-    @Query("SELECT p FROM Property p WHERE LOWER(p.propertyName) LIKE LOWER(CONCAT('%', :name, '%')) AND p.activeStatus = 1 ORDER BY p.createdDate DESC")
-    List<Property> findByPropertyNameContainingIgnoreCaseAndActiveStatus(@Param("name") String name);
-    
-    // Filter by type and active status
-    List<Property> findByTypeAndActiveStatusOrderByCreatedDateDesc(int type, int activeStatus);
-    
-    // Filter by province and active status
-    List<Property> findByProvinceAndActiveStatusOrderByCreatedDateDesc(int province, int activeStatus);
-    
-    // Filter by name and type and active status
-    @Query("SELECT p FROM Property p WHERE LOWER(p.propertyName) LIKE LOWER(CONCAT('%', :name, '%')) AND p.type = :type AND p.activeStatus = 1 ORDER BY p.createdDate DESC")
-    List<Property> findByPropertyNameContainingIgnoreCaseAndTypeAndActiveStatus(@Param("name") String name, @Param("type") int type);
-    
-    // Filter by name and province and active status
-    @Query("SELECT p FROM Property p WHERE LOWER(p.propertyName) LIKE LOWER(CONCAT('%', :name, '%')) AND p.province = :province AND p.activeStatus = 1 ORDER BY p.createdDate DESC")
-    List<Property> findByPropertyNameContainingIgnoreCaseAndProvinceAndActiveStatus(@Param("name") String name, @Param("province") int province);
-    
-    // Filter by type and province and active status
-    List<Property> findByTypeAndProvinceAndActiveStatusOrderByCreatedDateDesc(int type, int province, int activeStatus);
-    
-    // Filter by all three and active status
-    @Query("SELECT p FROM Property p WHERE LOWER(p.propertyName) LIKE LOWER(CONCAT('%', :name, '%')) AND p.type = :type AND p.province = :province AND p.activeStatus = 1 ORDER BY p.createdDate DESC")
-    List<Property> findByPropertyNameContainingIgnoreCaseAndTypeAndProvinceAndActiveStatus(@Param("name") String name, @Param("type") int type, @Param("province") int province);
-}
\ No newline at end of file
+
+    // Name/type/province/owner filters are composed with PropertySpecifications
+
+    /**
+     * Property detail in one round trip: room types with their rooms, and the
+     * property itself through the join. Empty when the property has no room types.
+     */
+    @Query("SELECT rt FROM RoomType rt JOIN FETCH rt.property p LEFT JOIN FETCH rt.listRoom " +
+           "WHERE p.propertyID = :propertyID ORDER BY rt.floor ASC, rt.name ASC")
+    List<RoomType> findRoomTypesWithRoomsByPropertyID(@Param("propertyID") UUID propertyID);
+
+    /**
+     * Availability search across properties in one statement.
+     * A room is free when it is active, not under maintenance and has no blocking
+     * booking overlapping the period (same rule as findBookedRoomIDsByPropertyAndPeriod).
+     * Returns one row per property that still has a matching room type.
+     */
+    @Query("SELECT p.propertyID AS propertyID, COUNT(DISTINCT rt.roomTypeID) AS availableRoomTypes, " +
+           "COUNT(r.roomID) AS availableRooms, MIN(rt.price) AS lowestPrice " +
+           "FROM Room r JOIN r.roomType rt JOIN rt.property p " +
+           "WHERE p.activeStatus = 1 " +
+           "AND (:province IS NULL OR p.province = :province) " +
+           "AND (:type IS NULL OR p.type = :type) " +
+           "AND rt.capacity >= :capacity " +
+           "AND (:maxPrice IS NULL OR rt.price <= :maxPrice) " +
+           "AND r.activeRoom = 1 " +
+           "AND (r.maintenanceStart IS NULL OR r.maintenanceEnd IS NULL " +
+           "     OR r.maintenanceStart >= :checkOut OR r.maintenanceEnd <= :checkIn) " +
+           "AND NOT EXISTS (SELECT 1 FROM Booking b WHERE b.room = r " +
+           "     AND b.status NOT IN (3, 4) " +
+           "     AND b.checkInDate < :checkOut AND b.checkOutDate > :checkIn) " +
+           "GROUP BY p.propertyID " +
+           "ORDER BY MIN(rt.price) ASC")
+    List<PropertyAvailabilityView> searchAvailableProperties(
+        @Param("province") Integer province,
+        @Param("type") Integer type,
+        @Param("capacity") int capacity,
+        @Param("maxPrice") Integer maxPrice,
+        @Param("checkIn") LocalDateTime checkIn,
+        @Param("checkOut") LocalDateTime checkOut
+    );
+
+    /**
+     * Everything the in-memory property search index needs, without loading the entities
+     */
+    @Query("SELECT p.propertyID AS propertyID, p.createdDate AS createdDate, p.owner.id AS ownerID, " +
+           "p.type AS type, p.province AS province, p.propertyName AS propertyName, " +
+           "p.address AS address, p.description AS description " +
+           "FROM Property p WHERE p.activeStatus = 1")
+    List<PropertySearchDocumentView> findActivePropertySearchDocuments();
+
+    /**
+     * Search documents of properties created or changed since the given time, deactivated ones included,
+     * so the property search index can drop them
+     */
+    @Query("SELECT p.propertyID AS propertyID, p.createdDate AS createdDate, p.owner.id AS ownerID, " +
+           "p.type AS type, p.province AS province, p.propertyName AS propertyName, " +
+           "p.address AS address, p.description AS description, p.activeStatus AS activeStatus " +
+           "FROM Property p WHERE p.updatedDate >= :since")
+    List<PropertySearchChangeView> findPropertySearchDocumentsUpdatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Names of properties created or changed since the given time, active or not.
+     * The booking search index uses them to pick up renames made on other nodes
+     */
+    @Query("SELECT p.propertyID AS propertyID, p.propertyName AS propertyName " +
+           "FROM Property p WHERE p.updatedDate >= :since")
+    List<PropertyNameView> findPropertyNamesUpdatedSince(@Param("since") LocalDateTime since);
+
+    interface PropertyAvailabilityView {
+        UUID getPropertyID();
+        Long getAvailableRoomTypes();
+        Long getAvailableRooms();
+        Integer getLowestPrice();
+    }
+
+    interface PropertyNameView {
+        UUID getPropertyID();
+        String getPropertyName();
+    }
+
+    interface PropertySearchDocumentView {
+        UUID getPropertyID();
+        LocalDateTime getCreatedDate();
+        UUID getOwnerID();
+        int getType();
+        int getProvince();
+        String getPropertyName();
+        String getAddress();
+        String getDescription();
+    }
+
+    interface PropertySearchChangeView extends PropertySearchDocumentView {
+        int getActiveStatus();
+    }
+}
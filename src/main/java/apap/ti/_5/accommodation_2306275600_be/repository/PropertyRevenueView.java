@@ -0,0 +1,16 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import java.util.UUID;
+
+/**
+ * Completed-booking revenue of one property over a period, highest first.
+ * Read from the monthly rollup (PropertyMonthlyRevenueRepository) or summed
+ * from the booking table (BookingRepository) for periods that are not whole months.
+ */
+public interface PropertyRevenueView {
+    UUID getPropertyID();
+    String getPropertyName();
+    Integer getPropertyType();
+    Long getTotalBookings();
+    Long getTotalRevenue();
+}
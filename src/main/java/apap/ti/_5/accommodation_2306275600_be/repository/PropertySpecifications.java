@@ -0,0 +1,68 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import apap.ti._5.accommodation_2306275600_be.model.Property;
+
+/**
+ * Composable filters for Property. Each factory returns null when its argument
+ * is absent, which Specification.allOf simply skips, so every filter
+ * combination produces the same statement shape.
+ */
+public final class PropertySpecifications {
+
+    // Keyset order; the id makes it total so pages never overlap
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdDate", "propertyID");
+
+    private PropertySpecifications() {
+    }
+
+    public static Specification<Property> isActive() {
+        return (root, query, cb) -> cb.equal(root.get("activeStatus"), 1);
+    }
+
+    public static Specification<Property> nameContains(String name) {
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+        String pattern = "%" + name.toLowerCase() + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("propertyName")), pattern);
+    }
+
+    public static Specification<Property> hasType(Integer type) {
+        if (type == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("type"), type);
+    }
+
+    public static Specification<Property> hasProvince(Integer province) {
+        if (province == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("province"), province);
+    }
+
+    public static Specification<Property> ownedBy(UUID ownerID) {
+        if (ownerID == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("owner").get("id"), ownerID);
+    }
+
+    // Rows strictly after the cursor in NEWEST_FIRST order
+    public static Specification<Property> after(KeysetCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+            cb.lessThan(root.<LocalDateTime>get("createdDate"), cursor.createdAt()),
+            cb.and(
+                cb.equal(root.get("createdDate"), cursor.createdAt()),
+                cb.lessThan(root.<UUID>get("propertyID"), cursor.id())));
+    }
+}
@@ -0,0 +1,16 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import apap.ti._5.accommodation_2306275600_be.model.RoomCalendarMonth;
+import apap.ti._5.accommodation_2306275600_be.model.RoomCalendarMonth.RoomCalendarMonthId;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RoomCalendarMonthRepository extends JpaRepository<RoomCalendarMonth, RoomCalendarMonthId> {
+    List<RoomCalendarMonth> findByRoomIDAndMonthKeyBetween(UUID roomID, int fromMonthKey, int toMonthKey);
+    List<RoomCalendarMonth> findByPropertyIDAndMonthKeyBetween(UUID propertyID, int fromMonthKey, int toMonthKey);
+}
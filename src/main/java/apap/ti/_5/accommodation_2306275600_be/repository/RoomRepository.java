@@ -1,6 +1,9 @@
 package apap.ti._5.accommodation_2306275600_be.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import apap.ti._5.accommodation_2306275600_be.model.Room;
@@ -11,7 +14,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.data.repository.query.Param;
 
 @Repository
-public interface RoomRepository extends JpaRepository<Room, UUID> {
+public interface RoomRepository extends JpaRepository<Room, UUID>, RoomRepositoryCustom {
     List<Room> findByRoomType_RoomTypeID(UUID roomTypeID);
     List<Room> findByAvailabilityStatus(int status);
     List<Room> findByActiveRoom(int activeRoom);
@@ -19,4 +22,35 @@ public interface RoomRepository extends JpaRepository<Room, UUID> {
     List<Room> findByFloorAndRoomTypeID(@Param("floor") Integer floor, @Param("roomTypeID") UUID roomTypeID);
     @Query("SELECT r FROM Room r WHERE r.roomType.property.propertyID = :propertyID AND r.roomType.floor = :floor")
     List<Room> findByPropertyIDAndFloor(@Param("propertyID") UUID propertyID, @Param("floor") Integer floor);
-}
\ No newline at end of file
+
+    // Room -> property mapping plus maintenance window, used to backfill the room calendar
+    @Query("SELECT r.roomID AS roomID, r.roomType.property.propertyID AS propertyID, " +
+           "r.maintenanceStart AS maintenanceStart, r.maintenanceEnd AS maintenanceEnd FROM Room r")
+    List<RoomCalendarSeedView> findCalendarSeeds();
+
+    // Maintenance overlap rule of PropertyRepository.searchAvailableProperties, limited to the given rooms
+    @Query("SELECT r.roomID FROM Room r WHERE r.roomID IN :roomIDs " +
+           "AND r.maintenanceStart < :endDate AND r.maintenanceEnd > :startDate")
+    List<UUID> findRoomIDsUnderMaintenanceDuring(@Param("roomIDs") Collection<UUID> roomIDs,
+                                                 @Param("startDate") LocalDateTime startDate,
+                                                 @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Lock the room row for the rest of the transaction. Booking and maintenance
+     * changes take it (usually through findByIdForUpdate) before their conflict
+     * checks, so two requests for the same room are checked one after the other
+     * and cannot both see the dates as free.
+     * RoomCalendarService takes it before rewriting the room's calendar months.
+     *
+     * @return the room ID, empty when the room does not exist
+     */
+    @Query(value = "SELECT room_id FROM room WHERE room_id = :roomID FOR UPDATE", nativeQuery = true)
+    Optional<UUID> lockForBooking(@Param("roomID") UUID roomID);
+
+    interface RoomCalendarSeedView {
+        UUID getRoomID();
+        UUID getPropertyID();
+        LocalDateTime getMaintenanceStart();
+        LocalDateTime getMaintenanceEnd();
+    }
+}
@@ -0,0 +1,17 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import apap.ti._5.accommodation_2306275600_be.model.Room;
+
+public interface RoomRepositoryCustom {
+    /**
+     * Lock the room row for the rest of the transaction, like RoomRepository.lockForBooking,
+     * and return the room as committed by the previous holder of the lock. A room already
+     * loaded in this persistence context is re-read, so checks never run on stale fields.
+     *
+     * @return the locked room, empty when the room does not exist
+     */
+    Optional<Room> findByIdForUpdate(UUID roomID);
+}
@@ -0,0 +1,27 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import apap.ti._5.accommodation_2306275600_be.model.Room;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+
+public class RoomRepositoryCustomImpl implements RoomRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Room> findByIdForUpdate(UUID roomID) {
+        Room room = entityManager.find(Room.class, roomID);
+        if (room == null) {
+            return Optional.empty();
+        }
+        // find() alone would hand back the cached instance; refresh re-selects the row FOR UPDATE
+        entityManager.refresh(room, LockModeType.PESSIMISTIC_WRITE);
+        return Optional.of(room);
+    }
+}
@@ -0,0 +1,43 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import java.time.LocalDateTime;
+
+import apap.ti._5.accommodation_2306275600_be.model.SchedulerLease;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    /**
+     * Renew the lease if this node holds it, or take it over if it has expired.
+     * The row lock taken by the UPDATE makes this safe across nodes.
+     *
+     * @return 1 if this node now holds the lease, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLease l " +
+           "SET l.acquiredAt = CASE WHEN l.holder = :holder THEN l.acquiredAt ELSE :now END, " +
+           "l.holder = :holder, l.expiresAt = :expiresAt " +
+           "WHERE l.leaseName = :leaseName AND (l.holder = :holder OR l.expiresAt < :now)")
+    int claim(
+        @Param("leaseName") String leaseName,
+        @Param("holder") String holder,
+        @Param("now") LocalDateTime now,
+        @Param("expiresAt") LocalDateTime expiresAt
+    );
+
+    // Let another node take over right away instead of waiting for expiry
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.expiresAt = :now " +
+           "WHERE l.leaseName = :leaseName AND l.holder = :holder")
+    int release(
+        @Param("leaseName") String leaseName,
+        @Param("holder") String holder,
+        @Param("now") LocalDateTime now
+    );
+}
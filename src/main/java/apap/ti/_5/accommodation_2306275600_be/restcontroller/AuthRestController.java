@@ -1,10 +1,13 @@
 package apap.ti._5.accommodation_2306275600_be.restcontroller;
 
+import apap.ti._5.accommodation_2306275600_be.exceptions.ServiceBusyException;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.LoginRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.RegisterRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.UpdateUserRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.CustomerResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.CustomerTypeaheadResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.EndUserResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.LoginResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restservice.AuthRestService;
 import apap.ti._5.accommodation_2306275600_be.security.UserPrincipal;
@@ -12,6 +15,7 @@ import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -78,6 +82,55 @@ public class AuthRestController {
         }
     }
     
+    /**
+     * Customer directory page by page, newest first, with optional search and gender filter
+     * (SUPERADMIN and ACCOMMODATION_OWNER can access)
+     */
+    @GetMapping("/customers/page")
+    @PreAuthorize("hasAnyRole('SUPERADMIN', 'ACCOMMODATION_OWNER')")
+    public ResponseEntity<Map<String, Object>> getCustomersPage(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String gender,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            KeysetPageResponseDTO<CustomerResponseDTO> page =
+                    authRestService.getCustomersPage(search, gender, cursor, size);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", "Customers retrieved successfully");
+            response.put("data", page);
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "error");
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+    
+    /**
+     * Typeahead suggestions for the customer search box
+     * (SUPERADMIN and ACCOMMODATION_OWNER can access)
+     */
+    @GetMapping("/customers/typeahead")
+    @PreAuthorize("hasAnyRole('SUPERADMIN', 'ACCOMMODATION_OWNER')")
+    public ResponseEntity<Map<String, Object>> suggestCustomers(
+            @RequestParam(name = "q", required = false) String query,
+            @RequestParam(required = false) String gender,
+            @RequestParam(defaultValue = "10") int limit) {
+        CustomerTypeaheadResponseDTO suggestions = authRestService.suggestCustomers(query, gender, limit);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("message", "Suggestions retrieved successfully");
+        response.put("data", suggestions);
+        
+        return ResponseEntity.ok(response);
+    }
+    
     /**
      * Login endpoint - returns JWT in httpOnly cookie
      */
@@ -92,6 +145,8 @@ public class AuthRestController {
             response.put("data", loginResponse);
             
             return ResponseEntity.ok(response);
+        } catch (ServiceBusyException e) {
+            return serviceBusy(e);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
             response.put("status", "error");
@@ -114,6 +169,8 @@ public class AuthRestController {
             response.put("data", user);
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (ServiceBusyException e) {
+            return serviceBusy(e);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
             response.put("status", "error");
@@ -207,4 +264,16 @@ public class AuthRestController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(responseBody);
         }
     }
+
+    /**
+     * Login/register refused because the password hashing pool is saturated
+     */
+    private ResponseEntity<Map<String, Object>> serviceBusy(ServiceBusyException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "error");
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
 }
@@ -4,10 +4,18 @@ import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.CreateBillReq
 import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.PayBillRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.UpdateBillRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.BaseResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.PageResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.bill.BillDetailResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.bill.BillResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restservice.RBAC.BillRestServiceRBAC;
+import apap.ti._5.accommodation_2306275600_be.service.IdempotencyService;
 import jakarta.validation.Valid;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -16,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -23,15 +32,18 @@ import java.util.UUID;
 public class BillRestController {
 
     private final BillRestServiceRBAC billRestService;
+    private final IdempotencyService idempotencyService;
 
-    public BillRestController(BillRestServiceRBAC billRestService) {
+    public BillRestController(BillRestServiceRBAC billRestService, IdempotencyService idempotencyService) {
         this.billRestService = billRestService;
+        this.idempotencyService = idempotencyService;
     }
 
     public static final String BASE_URL = "/bill";
     public static final String CREATE_BILL = BASE_URL + "/create";
     public static final String GET_ALL_BILL = BASE_URL;
     public static final String GET_CUSTOMER_BILL = BASE_URL + "/customer";
+    public static final String GET_CUSTOMER_BILL_PAGE = BASE_URL + "/customer/page";
     public static final String GET_SERVICE_BILL = BASE_URL + "/{serviceName}";
     public static final String GET_DETAIL_BILL = BASE_URL + "/detail/{billId}";
     public static final String PAY_BILL = BASE_URL + "/{billId}/pay";
@@ -59,7 +71,13 @@ public class BillRestController {
         }
 
         try {
-            BillResponseDTO bill = billRestService.createBill(dto);
+            BillResponseDTO bill;
+            try {
+                bill = billRestService.createBill(dto);
+            } catch (DataIntegrityViolationException ex) {
+                // A concurrent delivery of the same bill won the insert; its transaction is gone, so ask again
+                bill = billRestService.createBill(dto);
+            }
 
             baseResponseDTO.setStatus(HttpStatus.CREATED.value());
             baseResponseDTO.setData(bill);
@@ -84,19 +102,25 @@ public class BillRestController {
 
     // 2. Get All Bill - Superadmin
     @GetMapping(GET_ALL_BILL)
-    public ResponseEntity<BaseResponseDTO<List<BillResponseDTO>>> getAllBills(
+    public ResponseEntity<BaseResponseDTO<PageResponseDTO<BillResponseDTO>>> getAllBills(
             @RequestParam(required = false) UUID customerId,
             @RequestParam(required = false) String serviceName,
-            @RequestParam(required = false) Integer status) {
+            @RequestParam(required = false) Integer status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDirection) {
 
-        var baseResponseDTO = new BaseResponseDTO<List<BillResponseDTO>>();
+        var baseResponseDTO = new BaseResponseDTO<PageResponseDTO<BillResponseDTO>>();
 
         try {
-            List<BillResponseDTO> bills = billRestService.getAllBills(customerId, serviceName, status);
+            Page<BillResponseDTO> bills = billRestService.getAllBills(
+                customerId, serviceName, status, buildBillPageRequest(page, size, sortBy, sortDirection));
 
             baseResponseDTO.setStatus(HttpStatus.OK.value());
-            baseResponseDTO.setData(bills);
-            baseResponseDTO.setMessage("Successfully retrieved " + bills.size() + " bill(s)");
+            baseResponseDTO.setData(PageResponseDTO.from(bills));
+            baseResponseDTO.setMessage("Successfully retrieved " + bills.getNumberOfElements() + " of "
+                + bills.getTotalElements() + " bill(s)");
             baseResponseDTO.setTimestamp(new Date());
 
             return new ResponseEntity<>(baseResponseDTO, HttpStatus.OK);
@@ -163,6 +187,40 @@ public class BillRestController {
         }
     }
 
+    // 3b. Get Customer Bill (keyset page) - Customer
+    @GetMapping(GET_CUSTOMER_BILL_PAGE)
+    public ResponseEntity<BaseResponseDTO<KeysetPageResponseDTO<BillResponseDTO>>> getCustomerBillsPage(
+            @RequestParam UUID customerId,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        var baseResponseDTO = new BaseResponseDTO<KeysetPageResponseDTO<BillResponseDTO>>();
+
+        try {
+            KeysetPageResponseDTO<BillResponseDTO> bills = billRestService.getCustomerBillsPage(customerId, status, cursor, size);
+
+            baseResponseDTO.setStatus(HttpStatus.OK.value());
+            baseResponseDTO.setData(bills);
+            baseResponseDTO.setMessage("Successfully retrieved " + bills.getContent().size() + " bill(s)");
+            baseResponseDTO.setTimestamp(new Date());
+
+            return new ResponseEntity<>(baseResponseDTO, HttpStatus.OK);
+
+        } catch (RuntimeException ex) {
+            baseResponseDTO.setStatus(HttpStatus.BAD_REQUEST.value());
+            baseResponseDTO.setMessage(ex.getMessage());
+            baseResponseDTO.setTimestamp(new Date());
+            return new ResponseEntity<>(baseResponseDTO, HttpStatus.BAD_REQUEST);
+
+        } catch (Exception ex) {
+            baseResponseDTO.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            baseResponseDTO.setMessage("Failed to retrieve customer bills. Error: " + ex.getMessage());
+            baseResponseDTO.setTimestamp(new Date());
+            return new ResponseEntity<>(baseResponseDTO, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     // 4. Get Service Bill - Accommodation Owner
     @GetMapping(GET_SERVICE_BILL)
     public ResponseEntity<BaseResponseDTO<List<BillResponseDTO>>> getServiceBills(
@@ -238,49 +296,51 @@ public class BillRestController {
     @PostMapping(PAY_BILL)
     public ResponseEntity<BaseResponseDTO<BillResponseDTO>> payBill(
             @PathVariable UUID billId,
-            @RequestBody(required = false) PayBillRequestDTO dto) {
+            @RequestBody(required = false) PayBillRequestDTO dto,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
 
         var baseResponseDTO = new BaseResponseDTO<BillResponseDTO>();
 
         // Create empty DTO if null
-        if (dto == null) {
-            dto = new PayBillRequestDTO();
-        }
+        PayBillRequestDTO request = dto != null ? dto : new PayBillRequestDTO();
 
-        try {
-            BillResponseDTO bill = billRestService.payBill(billId, dto, null);
+        // The bill id is part of the endpoint, so one key cannot replay a payment for another bill
+        return idempotencyService.execute("/api" + BASE_URL + "/" + billId + "/pay", idempotencyKey, request, () -> {
+            try {
+                BillResponseDTO bill = billRestService.payBill(billId, request, null);
 
-            baseResponseDTO.setStatus(HttpStatus.OK.value());
-            baseResponseDTO.setData(bill);
-            baseResponseDTO.setMessage("Bill paid successfully");
-            baseResponseDTO.setTimestamp(new Date());
+                baseResponseDTO.setStatus(HttpStatus.OK.value());
+                baseResponseDTO.setData(bill);
+                baseResponseDTO.setMessage("Bill paid successfully");
+                baseResponseDTO.setTimestamp(new Date());
 
-            return new ResponseEntity<>(baseResponseDTO, HttpStatus.OK);
+                return new ResponseEntity<>(baseResponseDTO, HttpStatus.OK);
+
+            } catch (RuntimeException ex) {
+                if (ex.getMessage().contains("No Bill Found")) {
+                    baseResponseDTO.setStatus(HttpStatus.NOT_FOUND.value());
+                    baseResponseDTO.setMessage("No Bill Found");
+                    baseResponseDTO.setTimestamp(new Date());
+                    return new ResponseEntity<>(baseResponseDTO, HttpStatus.NOT_FOUND);
+                } else if (ex.getMessage().contains("insufficient")) {
+                    baseResponseDTO.setStatus(HttpStatus.BAD_REQUEST.value());
+                    baseResponseDTO.setMessage(ex.getMessage());
+                    baseResponseDTO.setTimestamp(new Date());
+                    return new ResponseEntity<>(baseResponseDTO, HttpStatus.BAD_REQUEST);
+                }
 
-        } catch (RuntimeException ex) {
-            if (ex.getMessage().contains("No Bill Found")) {
-                baseResponseDTO.setStatus(HttpStatus.NOT_FOUND.value());
-                baseResponseDTO.setMessage("No Bill Found");
-                baseResponseDTO.setTimestamp(new Date());
-                return new ResponseEntity<>(baseResponseDTO, HttpStatus.NOT_FOUND);
-            } else if (ex.getMessage().contains("insufficient")) {
                 baseResponseDTO.setStatus(HttpStatus.BAD_REQUEST.value());
                 baseResponseDTO.setMessage(ex.getMessage());
                 baseResponseDTO.setTimestamp(new Date());
                 return new ResponseEntity<>(baseResponseDTO, HttpStatus.BAD_REQUEST);
-            }
 
-            baseResponseDTO.setStatus(HttpStatus.BAD_REQUEST.value());
-            baseResponseDTO.setMessage(ex.getMessage());
-            baseResponseDTO.setTimestamp(new Date());
-            return new ResponseEntity<>(baseResponseDTO, HttpStatus.BAD_REQUEST);
-
-        } catch (Exception ex) {
-            baseResponseDTO.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
-            baseResponseDTO.setMessage("Payment Failed. An unexpected error occurred. Please try again later.");
-            baseResponseDTO.setTimestamp(new Date());
-            return new ResponseEntity<>(baseResponseDTO, HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+            } catch (Exception ex) {
+                baseResponseDTO.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+                baseResponseDTO.setMessage("Payment Failed. An unexpected error occurred. Please try again later.");
+                baseResponseDTO.setTimestamp(new Date());
+                return new ResponseEntity<>(baseResponseDTO, HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+        });
     }
 
     // 7. Update Bill - API Key
@@ -335,4 +395,15 @@ public class BillRestController {
             return new ResponseEntity<>(baseResponseDTO, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    private static final Set<String> BILL_SORT_FIELDS = Set.of("createdAt", "amount", "status", "serviceName");
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Unknown sort fields fall back to createdAt so user input never reaches the query as a property path
+    private Pageable buildBillPageRequest(int page, int size, String sortBy, String sortDirection) {
+        String property = BILL_SORT_FIELDS.contains(sortBy) ? sortBy : "createdAt";
+        Sort.Direction direction = "asc".equalsIgnoreCase(sortDirection) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        int boundedSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        return PageRequest.of(Math.max(page, 0), boundedSize, Sort.by(direction, property).and(Sort.by("billId")));
+    }
 }
@@ -2,10 +2,12 @@ package apap.ti._5.accommodation_2306275600_be.restcontroller;
 
 import java.util.UUID;
 
+import apap.ti._5.accommodation_2306275600_be.exceptions.AccessDeniedException;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.CreateBookingRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.UpdateBookingRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.ChangeBookingStatusRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.BaseResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingUpdateFormDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingListItemDTO;
@@ -13,6 +15,7 @@ import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingDe
 // import apap.ti._5.accommodation_2306275600_be.restservice.BookingRestService;x
 import apap.ti._5.accommodation_2306275600_be.restservice.RBAC.BookingRestServiceRBAC;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingChartResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.service.IdempotencyService;
 
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -21,6 +24,7 @@ import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.Date;
 import java.util.List;
 
@@ -29,9 +33,11 @@ import java.util.List;
 public class BookingRestController {
     
     private final BookingRestServiceRBAC bookingRestService;
+    private final IdempotencyService idempotencyService;
     
-    public BookingRestController(BookingRestServiceRBAC bookingRestService) {
+    public BookingRestController(BookingRestServiceRBAC bookingRestService, IdempotencyService idempotencyService) {
         this.bookingRestService = bookingRestService;
+        this.idempotencyService = idempotencyService;
     }
     
     public static final String BASE_URL = "/bookings";
@@ -43,6 +49,7 @@ public class BookingRestController {
     public static final String CANCEL_BOOKING = BASE_URL + "/status/cancel";
     public static final String REFUND_BOOKING = BASE_URL + "/status/refund";
     public static final String CHART_BOOKING = BASE_URL + "/chart";
+    public static final String BOOKING_PAGE = BASE_URL + "/page";
 
     @GetMapping(BASE_URL)
     public ResponseEntity<BaseResponseDTO<List<BookingListItemDTO>>> getAllBookings(
@@ -69,6 +76,32 @@ public class BookingRestController {
         }
     }
     
+    @GetMapping(BOOKING_PAGE)
+    public ResponseEntity<BaseResponseDTO<KeysetPageResponseDTO<BookingListItemDTO>>> getBookingsPage(
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        var baseResponseDTO = new BaseResponseDTO<KeysetPageResponseDTO<BookingListItemDTO>>();
+        
+        try {
+            KeysetPageResponseDTO<BookingListItemDTO> page = bookingRestService.getBookingsPage(status, cursor, size);
+            
+            baseResponseDTO.setStatus(HttpStatus.OK.value());
+            baseResponseDTO.setData(page);
+            baseResponseDTO.setMessage("Successfully retrieved " + page.getContent().size() + " booking(s)");
+            baseResponseDTO.setTimestamp(new Date());
+            return new ResponseEntity<>(baseResponseDTO, HttpStatus.OK);
+        } catch (AccessDeniedException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            baseResponseDTO.setStatus(HttpStatus.BAD_REQUEST.value());
+            baseResponseDTO.setMessage(ex.getMessage());
+            baseResponseDTO.setTimestamp(new Date());
+            return new ResponseEntity<>(baseResponseDTO, HttpStatus.BAD_REQUEST);
+        }
+    }
+    
     @GetMapping(DETAIL_BOOKING)
     public ResponseEntity<BaseResponseDTO<BookingDetailResponseDTO>> getBookingDetail(
             @PathVariable("id") UUID bookingID) {
@@ -102,7 +135,8 @@ public class BookingRestController {
     @PostMapping(CREATE_BOOKING)
     public ResponseEntity<BaseResponseDTO<BookingResponseDTO>> createBooking(
             @Valid @RequestBody CreateBookingRequestDTO dto,
-            BindingResult bindingResult) {
+            BindingResult bindingResult,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         
         var baseResponseDTO = new BaseResponseDTO<BookingResponseDTO>();
         
@@ -119,28 +153,31 @@ public class BookingRestController {
             return new ResponseEntity<>(baseResponseDTO, HttpStatus.BAD_REQUEST);
         }
         
-        try {
-            BookingResponseDTO booking = bookingRestService.createBooking(dto);
-            
-            baseResponseDTO.setStatus(HttpStatus.CREATED.value());
-            baseResponseDTO.setData(booking);
-            baseResponseDTO.setMessage("Konfirmasi: Booking berhasil dibuat dengan ID " + booking.getBookingID());
-            baseResponseDTO.setTimestamp(new Date());
-            
-            return new ResponseEntity<>(baseResponseDTO, HttpStatus.CREATED);
-            
-        } catch (RuntimeException ex) {
-            baseResponseDTO.setStatus(HttpStatus.BAD_REQUEST.value());
-            baseResponseDTO.setMessage("Konfirmasi: Booking gagal dibuat. Error: " + ex.getMessage());
-            baseResponseDTO.setTimestamp(new Date());
-            return new ResponseEntity<>(baseResponseDTO, HttpStatus.BAD_REQUEST);
-            
-        } catch (Exception ex) {
-            baseResponseDTO.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
-            baseResponseDTO.setMessage("Konfirmasi: Booking gagal dibuat. Error: " + ex.getMessage());
-            baseResponseDTO.setTimestamp(new Date());
-            return new ResponseEntity<>(baseResponseDTO, HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+        // A retried create replays the first booking instead of running the conflict check and billing again
+        return idempotencyService.execute("/api" + CREATE_BOOKING, idempotencyKey, dto, () -> {
+            try {
+                BookingResponseDTO booking = bookingRestService.createBooking(dto);
+            
+                baseResponseDTO.setStatus(HttpStatus.CREATED.value());
+                baseResponseDTO.setData(booking);
+                baseResponseDTO.setMessage("Konfirmasi: Booking berhasil dibuat dengan ID " + booking.getBookingID());
+                baseResponseDTO.setTimestamp(new Date());
+            
+                return new ResponseEntity<>(baseResponseDTO, HttpStatus.CREATED);
+            
+            } catch (RuntimeException ex) {
+                baseResponseDTO.setStatus(HttpStatus.BAD_REQUEST.value());
+                baseResponseDTO.setMessage("Konfirmasi: Booking gagal dibuat. Error: " + ex.getMessage());
+                baseResponseDTO.setTimestamp(new Date());
+                return new ResponseEntity<>(baseResponseDTO, HttpStatus.BAD_REQUEST);
+            
+            } catch (Exception ex) {
+                baseResponseDTO.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+                baseResponseDTO.setMessage("Konfirmasi: Booking gagal dibuat. Error: " + ex.getMessage());
+                baseResponseDTO.setTimestamp(new Date());
+                return new ResponseEntity<>(baseResponseDTO, HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+        });
     }
 
     @GetMapping(UPDATE_BOOKING_FORM)
@@ -380,12 +417,31 @@ public class BookingRestController {
     @GetMapping(CHART_BOOKING)
     public ResponseEntity<BaseResponseDTO<BookingChartResponseDTO>> getBookingStatistics(
             @RequestParam(required = false) Integer month,
-            @RequestParam(required = false) Integer year) {
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate) {
         
         var baseResponseDTO = new BaseResponseDTO<BookingChartResponseDTO>();
         
+        // startDate/endDate (yyyy-MM-dd, check-out dates, inclusive) take precedence over month/year
+        LocalDate rangeStart = null;
+        LocalDate rangeEnd = null;
+        if (startDate != null || endDate != null) {
+            try {
+                rangeStart = LocalDate.parse(startDate);
+                rangeEnd = LocalDate.parse(endDate);
+            } catch (Exception ex) {
+                baseResponseDTO.setStatus(HttpStatus.BAD_REQUEST.value());
+                baseResponseDTO.setMessage("Failed to generate statistics. Error: startDate and endDate must both be valid dates (yyyy-MM-dd)");
+                baseResponseDTO.setTimestamp(new Date());
+                return new ResponseEntity<>(baseResponseDTO, HttpStatus.BAD_REQUEST);
+            }
+        }
+        
         try {
-            BookingChartResponseDTO statistics = bookingRestService.getBookingStatistics(month, year);
+            BookingChartResponseDTO statistics = rangeStart != null
+                ? bookingRestService.getBookingStatisticsByRange(rangeStart, rangeEnd)
+                : bookingRestService.getBookingStatistics(month, year);
             
             String message = String.format("Successfully retrieved booking statistics for %s", 
                                         statistics.getPeriod());
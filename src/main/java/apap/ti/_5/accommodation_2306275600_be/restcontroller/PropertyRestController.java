@@ -1,11 +1,15 @@
 package apap.ti._5.accommodation_2306275600_be.restcontroller;
 
+import apap.ti._5.accommodation_2306275600_be.exceptions.AccessDeniedException;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.property.CreatePropertyRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.property.UpdatePropertyRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.room.AddRoomRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.roomtype.CreateRoomTypeRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.BaseResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertyAvailabilityDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertyResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertySearchResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.room.RoomResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.roomtype.RoomTypeResponseDTO;
 // import apap.ti._5.accommodation_2306275600_be.restservice.PropertyRestService;
@@ -52,6 +56,9 @@ public class PropertyRestController {
     public static final String UPDATE_PROPERTY = BASE_URL + "/update/{id}";
     public static final String DELETE_PROPERTY = BASE_URL + "/delete/{id}";
     public static final String PROPERTY_BY_OWNER = BASE_URL + "/owner/{ownerId}";
+    public static final String SEARCH_AVAILABILITY = BASE_URL + "/search";
+    public static final String PROPERTY_PAGE = BASE_URL + "/page";
+    public static final String FULLTEXT_SEARCH = BASE_URL + "/fulltext";
 
     @PostMapping(CREATE_PROPERTY)
     public ResponseEntity<BaseResponseDTO<PropertyResponseDTO>> createProperty(
@@ -147,6 +154,108 @@ public class PropertyRestController {
         return new ResponseEntity<>(baseResponseDTO, HttpStatus.OK);
     }
 
+    @GetMapping(PROPERTY_PAGE)
+    public ResponseEntity<BaseResponseDTO<KeysetPageResponseDTO<PropertyResponseDTO>>> getPropertiesPage(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Integer type,
+            @RequestParam(required = false) Integer province,
+            @RequestParam(required = false) UUID ownerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        var baseResponseDTO = new BaseResponseDTO<KeysetPageResponseDTO<PropertyResponseDTO>>();
+        
+        try {
+            KeysetPageResponseDTO<PropertyResponseDTO> page = propertyRestService.getFilteredPropertiesPage(
+                    name, type, province, ownerId, cursor, size);
+            
+            baseResponseDTO.setStatus(HttpStatus.OK.value());
+            baseResponseDTO.setData(page);
+            baseResponseDTO.setMessage("Data Property Berhasil Ditemukan");
+            baseResponseDTO.setTimestamp(new Date());
+            return new ResponseEntity<>(baseResponseDTO, HttpStatus.OK);
+        } catch (AccessDeniedException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            baseResponseDTO.setStatus(HttpStatus.BAD_REQUEST.value());
+            baseResponseDTO.setMessage(ex.getMessage());
+            baseResponseDTO.setTimestamp(new Date());
+            return new ResponseEntity<>(baseResponseDTO, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping(FULLTEXT_SEARCH)
+    public ResponseEntity<BaseResponseDTO<PropertySearchResponseDTO>> searchProperties(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer type,
+            @RequestParam(required = false) Integer province,
+            @RequestParam(required = false) UUID ownerId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        var baseResponseDTO = new BaseResponseDTO<PropertySearchResponseDTO>();
+        
+        try {
+            PropertySearchResponseDTO result = propertyRestService.searchProperties(q, type, province, ownerId, page, size);
+            
+            baseResponseDTO.setStatus(HttpStatus.OK.value());
+            baseResponseDTO.setData(result);
+            baseResponseDTO.setMessage("Ditemukan " + result.getTotalElements() + " property");
+            baseResponseDTO.setTimestamp(new Date());
+            return new ResponseEntity<>(baseResponseDTO, HttpStatus.OK);
+        } catch (AccessDeniedException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            baseResponseDTO.setStatus(HttpStatus.BAD_REQUEST.value());
+            baseResponseDTO.setMessage(ex.getMessage());
+            baseResponseDTO.setTimestamp(new Date());
+            return new ResponseEntity<>(baseResponseDTO, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping(SEARCH_AVAILABILITY)
+    public ResponseEntity<BaseResponseDTO<List<PropertyAvailabilityDTO>>> searchAvailableProperties(
+            @RequestParam String checkIn,
+            @RequestParam String checkOut,
+            @RequestParam(required = false) Integer province,
+            @RequestParam(required = false) Integer type,
+            @RequestParam(required = false) Integer capacity,
+            @RequestParam(required = false) Integer maxPrice) {
+        
+        var baseResponseDTO = new BaseResponseDTO<List<PropertyAvailabilityDTO>>();
+        
+        LocalDateTime checkInDate;
+        LocalDateTime checkOutDate;
+        try {
+            checkInDate = LocalDateTime.parse(checkIn);
+            checkOutDate = LocalDateTime.parse(checkOut);
+        } catch (Exception ex) {
+            baseResponseDTO.setStatus(HttpStatus.BAD_REQUEST.value());
+            baseResponseDTO.setMessage("Format tanggal tidak valid: " + ex.getMessage());
+            baseResponseDTO.setTimestamp(new Date());
+            return new ResponseEntity<>(baseResponseDTO, HttpStatus.BAD_REQUEST);
+        }
+        
+        try {
+            List<PropertyAvailabilityDTO> results = propertyRestService.searchAvailableProperties(
+                province, type, checkInDate, checkOutDate, capacity, maxPrice);
+            
+            baseResponseDTO.setStatus(HttpStatus.OK.value());
+            baseResponseDTO.setData(results);
+            baseResponseDTO.setMessage("Ditemukan " + results.size() + " property dengan kamar tersedia");
+            baseResponseDTO.setTimestamp(new Date());
+            return new ResponseEntity<>(baseResponseDTO, HttpStatus.OK);
+            
+        } catch (AccessDeniedException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            baseResponseDTO.setStatus(HttpStatus.BAD_REQUEST.value());
+            baseResponseDTO.setMessage(ex.getMessage());
+            baseResponseDTO.setTimestamp(new Date());
+            return new ResponseEntity<>(baseResponseDTO, HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @GetMapping(VIEW_PROPERTY)
     public ResponseEntity<BaseResponseDTO<PropertyResponseDTO>> getProperty(
             @PathVariable UUID id,
@@ -5,6 +5,7 @@ import apap.ti._5.accommodation_2306275600_be.restdto.request.topup.UpdateTopUpS
 import apap.ti._5.accommodation_2306275600_be.restdto.response.BaseResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.topup.TopUpTransactionResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restservice.RBAC.TopUpTransactionRestServiceRBAC;
+import apap.ti._5.accommodation_2306275600_be.service.IdempotencyService;
 import jakarta.validation.Valid;
 
 import org.springframework.http.HttpStatus;
@@ -21,16 +22,20 @@ import java.util.List;
 public class TopUpTransactionRestController {
     
     private final TopUpTransactionRestServiceRBAC topUpTransactionRestService;
+    private final IdempotencyService idempotencyService;
 
-    public TopUpTransactionRestController(TopUpTransactionRestServiceRBAC topUpTransactionRestService) {
+    public TopUpTransactionRestController(TopUpTransactionRestServiceRBAC topUpTransactionRestService,
+                                          IdempotencyService idempotencyService) {
         this.topUpTransactionRestService = topUpTransactionRestService;
+        this.idempotencyService = idempotencyService;
     }
 
     // [POST] Create Top-Up Transaction - PBI-BE-TU3
     @PostMapping
     public ResponseEntity<BaseResponseDTO<TopUpTransactionResponseDTO>> createTopUpTransaction(
             @Valid @RequestBody CreateTopUpRequestDTO dto,
-            BindingResult bindingResult) {
+            BindingResult bindingResult,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         
         var baseResponseDTO = new BaseResponseDTO<TopUpTransactionResponseDTO>();
         
@@ -47,21 +52,23 @@ public class TopUpTransactionRestController {
             return new ResponseEntity<>(baseResponseDTO, HttpStatus.BAD_REQUEST);
         }
 
-        try {
-            TopUpTransactionResponseDTO result = topUpTransactionRestService.createTopUpTransaction(dto);
+        return idempotencyService.execute("/api/top-up", idempotencyKey, dto, () -> {
+            try {
+                TopUpTransactionResponseDTO result = topUpTransactionRestService.createTopUpTransaction(dto);
             
-            baseResponseDTO.setStatus(HttpStatus.CREATED.value());
-            baseResponseDTO.setMessage("Membuat transaksi baru dengan status 'Pending'");
-            baseResponseDTO.setTimestamp(new Date());
-            baseResponseDTO.setData(result);
-            return new ResponseEntity<>(baseResponseDTO, HttpStatus.CREATED);
-        } catch (Exception e) {
-            baseResponseDTO.setStatus(HttpStatus.BAD_REQUEST.value());
-            baseResponseDTO.setMessage(e.getMessage());
-            baseResponseDTO.setTimestamp(new Date());
-            baseResponseDTO.setData(null);
-            return new ResponseEntity<>(baseResponseDTO, HttpStatus.BAD_REQUEST);
-        }
+                baseResponseDTO.setStatus(HttpStatus.CREATED.value());
+                baseResponseDTO.setMessage("Membuat transaksi baru dengan status 'Pending'");
+                baseResponseDTO.setTimestamp(new Date());
+                baseResponseDTO.setData(result);
+                return new ResponseEntity<>(baseResponseDTO, HttpStatus.CREATED);
+            } catch (Exception e) {
+                baseResponseDTO.setStatus(HttpStatus.BAD_REQUEST.value());
+                baseResponseDTO.setMessage(e.getMessage());
+                baseResponseDTO.setTimestamp(new Date());
+                baseResponseDTO.setData(null);
+                return new ResponseEntity<>(baseResponseDTO, HttpStatus.BAD_REQUEST);
+            }
+        });
     }
 
     // [GET] Get All Top-Up Transactions - PBI-BE-TU1
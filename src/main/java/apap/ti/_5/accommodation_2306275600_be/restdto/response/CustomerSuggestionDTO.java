@@ -0,0 +1,20 @@
+package apap.ti._5.accommodation_2306275600_be.restdto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One typeahead entry; no balance, so it is served without a database round trip
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSuggestionDTO {
+    
+    private String id;
+    private String username;
+    private String name;
+    private String email;
+    private String gender;
+}
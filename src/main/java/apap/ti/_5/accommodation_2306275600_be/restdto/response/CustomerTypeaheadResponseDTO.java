@@ -0,0 +1,17 @@
+package apap.ti._5.accommodation_2306275600_be.restdto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerTypeaheadResponseDTO {
+    private List<CustomerSuggestionDTO> suggestions;
+    private boolean partial; // true when the latency budget ran out or the index is still warming up
+}
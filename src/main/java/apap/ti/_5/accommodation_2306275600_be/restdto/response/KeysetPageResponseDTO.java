@@ -0,0 +1,19 @@
+package apap.ti._5.accommodation_2306275600_be.restdto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPageResponseDTO<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor; // pass back as ?cursor= for the next page, null on the last page
+}
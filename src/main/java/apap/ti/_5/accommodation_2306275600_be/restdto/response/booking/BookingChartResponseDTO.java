@@ -7,6 +7,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Data
@@ -17,6 +18,8 @@ public class BookingChartResponseDTO {
     private String period;
     private int month;
     private int year;
+    private LocalDate startDate;
+    private LocalDate endDate;
     private int totalProperties;
     private int totalRevenue;
     private List<PropertyRevenueDTO> propertyRevenues;
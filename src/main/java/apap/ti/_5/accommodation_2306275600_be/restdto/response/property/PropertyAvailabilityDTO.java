@@ -0,0 +1,23 @@
+package apap.ti._5.accommodation_2306275600_be.restdto.response.property;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyAvailabilityDTO {
+    private String propertyID;
+    private String propertyName;
+    private Integer type;
+    private String typeName;
+    private String address;
+    private Integer province;
+    private String ownerID;
+    private int availableRoomTypes; // Room types with at least one free room
+    private int availableRooms;
+    private int lowestPrice; // Cheapest free room type per night
+}
@@ -0,0 +1,22 @@
+package apap.ti._5.accommodation_2306275600_be.restdto.response.property;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertySearchResponseDTO {
+    private List<PropertyResponseDTO> content; // Best match first
+    private int page;
+    private int size;
+    private long totalElements;
+    private Map<Integer, Long> typeFacets; // type -> matches, counted with the province filter only
+    private Map<Integer, Long> provinceFacets; // province -> matches, counted with the type filter only
+}
@@ -6,7 +6,9 @@ import apap.ti._5.accommodation_2306275600_be.restdto.request.LoginRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.RegisterRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.UpdateUserRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.CustomerResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.CustomerTypeaheadResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.EndUserResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.LoginResponseDTO;
 
 import java.util.List;
@@ -25,6 +27,21 @@ public interface AuthRestService {
      */
     List<CustomerResponseDTO> getAllCustomers(String search, String gender);
     
+    /**
+     * One page of customers with optional search and gender filter, newest first
+     * @param cursor nextCursor from the previous page, null for the first page
+     * @param size Page size, capped at 100
+     */
+    KeysetPageResponseDTO<CustomerResponseDTO> getCustomersPage(String search, String gender, String cursor, int size);
+    
+    /**
+     * Typeahead suggestions for the customer search box, answered from memory
+     * within the configured latency budget
+     * @param query At least 2 characters, otherwise nothing is suggested
+     * @param limit Number of suggestions, capped at 20
+     */
+    CustomerTypeaheadResponseDTO suggestCustomers(String query, String gender, int limit);
+    
     /**
      * Login user with email/username and password
      * Returns JWT token in cookie
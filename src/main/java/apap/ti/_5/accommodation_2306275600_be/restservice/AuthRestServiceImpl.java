@@ -1,31 +1,51 @@
 package apap.ti._5.accommodation_2306275600_be.restservice;
 
+import apap.ti._5.accommodation_2306275600_be.exceptions.ServiceBusyException;
 import apap.ti._5.accommodation_2306275600_be.model.AccommodationOwner;
 import apap.ti._5.accommodation_2306275600_be.model.Customer;
 import apap.ti._5.accommodation_2306275600_be.model.EndUser;
 import apap.ti._5.accommodation_2306275600_be.repository.AccommodationOwnerRepository;
 import apap.ti._5.accommodation_2306275600_be.repository.CustomerRepository;
 import apap.ti._5.accommodation_2306275600_be.repository.EndUserRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.EndUserRepositoryCustom.LoginCredentials;
+import apap.ti._5.accommodation_2306275600_be.repository.KeysetCursor;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.LoginRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.RegisterRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.UpdateUserRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.CustomerResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.CustomerSuggestionDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.CustomerTypeaheadResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.EndUserResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.LoginResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.security.JwtTokenProvider;
+import apap.ti._5.accommodation_2306275600_be.service.BalanceLedgerService;
+import apap.ti._5.accommodation_2306275600_be.service.CustomerSearchIndex;
+import apap.ti._5.accommodation_2306275600_be.service.CustomerSearchIndexService;
+import apap.ti._5.accommodation_2306275600_be.service.PasswordHashingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,8 +56,16 @@ public class AuthRestServiceImpl implements AuthRestService {
     private final EndUserRepository endUserRepository;
     private final CustomerRepository customerRepository;
     private final AccommodationOwnerRepository accommodationOwnerRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtTokenProvider jwtTokenProvider;
+    private final BalanceLedgerService balanceLedgerService;
+    private final MeterRegistry meterRegistry;
+    private final CustomerSearchIndexService customerSearchIndexService;
+    
+    protected static final int MAX_PAGE_SIZE = 100;
+    private static final int MIN_TYPEAHEAD_LENGTH = 2;
+    private static final int MAX_TYPEAHEAD_SIZE = 20;
+    private static final int SEARCH_FETCH_CHUNK = 1000;
     
     @Value("${jwt.expiration}")
     private long jwtExpiration;
@@ -51,52 +79,185 @@ public class AuthRestServiceImpl implements AuthRestService {
     
     @Override
     public List<CustomerResponseDTO> getAllCustomers(String search, String gender) {
+        String keyword = search != null ? search.trim() : "";
+        String genderFilter = normalizeGender(gender);
         List<Customer> customers;
         
-        if (search != null && !search.trim().isEmpty()) {
-            customers = customerRepository.searchCustomers(search.trim());
+        if (!keyword.isEmpty()) {
+            // Match the keyword and gender in memory, then load only the matched customers
+            List<CustomerSearchIndex.Entry> matches =
+                    customerSearchIndexService.page(keyword, genderFilter, null, Integer.MAX_VALUE);
+            if (matches != null) {
+                customers = findCustomersInOrder(matches);
+            } else if (genderFilter != null) {
+                // Index still warming up: filter by both gender and search keyword in SQL
+                customers = customerRepository.searchCustomersByGender(keyword, genderFilter);
+            } else {
+                customers = customerRepository.searchCustomers(keyword);
+            }
+        } else if (genderFilter != null) {
+            customers = customerRepository.findByGenderOrderByCreatedAtDesc(genderFilter);
         } else {
             customers = customerRepository.findAllOrderByCreatedAtDesc();
         }
         
-        // Apply gender filter if provided
-        if (gender != null && !gender.trim().isEmpty()) {
-            customers = customers.stream()
-                    .filter(c -> gender.equalsIgnoreCase(c.getGender()))
+        return convertToCustomerDTOs(customers);
+    }
+    
+    @Override
+    public KeysetPageResponseDTO<CustomerResponseDTO> getCustomersPage(String search, String gender, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        String keyword = search != null ? search.trim() : "";
+        String genderFilter = normalizeGender(gender);
+        
+        // Fetch one extra row to know whether another page exists, without a COUNT query
+        List<Customer> rows;
+        List<CustomerSearchIndex.Entry> matches =
+                customerSearchIndexService.page(keyword, genderFilter, after, pageSize + 1);
+        if (matches != null) {
+            rows = findCustomersInOrder(matches);
+        } else if (!keyword.isEmpty()) {
+            // Index still warming up: gender is still filtered in SQL, the page is cut in memory
+            List<Customer> found = genderFilter != null
+                    ? customerRepository.searchCustomersByGender(keyword, genderFilter)
+                    : customerRepository.searchCustomers(keyword);
+            rows = found.stream()
+                    .filter(c -> after == null || KeysetCursor.LIST_ORDER.compare(position(c), after) > 0)
+                    .sorted(Comparator.comparing(this::position, KeysetCursor.LIST_ORDER))
+                    .limit(pageSize + 1)
                     .collect(Collectors.toList());
+        } else {
+            Pageable limit = PageRequest.of(0, pageSize + 1);
+            if (genderFilter != null) {
+                rows = after == null
+                        ? customerRepository.findPageByGender(genderFilter, limit)
+                        : customerRepository.findPageByGenderAfter(genderFilter, after.createdAt(), after.id(), limit);
+            } else {
+                rows = after == null
+                        ? customerRepository.findPage(limit)
+                        : customerRepository.findPageAfter(after.createdAt(), after.id(), limit);
+            }
         }
+        boolean hasNext = rows.size() > pageSize;
+        List<Customer> page = hasNext ? rows.subList(0, pageSize) : rows;
         
-        return customers.stream()
-                .map(this::convertToCustomerDTO)
-                .collect(Collectors.toList());
+        return KeysetPageResponseDTO.<CustomerResponseDTO>builder()
+                .content(convertToCustomerDTOs(page))
+                .size(pageSize)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? position(page.get(page.size() - 1)).encode() : null)
+                .build();
     }
     
     @Override
-    @Transactional
-    public LoginResponseDTO login(LoginRequestDTO request) {
-        // Find user by email or username
-        EndUser user = endUserRepository.findByEmailOrUsername(request.getIdentifier())
-                .orElseThrow(() -> new RuntimeException("Invalid credentials"));
-        
-        // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            throw new RuntimeException("Invalid credentials");
+    // Served from memory only; no transaction, so no pooled connection is taken per keystroke
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CustomerTypeaheadResponseDTO suggestCustomers(String query, String gender, int limit) {
+        String keyword = query != null ? query.trim() : "";
+        if (keyword.length() < MIN_TYPEAHEAD_LENGTH) {
+            return new CustomerTypeaheadResponseDTO(List.of(), false);
         }
         
-        // Generate JWT token
-        String token = jwtTokenProvider.generateToken(user.getId().toString(), user.getUsername(), user.getRole());
+        CustomerSearchIndex.Suggestions suggestions = customerSearchIndexService.suggest(
+                keyword, normalizeGender(gender), Math.max(1, Math.min(limit, MAX_TYPEAHEAD_SIZE)));
+        if (suggestions == null) {
+            // Index still warming up; the full search endpoints keep working through SQL meanwhile
+            return new CustomerTypeaheadResponseDTO(List.of(), true);
+        }
         
-        // Set JWT in httpOnly cookie
-        setJwtCookie(token);
+        return new CustomerTypeaheadResponseDTO(
+                suggestions.entries().stream()
+                        .map(e -> new CustomerSuggestionDTO(
+                                e.id().toString(), e.username(), e.name(), e.email(), e.gender()))
+                        .collect(Collectors.toList()),
+                suggestions.partial());
+    }
+    
+    /**
+     * Load the given customers, keeping the order of the index entries
+     */
+    private List<Customer> findCustomersInOrder(List<CustomerSearchIndex.Entry> entries) {
+        List<UUID> ids = entries.stream().map(CustomerSearchIndex.Entry::id).collect(Collectors.toList());
+        Map<UUID, Customer> byId = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += SEARCH_FETCH_CHUNK) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + SEARCH_FETCH_CHUNK, ids.size()));
+            byId.putAll(customerRepository.findAllById(chunk).stream()
+                    .collect(Collectors.toMap(Customer::getId, Function.identity())));
+        }
         
-        return new LoginResponseDTO(
-                user.getId().toString(),
-                user.getUsername(),
-                user.getName(),
-                user.getEmail(),
-                user.getRole(),
-                "Login successful"
-        );
+        List<Customer> customers = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Customer customer = byId.get(id);
+            if (customer != null) {
+                customers.add(customer);
+            }
+        }
+        return customers;
+    }
+    
+    private List<CustomerResponseDTO> convertToCustomerDTOs(List<Customer> customers) {
+        // Balances for the whole list in two queries instead of two per customer
+        Map<UUID, BigDecimal> balances = balanceLedgerService.getBalances(
+                customers.stream().map(Customer::getId).collect(Collectors.toList()));
+        return customers.stream()
+                .map(c -> convertToCustomerDTO(c, balances.getOrDefault(c.getId(), BigDecimal.ZERO)))
+                .collect(Collectors.toList());
+    }
+    
+    private KeysetCursor position(Customer customer) {
+        return new KeysetCursor(customer.getCreatedAt(), customer.getId());
+    }
+    
+    /**
+     * Gender is stored as MALE, FEMALE or OTHER; the filter used to be case-insensitive
+     */
+    private static String normalizeGender(String gender) {
+        return gender == null || gender.isBlank() ? null : gender.trim().toUpperCase(Locale.ROOT);
+    }
+    
+    @Override
+    // No transaction, and the user is read as a detached record on its own EntityManager,
+    // so no connection is held while the password check waits for a hashing worker
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public LoginResponseDTO login(LoginRequestDTO request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "invalid";
+        try {
+            // Find user by email or username
+            LoginCredentials user = endUserRepository.findLoginCredentials(request.getIdentifier())
+                    .orElseThrow(() -> new RuntimeException("Invalid credentials"));
+            
+            // Verify password (BCrypt runs on the password hashing pool)
+            if (!passwordHashingService.matches(request.getPassword(), user.password())) {
+                throw new RuntimeException("Invalid credentials");
+            }
+            
+            // Generate JWT token
+            String token = jwtTokenProvider.generateToken(user.id().toString(), user.username(), user.role());
+            
+            // Set JWT in httpOnly cookie
+            setJwtCookie(token);
+            
+            outcome = "success";
+            return new LoginResponseDTO(
+                    user.id().toString(),
+                    user.username(),
+                    user.name(),
+                    user.email(),
+                    user.role(),
+                    "Login successful"
+            );
+        } catch (ServiceBusyException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("auth.login")
+                    .tag("outcome", outcome)
+                    .description("Login requests by outcome")
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+        }
     }
     
     @Override
@@ -125,19 +286,20 @@ public class AuthRestServiceImpl implements AuthRestService {
             customer.setUsername(request.getUsername());
             customer.setName(request.getName());
             customer.setEmail(request.getEmail());
-            customer.setPassword(passwordEncoder.encode(request.getPassword()));
+            customer.setPassword(passwordHashingService.encode(request.getPassword()));
             customer.setRole("CUSTOMER");
             customer.setGender(request.getGender());
             customer.setSaldo(BigDecimal.ZERO);
             
             savedUser = customerRepository.save(customer);
+            customerSearchIndexService.onCustomerSaved((Customer) savedUser);
         } else {
             // ACCOMMODATION_OWNER
             AccommodationOwner owner = new AccommodationOwner();
             owner.setUsername(request.getUsername());
             owner.setName(request.getName());
             owner.setEmail(request.getEmail());
-            owner.setPassword(passwordEncoder.encode(request.getPassword()));
+            owner.setPassword(passwordHashingService.encode(request.getPassword()));
             owner.setRole("ACCOMMODATION_OWNER");
             owner.setGender(request.getGender());
             
@@ -190,7 +352,7 @@ public class AuthRestServiceImpl implements AuthRestService {
         }
         
         if (request.getPassword() != null && !request.getPassword().isBlank()) {
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            user.setPassword(passwordHashingService.encode(request.getPassword()));
         }
         
         if (request.getGender() != null && !request.getGender().isBlank()) {
@@ -208,6 +370,7 @@ public class AuthRestServiceImpl implements AuthRestService {
         EndUser updatedUser = endUserRepository.save(user);
         
         if (updatedUser instanceof Customer) {
+            customerSearchIndexService.onCustomerSaved((Customer) updatedUser);
             return convertToCustomerDTO((Customer) updatedUser);
         }
         
@@ -230,6 +393,10 @@ public class AuthRestServiceImpl implements AuthRestService {
     
     @Override
     public CustomerResponseDTO convertToCustomerDTO(Customer customer) {
+        return convertToCustomerDTO(customer, balanceLedgerService.getBalance(customer.getId()));
+    }
+    
+    private CustomerResponseDTO convertToCustomerDTO(Customer customer, BigDecimal balance) {
         CustomerResponseDTO dto = new CustomerResponseDTO();
         dto.setId(customer.getId().toString());
         dto.setUsername(customer.getUsername());
@@ -239,7 +406,7 @@ public class AuthRestServiceImpl implements AuthRestService {
         dto.setGender(customer.getGender());
         dto.setCreatedAt(customer.getCreatedAt());
         dto.setUpdatedAt(customer.getUpdatedAt());
-        dto.setSaldo(customer.getSaldo());
+        dto.setSaldo(balance);
         return dto;
     }
     
@@ -3,16 +3,25 @@ package apap.ti._5.accommodation_2306275600_be.restservice;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.CreateBillRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.PayBillRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.UpdateBillRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.bill.BillDetailResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.bill.BillResponseDTO;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
 import java.util.List;
 import java.util.UUID;
 
 public interface BillRestService {
     BillResponseDTO createBill(CreateBillRequestDTO dto);
-    List<BillResponseDTO> getAllBills(UUID customerId, String serviceName, Integer status);
+    Page<BillResponseDTO> getAllBills(UUID customerId, String serviceName, Integer status, Pageable pageable);
     List<BillResponseDTO> getCustomerBills(UUID customerId, Integer status, String sortBy, String sortDirection);
+    /**
+     * Keyset page of a customer's bills, newest first. Pass the previous page's
+     * nextCursor to continue; null cursor starts from the top.
+     */
+    KeysetPageResponseDTO<BillResponseDTO> getCustomerBillsPage(UUID customerId, Integer status, String cursor, int size);
     List<BillResponseDTO> getServiceBills(String serviceName, Integer status, UUID customerId);
     BillDetailResponseDTO getBillDetail(UUID billId);
     BillResponseDTO payBill(UUID billId, PayBillRequestDTO dto, UUID authenticatedCustomerId);
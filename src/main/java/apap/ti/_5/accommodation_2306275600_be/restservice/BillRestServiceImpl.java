@@ -2,21 +2,29 @@ package apap.ti._5.accommodation_2306275600_be.restservice;
 
 import apap.ti._5.accommodation_2306275600_be.exceptions.BillAlreadyPaidException;
 import apap.ti._5.accommodation_2306275600_be.exceptions.BillNotFoundException;
-import apap.ti._5.accommodation_2306275600_be.exceptions.InsufficientBalanceException;
+import apap.ti._5.accommodation_2306275600_be.model.BalanceLedgerEntry;
 import apap.ti._5.accommodation_2306275600_be.model.Bill;
 import apap.ti._5.accommodation_2306275600_be.model.Booking;
 import apap.ti._5.accommodation_2306275600_be.model.Customer;
 import apap.ti._5.accommodation_2306275600_be.repository.BillRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.BillSpecifications;
 import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository;
 import apap.ti._5.accommodation_2306275600_be.repository.CustomerRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.KeysetCursor;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.CreateBillRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.PayBillRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.UpdateBillRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.bill.BillDetailResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.bill.BillResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.service.BalanceLedgerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
@@ -36,6 +44,7 @@ public class BillRestServiceImpl implements BillRestService {
     protected final CustomerRepository customerRepository;
     protected final BookingRepository bookingRepository;
     protected final RestTemplate restTemplate;
+    protected final BalanceLedgerService balanceLedgerService;
 
     @Value("${bill.service.api-key:ACCOMMODATION_API_KEY}")
     private String apiKey;
@@ -43,6 +52,8 @@ public class BillRestServiceImpl implements BillRestService {
     @Value("${bill.service.topup-api-key:TOPUP_API_KEY}")
     private String topUpApiKey;
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private static final Set<String> VALID_SERVICE_NAMES = Set.of(
         "Accommodation", "TopUp", "Flight", "Insurance", "VehicleRental", "TourPackage"
     );
@@ -71,6 +82,13 @@ public class BillRestServiceImpl implements BillRestService {
             throw new RuntimeException("Service name must be one of: " + String.join(", ", VALID_SERVICE_NAMES));
         }
 
+        // Callers retry timeouts and 5xx that may already have been applied; hand back the bill from the first call
+        Optional<Bill> existing = billRepository.findByServiceNameAndServiceReferenceId(
+            dto.getServiceName(), dto.getServiceReferenceId());
+        if (existing.isPresent()) {
+            return convertToResponseDTO(existing.get());
+        }
+
         // Load customer
         Customer customer = customerRepository.findById(UUID.fromString(dto.getCustomerId().toString()))
             .orElseThrow(() -> new RuntimeException("Customer not found with ID: " + dto.getCustomerId()));
@@ -85,8 +103,8 @@ public class BillRestServiceImpl implements BillRestService {
             .status(0) // 0 = Unpaid
             .build();
 
-        // Save bill
-        Bill savedBill = billRepository.save(bill);
+        // Flushed here so a concurrent duplicate fails on uk_bill_service_reference inside this call
+        Bill savedBill = billRepository.saveAndFlush(bill);
 
         System.out.println("✅ Bill Created Successfully:");
         System.out.println("   Bill ID: " + savedBill.getBillId());
@@ -98,70 +116,35 @@ public class BillRestServiceImpl implements BillRestService {
     }
 
     @Override
-    public List<BillResponseDTO> getAllBills(UUID customerId, String serviceName, Integer status) {
-        List<Bill> bills = billRepository.findAllNotDeleted();
-
-        // Apply filters
-        if (customerId != null) {
-            bills = bills.stream()
-                .filter(b -> b.getCustomer().getId().equals(customerId))
-                .collect(Collectors.toList());
-        }
+    public Page<BillResponseDTO> getAllBills(UUID customerId, String serviceName, Integer status, Pageable pageable) {
+        // Single filtered, paged query instead of loading every bill and filtering in memory
+        Specification<Bill> spec = Specification.allOf(
+            BillSpecifications.notDeleted(),
+            BillSpecifications.hasCustomer(customerId),
+            BillSpecifications.hasServiceName(canonicalServiceName(serviceName)),
+            BillSpecifications.hasStatus(status));
 
-        if (serviceName != null && !serviceName.trim().isEmpty()) {
-            bills = bills.stream()
-                .filter(b -> b.getServiceName().equalsIgnoreCase(serviceName.trim()))
-                .collect(Collectors.toList());
-        }
+        Page<Bill> bills = billRepository.findAll(spec, pageable);
 
-        if (status != null) {
-            bills = bills.stream()
-                .filter(b -> b.getStatus() == status)
-                .collect(Collectors.toList());
-        }
-
-        if (bills.isEmpty()) {
+        if (bills.getTotalElements() == 0) {
             throw new BillNotFoundException("No Bill Found");
         }
 
-        return bills.stream()
-            .map(this::convertToResponseDTO)
-            .collect(Collectors.toList());
+        return bills.map(this::convertToResponseDTO);
     }
 
     @Override
     public List<BillResponseDTO> getCustomerBills(UUID customerId, Integer status, String sortBy, String sortDirection) {
-        Customer customer = customerRepository.findById(customerId)
-            .orElseThrow(() -> new BillNotFoundException("No Bill Found"));
+        if (!customerRepository.existsById(customerId)) {
+            throw new BillNotFoundException("No Bill Found");
+        }
 
-        List<Bill> bills;
+        Specification<Bill> spec = Specification.allOf(
+            BillSpecifications.notDeleted(),
+            BillSpecifications.hasCustomer(customerId),
+            BillSpecifications.hasStatus(status));
 
-        // Fetch with filters and sorting
-        if (status != null && sortBy != null) {
-            if ("createdAt".equalsIgnoreCase(sortBy)) {
-                bills = "asc".equalsIgnoreCase(sortDirection)
-                    ? billRepository.findByCustomerAndStatusOrderByCreatedAtAsc(customer, status)
-                    : billRepository.findByCustomerAndStatusOrderByCreatedAtDesc(customer, status);
-            } else {
-                bills = billRepository.findByCustomerAndStatusNotDeleted(customer, status);
-            }
-        } else if (status != null) {
-            bills = billRepository.findByCustomerAndStatusNotDeleted(customer, status);
-        } else if (sortBy != null) {
-            if ("createdAt".equalsIgnoreCase(sortBy)) {
-                bills = "asc".equalsIgnoreCase(sortDirection)
-                    ? billRepository.findByCustomerOrderByCreatedAtAsc(customer)
-                    : billRepository.findByCustomerOrderByCreatedAtDesc(customer);
-            } else if ("serviceName".equalsIgnoreCase(sortBy)) {
-                bills = "asc".equalsIgnoreCase(sortDirection)
-                    ? billRepository.findByCustomerOrderByServiceNameAsc(customer)
-                    : billRepository.findByCustomerOrderByServiceNameDesc(customer);
-            } else {
-                bills = billRepository.findByCustomerNotDeleted(customer);
-            }
-        } else {
-            bills = billRepository.findByCustomerNotDeleted(customer);
-        }
+        List<Bill> bills = billRepository.findAll(spec, customerBillSort(sortBy, sortDirection));
 
         if (bills.isEmpty()) {
             throw new BillNotFoundException("No Bill Found");
@@ -173,23 +156,48 @@ public class BillRestServiceImpl implements BillRestService {
     }
 
     @Override
-    public List<BillResponseDTO> getServiceBills(String serviceName, Integer status, UUID customerId) {
-        List<Bill> bills;
-
-        if (status != null && customerId != null) {
-            bills = billRepository.findByServiceNameAndCustomerIdNotDeleted(serviceName, customerId)
-                .stream()
-                .filter(b -> b.getStatus() == status)
-                .collect(Collectors.toList());
-        } else if (status != null) {
-            bills = billRepository.findByServiceNameAndStatusNotDeleted(serviceName, status);
-        } else if (customerId != null) {
-            bills = billRepository.findByServiceNameAndCustomerIdNotDeleted(serviceName, customerId);
-        } else {
-            bills = billRepository.findByServiceNameNotDeleted(serviceName);
+    public KeysetPageResponseDTO<BillResponseDTO> getCustomerBillsPage(UUID customerId, Integer status, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Specification<Bill> spec = Specification.allOf(
+            BillSpecifications.notDeleted(),
+            BillSpecifications.hasCustomer(customerId),
+            BillSpecifications.hasStatus(status),
+            BillSpecifications.after(KeysetCursor.decode(cursor)));
+
+        // One extra row tells whether another page exists, so no COUNT query is needed
+        List<Bill> rows = billRepository.findBy(spec, query -> query
+            .sortBy(BillSpecifications.NEWEST_FIRST)
+            .limit(pageSize + 1)
+            .project("customer")
+            .all());
+        boolean hasNext = rows.size() > pageSize;
+        List<Bill> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Bill last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getBillId()).encode();
         }
 
-        return bills.stream()
+        return KeysetPageResponseDTO.<BillResponseDTO>builder()
+            .content(page.stream()
+                .map(this::convertToResponseDTO)
+                .collect(Collectors.toList()))
+            .size(pageSize)
+            .hasNext(hasNext)
+            .nextCursor(nextCursor)
+            .build();
+    }
+
+    @Override
+    public List<BillResponseDTO> getServiceBills(String serviceName, Integer status, UUID customerId) {
+        Specification<Bill> spec = Specification.allOf(
+            BillSpecifications.notDeleted(),
+            BillSpecifications.hasServiceName(serviceName),
+            BillSpecifications.hasCustomer(customerId),
+            BillSpecifications.hasStatus(status));
+
+        return billRepository.findAll(spec, BillSpecifications.NEWEST_FIRST).stream()
             .map(this::convertToResponseDTO)
             .collect(Collectors.toList());
     }
@@ -203,6 +211,8 @@ public class BillRestServiceImpl implements BillRestService {
     }
 
     @Override
+    // Bounded so the balance debit commits inside the snapshot commit horizon
+    @Transactional(timeout = BalanceLedgerService.WRITE_TIMEOUT_SECONDS)
     public BillResponseDTO payBill(UUID billId, PayBillRequestDTO dto, UUID authenticatedCustomerId) {
         // Load bill
         Bill bill = billRepository.findByIdNotDeleted(billId)
@@ -218,29 +228,26 @@ public class BillRestServiceImpl implements BillRestService {
             throw new RuntimeException("Unauthorized: You can only pay your own bills");
         }
 
-        // Check customer balance
-        Customer customer = bill.getCustomer();
-        BigDecimal customerBalance = customer.getSaldo();
+        // Claim the bill first: a concurrent payment of the same bill gets 0 rows here
         BigDecimal billAmount = BigDecimal.valueOf(bill.getAmount());
-
-        if (customerBalance.compareTo(billAmount) < 0) {
-            throw new InsufficientBalanceException("User balance insufficient, please Top Up balance.");
+        if (billRepository.markPaid(billId, LocalDateTime.now()) == 0) {
+            throw new BillAlreadyPaidException("Bill has already been paid");
         }
 
-        // Deduct balance
-        customer.setSaldo(customerBalance.subtract(billAmount));
-        customerRepository.save(customer);
+        // Append the debit to the balance ledger; InsufficientBalanceException rolls back the claim above
+        BigDecimal remainingBalance = balanceLedgerService.debit(
+            authenticatedCustomerId, billAmount, BalanceLedgerEntry.TYPE_BILL_PAYMENT, billId.toString());
 
-        // Update bill status
-        bill.setStatus(1); // 1 = Paid
-        bill.setPaymentTimestamp(LocalDateTime.now());
-        Bill paidBill = billRepository.save(bill);
+        // The bulk update cleared the persistence context, so reload the paid state
+        Bill paidBill = billRepository.findByIdNotDeleted(billId)
+            .orElseThrow(() -> new BillNotFoundException("No Bill Found"));
+        Customer customer = paidBill.getCustomer();
 
         System.out.println("✅ Bill Paid Successfully:");
         System.out.println("   Bill ID: " + paidBill.getBillId());
         System.out.println("   Customer: " + customer.getName());
         System.out.println("   Amount Paid: Rp " + String.format("%,d", paidBill.getAmount()));
-        System.out.println("   Remaining Balance: Rp " + String.format("%,.2f", customer.getSaldo()));
+        System.out.println("   Remaining Balance: Rp " + String.format("%,.2f", remainingBalance));
 
         // Update booking status if this is an Accommodation bill
         if ("Accommodation".equals(paidBill.getServiceName())) {
@@ -332,6 +339,30 @@ public class BillRestServiceImpl implements BillRestService {
     }
 
     // Helper methods
+    // Service names are stored in their canonical spelling; match the filter case-insensitively here
+    // Only createdAt and serviceName are sortable; newest first otherwise
+    private Sort customerBillSort(String sortBy, String sortDirection) {
+        Sort.Direction direction = "asc".equalsIgnoreCase(sortDirection) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        if ("serviceName".equalsIgnoreCase(sortBy)) {
+            return Sort.by(direction, "serviceName").and(BillSpecifications.NEWEST_FIRST);
+        }
+        if ("createdAt".equalsIgnoreCase(sortBy)) {
+            return Sort.by(direction, "createdAt", "billId");
+        }
+        return BillSpecifications.NEWEST_FIRST;
+    }
+
+    private String canonicalServiceName(String serviceName) {
+        if (serviceName == null || serviceName.trim().isEmpty()) {
+            return null;
+        }
+        String trimmed = serviceName.trim();
+        return VALID_SERVICE_NAMES.stream()
+            .filter(name -> name.equalsIgnoreCase(trimmed))
+            .findFirst()
+            .orElse(trimmed);
+    }
+
     private BillResponseDTO convertToResponseDTO(Bill bill) {
         return BillResponseDTO.builder()
             .billId(bill.getBillId())
@@ -1,11 +1,13 @@
 package apap.ti._5.accommodation_2306275600_be.restservice;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.ChangeBookingStatusRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.CreateBookingRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.UpdateBookingRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingChartResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingDetailResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingListItemDTO;
@@ -15,6 +17,13 @@ import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingUp
 public interface BookingRestService {
     BookingResponseDTO createBooking(CreateBookingRequestDTO dto);
     List<BookingListItemDTO> getAllBookings(Integer status, String search);
+    /**
+     * Keyset page of bookings, newest first. Pass the previous page's
+     * nextCursor to continue; null cursor starts from the top.
+     *
+     * @param status restrict to one status, may be null
+     */
+    KeysetPageResponseDTO<BookingListItemDTO> getBookingsPage(Integer status, String cursor, int size);
     BookingDetailResponseDTO getBookingDetail(UUID bookingID);
     BookingUpdateFormDTO getBookingForUpdate(UUID bookingID);
     BookingResponseDTO updateBooking(UpdateBookingRequestDTO dto);
@@ -22,6 +31,7 @@ public interface BookingRestService {
     BookingResponseDTO cancelBooking(ChangeBookingStatusRequestDTO dto);
     BookingResponseDTO refundBooking(ChangeBookingStatusRequestDTO dto);
     BookingChartResponseDTO getBookingStatistics(Integer month, Integer year);
+    BookingChartResponseDTO getBookingStatisticsByRange(LocalDate startDate, LocalDate endDate); // Check-out dates, both inclusive
     
     // Commented out: updateBookingStatuses no longer needed with simplified 3-status model
     // void updateBookingStatuses(); // Auto update statuses
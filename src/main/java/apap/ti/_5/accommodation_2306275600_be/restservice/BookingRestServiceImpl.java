@@ -7,34 +7,45 @@ import apap.ti._5.accommodation_2306275600_be.model.Property;
 import apap.ti._5.accommodation_2306275600_be.model.Room;
 import apap.ti._5.accommodation_2306275600_be.model.Customer;
 import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository.BookingListItemView;
 import apap.ti._5.accommodation_2306275600_be.repository.PropertyRepository;
 import apap.ti._5.accommodation_2306275600_be.repository.RoomRepository;
 import apap.ti._5.accommodation_2306275600_be.repository.CustomerRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.KeysetCursor;
+import apap.ti._5.accommodation_2306275600_be.repository.PropertyRevenueView;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.ChangeBookingStatusRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.CreateBookingRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingListItemDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingDetailResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.UpdateBookingRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingUpdateFormDTO;
 // import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.ChangeBookingStatusRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingChartResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertyRevenueDTO;
 import apap.ti._5.accommodation_2306275600_be.service.BillIntegrationService;
+import apap.ti._5.accommodation_2306275600_be.service.BookingSearchIndexService;
+import apap.ti._5.accommodation_2306275600_be.service.RevenueRollupService;
+import apap.ti._5.accommodation_2306275600_be.service.RoomCalendarService;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 // import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 // import lombok.RequiredArgsConstructor;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -48,13 +59,26 @@ public class BookingRestServiceImpl implements BookingRestService {
     protected final PropertyRepository propertyRepository;
     protected final CustomerRepository customerRepository;
     protected final BillIntegrationService billIntegrationService;
+    protected final RoomCalendarService roomCalendarService;
+    protected final RevenueRollupService revenueRollupService;
+    protected final BookingSearchIndexService bookingSearchIndexService;
     
     private static final int BREAKFAST_PRICE = 50000;
+    protected static final int MAX_PAGE_SIZE = 100;
+    // Most index matches loaded with one IN (...) list; broader keywords use the SQL search
+    private static final int MAX_INDEXED_MATCHES = 1000;
+    // Same order as ORDER BY booking_id DESC; uuid columns compare as unsigned bytes
+    private static final Comparator<BookingListItemView> BOOKING_ID_DESC = (a, b) -> {
+        int high = Long.compareUnsigned(b.getBookingID().getMostSignificantBits(), a.getBookingID().getMostSignificantBits());
+        return high != 0 ? high
+            : Long.compareUnsigned(b.getBookingID().getLeastSignificantBits(), a.getBookingID().getLeastSignificantBits());
+    };
     
     @Override
     public BookingResponseDTO createBooking(CreateBookingRequestDTO dto) {
-        // 1. Validasi Room exists
-        Room room = roomRepository.findById(UUID.fromString(dto.getRoomID()))
+        // 1. Validasi Room exists; loaded under the room lock so concurrent requests for this
+        // room wait their turn and the checks below see the maintenance window they committed
+        Room room = roomRepository.findByIdForUpdate(UUID.fromString(dto.getRoomID()))
             .orElseThrow(() -> new RuntimeException("Room not found with ID: " + dto.getRoomID()));
         
         // 2. Validasi tanggal
@@ -81,13 +105,10 @@ public class BookingRestServiceImpl implements BookingRestService {
         }
         
         // 5. Check booking conflicts
-        List<Booking> conflicts = bookingRepository.findConflictingBookings(
-            UUID.fromString(dto.getRoomID()), 
-            dto.getCheckInDate(), 
-            dto.getCheckOutDate()
-        );
+        boolean hasConflict = bookingRepository.existsConflictingBookings(
+            room.getRoomID(), dto.getCheckInDate(), dto.getCheckOutDate());
         
-        if (!conflicts.isEmpty()) {
+        if (hasConflict) {
             throw new RuntimeException(
                 "Room is already booked for the selected dates"
             );
@@ -137,6 +158,9 @@ public class BookingRestServiceImpl implements BookingRestService {
         // 8. Save booking
         Booking savedBooking = bookingRepository.save(booking);
         
+        bookingSearchIndexService.onBookingSaved(savedBooking);
+        roomCalendarService.refreshBookedDays(room, savedBooking.getCheckInDate(), savedBooking.getCheckOutDate());
+        
         // 9. Create bill in local database - this is critical for booking flow
         billIntegrationService.createBillForBooking(savedBooking);
         
@@ -159,21 +183,27 @@ public class BookingRestServiceImpl implements BookingRestService {
         // Commented out: Auto update statuses removed with simplified 3-status model
         // updateBookingStatuses();
         
-        List<Booking> bookings;
+        List<BookingListItemView> bookings;
+        String keyword = search != null ? search.trim() : "";
         
         // Apply filters
-        if (status != null && search != null && !search.trim().isEmpty()) {
-            // Filter by both status and search keyword
-            bookings = bookingRepository.searchByPropertyOrRoomAndStatus(search.trim(), status);
+        if (!keyword.isEmpty()) {
+            // Match the keyword in memory, then load only the matched bookings
+            Set<UUID> matches = bookingSearchIndexService.search(keyword);
+            if (matches != null && matches.size() <= MAX_INDEXED_MATCHES) {
+                bookings = findListItemsByBookingIDs(matches, status);
+            } else if (status != null) {
+                // Index still warming up, or the keyword matches most bookings: one ordered SQL search
+                bookings = bookingRepository.searchListItemsByPropertyOrRoomAndStatus(keyword, status);
+            } else {
+                bookings = bookingRepository.searchListItemsByPropertyOrRoom(keyword);
+            }
         } else if (status != null) {
             // Filter by status only
-            bookings = bookingRepository.findByStatusOrderedByBookingID(status);
-        } else if (search != null && !search.trim().isEmpty()) {
-            // Filter by search keyword only
-            bookings = bookingRepository.searchByPropertyOrRoom(search.trim());
+            bookings = bookingRepository.findListItemsByStatusOrderedByBookingID(status);
         } else {
             // No filter, get all
-            bookings = bookingRepository.findAllOrderedByBookingID();
+            bookings = bookingRepository.findListItemsOrderedByBookingID();
         }
         
         // Convert to DTO
@@ -182,6 +212,53 @@ public class BookingRestServiceImpl implements BookingRestService {
             .collect(Collectors.toList());
     }
 
+    private List<BookingListItemView> findListItemsByBookingIDs(Set<UUID> bookingIDs, Integer status) {
+        if (bookingIDs.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<BookingListItemView> bookings = new ArrayList<>(status != null
+            ? bookingRepository.findListItemsByBookingIDsAndStatus(bookingIDs, status)
+            : bookingRepository.findListItemsByBookingIDs(bookingIDs));
+        bookings.sort(BOOKING_ID_DESC);
+        return bookings;
+    }
+
+    @Override
+    public KeysetPageResponseDTO<BookingListItemDTO> getBookingsPage(Integer status, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        
+        // Fetch one extra row to know whether another page exists, without a COUNT query
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<BookingListItemView> rows;
+        if (status != null) {
+            rows = after == null
+                ? bookingRepository.findListItemsPageByStatus(status, limit)
+                : bookingRepository.findListItemsPageByStatusAfter(status, after.createdAt(), after.id(), limit);
+        } else {
+            rows = after == null
+                ? bookingRepository.findListItemsPage(limit)
+                : bookingRepository.findListItemsPageAfter(after.createdAt(), after.id(), limit);
+        }
+        boolean hasNext = rows.size() > pageSize;
+        List<BookingListItemView> page = hasNext ? rows.subList(0, pageSize) : rows;
+        
+        String nextCursor = null;
+        if (hasNext) {
+            BookingListItemView last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedDate(), last.getBookingID()).encode();
+        }
+        
+        return KeysetPageResponseDTO.<BookingListItemDTO>builder()
+            .content(page.stream()
+                .map(this::convertToListItemDTO)
+                .collect(Collectors.toList()))
+            .size(pageSize)
+            .hasNext(hasNext)
+            .nextCursor(nextCursor)
+            .build();
+    }
+
     @Override
     public BookingDetailResponseDTO getBookingDetail(UUID bookingID) {
         // Commented out: Auto update statuses removed with simplified 3-status model
@@ -196,6 +273,7 @@ public class BookingRestServiceImpl implements BookingRestService {
     }
     
     // Commented out: updateBookingStatuses no longer needed with simplified 3-status model
+    // Auto transitions now run as bulk updates in BookingLifecycleJob / BookingLifecycleService
     /*
     @Override
     public void updateBookingStatuses() {
@@ -250,14 +328,13 @@ public class BookingRestServiceImpl implements BookingRestService {
     }
     */
     
-    private BookingListItemDTO convertToListItemDTO(Booking booking) {
-        String roomNumber = booking.getRoom().getName();
+    private BookingListItemDTO convertToListItemDTO(BookingListItemView booking) {
         StatusInfo statusInfo = getStatusInfo(booking.getStatus());
         
         return BookingListItemDTO.builder()
             .bookingID(booking.getBookingID())
-            .propertyName(booking.getRoom().getRoomType().getProperty().getPropertyName())
-            .roomNumber(roomNumber)
+            .propertyName(booking.getPropertyName())
+            .roomNumber(booking.getRoomNumber())
             .checkInDate(booking.getCheckInDate())
             .checkOutDate(booking.getCheckOutDate())
             .totalPrice(booking.getTotalPrice())
@@ -530,9 +607,18 @@ public class BookingRestServiceImpl implements BookingRestService {
             throw new RuntimeException("Can only update bookings with status 'Waiting for Payment' (0). Current status: " + booking.getStatus());
         }
         
-        // 3. Validate new room exists
-        Room newRoom = roomRepository.findById(UUID.fromString(dto.getRoomID()))
+        // 3. Validate new room exists, loaded under the room lock. The calendar refresh locks the
+        // previous room too; taking both in ID order keeps two bookings swapping rooms from deadlocking
+        UUID newRoomID = UUID.fromString(dto.getRoomID());
+        UUID previousRoomID = booking.getRoom().getRoomID();
+        if (previousRoomID.compareTo(newRoomID) < 0) {
+            roomRepository.lockForBooking(previousRoomID);
+        }
+        Room newRoom = roomRepository.findByIdForUpdate(newRoomID)
             .orElseThrow(() -> new RuntimeException("Room not found with ID: " + dto.getRoomID()));
+        if (previousRoomID.compareTo(newRoomID) > 0) {
+            roomRepository.lockForBooking(previousRoomID);
+        }
         
         // 4. Validate dates
         validateBookingDates(dto.getCheckInDate(), dto.getCheckOutDate());
@@ -558,16 +644,10 @@ public class BookingRestServiceImpl implements BookingRestService {
         }
         
         // 7. Check booking conflicts (exclude current booking)
-        List<Booking> conflicts = bookingRepository.findConflictingBookings(
-            UUID.fromString(dto.getRoomID()), 
-            dto.getCheckInDate(), 
-            dto.getCheckOutDate()
-        );
-        
-        // Remove current booking from conflicts
-        conflicts.removeIf(b -> b.getBookingID().equals(booking.getBookingID()));
+        boolean hasConflict = bookingRepository.existsConflictingBookingsExcluding(
+            newRoom.getRoomID(), dto.getCheckInDate(), dto.getCheckOutDate(), booking.getBookingID());
         
-        if (!conflicts.isEmpty()) {
+        if (hasConflict) {
             throw new RuntimeException("Room is already booked for the selected dates");
         }
         
@@ -588,6 +668,11 @@ public class BookingRestServiceImpl implements BookingRestService {
             newTotalPrice += BREAKFAST_PRICE * (int) newTotalDays;
         }
         
+        // Keep the old stay so its nights can be released in the room calendar
+        Room previousRoom = booking.getRoom();
+        LocalDateTime previousCheckIn = booking.getCheckInDate();
+        LocalDateTime previousCheckOut = booking.getCheckOutDate();
+        
         // 9. Update booking fields (no price difference calculation needed - refund/extraPay removed)
         booking.setRoom(newRoom);
         booking.setCheckInDate(dto.getCheckInDate());
@@ -646,6 +731,9 @@ public class BookingRestServiceImpl implements BookingRestService {
         
         // 10. Save updated booking
         Booking updatedBooking = bookingRepository.save(booking);
+        bookingSearchIndexService.onBookingSaved(updatedBooking);
+        roomCalendarService.refreshBookedDays(previousRoom, previousCheckIn, previousCheckOut);
+        roomCalendarService.refreshBookedDays(newRoom, updatedBooking.getCheckInDate(), updatedBooking.getCheckOutDate());
         
         // 11. Log success
         System.out.println("✅ Booking Updated Successfully:");
@@ -708,6 +796,8 @@ public class BookingRestServiceImpl implements BookingRestService {
         
         // Save changes
         Booking updatedBooking = bookingRepository.save(booking);
+        roomCalendarService.refreshBookedDays(updatedBooking.getRoom(),
+            updatedBooking.getCheckInDate(), updatedBooking.getCheckOutDate());
         
         System.out.println("❌ Booking Cancelled: " + updatedBooking.getBookingID());
         
@@ -778,51 +868,69 @@ public class BookingRestServiceImpl implements BookingRestService {
         System.out.println("📊 Generating Booking Statistics for: " + 
                         YearMonth.of(targetYear, targetMonth));
         
-        // Get all done bookings for the period
-        List<Booking> doneBookings = bookingRepository.findDoneBookingsByMonthAndYear(
-            targetMonth, targetYear
-        );
+        // Read the pre-aggregated rollup: one row per property instead of every done booking
+        List<PropertyRevenueView> rollup = revenueRollupService.getMonthlyRevenue(targetYear, targetMonth);
+        
+        // Format period string
+        String[] monthNames = {
+            "January", "February", "March", "April", "May", "June",
+            "July", "August", "September", "October", "November", "December"
+        };
+        String periodString = monthNames[targetMonth - 1] + " " + targetYear;
+        
+        YearMonth period = YearMonth.of(targetYear, targetMonth);
+        return buildChartResponse(rollup, periodString, period.atDay(1), period.atEndOfMonth());
+    }
+
+    @Override
+    public BookingChartResponseDTO getBookingStatisticsByRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new RuntimeException("Start date and end date are required");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        if (startDate.getYear() < 2000 || endDate.getYear() > 2100) {
+            throw new RuntimeException("Invalid year");
+        }
         
-        System.out.println("   Total Done Bookings: " + doneBookings.size());
+        System.out.println("📊 Generating Booking Statistics for: " + startDate + " - " + endDate);
         
-        // Group bookings by property and calculate revenue
-        Map<String, List<Booking>> bookingsByProperty = doneBookings.stream()
-            .collect(Collectors.groupingBy(
-                booking -> booking.getRoom().getRoomType().getProperty().getPropertyID().toString()
-            ));
+        // Whole months come from the rollup, any other range from an index range scan on check_out_date
+        List<PropertyRevenueView> revenues;
+        YearMonth fromMonth = YearMonth.from(startDate);
+        YearMonth toMonth = YearMonth.from(endDate);
+        if (startDate.getDayOfMonth() == 1 && endDate.equals(toMonth.atEndOfMonth())) {
+            revenues = revenueRollupService.getRevenueBetween(fromMonth, toMonth);
+        } else {
+            revenues = bookingRepository.aggregateDoneRevenueByPropertyBetween(
+                startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+        }
         
-        // Calculate revenue per property
+        return buildChartResponse(revenues, startDate + " - " + endDate, startDate, endDate);
+    }
+    
+    // ===== Helper Methods =====
+    
+    private BookingChartResponseDTO buildChartResponse(List<PropertyRevenueView> revenues, String periodString,
+                                                       LocalDate startDate, LocalDate endDate) {
         List<PropertyRevenueDTO> propertyRevenues = new ArrayList<>();
         int totalRevenue = 0;
         
-        for (Map.Entry<String, List<Booking>> entry : bookingsByProperty.entrySet()) {
-            String propertyID = entry.getKey();
-            List<Booking> propertyBookings = entry.getValue();
-            
-            // Get property info from first booking
-            Property property = propertyBookings.get(0).getRoom().getRoomType().getProperty();
-            
-            // Calculate total revenue for this property
-            int propertyRevenue = propertyBookings.stream()
-                .mapToInt(Booking::getTotalPrice)
-                .sum();
-            
+        for (PropertyRevenueView row : revenues) {
+            int propertyRevenue = row.getTotalRevenue().intValue();
             totalRevenue += propertyRevenue;
             
             PropertyRevenueDTO revenueDTO = PropertyRevenueDTO.builder()
-                .propertyID(propertyID)
-                .propertyName(property.getPropertyName())
-                .propertyType(String.valueOf(property.getType()))
-                .totalBookings(propertyBookings.size())
+                .propertyID(row.getPropertyID().toString())
+                .propertyName(row.getPropertyName())
+                .propertyType(String.valueOf(row.getPropertyType()))
+                .totalBookings(row.getTotalBookings().intValue())
                 .totalRevenue(propertyRevenue)
                 .percentage(0.0) // Will calculate later
                 .build();
             
             propertyRevenues.add(revenueDTO);
-            
-            System.out.println("   - " + property.getPropertyName() + ": Rp " + 
-                            String.format("%,d", propertyRevenue) + 
-                            " (" + propertyBookings.size() + " bookings)");
         }
         
         // Calculate percentages and sort by revenue (descending)
@@ -836,17 +944,12 @@ public class BookingRestServiceImpl implements BookingRestService {
         // Sort by revenue descending (highest first)
         propertyRevenues.sort((a, b) -> Integer.compare(b.getTotalRevenue(), a.getTotalRevenue()));
         
-        // Format period string
-        String[] monthNames = {
-            "January", "February", "March", "April", "May", "June",
-            "July", "August", "September", "October", "November", "December"
-        };
-        String periodString = monthNames[targetMonth - 1] + " " + targetYear;
-        
         BookingChartResponseDTO response = BookingChartResponseDTO.builder()
             .period(periodString)
-            .month(targetMonth)
-            .year(targetYear)
+            .month(startDate.getMonthValue())
+            .year(startDate.getYear())
+            .startDate(startDate)
+            .endDate(endDate)
             .totalProperties(propertyRevenues.size())
             .totalRevenue(totalRevenue)
             .propertyRevenues(propertyRevenues)
@@ -859,4 +962,4 @@ public class BookingRestServiceImpl implements BookingRestService {
         return response;
     }
     
-}
\ No newline at end of file
+}
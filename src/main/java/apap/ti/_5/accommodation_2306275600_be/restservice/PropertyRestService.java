@@ -2,7 +2,10 @@ package apap.ti._5.accommodation_2306275600_be.restservice;
 
 import apap.ti._5.accommodation_2306275600_be.restdto.request.property.CreatePropertyRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.property.UpdatePropertyRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertyAvailabilityDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertyResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertySearchResponseDTO;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -12,6 +15,25 @@ public interface PropertyRestService {
     PropertyResponseDTO createProperty(CreatePropertyRequestDTO dto);
     List<PropertyResponseDTO> getAllProperties();
     List<PropertyResponseDTO> getFilteredProperties(String name, Integer type, Integer province);
+    /**
+     * Keyset page of active properties, newest first. Pass the previous page's
+     * nextCursor to continue; null cursor starts from the top.
+     *
+     * @param ownerID restrict to one owner, may be null
+     */
+    KeysetPageResponseDTO<PropertyResponseDTO> getFilteredPropertiesPage(String name, Integer type, Integer province,
+                                                                       UUID ownerID, String cursor, int size);
+    /**
+     * Full-text search over name, address and description of active properties,
+     * best match first, with facet counts by type and province in the same call.
+     *
+     * @param query blank lists every property, newest first
+     * @param ownerID restrict to one owner, may be null
+     * @param page zero-based page number
+     */
+    PropertySearchResponseDTO searchProperties(String query, Integer type, Integer province, UUID ownerID,
+                                               int page, int size);
+    List<PropertyAvailabilityDTO> searchAvailableProperties(Integer province, Integer type, LocalDateTime checkIn, LocalDateTime checkOut, Integer capacity, Integer maxPrice);
     PropertyResponseDTO getPropertyById(UUID propertyID);
     PropertyResponseDTO getPropertyById(UUID propertyID, LocalDateTime checkIn, LocalDateTime checkOut);
     List<PropertyResponseDTO> getPropertiesByOwner(UUID ownerID);
@@ -2,21 +2,33 @@ package apap.ti._5.accommodation_2306275600_be.restservice;
 
 import apap.ti._5.accommodation_2306275600_be.model.Property;
 import apap.ti._5.accommodation_2306275600_be.model.AccommodationOwner;
+import apap.ti._5.accommodation_2306275600_be.model.RoomType;
 import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.KeysetCursor;
 import apap.ti._5.accommodation_2306275600_be.repository.PropertyRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.PropertyRepository.PropertyAvailabilityView;
+import apap.ti._5.accommodation_2306275600_be.repository.PropertySpecifications;
 import apap.ti._5.accommodation_2306275600_be.repository.AccommodationOwnerRepository;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.property.CreatePropertyRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.property.UpdatePropertyRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.room.AddRoomRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.roomtype.CreateRoomTypeRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.roomtype.UpdateRoomTypeRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertyAvailabilityDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertyResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertySearchResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.property.RoomTypeInfoDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.room.RoomResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.roomtype.RoomTypeResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.service.BookingSearchIndexService;
+import apap.ti._5.accommodation_2306275600_be.service.PropertySearchIndex;
+import apap.ti._5.accommodation_2306275600_be.service.PropertySearchIndexService;
+import apap.ti._5.accommodation_2306275600_be.service.RoomCalendarService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -27,23 +39,34 @@ import java.util.stream.Collectors;
 @Service
 @Primary
 public class PropertyRestServiceImpl implements PropertyRestService {
+    protected static final int MAX_PAGE_SIZE = 100;
+
     protected final PropertyRepository propertyRepository;
     protected final RoomTypeRestService roomTypeRestService;
     protected final RoomRestService roomRestService;
     protected final BookingRepository bookingRepository;
     protected final AccommodationOwnerRepository accommodationOwnerRepository;
+    protected final RoomCalendarService roomCalendarService;
+    protected final BookingSearchIndexService bookingSearchIndexService;
+    protected final PropertySearchIndexService propertySearchIndexService;
     
     @Autowired
     public PropertyRestServiceImpl(PropertyRepository propertyRepository, 
                                     RoomTypeRestService roomTypeRestService,
                                     RoomRestService roomRestService,
                                     BookingRepository bookingRepository,
-                                    AccommodationOwnerRepository accommodationOwnerRepository) {
+                                    AccommodationOwnerRepository accommodationOwnerRepository,
+                                    RoomCalendarService roomCalendarService,
+                                    BookingSearchIndexService bookingSearchIndexService,
+                                    PropertySearchIndexService propertySearchIndexService) {
         this.propertyRepository = propertyRepository;
         this.roomTypeRestService = roomTypeRestService;
         this.roomRestService = roomRestService;
         this.bookingRepository = bookingRepository;
         this.accommodationOwnerRepository = accommodationOwnerRepository;
+        this.roomCalendarService = roomCalendarService;
+        this.bookingSearchIndexService = bookingSearchIndexService;
+        this.propertySearchIndexService = propertySearchIndexService;
     }
 
     @Override
@@ -57,44 +80,132 @@ public class PropertyRestServiceImpl implements PropertyRestService {
 
     @Override
     public List<PropertyResponseDTO> getFilteredProperties(String name, Integer type, Integer province) {
-        List<Property> properties;
+        return findFilteredProperties(name, type, province, null);
+    }
+
+    // One statement for every filter combination; absent filters drop out of the WHERE clause
+    protected List<PropertyResponseDTO> findFilteredProperties(String name, Integer type, Integer province, UUID ownerID) {
+        List<Property> properties = propertyRepository.findAll(
+                filterSpecification(name, type, province, ownerID), PropertySpecifications.NEWEST_FIRST);
         
-        // All filters provided
-        if (name != null && !name.isEmpty() && type != null && province != null) {
-            properties = propertyRepository.findByPropertyNameContainingIgnoreCaseAndTypeAndProvinceAndActiveStatus(name, type, province);
-        }
-        // Name and type only
-        else if (name != null && !name.isEmpty() && type != null) {
-            properties = propertyRepository.findByPropertyNameContainingIgnoreCaseAndTypeAndActiveStatus(name, type);
-        }
-        // Name and province only
-        else if (name != null && !name.isEmpty() && province != null) {
-            properties = propertyRepository.findByPropertyNameContainingIgnoreCaseAndProvinceAndActiveStatus(name, province);
-        }
-        // Type and province only
-        else if (type != null && province != null) {
-            properties = propertyRepository.findByTypeAndProvinceAndActiveStatusOrderByCreatedDateDesc(type, province, 1);
-        }
-        // Name only
-        else if (name != null && !name.isEmpty()) {
-            properties = propertyRepository.findByPropertyNameContainingIgnoreCaseAndActiveStatus(name);
+        return properties.stream()
+                .map(p -> convertToPropertyResponseDTO(p, null))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public KeysetPageResponseDTO<PropertyResponseDTO> getFilteredPropertiesPage(String name, Integer type, Integer province,
+                                                                              UUID ownerID, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Specification<Property> specification = Specification.allOf(
+                filterSpecification(name, type, province, ownerID),
+                PropertySpecifications.after(KeysetCursor.decode(cursor)));
+        
+        // Fetch one extra row to know whether another page exists, without a COUNT query
+        List<Property> rows = propertyRepository.findBy(specification,
+                query -> query.sortBy(PropertySpecifications.NEWEST_FIRST).limit(pageSize + 1).all());
+        boolean hasNext = rows.size() > pageSize;
+        List<Property> page = hasNext ? rows.subList(0, pageSize) : rows;
+        
+        String nextCursor = null;
+        if (hasNext) {
+            Property last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedDate(), last.getPropertyID()).encode();
         }
-        // Type only
-        else if (type != null) {
-            properties = propertyRepository.findByTypeAndActiveStatusOrderByCreatedDateDesc(type, 1);
+        
+        return KeysetPageResponseDTO.<PropertyResponseDTO>builder()
+                .content(page.stream()
+                        .map(p -> convertToPropertyResponseDTO(p, null))
+                        .collect(Collectors.toList()))
+                .size(pageSize)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // Active properties matching the given filters; null filters are ignored
+    private Specification<Property> filterSpecification(String name, Integer type, Integer province, UUID ownerID) {
+        return Specification.allOf(
+                PropertySpecifications.isActive(),
+                PropertySpecifications.nameContains(name),
+                PropertySpecifications.hasType(type),
+                PropertySpecifications.hasProvince(province),
+                PropertySpecifications.ownedBy(ownerID));
+    }
+
+    @Override
+    public PropertySearchResponseDTO searchProperties(String query, Integer type, Integer province, UUID ownerID,
+                                                      int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        
+        // Ranking and facet counts come from memory; only the page itself is read from the database
+        PropertySearchIndex.Result result = propertySearchIndexService.search(
+                query, type, province, ownerID, pageNumber * pageSize, pageSize);
+        Map<UUID, Property> propertiesByID = result.propertyIDs().isEmpty()
+                ? Map.of()
+                : propertyRepository.findAllById(result.propertyIDs()).stream()
+                        .collect(Collectors.toMap(Property::getPropertyID, p -> p));
+        
+        return PropertySearchResponseDTO.builder()
+                .content(result.propertyIDs().stream()
+                        .map(propertiesByID::get)
+                        .filter(Objects::nonNull)
+                        .map(p -> convertToPropertyResponseDTO(p, null))
+                        .collect(Collectors.toList()))
+                .page(pageNumber)
+                .size(pageSize)
+                .totalElements(result.totalHits())
+                .typeFacets(result.typeCounts())
+                .provinceFacets(result.provinceCounts())
+                .build();
+    }
+
+    @Override
+    public List<PropertyAvailabilityDTO> searchAvailableProperties(Integer province, Integer type, LocalDateTime checkIn,
+                                                                   LocalDateTime checkOut, Integer capacity, Integer maxPrice) {
+        if (checkIn == null || checkOut == null) {
+            throw new RuntimeException("Tanggal check-in dan check-out wajib diisi");
         }
-        // Province only
-        else if (province != null) {
-            properties = propertyRepository.findByProvinceAndActiveStatusOrderByCreatedDateDesc(province, 1);
+        if (!checkOut.isAfter(checkIn)) {
+            throw new RuntimeException("Tanggal check-out harus setelah tanggal check-in");
         }
-        // No filters - return all active properties
-        else {
-            properties = propertyRepository.findByActiveStatusOrderByCreatedDateDesc(1);
+        int minCapacity = capacity != null && capacity > 0 ? capacity : 1;
+        
+        // 1 query: free rooms grouped per property (lowest price first)
+        List<PropertyAvailabilityView> availability = propertyRepository.searchAvailableProperties(
+            province, type, minCapacity, maxPrice, checkIn, checkOut);
+        if (availability.isEmpty()) {
+            return new ArrayList<>();
         }
         
-        return properties.stream()
-                .map(p -> convertToPropertyResponseDTO(p, null))
+        // 1 query: property details for the matches
+        List<UUID> propertyIDs = availability.stream()
+                .map(PropertyAvailabilityView::getPropertyID)
                 .collect(Collectors.toList());
+        Map<UUID, Property> propertiesByID = propertyRepository.findAllById(propertyIDs).stream()
+                .collect(Collectors.toMap(Property::getPropertyID, p -> p));
+        
+        List<PropertyAvailabilityDTO> result = new ArrayList<>();
+        for (PropertyAvailabilityView row : availability) {
+            Property property = propertiesByID.get(row.getPropertyID());
+            if (property == null) {
+                continue;
+            }
+            result.add(PropertyAvailabilityDTO.builder()
+                    .propertyID(property.getPropertyID().toString())
+                    .propertyName(property.getPropertyName())
+                    .type(property.getType())
+                    .typeName(getTypeName(property.getType()))
+                    .address(property.getAddress())
+                    .province(property.getProvince())
+                    .ownerID(property.getOwnerID().toString())
+                    .availableRoomTypes(row.getAvailableRoomTypes().intValue())
+                    .availableRooms(row.getAvailableRooms().intValue())
+                    .lowestPrice(row.getLowestPrice())
+                    .build());
+        }
+        return result;
     }
 
     @Override
@@ -112,40 +223,41 @@ public class PropertyRestServiceImpl implements PropertyRestService {
     
     @Override
     public PropertyResponseDTO getPropertyById(UUID id, LocalDateTime checkIn, LocalDateTime checkOut) {
-        Optional<Property> propertyOpt = propertyRepository.findById(id);
-        if (propertyOpt.isEmpty()) {
-            return null;
+        //  Fetch property -> room types -> rooms dalam satu query
+        List<RoomType> roomTypes = propertyRepository.findRoomTypesWithRoomsByPropertyID(id);
+        
+        Property property;
+        if (!roomTypes.isEmpty()) {
+            property = roomTypes.get(0).getProperty();
+        } else {
+            //  Property tanpa room type (atau tidak ditemukan)
+            Optional<Property> propertyOpt = propertyRepository.findById(id);
+            if (propertyOpt.isEmpty()) {
+                return null;
+            }
+            property = propertyOpt.get();
         }
         
-        Property property = propertyOpt.get();
-        
-        //  Fetch room types untuk property ini
-        List<RoomTypeResponseDTO> roomTypes = roomTypeRestService.getRoomTypesByProperty(id);
-        
         //  Get booked room IDs if date filter is provided
-        List<UUID> bookedRoomIDs = new ArrayList<>();
-        if (checkIn != null && checkOut != null) {
-            bookedRoomIDs = bookingRepository.findBookedRoomIDsByPropertyAndPeriod(id, checkIn, checkOut);
+        Set<UUID> bookedRoomIDs = new HashSet<>();
+        if (checkIn != null && checkOut != null && !roomTypes.isEmpty()) {
+            bookedRoomIDs = roomCalendarService.findBookedRoomIDs(id, checkIn, checkOut);
         }
         
         //  Build room type info dengan FULL room objects (not just IDs)
         List<RoomTypeInfoDTO> roomTypeInfoList = new ArrayList<>();
         
-        for (RoomTypeResponseDTO roomType : roomTypes) {
-            //  Get FULL room objects untuk room type ini (with maintenance data)
-            List<RoomResponseDTO> rooms = roomRestService.getRoomsByRoomType(UUID.fromString(roomType.getRoomTypeID()));
-            
+        for (RoomType roomType : roomTypes) {
             //  Filter out booked rooms if date filter is provided
-            if (!bookedRoomIDs.isEmpty()) {
-                final List<UUID> finalBookedRoomIDs = bookedRoomIDs;
-                rooms = rooms.stream()
-                    .filter(room -> !finalBookedRoomIDs.contains(UUID.fromString(room.getRoomID())))
+            final Set<UUID> finalBookedRoomIDs = bookedRoomIDs;
+            List<RoomResponseDTO> rooms = roomType.getListRoom().stream()
+                    .filter(room -> !finalBookedRoomIDs.contains(room.getRoomID()))
+                    .map(roomRestService::convertToResponseDTO)
                     .collect(Collectors.toList());
-            }
             
             //  Build room type info with FULL room objects
             RoomTypeInfoDTO roomTypeInfo = RoomTypeInfoDTO.builder()
-                    .roomTypeID(roomType.getRoomTypeID())
+                    .roomTypeID(roomType.getRoomTypeID().toString())
                     .roomTypeName(roomType.getName())
                     .floor(roomType.getFloor())
                     .capacity(roomType.getCapacity())
@@ -209,6 +321,7 @@ public class PropertyRestServiceImpl implements PropertyRestService {
                 .build();
         
         Property savedProperty = propertyRepository.save(property);
+        propertySearchIndexService.onPropertySaved(savedProperty);
         
         // List untuk menyimpan room type info dengan room IDs
         List<RoomTypeInfoDTO> roomTypeInfoList = new ArrayList<>();
@@ -292,6 +405,8 @@ public class PropertyRestServiceImpl implements PropertyRestService {
         existingProperty.setUpdatedDate(LocalDateTime.now());
         
         Property updatedProperty = propertyRepository.save(existingProperty);
+        bookingSearchIndexService.onPropertyRenamed(updatedProperty.getPropertyID(), updatedProperty.getPropertyName());
+        propertySearchIndexService.onPropertySaved(updatedProperty);
         
         //  Update room types jika ada di request
         if (updatePropertyRequestDTO.getRoomTypes() != null && !updatePropertyRequestDTO.getRoomTypes().isEmpty()) {
@@ -346,6 +461,7 @@ public class PropertyRestServiceImpl implements PropertyRestService {
         existingProperty.setUpdatedDate(LocalDateTime.now());
         
         Property deletedProperty = propertyRepository.save(existingProperty);
+        propertySearchIndexService.onPropertySaved(deletedProperty);
         return convertToPropertyResponseDTO(deletedProperty, null);
     }
 
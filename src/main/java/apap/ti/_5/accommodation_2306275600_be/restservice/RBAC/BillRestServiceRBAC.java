@@ -4,10 +4,14 @@ import apap.ti._5.accommodation_2306275600_be.exceptions.AccessDeniedException;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.CreateBillRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.PayBillRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.UpdateBillRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.bill.BillDetailResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.bill.BillResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restservice.BillRestService;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
 import java.util.List;
 import java.util.UUID;
 
@@ -16,10 +20,12 @@ public interface BillRestServiceRBAC extends BillRestService {
     @Override
     BillResponseDTO createBill(CreateBillRequestDTO dto) throws AccessDeniedException;;
     @Override
-    List<BillResponseDTO> getAllBills(UUID customerId, String serviceName, Integer status) throws AccessDeniedException;;
+    Page<BillResponseDTO> getAllBills(UUID customerId, String serviceName, Integer status, Pageable pageable) throws AccessDeniedException;;
     @Override
     List<BillResponseDTO> getCustomerBills(UUID customerId, Integer status, String sortBy, String sortDirection) throws AccessDeniedException;;
     @Override
+    KeysetPageResponseDTO<BillResponseDTO> getCustomerBillsPage(UUID customerId, Integer status, String cursor, int size) throws AccessDeniedException;
+    @Override
     List<BillResponseDTO> getServiceBills(String serviceName, Integer status, UUID customerId) throws AccessDeniedException;;
     @Override
     BillDetailResponseDTO getBillDetail(UUID billId) throws AccessDeniedException;;
@@ -9,9 +9,13 @@ import apap.ti._5.accommodation_2306275600_be.restdto.auth.UserProfileDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.CreateBillRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.PayBillRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.UpdateBillRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.bill.BillDetailResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.bill.BillResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restservice.BillRestServiceImpl;
+import apap.ti._5.accommodation_2306275600_be.service.BalanceLedgerService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -28,9 +32,10 @@ public class BillRestServiceRBACImpl extends BillRestServiceImpl implements Bill
             CustomerRepository customerRepository,
             BookingRepository bookingRepository,
             RestTemplate restTemplate,
+            BalanceLedgerService balanceLedgerService,
             AuthService authService
     ) {
-        super(billRepository, customerRepository, bookingRepository, restTemplate);
+        super(billRepository, customerRepository, bookingRepository, restTemplate, balanceLedgerService);
         this.authService = authService;
     }
 
@@ -43,14 +48,14 @@ public class BillRestServiceRBACImpl extends BillRestServiceImpl implements Bill
 
     // [GET] Get All Bills - Superadmin only
     @Override
-    public List<BillResponseDTO> getAllBills(UUID customerId, String serviceName, Integer status) throws AccessDeniedException {
+    public Page<BillResponseDTO> getAllBills(UUID customerId, String serviceName, Integer status, Pageable pageable) throws AccessDeniedException {
         UserProfileDTO user = authService.getAuthenticatedUser();
 
         if (!authService.isSuperAdmin(user)) {
             throw new AccessDeniedException("Anda tidak memiliki akses ke resource ini, role : " + user.role());
         }
 
-        return super.getAllBills(customerId, serviceName, status);
+        return super.getAllBills(customerId, serviceName, status, pageable);
     }
 
     // [GET] Get Customer Bills - Customer only (their own bills)
@@ -70,6 +75,23 @@ public class BillRestServiceRBACImpl extends BillRestServiceImpl implements Bill
         return super.getCustomerBills(customerId, status, sortBy, sortDirection);
     }
 
+    // [GET] Get Customer Bills (keyset page) - Customer only (their own bills)
+    @Override
+    public KeysetPageResponseDTO<BillResponseDTO> getCustomerBillsPage(UUID customerId, Integer status, String cursor, int size) throws AccessDeniedException {
+        UserProfileDTO user = authService.getAuthenticatedUser();
+
+        if (!authService.isCustomer(user)) {
+            throw new AccessDeniedException("Anda tidak memiliki akses ke resource ini, role : " + user.role());
+        }
+
+        // Customer can only view their own bills
+        if (!user.userId().equals(customerId)) {
+            throw new AccessDeniedException("You can only view your own bills");
+        }
+
+        return super.getCustomerBillsPage(customerId, status, cursor, size);
+    }
+
     // [GET] Get Service Bills - Accommodation Owner only (for their service)
     @Override
     public List<BillResponseDTO> getServiceBills(String serviceName, Integer status, UUID customerId) throws AccessDeniedException {
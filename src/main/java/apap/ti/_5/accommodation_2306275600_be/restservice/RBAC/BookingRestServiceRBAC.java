@@ -1,5 +1,6 @@
 package apap.ti._5.accommodation_2306275600_be.restservice.RBAC;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -7,6 +8,7 @@ import apap.ti._5.accommodation_2306275600_be.exceptions.AccessDeniedException;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.ChangeBookingStatusRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.CreateBookingRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.UpdateBookingRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingChartResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingDetailResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingListItemDTO;
@@ -21,6 +23,9 @@ public interface BookingRestServiceRBAC extends BookingRestService {
     @Override
     List<BookingListItemDTO> getAllBookings(Integer status, String search) throws AccessDeniedException;
 
+    @Override
+    KeysetPageResponseDTO<BookingListItemDTO> getBookingsPage(Integer status, String cursor, int size) throws AccessDeniedException;
+
     @Override
     BookingDetailResponseDTO getBookingDetail(UUID bookingID) throws AccessDeniedException;
 
@@ -42,6 +47,9 @@ public interface BookingRestServiceRBAC extends BookingRestService {
     @Override
     BookingChartResponseDTO getBookingStatistics(Integer month, Integer year) throws AccessDeniedException;
 
+    @Override
+    BookingChartResponseDTO getBookingStatisticsByRange(LocalDate startDate, LocalDate endDate) throws AccessDeniedException;
+
     // Commented out: updateBookingStatuses no longer needed with simplified 3-status model
     // @Override
     // void updateBookingStatuses() throws AccessDeniedException;
@@ -1,5 +1,6 @@
 package apap.ti._5.accommodation_2306275600_be.restservice.RBAC;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,6 +16,7 @@ import apap.ti._5.accommodation_2306275600_be.restdto.auth.UserProfileDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.ChangeBookingStatusRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.CreateBookingRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.UpdateBookingRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingChartResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingDetailResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingListItemDTO;
@@ -22,6 +24,9 @@ import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingRe
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingUpdateFormDTO;
 import apap.ti._5.accommodation_2306275600_be.restservice.BookingRestServiceImpl;
 import apap.ti._5.accommodation_2306275600_be.service.BillIntegrationService;
+import apap.ti._5.accommodation_2306275600_be.service.BookingSearchIndexService;
+import apap.ti._5.accommodation_2306275600_be.service.RevenueRollupService;
+import apap.ti._5.accommodation_2306275600_be.service.RoomCalendarService;
 
 @Service
 public class BookingRestServiceRBACImpl extends BookingRestServiceImpl implements BookingRestServiceRBAC {
@@ -34,9 +39,13 @@ public class BookingRestServiceRBACImpl extends BookingRestServiceImpl implement
             PropertyRepository propertyRepository,
             CustomerRepository customerRepository,
             BillIntegrationService billIntegrationService,
+            RoomCalendarService roomCalendarService,
+            RevenueRollupService revenueRollupService,
+            BookingSearchIndexService bookingSearchIndexService,
             AuthService authService
         ) {
-        super(bookingRepository, roomRepository, propertyRepository, customerRepository, billIntegrationService);
+        super(bookingRepository, roomRepository, propertyRepository, customerRepository, billIntegrationService,
+              roomCalendarService, revenueRollupService, bookingSearchIndexService);
         this.authService = authService;
     }
 
@@ -68,6 +77,20 @@ public class BookingRestServiceRBACImpl extends BookingRestServiceImpl implement
         return super.getAllBookings(status, search);
     }
 
+    // [GET] Get Accommodation Booking Page - Superadmin, Accommodation Owner, Customer
+    @Override
+    public KeysetPageResponseDTO<BookingListItemDTO> getBookingsPage(Integer status, String cursor, int size) throws AccessDeniedException {
+        UserProfileDTO user = authService.getAuthenticatedUser();
+        
+        boolean hasAccess = authService.isSuperAdmin(user) || authService.isAccommodationOwner(user) || authService.isCustomer(user);
+        
+        if (!hasAccess) {
+            throw new AccessDeniedException("Anda tidak memiliki akses ke resource ini, role : " + user.role());
+        }
+        
+        return super.getBookingsPage(status, cursor, size);
+    }
+
     // [GET] Get Accommodation Booking Details - Superadmin, Accommodation Owner, Customer
     @Override
     public BookingDetailResponseDTO getBookingDetail(UUID bookingID) throws AccessDeniedException {
@@ -160,6 +183,20 @@ public class BookingRestServiceRBACImpl extends BookingRestServiceImpl implement
         return super.getBookingStatistics(month, year);
     }
 
+    // [GET] Get Booking Statistics by Date Range - Superadmin, Accommodation Owner
+    @Override
+    public BookingChartResponseDTO getBookingStatisticsByRange(LocalDate startDate, LocalDate endDate) throws AccessDeniedException {
+        UserProfileDTO user = authService.getAuthenticatedUser();
+        
+        boolean hasAccess = authService.isSuperAdmin(user) || authService.isAccommodationOwner(user);
+        
+        if (!hasAccess) {
+            throw new AccessDeniedException("Anda tidak memiliki akses ke resource ini, role : " + user.role());
+        }
+        
+        return super.getBookingStatisticsByRange(startDate, endDate);
+    }
+
     // Commented out: updateBookingStatuses no longer needed with simplified 3-status model
     /*
     // [UTIL] Update Booking Statuses - System/Internal (No user-based access control)
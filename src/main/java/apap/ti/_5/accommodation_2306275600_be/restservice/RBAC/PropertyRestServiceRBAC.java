@@ -6,7 +6,10 @@ import java.util.UUID;
 
 import apap.ti._5.accommodation_2306275600_be.restdto.request.property.CreatePropertyRequestDTO; 
 import apap.ti._5.accommodation_2306275600_be.restdto.request.property.UpdatePropertyRequestDTO; 
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertyAvailabilityDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertyResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertySearchResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restservice.PropertyRestService;
 import apap.ti._5.accommodation_2306275600_be.exceptions.AccessDeniedException; 
 
@@ -21,6 +24,17 @@ public interface PropertyRestServiceRBAC extends PropertyRestService {
     @Override
     List<PropertyResponseDTO> getFilteredProperties(String name, Integer type, Integer province) throws AccessDeniedException;
 
+    @Override
+    KeysetPageResponseDTO<PropertyResponseDTO> getFilteredPropertiesPage(String name, Integer type, Integer province,
+                                                                       UUID ownerID, String cursor, int size) throws AccessDeniedException;
+
+    @Override
+    PropertySearchResponseDTO searchProperties(String query, Integer type, Integer province, UUID ownerID,
+                                               int page, int size) throws AccessDeniedException;
+
+    @Override
+    List<PropertyAvailabilityDTO> searchAvailableProperties(Integer province, Integer type, LocalDateTime checkIn, LocalDateTime checkOut, Integer capacity, Integer maxPrice) throws AccessDeniedException;
+
     @Override 
     PropertyResponseDTO getPropertyById(UUID propertyID) throws AccessDeniedException; 
 
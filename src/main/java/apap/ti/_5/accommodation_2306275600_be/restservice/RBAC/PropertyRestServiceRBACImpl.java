@@ -16,10 +16,16 @@ import apap.ti._5.accommodation_2306275600_be.repository.AccommodationOwnerRepos
 import apap.ti._5.accommodation_2306275600_be.restdto.auth.UserProfileDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.property.CreatePropertyRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.property.UpdatePropertyRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertyAvailabilityDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertyResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertySearchResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restservice.PropertyRestServiceImpl;
 import apap.ti._5.accommodation_2306275600_be.restservice.RoomRestService;
 import apap.ti._5.accommodation_2306275600_be.restservice.RoomTypeRestService;
+import apap.ti._5.accommodation_2306275600_be.service.BookingSearchIndexService;
+import apap.ti._5.accommodation_2306275600_be.service.PropertySearchIndexService;
+import apap.ti._5.accommodation_2306275600_be.service.RoomCalendarService;
 
 @Service
 public class PropertyRestServiceRBACImpl extends PropertyRestServiceImpl implements PropertyRestServiceRBAC {
@@ -33,9 +39,13 @@ public class PropertyRestServiceRBACImpl extends PropertyRestServiceImpl impleme
             RoomRestService roomRestService,
             BookingRepository bookingRepository,
             AccommodationOwnerRepository accommodationOwnerRepository,
+            RoomCalendarService roomCalendarService,
+            BookingSearchIndexService bookingSearchIndexService,
+            PropertySearchIndexService propertySearchIndexService,
             AuthService authService
         ) {
-        super(propertyRepository, roomTypeRestService, roomRestService, bookingRepository, accommodationOwnerRepository);
+        super(propertyRepository, roomTypeRestService, roomRestService, bookingRepository, accommodationOwnerRepository,
+              roomCalendarService, bookingSearchIndexService, propertySearchIndexService);
         this.authService = authService;
     }
 
@@ -84,17 +94,79 @@ public class PropertyRestServiceRBACImpl extends PropertyRestServiceImpl impleme
             throw new AccessDeniedException("Anda tidak memiliki akses ke resource ini, role : " + user.role());
         }
         
-        // Get filtered properties
-        List<PropertyResponseDTO> filteredProperties = super.getFilteredProperties(name, type, province);
+        // Accommodation Owner hanya dapat melihat property miliknya (filter owner ikut ke query)
+        if (authService.isAccommodationOwner(user)) {
+            return super.findFilteredProperties(name, type, province, user.userId());
+        }
+        
+        return super.getFilteredProperties(name, type, province);
+    }
+
+    // [GET] Get Filtered Properties (keyset page)
+    // - Superadmin: Dapat filter semua property
+    // - Accommodation Owner: Hanya filter property yang dimilikinya
+    // - Customer: Dapat filter semua property
+    @Override
+    public KeysetPageResponseDTO<PropertyResponseDTO> getFilteredPropertiesPage(String name, Integer type, Integer province,
+                                                                              UUID ownerID, String cursor, int size) throws AccessDeniedException {
+        UserProfileDTO user = authService.getAuthenticatedUser();
+        
+        boolean hasAccess = authService.isSuperAdmin(user) || authService.isAccommodationOwner(user) || authService.isCustomer(user);
+        
+        if (!hasAccess) {
+            throw new AccessDeniedException("Anda tidak memiliki akses ke resource ini, role : " + user.role());
+        }
+        
+        // Accommodation Owner hanya dapat melihat property miliknya
+        UUID effectiveOwnerID = authService.isAccommodationOwner(user) ? user.userId() : ownerID;
+        return super.getFilteredPropertiesPage(name, type, province, effectiveOwnerID, cursor, size);
+    }
+
+    // [GET] Full-text Search Properties
+    // - Superadmin: Dapat mencari di semua property
+    // - Accommodation Owner: Hanya property yang dimilikinya
+    // - Customer: Dapat mencari di semua property
+    @Override
+    public PropertySearchResponseDTO searchProperties(String query, Integer type, Integer province, UUID ownerID,
+                                                      int page, int size) throws AccessDeniedException {
+        UserProfileDTO user = authService.getAuthenticatedUser();
+        
+        boolean hasAccess = authService.isSuperAdmin(user) || authService.isAccommodationOwner(user) || authService.isCustomer(user);
+        
+        if (!hasAccess) {
+            throw new AccessDeniedException("Anda tidak memiliki akses ke resource ini, role : " + user.role());
+        }
+        
+        // Accommodation Owner hanya dapat melihat property miliknya (facet juga hanya menghitung miliknya)
+        UUID effectiveOwnerID = authService.isAccommodationOwner(user) ? user.userId() : ownerID;
+        return super.searchProperties(query, type, province, effectiveOwnerID, page, size);
+    }
+
+    // [GET] Search Available Properties
+    // - Superadmin: Dapat mencari di semua property
+    // - Accommodation Owner: Hanya property yang dimilikinya
+    // - Customer: Dapat mencari di semua property
+    @Override
+    public List<PropertyAvailabilityDTO> searchAvailableProperties(Integer province, Integer type, LocalDateTime checkIn,
+                                                                   LocalDateTime checkOut, Integer capacity, Integer maxPrice) throws AccessDeniedException {
+        UserProfileDTO user = authService.getAuthenticatedUser();
+        
+        boolean hasAccess = authService.isSuperAdmin(user) || authService.isAccommodationOwner(user) || authService.isCustomer(user);
+        
+        if (!hasAccess) {
+            throw new AccessDeniedException("Anda tidak memiliki akses ke resource ini, role : " + user.role());
+        }
+        
+        List<PropertyAvailabilityDTO> results = super.searchAvailableProperties(province, type, checkIn, checkOut, capacity, maxPrice);
         
         // Accommodation Owner hanya dapat melihat property miliknya
         if (authService.isAccommodationOwner(user)) {
-            return filteredProperties.stream()
+            return results.stream()
                     .filter(p -> UUID.fromString(p.getOwnerID()).equals(user.userId()))
                     .collect(Collectors.toList());
         }
         
-        return filteredProperties;
+        return results;
     }
 
     // [GET] Get Property Details by Property ID
@@ -22,6 +22,7 @@ import apap.ti._5.accommodation_2306275600_be.restdto.request.room.CreateMainten
 import apap.ti._5.accommodation_2306275600_be.restdto.request.room.UpdateRoomRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.room.RoomResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restservice.RoomRestServiceImpl;
+import apap.ti._5.accommodation_2306275600_be.service.RoomCalendarService;
 
 @Service
 public class RoomRestServiceRBACImpl extends RoomRestServiceImpl implements RoomRestServiceRBAC {
@@ -34,9 +35,10 @@ public class RoomRestServiceRBACImpl extends RoomRestServiceImpl implements Room
     public RoomRestServiceRBACImpl(
             RoomRepository roomRepository,
             RoomTypeRepository roomTypeRepository,
+            RoomCalendarService roomCalendarService,
             AuthService authService
         ) {
-        super(roomRepository, roomTypeRepository, bookingRepository);
+        super(roomRepository, roomTypeRepository, bookingRepository, roomCalendarService);
         this.authService = authService;
         this.roomRepository = roomRepository;
         this.roomTypeRepository = roomTypeRepository;
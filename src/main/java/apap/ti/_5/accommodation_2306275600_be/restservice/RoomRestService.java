@@ -20,4 +20,5 @@ public interface RoomRestService {
     List<RoomResponseDTO> getRoomsByPropertyAndFloor(UUID propertyID, Integer floor);
     Room getRoomEntityById(UUID roomID);
     RoomResponseDTO createMaintenance(CreateMaintenanceRequestDTO dto);
+    RoomResponseDTO convertToResponseDTO(Room room);
 }
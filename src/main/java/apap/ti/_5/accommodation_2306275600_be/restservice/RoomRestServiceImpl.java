@@ -21,6 +21,7 @@ import apap.ti._5.accommodation_2306275600_be.restdto.request.room.AddRoomReques
 import apap.ti._5.accommodation_2306275600_be.restdto.request.room.CreateMaintenanceRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.room.UpdateRoomRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.room.RoomResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.service.RoomCalendarService;
 
 @Service
 @Primary
@@ -31,6 +32,7 @@ public class RoomRestServiceImpl implements RoomRestService{
     protected final RoomRepository roomRepository;
     protected final RoomTypeRepository roomTypeRepository;
     protected final BookingRepository bookingRepository;
+    protected final RoomCalendarService roomCalendarService;
 
 
     @Override
@@ -54,6 +56,7 @@ public class RoomRestServiceImpl implements RoomRestService{
                 .build();
         
         Room savedRoom = roomRepository.save(room);
+        roomCalendarService.updateMaintenance(savedRoom, null, null);
         
         System.out.println("   Room Saved to DB: " + savedRoom.getRoomID());
         
@@ -114,7 +117,8 @@ public class RoomRestServiceImpl implements RoomRestService{
 
    @Override
     public RoomResponseDTO updateRoom(UUID roomID, UpdateRoomRequestDTO dto) {
-        Room room = roomRepository.findById(roomID)
+        // Locked like booking create/update, so a maintenance change cannot interleave with their checks
+        Room room = roomRepository.findByIdForUpdate(roomID)
                 .orElseThrow(() -> new RuntimeException("Room not found with id: " + roomID));
         
         // Update fields (hanya yang tidak null)
@@ -128,6 +132,9 @@ public class RoomRestServiceImpl implements RoomRestService{
             room.setActiveRoom(dto.getActiveRoom());
         }
         
+        LocalDateTime previousMaintenanceStart = room.getMaintenanceStart();
+        LocalDateTime previousMaintenanceEnd = room.getMaintenanceEnd();
+        
         // REPLACE maintenance schedule (bukan append)
         // Jika ada maintenance baru, replace yang lama
         if (dto.getMaintenanceStart() != null || dto.getMaintenanceEnd() != null) {
@@ -151,6 +158,7 @@ public class RoomRestServiceImpl implements RoomRestService{
         
         room.setUpdatedDate(LocalDateTime.now());
         Room updatedRoom = roomRepository.save(room);
+        roomCalendarService.updateMaintenance(updatedRoom, previousMaintenanceStart, previousMaintenanceEnd);
         
         return convertToResponseDTO(updatedRoom);
     }
@@ -165,7 +173,8 @@ public class RoomRestServiceImpl implements RoomRestService{
     
     @Override
     public RoomResponseDTO createMaintenance(CreateMaintenanceRequestDTO dto) {
-        Room room = roomRepository.findById(UUID.fromString(dto.getRoomID()))
+        // Room lock first: a booking for this room cannot be created between the check below and the save
+        Room room = roomRepository.findByIdForUpdate(UUID.fromString(dto.getRoomID()))
                 .orElseThrow(() -> new RuntimeException("Room not found with id: " + dto.getRoomID()));
         
         // Validasi tanggal
@@ -177,8 +186,8 @@ public class RoomRestServiceImpl implements RoomRestService{
             throw new RuntimeException("Tanggal mulai tidak boleh sebelum hari ini");
         }
         
-        // Check apakah ada booking yang conflict dengan maintenance period
-        boolean hasBookingConflict = bookingRepository.existsBookingsDuringPeriod(
+        // Check apakah ada booking yang conflict dengan maintenance period (same rule as property search)
+        boolean hasBookingConflict = roomCalendarService.hasBookingDuring(
             room.getRoomID(),
             dto.getMaintenanceStart(),
             dto.getMaintenanceEnd()
@@ -188,6 +197,9 @@ public class RoomRestServiceImpl implements RoomRestService{
             throw new RuntimeException("Cannot schedule maintenance: There are active bookings during this period. Please choose a different time or wait until bookings are completed.");
         }
         
+        LocalDateTime previousMaintenanceStart = room.getMaintenanceStart();
+        LocalDateTime previousMaintenanceEnd = room.getMaintenanceEnd();
+        
         // Set maintenance schedule (REPLACE existing)
         room.setMaintenanceStart(dto.getMaintenanceStart());
         room.setMaintenanceEnd(dto.getMaintenanceEnd());
@@ -196,6 +208,7 @@ public class RoomRestServiceImpl implements RoomRestService{
         room.setUpdatedDate(LocalDateTime.now());
         
         Room updatedRoom = roomRepository.save(room);
+        roomCalendarService.updateMaintenance(updatedRoom, previousMaintenanceStart, previousMaintenanceEnd);
         
         System.out.println("✅ Maintenance Created:");
         System.out.println("   Room: " + updatedRoom.getRoomID());
@@ -243,6 +256,7 @@ public class RoomRestServiceImpl implements RoomRestService{
     //     return roomID;
     // }
         
+    @Override
     public RoomResponseDTO convertToResponseDTO(Room room) {
         return RoomResponseDTO.builder()
                 .roomID(room.getRoomID().toString())
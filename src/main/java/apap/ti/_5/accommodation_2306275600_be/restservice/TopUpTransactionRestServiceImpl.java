@@ -9,6 +9,7 @@ import apap.ti._5.accommodation_2306275600_be.repository.CustomerRepository;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.topup.CreateTopUpRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.topup.UpdateTopUpStatusRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.topup.TopUpTransactionResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.service.BalanceLedgerService;
 import apap.ti._5.accommodation_2306275600_be.service.TopUpBillIntegrationService;
 import apap.ti._5.accommodation_2306275600_be.external.ProfileService;
 
@@ -72,12 +73,8 @@ public class TopUpTransactionRestServiceImpl implements TopUpTransactionRestServ
         // Simpan ke database
         TopUpTransaction savedTransaction = topUpTransactionRepository.save(transaction);
         
-        // Create bill for this top-up transaction
-        try {
-            topUpBillIntegrationService.createBillForTopUp(savedTransaction);
-        } catch (Exception e) {
-            System.err.println("⚠️ Failed to create bill for TopUp, but TopUp creation continues: " + e.getMessage());
-        }
+        // Queue the bill for this top-up transaction; it commits together with the top-up
+        topUpBillIntegrationService.createBillForTopUp(savedTransaction);
         
         // Convert ke Response DTO
         return convertToResponseDTO(savedTransaction);
@@ -106,6 +103,8 @@ public class TopUpTransactionRestServiceImpl implements TopUpTransactionRestServ
     }
 
     @Override
+    // Bounded so the balance credit commits inside the snapshot commit horizon
+    @Transactional(timeout = BalanceLedgerService.WRITE_TIMEOUT_SECONDS)
     public TopUpTransactionResponseDTO updateTopUpStatus(UpdateTopUpStatusRequestDTO dto) {
         // Validasi transaction exists
         TopUpTransaction transaction = topUpTransactionRepository.findByIdAndNotDeleted(dto.getTransactionId())
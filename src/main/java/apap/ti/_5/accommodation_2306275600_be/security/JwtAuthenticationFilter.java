@@ -1,5 +1,6 @@
 package apap.ti._5.accommodation_2306275600_be.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -34,10 +35,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String userId = tokenProvider.getUserIdFromToken(jwt);
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                String role = tokenProvider.getRoleFromToken(jwt);
+            // One verify-and-parse per request; services read the principal from the SecurityContext
+            Claims claims = StringUtils.hasText(jwt) ? tokenProvider.parseValidClaims(jwt) : null;
+            if (claims != null) {
+                UserPrincipal userPrincipal = UserPrincipal.fromClaims(claims);
+                String role = userPrincipal.getRole();
 
                 // Normalize role to match Spring Security format (ROLE_XXX)
                 String normalizedRole = normalizeRole(role);
@@ -46,16 +48,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         new SimpleGrantedAuthority(normalizedRole)
                 );
 
-                // Create UserPrincipal with userId, username, and role
-                UserPrincipal userPrincipal = new UserPrincipal(userId, username, role);
-                
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userPrincipal, null, authorities);
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
                 
-                logger.debug("Set authentication for user: {} with role: {}", username, role);
+                logger.debug("Set authentication for user: {} with role: {}", userPrincipal.getUsername(), role);
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
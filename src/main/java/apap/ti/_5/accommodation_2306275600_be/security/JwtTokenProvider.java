@@ -11,7 +11,13 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
 
 @Component
 public class JwtTokenProvider {
@@ -24,7 +30,33 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
     private long jwtExpirationMs;
 
+    /**
+     * Verified tokens are remembered (keyed by SHA-256 of the token, never the
+     * token itself) until they expire, so a client sending the same token on
+     * every request only pays for signature verification once. 0 disables it.
+     */
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    // Longest a verified token stays cached; one that expires sooner leaves at its exp
+    @Value("${jwt.cache.max-ttl-seconds:300}")
+    private long cacheMaxTtlSeconds;
+
     private SecretKey key;
+    private JwtParser parser;
+    private Map<String, CachedClaims> verifiedTokens;
+    private final LongSupplier clock;
+
+    private record CachedClaims(Claims claims, long expiresAtMillis) {}
+
+    public JwtTokenProvider() {
+        this(System::currentTimeMillis);
+    }
+
+    // Tests pass their own clock to move past cache expiry
+    JwtTokenProvider(LongSupplier clock) {
+        this.clock = clock;
+    }
 
     @PostConstruct
     public void init() {
@@ -34,18 +66,33 @@ public class JwtTokenProvider {
             jwtSecret = jwtSecret + "0".repeat(32 - jwtSecret.length());
         }
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        // JwtParser is immutable and thread-safe, so one instance serves every request
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+        // Access-ordered, so the least recently used token goes first when full
+        this.verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedClaims> eldest) {
+                return size() > cacheMaxEntries;
+            }
+        };
     }
 
     /**
      * Validates JWT token signature and expiration
      */
     public boolean validateToken(String token) {
+        return parseValidClaims(token) != null;
+    }
+
+    /**
+     * Verifies the token and returns its claims in one parse,
+     * or null if the token is invalid or expired
+     */
+    public Claims parseValidClaims(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            return verifiedClaims(token);
         } catch (SignatureException e) {
             logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -57,46 +104,28 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return null;
     }
 
     /**
      * Extracts user ID from JWT token
      */
     public String getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.getSubject();
+        return verifiedClaims(token).getSubject();
     }
 
     /**
      * Extracts username from JWT token
      */
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.get("username", String.class);
+        return verifiedClaims(token).get("username", String.class);
     }
 
     /**
      * Extracts role from JWT token
      */
     public String getRoleFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.get("role", String.class);
+        return verifiedClaims(token).get("role", String.class);
     }
 
     /**
@@ -104,13 +133,7 @@ public class JwtTokenProvider {
      */
     public boolean isTokenExpired(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            
-            return claims.getExpiration().before(new Date());
+            return verifiedClaims(token).getExpiration().before(new Date());
         } catch (ExpiredJwtException e) {
             return true;
         }
@@ -120,11 +143,7 @@ public class JwtTokenProvider {
      * Gets all claims from token
      */
     public Claims getClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return verifiedClaims(token);
     }
 
     /**
@@ -143,4 +162,54 @@ public class JwtTokenProvider {
                 .signWith(key)
                 .compact();
     }
+
+    int cachedTokenCount() {
+        synchronized (verifiedTokens) {
+            return verifiedTokens.size();
+        }
+    }
+
+    // ===== Helper Methods =====
+
+    /**
+     * Cache hit skips parsing and HMAC verification entirely. A hit past its
+     * expiry is dropped and goes through the parser, which rejects it.
+     */
+    private Claims verifiedClaims(String token) {
+        if (cacheMaxEntries <= 0 || token == null || token.isEmpty()) {
+            return parser.parseSignedClaims(token).getPayload();
+        }
+
+        String cacheKey = sha256(token);
+        long now = clock.getAsLong();
+        synchronized (verifiedTokens) {
+            CachedClaims cached = verifiedTokens.get(cacheKey);
+            if (cached != null) {
+                if (now < cached.expiresAtMillis()) {
+                    return cached.claims();
+                }
+                verifiedTokens.remove(cacheKey);
+            }
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        long expiresAt = now + cacheMaxTtlSeconds * 1000;
+        if (claims.getExpiration() != null) {
+            expiresAt = Math.min(expiresAt, claims.getExpiration().getTime());
+        }
+        synchronized (verifiedTokens) {
+            verifiedTokens.put(cacheKey, new CachedClaims(claims, expiresAt));
+        }
+        return claims;
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -1,19 +1,29 @@
 package apap.ti._5.accommodation_2306275600_be.security;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import io.jsonwebtoken.Claims;
+import lombok.Value;
 
 import java.io.Serializable;
 
 /**
- * Represents the authenticated user principal stored in SecurityContext
+ * Represents the authenticated user principal stored in SecurityContext.
+ * Built once per request by JwtAuthenticationFilter and never modified after,
+ * so services can read it as often as they like without touching the token.
  */
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
+@Value
 public class UserPrincipal implements Serializable {
-    private String userId;
-    private String username;
-    private String role;
+    String userId;
+    String username;
+    String role;
+
+    /**
+     * The external auth service puts the user ID in "id", tokens issued here use "sub"
+     */
+    public static UserPrincipal fromClaims(Claims claims) {
+        Object id = claims.get("id");
+        return new UserPrincipal(
+                id != null ? id.toString() : claims.getSubject(),
+                claims.get("username", String.class),
+                claims.get("role", String.class));
+    }
 }
@@ -0,0 +1,62 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+public interface BalanceLedgerService {
+    /**
+     * Upper bound for a transaction that appends ledger entries. Compaction only folds
+     * entries older than its commit horizon, which has to stay above this.
+     */
+    int WRITE_TIMEOUT_SECONDS = 30;
+
+    /**
+     * Current balance: latest snapshot plus the ledger entries after it
+     */
+    BigDecimal getBalance(UUID customerId);
+
+    /**
+     * Current balances for many customers in two queries.
+     * Customers without any balance history map to zero.
+     */
+    Map<UUID, BigDecimal> getBalances(Collection<UUID> customerIds);
+
+    /**
+     * Balance as it was at the given moment
+     */
+    BigDecimal getBalanceAt(UUID customerId, LocalDateTime at);
+
+    /**
+     * Append a credit. Takes no lock, so concurrent top-ups never wait on each other or on payments.
+     *
+     * @return balance after the credit
+     */
+    BigDecimal credit(UUID customerId, BigDecimal amount, String entryType, String referenceId);
+
+    /**
+     * Append a debit if the balance covers it. Debits of the same customer are
+     * serialised by a row lock held until the surrounding transaction ends.
+     *
+     * @return balance after the debit
+     * @throws apap.ti._5.accommodation_2306275600_be.exceptions.InsufficientBalanceException when it does not
+     */
+    BigDecimal debit(UUID customerId, BigDecimal amount, String entryType, String referenceId);
+
+    /**
+     * Fold ledger entries created before the cutoff into new snapshots, for at most
+     * limit customers with at least minEntries such entries not snapshotted yet.
+     * The cutoff must lie further back than any ledger write can stay uncommitted
+     * (see WRITE_TIMEOUT_SECONDS), otherwise a late commit with a lower entry ID is left behind.
+     *
+     * @return number of snapshots written
+     */
+    int compactSnapshots(LocalDateTime cutoff, int minEntries, int limit);
+
+    /**
+     * Opening snapshot for every customer that has no balance history yet
+     */
+    void backfill();
+}
@@ -0,0 +1,202 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import apap.ti._5.accommodation_2306275600_be.exceptions.InsufficientBalanceException;
+import apap.ti._5.accommodation_2306275600_be.model.BalanceLedgerEntry;
+import apap.ti._5.accommodation_2306275600_be.model.BalanceSnapshot;
+import apap.ti._5.accommodation_2306275600_be.repository.BalanceLedgerRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.BalanceLedgerRepository.CustomerDeltaView;
+import apap.ti._5.accommodation_2306275600_be.repository.BalanceSnapshotRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.BalanceSnapshotRepository.OpeningBalanceView;
+import apap.ti._5.accommodation_2306275600_be.repository.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class BalanceLedgerServiceImpl implements BalanceLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BalanceLedgerServiceImpl.class);
+
+    private final BalanceLedgerRepository ledgerRepository;
+    private final BalanceSnapshotRepository snapshotRepository;
+    static final String BACKFILL_LEASE_NAME = "balance-ledger-backfill";
+
+    private final CustomerRepository customerRepository;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${balance.backfill-lease-ttl-seconds:600}")
+    private long backfillLeaseTtlSeconds;
+
+    // Existing saldo values become opening snapshots once
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        // Replicas start together; without the lease each one would write its own opening snapshots
+        if (!schedulerLeaseService.tryAcquire(BACKFILL_LEASE_NAME, Duration.ofSeconds(backfillLeaseTtlSeconds))) {
+            logger.info("Balance ledger backfill left to the replica holding the lease");
+            return;
+        }
+        try {
+            // backfill() only picks customers without history, so a holder that finished before us leaves nothing
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> backfill());
+        } finally {
+            schedulerLeaseService.release(BACKFILL_LEASE_NAME);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getBalance(UUID customerId) {
+        BalanceSnapshot snapshot = snapshotRepository.findFirstByCustomerIdOrderByLastEntryIdDesc(customerId)
+            .orElse(null);
+        long afterEntryId = snapshot != null ? snapshot.getLastEntryId() : 0L;
+        BigDecimal base = snapshot != null ? snapshot.getBalance() : BigDecimal.ZERO;
+        return base.add(ledgerRepository.sumDeltasAfter(customerId, afterEntryId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, BigDecimal> getBalances(Collection<UUID> customerIds) {
+        Map<UUID, BigDecimal> balances = new HashMap<>();
+        if (customerIds == null || customerIds.isEmpty()) {
+            return balances;
+        }
+        customerIds.forEach(id -> balances.put(id, BigDecimal.ZERO));
+        for (BalanceSnapshot snapshot : snapshotRepository.findLatestByCustomerIds(customerIds)) {
+            balances.put(snapshot.getCustomerId(), snapshot.getBalance());
+        }
+        for (CustomerDeltaView row : ledgerRepository.sumUnsnapshottedDeltas(customerIds)) {
+            balances.merge(row.getCustomerId(), row.getDelta(), BigDecimal::add);
+        }
+        return balances;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getBalanceAt(UUID customerId, LocalDateTime at) {
+        BalanceSnapshot snapshot = snapshotRepository
+            .findFirstByCustomerIdAndSnapshotAtLessThanEqualOrderByLastEntryIdDesc(customerId, at)
+            .orElse(null);
+        long afterEntryId = snapshot != null ? snapshot.getLastEntryId() : 0L;
+        BigDecimal base = snapshot != null ? snapshot.getBalance() : BigDecimal.ZERO;
+        return base.add(ledgerRepository.sumDeltasAfterUpToTime(customerId, afterEntryId, at));
+    }
+
+    @Override
+    @Transactional(timeout = WRITE_TIMEOUT_SECONDS)
+    public BigDecimal credit(UUID customerId, BigDecimal amount, String entryType, String referenceId) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new RuntimeException("Amount must be greater than 0");
+        }
+        append(customerId, amount, entryType, referenceId);
+        return getBalance(customerId);
+    }
+
+    @Override
+    @Transactional(timeout = WRITE_TIMEOUT_SECONDS)
+    public BigDecimal debit(UUID customerId, BigDecimal amount, String entryType, String referenceId) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new RuntimeException("Amount must be greater than 0");
+        }
+        // Only the overdraft check needs serialising: two debits must not both spend the same balance
+        customerRepository.lockForBalanceChange(customerId)
+            .orElseThrow(() -> new RuntimeException("Customer not found with ID: " + customerId));
+
+        BigDecimal balance = getBalance(customerId);
+        if (balance.compareTo(amount) < 0) {
+            throw new InsufficientBalanceException("User balance insufficient, please Top Up balance.");
+        }
+        append(customerId, amount.negate(), entryType, referenceId);
+        return balance.subtract(amount);
+    }
+
+    @Override
+    public int compactSnapshots(LocalDateTime cutoff, int minEntries, int limit) {
+        List<UUID> customerIds = ledgerRepository.findCustomersToCompact(cutoff, minEntries, PageRequest.of(0, limit));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        int written = 0;
+        // One short transaction per customer, so a slow customer never holds back the others
+        for (UUID customerId : customerIds) {
+            Boolean snapshotted = transactionTemplate.execute(status -> compactCustomer(customerId, cutoff));
+            if (Boolean.TRUE.equals(snapshotted)) {
+                written++;
+            }
+        }
+        return written;
+    }
+
+    @Override
+    @Transactional
+    public void backfill() {
+        List<OpeningBalanceView> customers = snapshotRepository.findCustomersWithoutBalanceHistory();
+        if (customers.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<BalanceSnapshot> snapshots = new ArrayList<>();
+        for (OpeningBalanceView customer : customers) {
+            snapshots.add(BalanceSnapshot.builder()
+                .customerId(customer.getCustomerId())
+                .lastEntryId(0L)
+                .balance(customer.getSaldo() != null ? customer.getSaldo() : BigDecimal.ZERO)
+                .snapshotAt(now)
+                .build());
+        }
+        snapshotRepository.saveAll(snapshots);
+        logger.info("Balance ledger: opening snapshot written for {} customer(s)", snapshots.size());
+    }
+
+    // ===== Helper Methods =====
+
+    private void append(UUID customerId, BigDecimal delta, String entryType, String referenceId) {
+        ledgerRepository.save(BalanceLedgerEntry.builder()
+            .customerId(customerId)
+            .delta(delta)
+            .entryType(entryType)
+            .referenceId(referenceId)
+            .build());
+    }
+
+    private boolean compactCustomer(UUID customerId, LocalDateTime cutoff) {
+        // Ledger writes commit within WRITE_TIMEOUT_SECONDS, so every entry inserted before the cutoff is visible
+        Long upToEntryId = ledgerRepository.findMaxEntryIdCreatedBefore(customerId, cutoff);
+        BalanceSnapshot previous = snapshotRepository.findFirstByCustomerIdOrderByLastEntryIdDesc(customerId)
+            .orElse(null);
+        long afterEntryId = previous != null ? previous.getLastEntryId() : 0L;
+        if (upToEntryId == null || upToEntryId <= afterEntryId) {
+            return false;
+        }
+
+        BigDecimal base = previous != null ? previous.getBalance() : BigDecimal.ZERO;
+        BigDecimal balance = base.add(ledgerRepository.sumDeltasBetween(customerId, afterEntryId, upToEntryId));
+        snapshotRepository.save(BalanceSnapshot.builder()
+            .customerId(customerId)
+            .lastEntryId(upToEntryId)
+            .balance(balance)
+            .snapshotAt(LocalDateTime.now())
+            .build());
+        customerRepository.updateSnapshotSaldo(customerId, balance);
+        return true;
+    }
+}
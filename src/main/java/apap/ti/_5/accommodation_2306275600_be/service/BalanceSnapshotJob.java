@@ -0,0 +1,85 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Periodically folds balance ledger entries into snapshots so a balance read
+ * only sums the entries since the last snapshot. Runs on the lease holder only.
+ */
+@Component
+@ConditionalOnProperty(name = "balance.snapshot.enabled", havingValue = "true", matchIfMissing = true)
+public class BalanceSnapshotJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(BalanceSnapshotJob.class);
+
+    static final String LEASE_NAME = "balance-snapshot";
+
+    private final BalanceLedgerService balanceLedgerService;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final Duration leaseTtl;
+    private final Duration commitHorizon;
+    private final int minEntries;
+    private final int batchSize;
+
+    private final Timer runTimer;
+    private final Counter snapshotCounter;
+
+    public BalanceSnapshotJob(BalanceLedgerService balanceLedgerService,
+                              SchedulerLeaseService schedulerLeaseService,
+                              MeterRegistry meterRegistry,
+                              @Value("${balance.snapshot.lease-ttl-seconds:600}") long leaseTtlSeconds,
+                              @Value("${balance.snapshot.commit-horizon-seconds:300}") long commitHorizonSeconds,
+                              @Value("${balance.snapshot.min-entries:20}") int minEntries,
+                              @Value("${balance.snapshot.batch-size:500}") int batchSize) {
+        this.balanceLedgerService = balanceLedgerService;
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.leaseTtl = Duration.ofSeconds(leaseTtlSeconds);
+        if (commitHorizonSeconds <= BalanceLedgerService.WRITE_TIMEOUT_SECONDS) {
+            throw new IllegalArgumentException("balance.snapshot.commit-horizon-seconds must exceed "
+                + BalanceLedgerService.WRITE_TIMEOUT_SECONDS + ", the ledger write timeout");
+        }
+        this.commitHorizon = Duration.ofSeconds(commitHorizonSeconds);
+        this.minEntries = minEntries;
+        this.batchSize = batchSize;
+
+        this.runTimer = Timer.builder("balance.snapshot.run")
+            .description("Duration of balance snapshot compaction runs on the lease holder")
+            .register(meterRegistry);
+        this.snapshotCounter = Counter.builder("balance.snapshot.written")
+            .description("Balance snapshots written by compaction")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${balance.snapshot.cron:0 */10 * * * *}")
+    public void run() {
+        if (!schedulerLeaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        // Entries inside the horizon may still have an uncommitted neighbour with a lower ID
+        int written = balanceLedgerService.compactSnapshots(
+            LocalDateTime.now().minus(commitHorizon), minEntries, batchSize);
+        long elapsedNanos = System.nanoTime() - start;
+
+        runTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        snapshotCounter.increment(written);
+        if (written > 0) {
+            logger.info("Balance snapshot: {} customer(s) compacted in {} ms",
+                written, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+    }
+}
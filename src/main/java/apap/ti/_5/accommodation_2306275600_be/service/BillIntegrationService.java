@@ -4,8 +4,9 @@ import apap.ti._5.accommodation_2306275600_be.model.Booking;
 
 public interface BillIntegrationService {
     /**
-     * Call Bill service to create a bill for accommodation booking
-     * This is a "fire and forget" operation - we don't check if it succeeds or fails
+     * Create the local bill for an accommodation booking and queue the matching
+     * call to the external Bill service. Both are written in the caller's
+     * transaction; the call itself is made later by the outbox dispatcher.
      * 
      * @param booking The booking object for which to create a bill
      */
@@ -1,14 +1,10 @@
 package apap.ti._5.accommodation_2306275600_be.service;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import apap.ti._5.accommodation_2306275600_be.model.Bill;
 import apap.ti._5.accommodation_2306275600_be.model.Booking;
+import apap.ti._5.accommodation_2306275600_be.model.OutboxMessage;
 import apap.ti._5.accommodation_2306275600_be.repository.BillRepository;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.CreateBillRequestDTO;
 import lombok.RequiredArgsConstructor;
@@ -17,14 +13,8 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class BillIntegrationServiceImpl implements BillIntegrationService {
 
-    private final RestTemplate restTemplate;
     private final BillRepository billRepository;
-
-    @Value("${bill.service.url:http://2306275380-be.hafizmuh.site}")
-    private String billServiceUrl;
-
-    @Value("${bill.service.api-key:ACCOMMODATION_API_KEY}")
-    private String apiKey;
+    private final OutboxService outboxService;
 
     @Override
     public void createBillForBooking(Booking booking) {
@@ -49,13 +39,8 @@ public class BillIntegrationServiceImpl implements BillIntegrationService {
             System.out.println("   Booking ID: " + booking.getBookingID());
             System.out.println("   Amount: Rp " + String.format("%,d", booking.getTotalPrice()));
             
-            // Optional: Also notify external Bill service if configured
-            try {
-                notifyExternalBillService(booking);
-            } catch (Exception e) {
-                // Log error but don't fail the bill creation
-                System.err.println("⚠️ Failed to notify external Bill service (non-critical): " + e.getMessage());
-            }
+            // Also notify external Bill service, queued so a slow Bill service never holds up the booking
+            notifyExternalBillService(booking);
             
         } catch (Exception e) {
             // Log error and rethrow to ensure booking knows bill creation failed
@@ -66,9 +51,8 @@ public class BillIntegrationServiceImpl implements BillIntegrationService {
     }
     
     private void notifyExternalBillService(Booking booking) {
-        // Build request DTO
+        // Build request DTO; the API key is added by the outbox dispatcher at send time
         CreateBillRequestDTO request = CreateBillRequestDTO.builder()
-                .apiKey(apiKey)
                 .customerId(booking.getCustomerID())
                 .serviceName("Accommodation")
                 .serviceReferenceId(booking.getBookingID().toString())
@@ -79,20 +63,7 @@ public class BillIntegrationServiceImpl implements BillIntegrationService {
                 .amount(Long.valueOf(booking.getTotalPrice()))
                 .build();
 
-        // Set headers
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        HttpEntity<CreateBillRequestDTO> entity = new HttpEntity<>(request, headers);
-
-        // Call external Bill service
-        String url = billServiceUrl + "/api/bill/create";
-        
-        System.out.println("🔔 Notifying external Bill Service:");
-        System.out.println("   URL: " + url);
-
-        restTemplate.postForEntity(url, entity, String.class);
-        
-        System.out.println("✅ External Bill service notified successfully");
+        // Written in the booking transaction, delivered later by OutboxDispatchJob
+        outboxService.enqueue(OutboxMessage.TYPE_BILL_CREATE, booking.getBookingID().toString(), request);
     }
 }
@@ -0,0 +1,181 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import apap.ti._5.accommodation_2306275600_be.service.BillServiceClient.DeliveryStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Circuit breaker plus bulkhead for calls to the Bill service, shared by both
+ * BillServiceClient implementations.
+ *
+ * CLOSED lets calls through until failureThreshold failures in a row, then
+ * OPEN rejects every call without touching the network for openDuration.
+ * After that HALF_OPEN lets up to halfOpenProbes calls through; if all of them
+ * succeed the circuit closes again, one failure opens it for another round.
+ *
+ * The bulkhead caps how many calls may be in flight at once, no matter the
+ * state. Calls over the cap are rejected rather than queued.
+ */
+@Component
+public class BillServiceCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(BillServiceCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private final int halfOpenProbes;
+    private final Semaphore bulkhead;
+    private final LongSupplier clock;
+    private final MeterRegistry meterRegistry;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    private final Counter rejectedOpenCounter;
+    private final Counter rejectedBulkheadCounter;
+
+    @Autowired
+    public BillServiceCircuitBreaker(MeterRegistry meterRegistry,
+                                     @Value("${bill.client.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                                     @Value("${bill.client.circuit-breaker.open-duration-ms:30000}") long openDurationMs,
+                                     @Value("${bill.client.circuit-breaker.half-open-probes:1}") int halfOpenProbes,
+                                     @Value("${bill.client.bulkhead.max-concurrent-calls:16}") int maxConcurrentCalls) {
+        this(meterRegistry, failureThreshold, openDurationMs, halfOpenProbes, maxConcurrentCalls,
+            System::currentTimeMillis);
+    }
+
+    BillServiceCircuitBreaker(MeterRegistry meterRegistry, int failureThreshold, long openDurationMs,
+                              int halfOpenProbes, int maxConcurrentCalls, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDurationMs;
+        this.halfOpenProbes = halfOpenProbes;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+
+        this.rejectedOpenCounter = rejectedCounter(meterRegistry, "circuit-open");
+        this.rejectedBulkheadCounter = rejectedCounter(meterRegistry, "bulkhead-full");
+        // 0 closed, 1 open, 2 half-open
+        Gauge.builder("bill.client.circuit.state", this, breaker -> breaker.state().ordinal())
+            .description("Bill service circuit state (0 closed, 1 open, 2 half-open)")
+            .register(meterRegistry);
+        Gauge.builder("bill.client.bulkhead.available", bulkhead, Semaphore::availablePermits)
+            .description("Free slots for concurrent Bill service calls")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return a permit that must be completed once the call finishes, or null
+     *         if the call must not be made right now
+     */
+    public Permit tryAcquire() {
+        if (!bulkhead.tryAcquire()) {
+            rejectedBulkheadCounter.increment();
+            return null;
+        }
+        boolean probe;
+        synchronized (this) {
+            if (state == State.OPEN && clock.getAsLong() - openedAt >= openDurationMillis) {
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.OPEN || (state == State.HALF_OPEN && probesStarted >= halfOpenProbes)) {
+                bulkhead.release();
+                rejectedOpenCounter.increment();
+                return null;
+            }
+            probe = state == State.HALF_OPEN;
+            if (probe) {
+                probesStarted++;
+            }
+        }
+        return new Permit(probe);
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    int availableBulkheadSlots() {
+        return bulkhead.availablePermits();
+    }
+
+    private synchronized void onComplete(boolean probe, boolean healthy) {
+        if (healthy) {
+            if (state == State.CLOSED) {
+                consecutiveFailures = 0;
+            } else if (state == State.HALF_OPEN && probe && ++probesSucceeded >= halfOpenProbes) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+        } else if (state == State.CLOSED && ++consecutiveFailures >= failureThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    // Caller holds the lock
+    private void transitionTo(State next) {
+        logger.warn("Bill service circuit {} -> {}", state, next);
+        meterRegistry.counter("bill.client.circuit.transitions",
+            "from", state.name().toLowerCase(), "to", next.name().toLowerCase()).increment();
+        state = next;
+        consecutiveFailures = 0;
+        probesStarted = 0;
+        probesSucceeded = 0;
+        if (next == State.OPEN) {
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("bill.client.calls.rejected")
+            .tag("reason", reason)
+            .description("Bill service calls not attempted because of the circuit breaker or bulkhead")
+            .register(meterRegistry);
+    }
+
+    /**
+     * One admitted call. Completing it more than once is a no-op, so it is safe
+     * to complete from both a result and a cancellation path.
+     */
+    public final class Permit {
+
+        private final boolean probe;
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Permit(boolean probe) {
+            this.probe = probe;
+        }
+
+        /**
+         * A 4xx still means the service is up, so only RETRY and UNREACHABLE
+         * count as failures.
+         */
+        public void complete(DeliveryStatus status) {
+            if (completed.compareAndSet(false, true)) {
+                bulkhead.release();
+                onComplete(probe, status == DeliveryStatus.SENT || status == DeliveryStatus.REJECTED);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.util.List;
+
+import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.CreateBillRequestDTO;
+
+/**
+ * Transport for calls to the external Bill service. Which implementation is
+ * active is chosen with bill.client.mode (blocking or reactive).
+ */
+public interface BillServiceClient {
+    /**
+     * Header the Bill service uses to recognise a request it has already applied
+     */
+    String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * Send create-bill requests. The API key is filled in by the client.
+     *
+     * @return one outcome per request, in the same order
+     */
+    List<DeliveryOutcome> createBills(List<BillRequest> requests);
+
+    /**
+     * One create-bill call. A timed out or failed call may already have been applied,
+     * so every retry of it carries the same idempotency key.
+     */
+    record BillRequest(String idempotencyKey, CreateBillRequestDTO body) {
+    }
+
+    enum DeliveryStatus {
+        SENT,
+        // Worth trying again later (5xx, 408, 429, timeout)
+        RETRY,
+        // The Bill service refused the request itself; resending will not help
+        REJECTED,
+        // Could not reach the Bill service at all
+        UNREACHABLE,
+        // Not attempted because the service was already found unreachable
+        SKIPPED
+    }
+
+    record DeliveryOutcome(DeliveryStatus status, String error) {
+        public static final DeliveryOutcome SENT = new DeliveryOutcome(DeliveryStatus.SENT, null);
+        public static final DeliveryOutcome SKIPPED = new DeliveryOutcome(DeliveryStatus.SKIPPED, null);
+
+        public static DeliveryOutcome failed(DeliveryStatus status, Throwable error) {
+            return new DeliveryOutcome(status, error.getClass().getSimpleName() + ": " + error.getMessage());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import apap.ti._5.accommodation_2306275600_be.service.BookingLifecycleService.LifecycleResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs the booking lifecycle transitions on every replica's schedule, but
+ * only on the replica holding the database lease.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.lifecycle.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingLifecycleJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingLifecycleJob.class);
+
+    static final String LEASE_NAME = "booking-lifecycle";
+
+    private final BookingLifecycleService bookingLifecycleService;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final Duration leaseTtl;
+
+    private final Timer runTimer;
+    private final Counter cancelledCounter;
+    private final Counter completedCounter;
+    private final AtomicLong lastRunMillis = new AtomicLong();
+    private final AtomicLong lastRowsProcessed = new AtomicLong();
+    private final AtomicLong leader = new AtomicLong();
+
+    public BookingLifecycleJob(BookingLifecycleService bookingLifecycleService,
+                               SchedulerLeaseService schedulerLeaseService,
+                               MeterRegistry meterRegistry,
+                               @Value("${booking.lifecycle.lease-ttl-seconds:600}") long leaseTtlSeconds) {
+        this.bookingLifecycleService = bookingLifecycleService;
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.leaseTtl = Duration.ofSeconds(leaseTtlSeconds);
+
+        this.runTimer = Timer.builder("booking.lifecycle.run")
+            .description("Duration of booking lifecycle runs on the lease holder")
+            .register(meterRegistry);
+        this.cancelledCounter = Counter.builder("booking.lifecycle.rows")
+            .tag("transition", "auto-cancel")
+            .register(meterRegistry);
+        this.completedCounter = Counter.builder("booking.lifecycle.rows")
+            .tag("transition", "auto-complete")
+            .register(meterRegistry);
+        Gauge.builder("booking.lifecycle.last.run.ms", lastRunMillis, AtomicLong::get)
+            .description("Latency of the last lifecycle run")
+            .register(meterRegistry);
+        Gauge.builder("booking.lifecycle.last.rows", lastRowsProcessed, AtomicLong::get)
+            .description("Bookings moved by the last lifecycle run")
+            .register(meterRegistry);
+        Gauge.builder("booking.lifecycle.leader", leader, AtomicLong::get)
+            .description("1 when this node holds the lifecycle lease")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${booking.lifecycle.cron:0 */5 * * * *}")
+    public void run() {
+        if (!schedulerLeaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+            leader.set(0);
+            return;
+        }
+        leader.set(1);
+
+        long start = System.nanoTime();
+        LifecycleResult result = bookingLifecycleService.runTransitions(LocalDateTime.now(), this::renewLease);
+        long elapsedNanos = System.nanoTime() - start;
+
+        runTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        cancelledCounter.increment(result.cancelled());
+        completedCounter.increment(result.completed());
+        lastRunMillis.set(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        lastRowsProcessed.set(result.total());
+
+        // One summary line per run instead of one line per booking
+        if (result.total() > 0) {
+            logger.info("Booking lifecycle: {} cancelled, {} completed in {} ms",
+                result.cancelled(), result.completed(), lastRunMillis.get());
+        }
+    }
+
+    // Called before every chunk, so a run longer than the TTL keeps its lease or stops once another node has it
+    private boolean renewLease() {
+        if (schedulerLeaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+            return true;
+        }
+        leader.set(0);
+        logger.warn("Booking lifecycle lease lost mid-run, leaving the rest to the new holder");
+        return false;
+    }
+}
@@ -0,0 +1,35 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.time.LocalDateTime;
+import java.util.function.BooleanSupplier;
+
+public interface BookingLifecycleService {
+    /**
+     * Cancel (status 0 -> 2) bookings still waiting for payment whose check-in has passed
+     *
+     * @param beforeChunk asked before every chunk; the run stops once it returns false
+     * @return number of bookings cancelled
+     */
+    int autoCancelUnpaid(LocalDateTime now, BooleanSupplier beforeChunk);
+
+    /**
+     * Complete (status 1 -> 4) paid bookings whose check-out has passed
+     *
+     * @param beforeChunk asked before every chunk; the run stops once it returns false
+     * @return number of bookings completed
+     */
+    int autoCompletePaid(LocalDateTime now, BooleanSupplier beforeChunk);
+
+    /**
+     * Run every enabled transition once
+     *
+     * @param beforeChunk asked before every chunk, e.g. to renew the job lease
+     */
+    LifecycleResult runTransitions(LocalDateTime now, BooleanSupplier beforeChunk);
+
+    record LifecycleResult(int cancelled, int completed) {
+        public int total() {
+            return cancelled + completed;
+        }
+    }
+}
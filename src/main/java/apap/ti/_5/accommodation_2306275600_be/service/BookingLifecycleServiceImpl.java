@@ -0,0 +1,91 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Set-based booking status transitions. Each chunk is locked by ID, moved
+ * with one UPDATE and committed on its own, so a large backlog never sits in
+ * a single long transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingLifecycleServiceImpl implements BookingLifecycleService {
+
+    private static final int STATUS_WAITING_PAYMENT = 0;
+    private static final int STATUS_PAID = 1;
+    private static final int STATUS_CANCELLED = 2;
+    private static final int STATUS_DONE = 4;
+
+    private final BookingRepository bookingRepository;
+    private final RevenueRollupService revenueRollupService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${booking.lifecycle.chunk-size:500}")
+    private int chunkSize;
+
+    // Status 4 is not shown by the current 3-status UI, so completion is opt-in
+    @Value("${booking.lifecycle.auto-complete:false}")
+    private boolean autoCompleteEnabled;
+
+    @Override
+    public int autoCancelUnpaid(LocalDateTime now, BooleanSupplier beforeChunk) {
+        // Cancelled (2) still blocks like every status outside (3, 4), so the calendar stays as it is
+        return moveInChunks(
+            () -> bookingRepository.lockBookingIDsByStatusAndCheckInBefore(STATUS_WAITING_PAYMENT, now, chunkSize),
+            STATUS_WAITING_PAYMENT, STATUS_CANCELLED, now, ids -> { }, beforeChunk);
+    }
+
+    @Override
+    public int autoCompletePaid(LocalDateTime now, BooleanSupplier beforeChunk) {
+        return moveInChunks(
+            () -> bookingRepository.lockBookingIDsByStatusAndCheckOutBefore(STATUS_PAID, now, chunkSize),
+            STATUS_PAID, STATUS_DONE, now, revenueRollupService::recordCompletedBookings, beforeChunk);
+    }
+
+    @Override
+    public LifecycleResult runTransitions(LocalDateTime now, BooleanSupplier beforeChunk) {
+        int cancelled = autoCancelUnpaid(now, beforeChunk);
+        int completed = autoCompleteEnabled ? autoCompletePaid(now, beforeChunk) : 0;
+        return new LifecycleResult(cancelled, completed);
+    }
+
+    // ===== Helper Methods =====
+
+    private int moveInChunks(Supplier<List<UUID>> nextChunk, int fromStatus, int toStatus,
+                             LocalDateTime now, Consumer<List<UUID>> afterUpdate, BooleanSupplier beforeChunk) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int total = 0;
+        while (beforeChunk.getAsBoolean()) {
+            Integer moved = transactionTemplate.execute(status -> {
+                // Locked until commit, so no other run or request can move these first:
+                // every ID here is moved by this UPDATE and reported once
+                List<UUID> ids = nextChunk.get();
+                if (ids.isEmpty()) {
+                    return null;
+                }
+                int updated = bookingRepository.updateStatusForBookings(ids, fromStatus, toStatus, now);
+                afterUpdate.accept(ids);
+                return updated;
+            });
+            if (moved == null) {
+                return total;
+            }
+            total += moved;
+        }
+        // Told to stop, e.g. the job lease was lost; what is left goes to the next run
+        return total;
+    }
+}
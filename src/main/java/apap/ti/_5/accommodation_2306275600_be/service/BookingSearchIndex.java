@@ -0,0 +1,94 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory search over the booking list by property name or room ID.
+ *
+ * The keyword is matched against the distinct property names and room IDs,
+ * which are far fewer than bookings, and the matched rooms are then expanded
+ * to their bookings. Matches are the same as
+ * BookingRepository.searchListItemsByPropertyOrRoom:
+ * LOWER(propertyName) LIKE '%kw%' OR LOWER(CAST(roomID AS string)) LIKE '%kw%'.
+ */
+public class BookingSearchIndex {
+
+    private final TrigramIndex<UUID> propertyNames = new TrigramIndex<>();
+    private final TrigramIndex<UUID> roomIDs = new TrigramIndex<>();
+    private final Map<UUID, Set<UUID>> roomsByProperty = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<UUID>> bookingsByRoom = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> roomByBooking = new ConcurrentHashMap<>();
+
+    /**
+     * Insert or replace a booking. A booking that moved to another room is
+     * removed from its previous room first.
+     */
+    public synchronized void put(UUID bookingID, UUID roomID, UUID propertyID, String propertyName) {
+        UUID previousRoomID = roomByBooking.put(bookingID, roomID);
+        if (previousRoomID != null && !previousRoomID.equals(roomID)) {
+            removeFromRoom(previousRoomID, bookingID);
+        }
+        bookingsByRoom.computeIfAbsent(roomID, id -> ConcurrentHashMap.newKeySet()).add(bookingID);
+
+        if (!roomIDs.containsKey(roomID)) {
+            roomIDs.put(roomID, roomID.toString());
+            roomsByProperty.computeIfAbsent(propertyID, id -> ConcurrentHashMap.newKeySet()).add(roomID);
+        }
+        propertyNames.put(propertyID, propertyName);
+    }
+
+    /**
+     * Re-index a property's name. Properties without bookings are not indexed and are ignored.
+     */
+    public synchronized void renameProperty(UUID propertyID, String propertyName) {
+        if (propertyNames.containsKey(propertyID)) {
+            propertyNames.put(propertyID, propertyName);
+        }
+    }
+
+    public synchronized void remove(UUID bookingID) {
+        UUID roomID = roomByBooking.remove(bookingID);
+        if (roomID != null) {
+            removeFromRoom(roomID, bookingID);
+        }
+    }
+
+    public synchronized void clear() {
+        propertyNames.clear();
+        roomIDs.clear();
+        roomsByProperty.clear();
+        bookingsByRoom.clear();
+        roomByBooking.clear();
+    }
+
+    /**
+     * @return IDs of the bookings whose property name or room ID contains the keyword, ignoring case
+     */
+    public Set<UUID> search(String keyword) {
+        Set<UUID> rooms = roomIDs.search(keyword);
+        for (UUID propertyID : propertyNames.search(keyword)) {
+            rooms.addAll(roomsByProperty.getOrDefault(propertyID, Set.of()));
+        }
+
+        Set<UUID> bookingIDs = new HashSet<>();
+        for (UUID roomID : rooms) {
+            bookingIDs.addAll(bookingsByRoom.getOrDefault(roomID, Set.of()));
+        }
+        return bookingIDs;
+    }
+
+    public int size() {
+        return roomByBooking.size();
+    }
+
+    private void removeFromRoom(UUID roomID, UUID bookingID) {
+        bookingsByRoom.computeIfPresent(roomID, (id, bookings) -> {
+            bookings.remove(bookingID);
+            return bookings.isEmpty() ? null : bookings;
+        });
+    }
+}
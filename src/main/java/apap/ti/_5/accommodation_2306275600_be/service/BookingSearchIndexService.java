@@ -0,0 +1,42 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.util.Set;
+import java.util.UUID;
+
+import apap.ti._5.accommodation_2306275600_be.model.Booking;
+
+public interface BookingSearchIndexService {
+    /**
+     * Find bookings whose property name or room ID contains the keyword, ignoring case.
+     * Returns null while the index is still warming up, so callers must fall back
+     * to the database search.
+     */
+    Set<UUID> search(String keyword);
+
+    /**
+     * Reflect a created or moved booking in the index once the surrounding transaction commits
+     *
+     * @param booking The booking that was saved, with its room, room type and property reachable
+     */
+    void onBookingSaved(Booking booking);
+
+    /**
+     * Re-index a property's name once the surrounding transaction commits
+     */
+    void onPropertyRenamed(UUID propertyID, String propertyName);
+
+    /**
+     * Reload the whole index from the database
+     */
+    void rebuild();
+
+    /**
+     * Re-read the bookings and property names changed since the last load or sync,
+     * including those written by other nodes. Does nothing while warming up.
+     *
+     * @return number of rows re-read
+     */
+    int syncChanges();
+
+    boolean isReady();
+}
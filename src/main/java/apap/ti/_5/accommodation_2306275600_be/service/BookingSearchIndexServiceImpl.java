@@ -0,0 +1,133 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import apap.ti._5.accommodation_2306275600_be.model.Booking;
+import apap.ti._5.accommodation_2306275600_be.model.Property;
+import apap.ti._5.accommodation_2306275600_be.model.Room;
+import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository.BookingSearchKeyView;
+import apap.ti._5.accommodation_2306275600_be.repository.PropertyRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.PropertyRepository.PropertyNameView;
+
+@Service
+public class BookingSearchIndexServiceImpl implements BookingSearchIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingSearchIndexServiceImpl.class);
+
+    private final BookingRepository bookingRepository;
+    private final PropertyRepository propertyRepository;
+    private final Duration syncOverlap;
+    private final BookingSearchIndex index = new BookingSearchIndex();
+
+    private volatile boolean ready = false;
+    // Start of the last full load or sync; guarded by the index lock
+    private LocalDateTime syncedFrom;
+
+    public BookingSearchIndexServiceImpl(BookingRepository bookingRepository,
+                                         PropertyRepository propertyRepository,
+                                         @Value("${search-index.sync.overlap-seconds:300}") long syncOverlapSeconds) {
+        this.bookingRepository = bookingRepository;
+        this.propertyRepository = propertyRepository;
+        this.syncOverlap = Duration.ofSeconds(syncOverlapSeconds);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        // After-commit updates wait for the lock, so none is overwritten by an older snapshot row
+        synchronized (index) {
+            long start = System.currentTimeMillis();
+            syncedFrom = LocalDateTime.now();
+            index.clear();
+
+            List<BookingSearchKeyView> keys = bookingRepository.findBookingSearchKeys();
+            for (BookingSearchKeyView key : keys) {
+                index.put(key.getBookingID(), key.getRoomID(), key.getPropertyID(), key.getPropertyName());
+            }
+            ready = true;
+
+            logger.info("Booking search index warmed with {} booking(s) in {} ms",
+                index.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int syncChanges() {
+        if (!ready) {
+            return 0;
+        }
+        synchronized (index) {
+            LocalDateTime start = LocalDateTime.now();
+            LocalDateTime since = syncedFrom.minus(syncOverlap);
+
+            // Bookings created or moved on another node; this node's own saves are already applied after commit
+            List<BookingSearchKeyView> bookings = bookingRepository.findBookingSearchKeysUpdatedSince(since);
+            for (BookingSearchKeyView key : bookings) {
+                index.put(key.getBookingID(), key.getRoomID(), key.getPropertyID(), key.getPropertyName());
+            }
+            List<PropertyNameView> properties = propertyRepository.findPropertyNamesUpdatedSince(since);
+            for (PropertyNameView property : properties) {
+                index.renameProperty(property.getPropertyID(), property.getPropertyName());
+            }
+            syncedFrom = start;
+            return bookings.size() + properties.size();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public Set<UUID> search(String keyword) {
+        if (!ready) {
+            return null;
+        }
+        return index.search(keyword);
+    }
+
+    @Override
+    public void onBookingSaved(Booking booking) {
+        Room room = booking.getRoom();
+        if (booking.getBookingID() == null || room == null || room.getRoomType() == null
+                || room.getRoomType().getProperty() == null) {
+            return;
+        }
+        // Read everything now, the lazy associations are gone after commit
+        UUID bookingID = booking.getBookingID();
+        UUID roomID = room.getRoomID();
+        Property property = room.getRoomType().getProperty();
+        UUID propertyID = property.getPropertyID();
+        String propertyName = property.getPropertyName();
+
+        AfterCommit.run(() -> index.put(bookingID, roomID, propertyID, propertyName));
+    }
+
+    @Override
+    public void onPropertyRenamed(UUID propertyID, String propertyName) {
+        if (propertyID == null) {
+            return;
+        }
+        AfterCommit.run(() -> index.renameProperty(propertyID, propertyName));
+    }
+}
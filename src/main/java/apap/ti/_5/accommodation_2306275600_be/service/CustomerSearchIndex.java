@@ -0,0 +1,167 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import apap.ti._5.accommodation_2306275600_be.repository.KeysetCursor;
+
+/**
+ * In-memory customer directory: search by name, email or username, filter by
+ * gender and page in (created date DESC, id DESC) order without touching the database.
+ *
+ * The three fields are indexed as one text joined by a character that never
+ * appears in a keyword, so a match is the same as
+ * CustomerRepository.searchCustomers: LOWER(name), LOWER(email) or LOWER(username) LIKE '%kw%'.
+ */
+public class CustomerSearchIndex {
+
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    public record Entry(UUID id, LocalDateTime createdAt, String gender, String username, String name, String email) {
+
+        public KeysetCursor position() {
+            return new KeysetCursor(createdAt, id);
+        }
+    }
+
+    /**
+     * Typeahead result; partial is true when the latency budget ran out before every candidate was ranked
+     */
+    public record Suggestions(List<Entry> entries, boolean partial) {
+    }
+
+    private static final Comparator<Entry> LIST_ORDER = Comparator.comparing(Entry::position, KeysetCursor.LIST_ORDER);
+
+    private final TrigramIndex<UUID> texts = new TrigramIndex<>();
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final NavigableSet<Entry> newestFirst = new ConcurrentSkipListSet<>(LIST_ORDER);
+
+    /**
+     * Insert or replace a customer
+     */
+    public synchronized void put(Entry entry) {
+        Entry previous = entries.put(entry.id(), entry);
+        if (previous != null) {
+            newestFirst.remove(previous);
+        }
+        newestFirst.add(entry);
+        texts.put(entry.id(), entry.username() + FIELD_SEPARATOR + entry.name() + FIELD_SEPARATOR + entry.email());
+    }
+
+    public synchronized void clear() {
+        texts.clear();
+        entries.clear();
+        newestFirst.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * One page of the directory in list order.
+     *
+     * @param keyword blank for every customer
+     * @param gender  null for every gender, otherwise compared exactly
+     * @param after   null for the first page
+     * @param limit   maximum number of entries returned
+     */
+    public List<Entry> page(String keyword, String gender, KeysetCursor after, int limit) {
+        Collection<Entry> ordered = after == null
+            ? newestFirst
+            : newestFirst.tailSet(new Entry(after.id(), after.createdAt(), null, null, null, null), false);
+        Set<UUID> matches = keyword == null || keyword.isBlank() ? null : texts.search(keyword);
+
+        List<Entry> page = new ArrayList<>();
+        // A broad keyword is cheaper to check while walking the ordered set than to sort
+        if (matches == null || matches.size() * 8L > entries.size()) {
+            for (Entry entry : ordered) {
+                if (page.size() >= limit) {
+                    break;
+                }
+                if ((matches == null || matches.contains(entry.id())) && hasGender(entry, gender)) {
+                    page.add(entry);
+                }
+            }
+            return page;
+        }
+
+        for (UUID id : matches) {
+            Entry entry = entries.get(id);
+            if (entry != null && hasGender(entry, gender)
+                    && (after == null || KeysetCursor.LIST_ORDER.compare(entry.position(), after) > 0)) {
+                page.add(entry);
+            }
+        }
+        page.sort(LIST_ORDER);
+        return page.size() > limit ? new ArrayList<>(page.subList(0, limit)) : page;
+    }
+
+    /**
+     * Best matches for a search box. Customers whose username, email or a word of
+     * their name starts with the keyword come first, then the other matches, each by name.
+     *
+     * @param deadlineNanos System.nanoTime() after which ranking stops and the best so far is returned
+     */
+    public Suggestions suggest(String keyword, String gender, int limit, long deadlineNanos) {
+        String needle = keyword.toLowerCase(Locale.ROOT);
+        Comparator<Ranked> rank = Comparator.comparingInt(Ranked::score)
+            .thenComparing(Ranked::sortName)
+            .thenComparing(ranked -> ranked.entry().id());
+        // Max-heap of the best `limit` so far, the worst on top
+        PriorityQueue<Ranked> best = new PriorityQueue<>(limit + 1, rank.reversed());
+
+        // Rank while scanning, so a short keyword that visits every customer still stops at the deadline
+        boolean complete = texts.searchUntil(keyword, deadlineNanos, id -> {
+            Entry entry = entries.get(id);
+            if (entry == null || !hasGender(entry, gender)) {
+                return;
+            }
+            best.add(new Ranked(entry, isPrefixMatch(entry, needle) ? 0 : 1, lower(entry.name())));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        });
+        return new Suggestions(drain(best, rank), !complete);
+    }
+
+    private record Ranked(Entry entry, int score, String sortName) {
+    }
+
+    private static List<Entry> drain(PriorityQueue<Ranked> best, Comparator<Ranked> rank) {
+        List<Ranked> ranked = new ArrayList<>(best);
+        ranked.sort(rank);
+        return ranked.stream().map(Ranked::entry).toList();
+    }
+
+    private static boolean isPrefixMatch(Entry entry, String needle) {
+        if (lower(entry.username()).startsWith(needle) || lower(entry.email()).startsWith(needle)) {
+            return true;
+        }
+        for (String word : lower(entry.name()).split("\\s+")) {
+            if (word.startsWith(needle)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasGender(Entry entry, String gender) {
+        return gender == null || gender.equals(entry.gender());
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,45 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.util.List;
+
+import apap.ti._5.accommodation_2306275600_be.model.Customer;
+import apap.ti._5.accommodation_2306275600_be.repository.KeysetCursor;
+
+public interface CustomerSearchIndexService {
+    /**
+     * One page of customers matching the keyword and gender, newest first.
+     * Returns null while the index is still warming up, so callers must fall back
+     * to the database.
+     *
+     * @param keyword blank for every customer
+     * @param gender  null for every gender
+     * @param after   null for the first page
+     */
+    List<CustomerSearchIndex.Entry> page(String keyword, String gender, KeysetCursor after, int limit);
+
+    /**
+     * Typeahead matches ranked for a search box, cut short once the configured latency
+     * budget is spent. Returns null while the index is still warming up.
+     */
+    CustomerSearchIndex.Suggestions suggest(String keyword, String gender, int limit);
+
+    /**
+     * Reflect a registered or updated customer in the index once the surrounding transaction commits
+     */
+    void onCustomerSaved(Customer customer);
+
+    /**
+     * Reload the whole index from the database
+     */
+    void rebuild();
+
+    /**
+     * Re-read the customers registered or edited since the last load or sync, including those
+     * written by other nodes. Does nothing while warming up.
+     *
+     * @return number of customers re-read
+     */
+    int syncChanges();
+
+    boolean isReady();
+}
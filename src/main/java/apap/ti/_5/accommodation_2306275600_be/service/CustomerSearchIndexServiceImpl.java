@@ -0,0 +1,138 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import apap.ti._5.accommodation_2306275600_be.model.Customer;
+import apap.ti._5.accommodation_2306275600_be.repository.CustomerRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.CustomerRepository.CustomerSearchKeyView;
+import apap.ti._5.accommodation_2306275600_be.repository.KeysetCursor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@Service
+public class CustomerSearchIndexServiceImpl implements CustomerSearchIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerSearchIndexServiceImpl.class);
+
+    private final CustomerRepository customerRepository;
+    private final MeterRegistry meterRegistry;
+    private final long typeaheadBudgetMillis;
+    private final Duration syncOverlap;
+    private final CustomerSearchIndex index = new CustomerSearchIndex();
+
+    private volatile boolean ready = false;
+    // Start of the last full load or sync; guarded by the index lock
+    private LocalDateTime syncedFrom;
+
+    public CustomerSearchIndexServiceImpl(CustomerRepository customerRepository,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${customer.search.typeahead-budget-ms:50}") long typeaheadBudgetMillis,
+                                          @Value("${search-index.sync.overlap-seconds:300}") long syncOverlapSeconds) {
+        this.customerRepository = customerRepository;
+        this.meterRegistry = meterRegistry;
+        this.typeaheadBudgetMillis = typeaheadBudgetMillis;
+        this.syncOverlap = Duration.ofSeconds(syncOverlapSeconds);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        // A registration committed mid-load waits for the lock, so the directory never loses it to an older snapshot
+        synchronized (index) {
+            long start = System.currentTimeMillis();
+            syncedFrom = LocalDateTime.now();
+            index.clear();
+
+            List<CustomerSearchKeyView> keys = customerRepository.findCustomerSearchKeys();
+            for (CustomerSearchKeyView key : keys) {
+                index.put(new CustomerSearchIndex.Entry(key.getId(), key.getCreatedAt(), key.getGender(),
+                    key.getUsername(), key.getName(), key.getEmail()));
+            }
+            ready = true;
+
+            logger.info("Customer search index warmed with {} customer(s) in {} ms",
+                index.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int syncChanges() {
+        if (!ready) {
+            return 0;
+        }
+        synchronized (index) {
+            LocalDateTime start = LocalDateTime.now();
+            // Even the unfiltered directory is listed from the index, so customers registered
+            // on another node would be missing from every page until the next restart
+            List<CustomerSearchKeyView> keys =
+                customerRepository.findCustomerSearchKeysUpdatedSince(syncedFrom.minus(syncOverlap));
+            for (CustomerSearchKeyView key : keys) {
+                index.put(new CustomerSearchIndex.Entry(key.getId(), key.getCreatedAt(), key.getGender(),
+                    key.getUsername(), key.getName(), key.getEmail()));
+            }
+            syncedFrom = start;
+            return keys.size();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public List<CustomerSearchIndex.Entry> page(String keyword, String gender, KeysetCursor after, int limit) {
+        if (!ready) {
+            return null;
+        }
+        return index.page(keyword, gender, after, limit);
+    }
+
+    @Override
+    public CustomerSearchIndex.Suggestions suggest(String keyword, String gender, int limit) {
+        if (!ready) {
+            return null;
+        }
+        long start = System.nanoTime();
+        CustomerSearchIndex.Suggestions suggestions = index.suggest(keyword, gender, limit,
+            start + TimeUnit.MILLISECONDS.toNanos(typeaheadBudgetMillis));
+
+        // The SLO bucket at the budget shows how often typeahead answers in time
+        Timer.builder("customer.search.typeahead")
+            .tag("partial", String.valueOf(suggestions.partial()))
+            .description("Customer typeahead lookups")
+            .serviceLevelObjectives(Duration.ofMillis(typeaheadBudgetMillis))
+            .register(meterRegistry)
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return suggestions;
+    }
+
+    @Override
+    public void onCustomerSaved(Customer customer) {
+        // createdAt and id are only filled in once the insert is flushed, so read them after commit
+        AfterCommit.run(() -> {
+            if (customer.getId() == null || customer.getCreatedAt() == null) {
+                return;
+            }
+            index.put(new CustomerSearchIndex.Entry(customer.getId(), customer.getCreatedAt(),
+                customer.getGender(), customer.getUsername(), customer.getName(), customer.getEmail()));
+        });
+    }
+}
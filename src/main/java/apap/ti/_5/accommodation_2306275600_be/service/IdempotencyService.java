@@ -0,0 +1,30 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.util.function.Supplier;
+
+import org.springframework.http.ResponseEntity;
+
+import apap.ti._5.accommodation_2306275600_be.restdto.response.BaseResponseDTO;
+
+public interface IdempotencyService {
+
+    String HEADER = "Idempotency-Key";
+    String REPLAYED_HEADER = "Idempotency-Replayed";
+
+    /**
+     * Run the action once per (endpoint, caller, key). A repeat with the same key and
+     * the same request body gets the stored response back without running the action.
+     * Without a key the action simply runs.
+     *
+     * <p>Only 2xx responses are stored, so a failed attempt can be retried with the same key.
+     * A repeat that arrives while the first attempt is still running gets 409, and a
+     * repeat with a different body gets 422. When the store is full of requests still
+     * running, a new key gets 503 rather than pushing out one of their claims.
+     *
+     * @param endpoint       endpoint the key belongs to, keys are not shared between endpoints
+     * @param idempotencyKey value of the {@value #HEADER} header, may be null
+     * @param request        request payload, compared with equals to detect a reused key
+     */
+    <T> ResponseEntity<BaseResponseDTO<T>> execute(String endpoint, String idempotencyKey, Object request,
+                                                   Supplier<ResponseEntity<BaseResponseDTO<T>>> action);
+}
@@ -0,0 +1,210 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import apap.ti._5.accommodation_2306275600_be.restdto.response.BaseResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.security.UserPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory store, so a key only dedupes retries that land on the same node.
+ * Entries are kept in insertion order, which lets both the size bound and the
+ * TTL sweep work from the oldest end.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    private final Counter executedCounter;
+    private final Counter replayedCounter;
+    private final Counter inFlightCounter;
+    private final Counter mismatchCounter;
+    private final Counter busyCounter;
+
+    @Autowired
+    public IdempotencyServiceImpl(MeterRegistry meterRegistry,
+                                  @Value("${idempotency.max-entries:10000}") int maxEntries,
+                                  @Value("${idempotency.ttl-seconds:86400}") long ttlSeconds) {
+        this(meterRegistry, maxEntries, ttlSeconds, System::currentTimeMillis);
+    }
+
+    IdempotencyServiceImpl(MeterRegistry meterRegistry, int maxEntries, long ttlSeconds, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.clock = clock;
+
+        this.executedCounter = outcomeCounter(meterRegistry, "executed");
+        this.replayedCounter = outcomeCounter(meterRegistry, "replayed");
+        this.inFlightCounter = outcomeCounter(meterRegistry, "in-flight");
+        this.mismatchCounter = outcomeCounter(meterRegistry, "mismatch");
+        this.busyCounter = outcomeCounter(meterRegistry, "busy");
+        Gauge.builder("idempotency.entries", this, IdempotencyServiceImpl::size)
+            .description("Keys currently held in the idempotency store")
+            .register(meterRegistry);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<BaseResponseDTO<T>> execute(String endpoint, String idempotencyKey, Object request,
+                                                          Supplier<ResponseEntity<BaseResponseDTO<T>>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return reject(HttpStatus.BAD_REQUEST,
+                HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String storeKey = endpoint + "|" + currentCaller() + "|" + idempotencyKey;
+        Entry claimed;
+        synchronized (entries) {
+            evictExpired();
+            Entry existing = entries.get(storeKey);
+            if (existing != null) {
+                if (!Objects.equals(existing.request, request)) {
+                    mismatchCounter.increment();
+                    return reject(HttpStatus.UNPROCESSABLE_ENTITY,
+                        HEADER + " was already used with a different request");
+                }
+                if (existing.response == null) {
+                    inFlightCounter.increment();
+                    return reject(HttpStatus.CONFLICT,
+                        "A request with this " + HEADER + " is still being processed");
+                }
+                replayedCounter.increment();
+                return replay((ResponseEntity<BaseResponseDTO<T>>) existing.response);
+            }
+
+            if (!makeRoom()) {
+                busyCounter.increment();
+                return reject(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many requests with an " + HEADER + " are being processed, please retry shortly");
+            }
+            claimed = new Entry(request, clock.getAsLong() + ttlMillis);
+            entries.put(storeKey, claimed);
+        }
+
+        executedCounter.increment();
+        ResponseEntity<BaseResponseDTO<T>> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException ex) {
+            release(storeKey, claimed);
+            throw ex;
+        }
+
+        // Failed attempts are not remembered, the client may retry them with the same key
+        if (response != null && response.getStatusCode().is2xxSuccessful()) {
+            synchronized (entries) {
+                claimed.response = response;
+            }
+        } else {
+            release(storeKey, claimed);
+        }
+        return response;
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // ===== Helper Methods =====
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("idempotency.requests")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    // Keys are per caller, so one user's key can never replay another user's response
+    private static String currentCaller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return "anonymous";
+        }
+        if (authentication.getPrincipal() instanceof UserPrincipal principal && principal.getUserId() != null) {
+            return principal.getUserId();
+        }
+        return authentication.getName();
+    }
+
+    private void release(String storeKey, Entry claimed) {
+        synchronized (entries) {
+            entries.remove(storeKey, claimed);
+        }
+    }
+
+    // Every entry gets the same TTL, so the oldest entries always expire first
+    private void evictExpired() {
+        long now = clock.getAsLong();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.expiresAt > now) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
+    // Drops completed entries, oldest first, until one more fits. In-flight claims are kept:
+    // without theirs, a retry would run the action a second time while the first is still running
+    private boolean makeRoom() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() >= maxEntries && iterator.hasNext()) {
+            if (iterator.next().response != null) {
+                iterator.remove();
+            }
+        }
+        return entries.size() < maxEntries;
+    }
+
+    private static <T> ResponseEntity<BaseResponseDTO<T>> replay(ResponseEntity<BaseResponseDTO<T>> stored) {
+        return ResponseEntity.status(stored.getStatusCode())
+            .headers(stored.getHeaders())
+            .header(REPLAYED_HEADER, "true")
+            .body(stored.getBody());
+    }
+
+    private static <T> ResponseEntity<BaseResponseDTO<T>> reject(HttpStatus status, String message) {
+        var baseResponseDTO = new BaseResponseDTO<T>();
+        baseResponseDTO.setStatus(status.value());
+        baseResponseDTO.setMessage(message);
+        baseResponseDTO.setTimestamp(new Date());
+        return new ResponseEntity<>(baseResponseDTO, status);
+    }
+
+    private static final class Entry {
+        private final Object request;
+        private final long expiresAt;
+        private ResponseEntity<?> response;
+
+        private Entry(Object request, long expiresAt) {
+            this.request = request;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import apap.ti._5.accommodation_2306275600_be.service.OutboxService.DispatchResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Delivers queued outbox messages to other services in the background, so
+ * request threads never wait on them. Runs on the lease holder only, which
+ * keeps two nodes from sending the same message.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.dispatch.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxDispatchJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatchJob.class);
+
+    static final String LEASE_NAME = "outbox-dispatch";
+
+    private final OutboxService outboxService;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final Duration leaseTtl;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    private final Timer runTimer;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter deadCounter;
+    private final AtomicLong pending = new AtomicLong();
+
+    public OutboxDispatchJob(OutboxService outboxService,
+                             SchedulerLeaseService schedulerLeaseService,
+                             MeterRegistry meterRegistry,
+                             @Value("${outbox.dispatch.lease-ttl-seconds:600}") long leaseTtlSeconds,
+                             @Value("${outbox.dispatch.batch-size:50}") int batchSize,
+                             @Value("${outbox.dispatch.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.outboxService = outboxService;
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.leaseTtl = Duration.ofSeconds(leaseTtlSeconds);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+
+        this.runTimer = Timer.builder("outbox.dispatch.run")
+            .description("Duration of outbox dispatch runs on the lease holder")
+            .register(meterRegistry);
+        this.sentCounter = Counter.builder("outbox.dispatch.messages")
+            .tag("outcome", "sent")
+            .register(meterRegistry);
+        this.retriedCounter = Counter.builder("outbox.dispatch.messages")
+            .tag("outcome", "retry")
+            .register(meterRegistry);
+        this.deadCounter = Counter.builder("outbox.dispatch.messages")
+            .tag("outcome", "dead")
+            .register(meterRegistry);
+        Gauge.builder("outbox.pending", pending, AtomicLong::get)
+            .description("Outbox messages waiting for delivery after the last run")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.dispatch.fixed-delay-ms:2000}")
+    public void run() {
+        if (!schedulerLeaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        int sent = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            // Renewed before every batch, so a long run never outlives its lease
+            if (batch > 0 && !schedulerLeaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+                logger.warn("Outbox dispatch lease lost mid-run, leaving the rest to the new holder");
+                break;
+            }
+            DispatchResult result = outboxService.dispatchDue(batchSize);
+            sentCounter.increment(result.sent());
+            retriedCounter.increment(result.retried());
+            deadCounter.increment(result.dead());
+            sent += result.sent();
+            // A short or failing batch means the backlog is drained or the target is struggling
+            if (result.total() < batchSize || result.sent() < result.total()) {
+                break;
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        runTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        pending.set(outboxService.countPending());
+        if (sent > 0) {
+            logger.info("Outbox dispatch: {} message(s) delivered in {} ms",
+                sent, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+public interface OutboxService {
+    /**
+     * Queue a call to another service. Joins the caller's transaction, so the
+     * message is only delivered if the change that caused it commits.
+     *
+     * @param messageType what to deliver, e.g. OutboxMessage.TYPE_BILL_CREATE
+     * @param referenceId local ID the message is about, for tracing
+     * @param payload     request body, stored as JSON
+     */
+    void enqueue(String messageType, String referenceId, Object payload);
+
+    /**
+     * Deliver up to batchSize due messages. Failed deliveries are retried
+     * with exponential backoff and marked dead after the last attempt.
+     * Must not be called inside a transaction; HTTP calls run outside one.
+     */
+    DispatchResult dispatchDue(int batchSize);
+
+    /**
+     * Messages still waiting for delivery
+     */
+    long countPending();
+
+    record DispatchResult(int sent, int retried, int dead) {
+        public int total() {
+            return sent + retried + dead;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import apap.ti._5.accommodation_2306275600_be.model.OutboxMessage;
+import apap.ti._5.accommodation_2306275600_be.repository.OutboxMessageRepository;
+import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.CreateBillRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.service.BillServiceClient.BillRequest;
+import apap.ti._5.accommodation_2306275600_be.service.BillServiceClient.DeliveryOutcome;
+import apap.ti._5.accommodation_2306275600_be.service.BillServiceClient.DeliveryStatus;
+
+@Service
+public class OutboxServiceImpl implements OutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxServiceImpl.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxMessageRepository outboxRepository;
+    private final BillServiceClient billServiceClient;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+
+    public OutboxServiceImpl(OutboxMessageRepository outboxRepository,
+                             BillServiceClient billServiceClient,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${outbox.dispatch.max-attempts:8}") int maxAttempts,
+                             @Value("${outbox.dispatch.base-backoff-seconds:5}") long baseBackoffSeconds,
+                             @Value("${outbox.dispatch.max-backoff-seconds:3600}") long maxBackoffSeconds) {
+        this.outboxRepository = outboxRepository;
+        this.billServiceClient = billServiceClient;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = Duration.ofSeconds(baseBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String messageType, String referenceId, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize outbox payload for " + referenceId, e);
+        }
+        outboxRepository.save(OutboxMessage.builder()
+            .messageType(messageType)
+            .referenceId(referenceId)
+            .payload(json)
+            .build());
+    }
+
+    @Override
+    public DispatchResult dispatchDue(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMessage> due = outboxRepository.findDue(now, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return new DispatchResult(0, 0, 0);
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        List<OutboxMessage> failed = new ArrayList<>();
+        int dead = 0;
+
+        List<OutboxMessage> deliverable = new ArrayList<>();
+        List<BillRequest> requests = new ArrayList<>();
+        for (OutboxMessage message : due) {
+            try {
+                // The message ID stays the same across retries, so the Bill service can drop repeats
+                requests.add(new BillRequest(String.valueOf(message.getMessageId()), toBillRequest(message)));
+                deliverable.add(message);
+            } catch (Exception e) {
+                // A message that cannot be read will never become deliverable
+                recordFailure(message, e.getClass().getSimpleName() + ": " + e.getMessage(), now, true);
+                failed.add(message);
+                dead++;
+            }
+        }
+
+        List<DeliveryOutcome> outcomes = requests.isEmpty() ? List.of() : billServiceClient.createBills(requests);
+        for (int i = 0; i < deliverable.size(); i++) {
+            OutboxMessage message = deliverable.get(i);
+            DeliveryOutcome outcome = outcomes.get(i);
+            switch (outcome.status()) {
+                case SENT -> sentIds.add(message.getMessageId());
+                // Left untouched, it is still due on the next run
+                case SKIPPED -> { }
+                default -> {
+                    boolean permanent = outcome.status() == DeliveryStatus.REJECTED;
+                    if (!recordFailure(message, outcome.error(), now, permanent)) {
+                        dead++;
+                    }
+                    failed.add(message);
+                }
+            }
+        }
+
+        int retried = failed.size() - dead;
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                outboxRepository.markSent(sentIds, LocalDateTime.now());
+            }
+            outboxRepository.saveAll(failed);
+        });
+
+        if (retried > 0 || dead > 0) {
+            logger.warn("Outbox dispatch: {} sent, {} scheduled for retry, {} dead", sentIds.size(), retried, dead);
+        }
+        return new DispatchResult(sentIds.size(), retried, dead);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countPending() {
+        return outboxRepository.countByStatus(OutboxMessage.STATUS_PENDING);
+    }
+
+    // ===== Helper Methods =====
+
+    private CreateBillRequestDTO toBillRequest(OutboxMessage message) throws JsonProcessingException {
+        if (!OutboxMessage.TYPE_BILL_CREATE.equals(message.getMessageType())) {
+            throw new IllegalStateException("Unknown outbox message type " + message.getMessageType());
+        }
+        return objectMapper.readValue(message.getPayload(), CreateBillRequestDTO.class);
+    }
+
+    /**
+     * @return true if the message will be tried again, false if it is now dead
+     */
+    private boolean recordFailure(OutboxMessage message, String errorMessage, LocalDateTime now, boolean permanent) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(errorMessage.length() > MAX_ERROR_LENGTH
+            ? errorMessage.substring(0, MAX_ERROR_LENGTH) : errorMessage);
+
+        if (permanent || attempts >= maxAttempts) {
+            message.setStatus(OutboxMessage.STATUS_DEAD);
+            logger.error("Outbox message {} ({} {}) is dead after {} attempt(s): {}",
+                message.getMessageId(), message.getMessageType(), message.getReferenceId(), attempts, errorMessage);
+            return false;
+        }
+        message.setNextAttemptAt(now.plus(backoff(attempts)));
+        return true;
+    }
+
+    // base, 2x base, 4x base, ... capped at maxBackoff
+    Duration backoff(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        Duration delay = baseBackoff.multipliedBy(1L << shift);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
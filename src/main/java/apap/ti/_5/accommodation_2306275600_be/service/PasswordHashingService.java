@@ -0,0 +1,22 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import apap.ti._5.accommodation_2306275600_be.exceptions.ServiceBusyException;
+
+/**
+ * Runs the PasswordEncoder (BCrypt) on a small dedicated pool instead of the
+ * request thread, so a burst of logins cannot take all the CPU from other traffic.
+ */
+public interface PasswordHashingService {
+
+    /**
+     * @throws ServiceBusyException if the pool and its queue are full, or the
+     *                              hash did not finish in time
+     */
+    boolean matches(CharSequence rawPassword, String encodedPassword);
+
+    /**
+     * @throws ServiceBusyException if the pool and its queue are full, or the
+     *                              hash did not finish in time
+     */
+    String encode(CharSequence rawPassword);
+}
@@ -0,0 +1,151 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import apap.ti._5.accommodation_2306275600_be.exceptions.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * BCrypt is pure CPU, so the pool is sized to a share of the cores and a full
+ * queue rejects straight away instead of letting callers pile up behind it.
+ * The request thread still waits for its own hash, but at most poolSize hashes
+ * run at once and at most queueCapacity requests wait for one.
+ */
+@Service
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingServiceImpl.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    private final Timer matchesTimer;
+    private final Timer encodeTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+    private final Counter timeoutCounter;
+
+    /**
+     * @param poolSize 0 means half the available cores, at least 1
+     */
+    public PasswordHashingServiceImpl(PasswordEncoder passwordEncoder,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${security.password-hashing.pool-size:0}") int poolSize,
+                                      @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                      @Value("${security.password-hashing.timeout-ms:5000}") long timeoutMillis) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMillis = timeoutMillis;
+
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), namedThreads(), new ThreadPoolExecutor.AbortPolicy());
+
+        this.matchesTimer = hashTimer(meterRegistry, "matches");
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.queueWaitTimer = Timer.builder("auth.password.queue.wait")
+            .description("Time a password hash waited for a free worker")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.rejected")
+            .tag("reason", "queue-full")
+            .description("Password hashes refused because the pool was saturated")
+            .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("auth.password.rejected")
+            .tag("reason", "timeout")
+            .description("Password hashes cancelled after waiting longer than the timeout")
+            .register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size())
+            .description("Password hashes waiting for a worker")
+            .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Password hashes running right now")
+            .register(meterRegistry);
+
+        logger.info("Password hashing pool: {} thread(s), queue capacity {}", threads, queueCapacity);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ===== Helper Methods =====
+
+    private <T> T run(Timer hashTimer, Callable<T> hash) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.recordCallable(hash);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceBusyException("Too many login requests, please try again shortly");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeoutCounter.increment();
+            throw new ServiceBusyException("Too many login requests, please try again shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Password check was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.password.hash")
+            .tag("operation", operation)
+            .description("Time spent computing a password hash")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    }
+
+    private static ThreadFactory namedThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
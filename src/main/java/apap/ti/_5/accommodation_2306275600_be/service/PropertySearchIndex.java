@@ -0,0 +1,202 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+import apap.ti._5.accommodation_2306275600_be.repository.KeysetCursor;
+
+/**
+ * Inverted index over active properties: name, address and description.
+ *
+ * Text is lowercased and split into words. Every word of the query has to
+ * match a word of the property, exactly or as its prefix ("mela" finds "Melati").
+ * Hits are ranked by tf-idf with the name weighted above the address and the
+ * address above the description; exact words count double a prefix. Without a
+ * query every property matches and the newest come first.
+ *
+ * Reads are lock-free; writes are serialized.
+ */
+public class PropertySearchIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int NAME_WEIGHT = 3;
+    private static final int ADDRESS_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_FACTOR = 0.5;
+
+    public record Document(UUID propertyID, LocalDateTime createdDate, UUID ownerID, int type, int province,
+                           String propertyName, String address, String description) {
+    }
+
+    /**
+     * One page of hits, best first, with facet counts over every hit.
+     * Each facet ignores its own filter, so the counts show what picking
+     * another type or province would return.
+     */
+    public record Result(List<UUID> propertyIDs, long totalHits,
+                         Map<Integer, Long> typeCounts, Map<Integer, Long> provinceCounts) {
+    }
+
+    private record Hit(Document document, double score) {
+    }
+
+    private static final Comparator<Hit> BEST_FIRST = Comparator.comparingDouble(Hit::score).reversed()
+        .thenComparing(hit -> new KeysetCursor(hit.document().createdDate(), hit.document().propertyID()),
+            KeysetCursor.LIST_ORDER);
+
+    private final Map<UUID, Document> documents = new ConcurrentHashMap<>();
+    // word -> property -> weighted number of occurrences; sorted so a prefix is a range
+    private final ConcurrentSkipListMap<String, Map<UUID, Integer>> postings = new ConcurrentSkipListMap<>();
+
+    /**
+     * Insert or replace a property
+     */
+    public synchronized void put(Document document) {
+        remove(document.propertyID());
+        documents.put(document.propertyID(), document);
+        termFrequencies(document).forEach((word, frequency) ->
+            postings.computeIfAbsent(word, w -> new ConcurrentHashMap<>()).put(document.propertyID(), frequency));
+    }
+
+    public synchronized void remove(UUID propertyID) {
+        Document previous = documents.remove(propertyID);
+        if (previous == null) {
+            return;
+        }
+        for (String word : termFrequencies(previous).keySet()) {
+            postings.computeIfPresent(word, (w, properties) -> {
+                properties.remove(propertyID);
+                return properties.isEmpty() ? null : properties;
+            });
+        }
+    }
+
+    public synchronized void clear() {
+        documents.clear();
+        postings.clear();
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * @param query    blank for every property
+     * @param type     null for every type
+     * @param province null for every province
+     * @param ownerID  null for every owner
+     */
+    public Result search(String query, Integer type, Integer province, UUID ownerID, int offset, int limit) {
+        Map<UUID, Double> scores = score(query);
+
+        List<Hit> hits = new ArrayList<>();
+        Map<Integer, Long> typeCounts = new TreeMap<>();
+        Map<Integer, Long> provinceCounts = new TreeMap<>();
+        scores.forEach((propertyID, score) -> {
+            Document document = documents.get(propertyID);
+            if (document == null || (ownerID != null && !ownerID.equals(document.ownerID()))) {
+                return;
+            }
+            boolean typeMatches = type == null || type == document.type();
+            boolean provinceMatches = province == null || province == document.province();
+            if (provinceMatches) {
+                typeCounts.merge(document.type(), 1L, Long::sum);
+            }
+            if (typeMatches) {
+                provinceCounts.merge(document.province(), 1L, Long::sum);
+            }
+            if (typeMatches && provinceMatches) {
+                hits.add(new Hit(document, score));
+            }
+        });
+
+        hits.sort(BEST_FIRST);
+        List<UUID> page = hits.stream()
+            .skip(offset)
+            .limit(limit)
+            .map(hit -> hit.document().propertyID())
+            .toList();
+        return new Result(page, hits.size(), typeCounts, provinceCounts);
+    }
+
+    /**
+     * @return every property that matches all query words, with its relevance
+     */
+    private Map<UUID, Double> score(String query) {
+        Set<String> words = new LinkedHashSet<>(tokenize(query));
+        Map<UUID, Double> scores = new HashMap<>();
+        if (words.isEmpty()) {
+            documents.keySet().forEach(propertyID -> scores.put(propertyID, 0.0));
+            return scores;
+        }
+
+        boolean first = true;
+        for (String word : words) {
+            Map<UUID, Double> wordScores = scoreWord(word);
+            if (first) {
+                scores.putAll(wordScores);
+                first = false;
+            } else {
+                // Every word has to match
+                scores.keySet().retainAll(wordScores.keySet());
+                scores.replaceAll((propertyID, score) -> score + wordScores.get(propertyID));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private Map<UUID, Double> scoreWord(String word) {
+        Map<UUID, Double> scores = new HashMap<>();
+        double total = Math.max(1, documents.size());
+        // All indexed words starting with `word`, the word itself included
+        postings.subMap(word, true, word + Character.MAX_VALUE, false).forEach((indexed, properties) -> {
+            double idf = Math.log(1 + total / properties.size());
+            double factor = indexed.equals(word) ? 1.0 : PREFIX_FACTOR;
+            properties.forEach((propertyID, frequency) ->
+                scores.merge(propertyID, factor * idf * (1 + Math.log(frequency)), Double::sum));
+        });
+        return scores;
+    }
+
+    private static Map<String, Integer> termFrequencies(Document document) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addWords(frequencies, document.propertyName(), NAME_WEIGHT);
+        addWords(frequencies, document.address(), ADDRESS_WEIGHT);
+        addWords(frequencies, document.description(), DESCRIPTION_WEIGHT);
+        return frequencies;
+    }
+
+    private static void addWords(Map<String, Integer> frequencies, String text, int weight) {
+        for (String word : tokenize(text)) {
+            frequencies.merge(word, weight, Integer::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,38 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.util.UUID;
+
+import apap.ti._5.accommodation_2306275600_be.model.Property;
+
+public interface PropertySearchIndexService {
+    /**
+     * Full-text search over active properties with facet counts by type and province.
+     * A request that arrives before the startup warm-up finished builds the index first.
+     *
+     * @param query    words to match in name, address or description; blank for every property
+     * @param type     null for every type
+     * @param province null for every province
+     * @param ownerID  null for every owner
+     */
+    PropertySearchIndex.Result search(String query, Integer type, Integer province, UUID ownerID, int offset, int limit);
+
+    /**
+     * Reflect a created, updated or deactivated property in the index once the surrounding transaction commits
+     */
+    void onPropertySaved(Property property);
+
+    /**
+     * Reload the whole index from the database
+     */
+    void rebuild();
+
+    /**
+     * Re-read the properties created, edited or deactivated since the last load or sync, including
+     * those written by other nodes. Does nothing while warming up.
+     *
+     * @return number of properties re-read
+     */
+    int syncChanges();
+
+    boolean isReady();
+}
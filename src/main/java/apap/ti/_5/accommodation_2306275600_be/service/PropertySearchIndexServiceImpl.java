@@ -0,0 +1,133 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import apap.ti._5.accommodation_2306275600_be.model.Property;
+import apap.ti._5.accommodation_2306275600_be.repository.PropertyRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.PropertyRepository.PropertySearchChangeView;
+import apap.ti._5.accommodation_2306275600_be.repository.PropertyRepository.PropertySearchDocumentView;
+
+@Service
+public class PropertySearchIndexServiceImpl implements PropertySearchIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertySearchIndexServiceImpl.class);
+
+    private final PropertyRepository propertyRepository;
+    private final Duration syncOverlap;
+    private final PropertySearchIndex index = new PropertySearchIndex();
+
+    private volatile boolean ready = false;
+    // Start of the last full load or sync; guarded by the index lock
+    private LocalDateTime syncedFrom;
+
+    public PropertySearchIndexServiceImpl(PropertyRepository propertyRepository,
+                                          @Value("${search-index.sync.overlap-seconds:300}") long syncOverlapSeconds) {
+        this.propertyRepository = propertyRepository;
+        this.syncOverlap = Duration.ofSeconds(syncOverlapSeconds);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        // A deactivation committed mid-load waits for the lock, so the snapshot cannot put the property back
+        synchronized (index) {
+            load();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int syncChanges() {
+        if (!ready) {
+            return 0;
+        }
+        synchronized (index) {
+            LocalDateTime start = LocalDateTime.now();
+            // A property deactivated on another node would otherwise keep showing up in results and facet counts here
+            List<PropertySearchChangeView> rows =
+                propertyRepository.findPropertySearchDocumentsUpdatedSince(syncedFrom.minus(syncOverlap));
+            for (PropertySearchChangeView row : rows) {
+                if (row.getActiveStatus() != 1) {
+                    index.remove(row.getPropertyID());
+                } else {
+                    index.put(toDocument(row));
+                }
+            }
+            syncedFrom = start;
+            return rows.size();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public PropertySearchIndex.Result search(String query, Integer type, Integer province, UUID ownerID,
+                                             int offset, int limit) {
+        if (!ready) {
+            // Unlike the other indexes there is no SQL equivalent to fall back to, so build it now
+            synchronized (index) {
+                if (!ready) {
+                    load();
+                }
+            }
+        }
+        return index.search(query, type, province, ownerID, offset, limit);
+    }
+
+    @Override
+    public void onPropertySaved(Property property) {
+        if (property.getPropertyID() == null) {
+            return;
+        }
+        UUID propertyID = property.getPropertyID();
+        if (property.getActiveStatus() != 1) {
+            // Deactivated properties drop out of the listing
+            AfterCommit.run(() -> index.remove(propertyID));
+            return;
+        }
+        PropertySearchIndex.Document document = new PropertySearchIndex.Document(propertyID,
+            property.getCreatedDate(), property.getOwnerID(), property.getType(), property.getProvince(),
+            property.getPropertyName(), property.getAddress(), property.getDescription());
+
+        AfterCommit.run(() -> index.put(document));
+    }
+
+    private void load() {
+        long start = System.currentTimeMillis();
+        syncedFrom = LocalDateTime.now();
+        index.clear();
+
+        List<PropertySearchDocumentView> rows = propertyRepository.findActivePropertySearchDocuments();
+        for (PropertySearchDocumentView row : rows) {
+            index.put(toDocument(row));
+        }
+        ready = true;
+
+        logger.info("Property search index warmed with {} property(ies) in {} ms",
+            index.size(), System.currentTimeMillis() - start);
+    }
+
+    private static PropertySearchIndex.Document toDocument(PropertySearchDocumentView row) {
+        return new PropertySearchIndex.Document(row.getPropertyID(), row.getCreatedDate(), row.getOwnerID(),
+            row.getType(), row.getProvince(), row.getPropertyName(), row.getAddress(), row.getDescription());
+    }
+}
@@ -0,0 +1,92 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import apap.ti._5.accommodation_2306275600_be.service.BillServiceCircuitBreaker.Permit;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Sends requests one after another on the calling thread. Calls the circuit
+ * breaker or bulkhead turns away come back as SKIPPED.
+ */
+@Service
+@ConditionalOnProperty(name = "bill.client.mode", havingValue = "blocking", matchIfMissing = true)
+public class RestTemplateBillServiceClient implements BillServiceClient {
+
+    private final RestTemplate restTemplate;
+    private final BillServiceCircuitBreaker circuitBreaker;
+    private final String billServiceUrl;
+    private final String apiKey;
+    private final Timer batchTimer;
+
+    public RestTemplateBillServiceClient(RestTemplate restTemplate,
+                                         BillServiceCircuitBreaker circuitBreaker,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${bill.service.url:http://localhost:8080}") String billServiceUrl,
+                                         @Value("${bill.service.api-key:ACCOMMODATION_API_KEY}") String apiKey) {
+        this.restTemplate = restTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.billServiceUrl = billServiceUrl;
+        this.apiKey = apiKey;
+        this.batchTimer = Timer.builder("bill.client.batch")
+            .tag("mode", "blocking")
+            .description("Time to deliver one batch of Bill service calls")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public List<DeliveryOutcome> createBills(List<BillRequest> requests) {
+        return batchTimer.record(() -> send(requests));
+    }
+
+    private List<DeliveryOutcome> send(List<BillRequest> requests) {
+        List<DeliveryOutcome> outcomes = new ArrayList<>(requests.size());
+        boolean unreachable = false;
+        for (BillRequest request : requests) {
+            // The rest of the batch would only wait on the same timeout
+            Permit permit = unreachable ? null : circuitBreaker.tryAcquire();
+            if (permit == null) {
+                outcomes.add(DeliveryOutcome.SKIPPED);
+                continue;
+            }
+            DeliveryOutcome outcome = post(request);
+            permit.complete(outcome.status());
+            unreachable = outcome.status() == DeliveryStatus.UNREACHABLE;
+            outcomes.add(outcome);
+        }
+        return outcomes;
+    }
+
+    private DeliveryOutcome post(BillRequest request) {
+        try {
+            request.body().setApiKey(apiKey);
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.set(IDEMPOTENCY_KEY_HEADER, request.idempotencyKey());
+            restTemplate.postForEntity(billServiceUrl + "/api/bill/create",
+                new HttpEntity<>(request.body(), headers), String.class);
+            return DeliveryOutcome.SENT;
+        } catch (HttpClientErrorException e) {
+            boolean retryable = e.getStatusCode() == HttpStatus.REQUEST_TIMEOUT
+                || e.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS;
+            return DeliveryOutcome.failed(retryable ? DeliveryStatus.RETRY : DeliveryStatus.REJECTED, e);
+        } catch (ResourceAccessException e) {
+            return DeliveryOutcome.failed(DeliveryStatus.UNREACHABLE, e);
+        } catch (RuntimeException e) {
+            return DeliveryOutcome.failed(DeliveryStatus.RETRY, e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import apap.ti._5.accommodation_2306275600_be.repository.PropertyRevenueView;
+
+public interface RevenueRollupService {
+    /**
+     * Add a chunk of bookings that were just moved to status 4 (done) by a
+     * bulk update to the rollup of their property and check-out month
+     */
+    void recordCompletedBookings(Collection<UUID> bookingIDs);
+
+    /**
+     * Revenue per property for one month, highest revenue first
+     */
+    List<PropertyRevenueView> getMonthlyRevenue(int year, int month);
+
+    /**
+     * Revenue per property summed over the months from..to (both inclusive),
+     * highest revenue first
+     */
+    List<PropertyRevenueView> getRevenueBetween(YearMonth from, YearMonth to);
+
+    /**
+     * Rebuild the whole rollup from the booking table
+     */
+    void backfill();
+}
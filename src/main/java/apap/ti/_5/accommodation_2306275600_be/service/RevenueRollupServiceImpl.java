@@ -0,0 +1,121 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import apap.ti._5.accommodation_2306275600_be.model.PropertyMonthlyRevenue;
+import apap.ti._5.accommodation_2306275600_be.model.RoomCalendarMonth;
+import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository.MonthlyRevenueAggregate;
+import apap.ti._5.accommodation_2306275600_be.repository.PropertyMonthlyRevenueRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.PropertyRevenueView;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class RevenueRollupServiceImpl implements RevenueRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevenueRollupServiceImpl.class);
+
+    static final String BACKFILL_LEASE_NAME = "revenue-rollup-backfill";
+
+    private final PropertyMonthlyRevenueRepository revenueRepository;
+    private final BookingRepository bookingRepository;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${revenue.rollup.backfill-lease-ttl-seconds:600}")
+    private long backfillLeaseTtlSeconds;
+
+    // The table is created empty by ddl-auto; fill it once from existing data
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (revenueRepository.count() > 0) {
+            return;
+        }
+        // backfill() starts by deleting every row, so two replicas filling at once would wipe each other's work
+        if (!schedulerLeaseService.tryAcquire(BACKFILL_LEASE_NAME, Duration.ofSeconds(backfillLeaseTtlSeconds))) {
+            logger.info("Revenue rollup backfill left to the replica holding the lease");
+            return;
+        }
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                // A holder that finished just before we took the lease has already filled the table
+                if (revenueRepository.count() == 0) {
+                    backfill();
+                }
+            });
+        } finally {
+            schedulerLeaseService.release(BACKFILL_LEASE_NAME);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recordCompletedBookings(Collection<UUID> bookingIDs) {
+        if (bookingIDs == null || bookingIDs.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (MonthlyRevenueAggregate aggregate : bookingRepository.aggregateDoneRevenueByPropertyAndMonthForBookings(bookingIDs)) {
+            int monthKey = RoomCalendarMonth.monthKeyOf(
+                LocalDate.of(aggregate.getPeriodYear(), aggregate.getPeriodMonth(), 1));
+            int bookings = aggregate.getTotalBookings().intValue();
+            long revenue = aggregate.getTotalRevenue() != null ? aggregate.getTotalRevenue() : 0L;
+
+            revenueRepository.addRevenue(aggregate.getPropertyID(), monthKey, bookings, revenue, now);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PropertyRevenueView> getMonthlyRevenue(int year, int month) {
+        YearMonth period = YearMonth.of(year, month);
+        return getRevenueBetween(period, period);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PropertyRevenueView> getRevenueBetween(YearMonth from, YearMonth to) {
+        return revenueRepository.findRevenueByMonthKeyRange(
+            RoomCalendarMonth.monthKeyOf(from.atDay(1)), RoomCalendarMonth.monthKeyOf(to.atDay(1)));
+    }
+
+    @Override
+    @Transactional
+    public void backfill() {
+        long start = System.currentTimeMillis();
+        revenueRepository.deleteAllInBatch();
+
+        List<PropertyMonthlyRevenue> rows = new ArrayList<>();
+        for (MonthlyRevenueAggregate aggregate : bookingRepository.aggregateDoneRevenueByPropertyAndMonth()) {
+            rows.add(PropertyMonthlyRevenue.builder()
+                .propertyID(aggregate.getPropertyID())
+                .monthKey(RoomCalendarMonth.monthKeyOf(
+                    LocalDate.of(aggregate.getPeriodYear(), aggregate.getPeriodMonth(), 1)))
+                .totalBookings(aggregate.getTotalBookings().intValue())
+                .totalRevenue(aggregate.getTotalRevenue() != null ? aggregate.getTotalRevenue() : 0L)
+                .build());
+        }
+        revenueRepository.saveAll(rows);
+
+        logger.info("Monthly revenue rollup backfilled with {} property-month row(s) in {} ms",
+            rows.size(), System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,44 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+import apap.ti._5.accommodation_2306275600_be.model.Room;
+
+public interface RoomCalendarService {
+    /**
+     * Check whether a blocking booking overlaps the period, using the same
+     * datetime rule as PropertyRepository.searchAvailableProperties
+     * (check-in before the period end and check-out after its start).
+     * The calendar only rules rooms out; days it marks are confirmed in SQL.
+     */
+    boolean hasBookingDuring(UUID roomID, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Rooms of a property that are booked or under maintenance during the period,
+     * with the same overlap rule as hasBookingDuring
+     */
+    Set<UUID> findBookedRoomIDs(UUID propertyID, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Recompute the booked days of a room for the months touched by the period
+     * from the booking table. Call after a booking is created, moved or changes status.
+     * Takes the room lock (RoomRepository.lockForBooking) for the rest of the transaction.
+     */
+    void refreshBookedDays(Room room, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Replace the maintenance days of a room: clear the previous window and
+     * mark the room's current maintenance window. Takes the room lock like refreshBookedDays.
+     *
+     * @param previousStart previous maintenance start, may be null
+     * @param previousEnd previous maintenance end, may be null
+     */
+    void updateMaintenance(Room room, LocalDateTime previousStart, LocalDateTime previousEnd);
+
+    /**
+     * Rebuild the whole calendar from the booking and room tables
+     */
+    void backfill();
+}
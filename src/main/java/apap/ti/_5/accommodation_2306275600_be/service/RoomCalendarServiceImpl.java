@@ -0,0 +1,330 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import apap.ti._5.accommodation_2306275600_be.model.Room;
+import apap.ti._5.accommodation_2306275600_be.model.RoomCalendarMonth;
+import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository.BookingIntervalView;
+import apap.ti._5.accommodation_2306275600_be.repository.RoomCalendarMonthRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.RoomRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.RoomRepository.RoomCalendarSeedView;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class RoomCalendarServiceImpl implements RoomCalendarService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoomCalendarServiceImpl.class);
+
+    static final String BACKFILL_LEASE_NAME = "room-calendar-backfill";
+
+    private final RoomCalendarMonthRepository calendarRepository;
+    private final BookingRepository bookingRepository;
+    private final RoomRepository roomRepository;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${room.calendar.backfill-lease-ttl-seconds:600}")
+    private long backfillLeaseTtlSeconds;
+
+    // The table is created empty by ddl-auto; fill it once from existing data
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (calendarRepository.count() > 0) {
+            return;
+        }
+        // Replicas start together; without the lease each one would delete the rows another just inserted
+        if (!schedulerLeaseService.tryAcquire(BACKFILL_LEASE_NAME, Duration.ofSeconds(backfillLeaseTtlSeconds))) {
+            logger.info("Room calendar backfill left to the replica holding the lease");
+            return;
+        }
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                // A holder that finished just before we took the lease has already filled the table
+                if (calendarRepository.count() == 0) {
+                    backfill();
+                }
+            });
+        } finally {
+            schedulerLeaseService.release(BACKFILL_LEASE_NAME);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean hasBookingDuring(UUID roomID, LocalDateTime start, LocalDateTime end) {
+        if (roomID == null || start == null || end == null) {
+            return false;
+        }
+        LocalDate from = start.toLocalDate();
+        LocalDate to = dayAfterLast(start, end);
+
+        List<RoomCalendarMonth> months = calendarRepository.findByRoomIDAndMonthKeyBetween(
+            roomID, RoomCalendarMonth.monthKeyOf(from), RoomCalendarMonth.monthKeyOf(to.minusDays(1)));
+        boolean dayTaken = false;
+        for (RoomCalendarMonth month : months) {
+            if ((month.getBookedDays() & dayMask(month.getMonthKey(), from, to)) != 0) {
+                dayTaken = true;
+                break;
+            }
+        }
+        // Sharing a day is not an overlap: a stay leaving at noon frees the room for a 14:00 check-in
+        return dayTaken && bookingRepository.existsBookingsDuringPeriod(roomID, start, end);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<UUID> findBookedRoomIDs(UUID propertyID, LocalDateTime start, LocalDateTime end) {
+        Set<UUID> bookedRoomIDs = new HashSet<>();
+        if (propertyID == null || start == null || end == null) {
+            return bookedRoomIDs;
+        }
+        LocalDate from = start.toLocalDate();
+        LocalDate to = dayAfterLast(start, end);
+
+        List<RoomCalendarMonth> months = calendarRepository.findByPropertyIDAndMonthKeyBetween(
+            propertyID, RoomCalendarMonth.monthKeyOf(from), RoomCalendarMonth.monthKeyOf(to.minusDays(1)));
+        Set<UUID> bookedCandidates = new HashSet<>();
+        Set<UUID> maintenanceCandidates = new HashSet<>();
+        for (RoomCalendarMonth month : months) {
+            long mask = dayMask(month.getMonthKey(), from, to);
+            if ((month.getBookedDays() & mask) != 0) {
+                bookedCandidates.add(month.getRoomID());
+            }
+            if ((month.getMaintenanceDays() & mask) != 0) {
+                maintenanceCandidates.add(month.getRoomID());
+            }
+        }
+
+        // Rooms with no marked day are free; the rest are decided by the datetime rule
+        if (!bookedCandidates.isEmpty()) {
+            bookedRoomIDs.addAll(bookingRepository.findBookedRoomIDsAmongRoomsAndPeriod(bookedCandidates, start, end));
+        }
+        if (!maintenanceCandidates.isEmpty()) {
+            bookedRoomIDs.addAll(roomRepository.findRoomIDsUnderMaintenanceDuring(maintenanceCandidates, start, end));
+        }
+        return bookedRoomIDs;
+    }
+
+    @Override
+    @Transactional
+    public void refreshBookedDays(Room room, LocalDateTime start, LocalDateTime end) {
+        if (room == null || start == null || end == null) {
+            return;
+        }
+        lockRoom(room);
+        int fromKey = RoomCalendarMonth.monthKeyOf(start.toLocalDate());
+        int toKey = RoomCalendarMonth.monthKeyOf(dayAfterLast(start, end).minusDays(1));
+        UUID propertyID = propertyIDOf(room);
+
+        Map<Integer, RoomCalendarMonth> months = loadMonths(room.getRoomID(), fromKey, toKey);
+        Set<Integer> existingKeys = new HashSet<>(months.keySet());
+        months.values().forEach(month -> month.setBookedDays(0L));
+
+        // Any booking touching the loaded months, clipped to them below
+        LocalDateTime rangeStart = RoomCalendarMonth.firstDayOf(fromKey).atStartOfDay();
+        LocalDateTime rangeEnd = RoomCalendarMonth.firstDayOf(toKey + 1).atStartOfDay();
+        List<BookingIntervalView> bookings = bookingRepository.findActiveBookingIntervalsByRoomAndPeriod(
+            room.getRoomID(), rangeStart, rangeEnd);
+        for (BookingIntervalView booking : bookings) {
+            applyDays(months, room.getRoomID(), propertyID, booking.getCheckInDate(), booking.getCheckOutDate(),
+                false, true, fromKey, toKey);
+        }
+
+        saveMonths(months, existingKeys);
+    }
+
+    @Override
+    @Transactional
+    public void updateMaintenance(Room room, LocalDateTime previousStart, LocalDateTime previousEnd) {
+        if (room == null) {
+            return;
+        }
+        LocalDateTime currentStart = room.getMaintenanceStart();
+        LocalDateTime currentEnd = room.getMaintenanceEnd();
+        boolean hasPrevious = previousStart != null && previousEnd != null;
+        boolean hasCurrent = currentStart != null && currentEnd != null;
+        if (!hasPrevious && !hasCurrent) {
+            return;
+        }
+        lockRoom(room);
+
+        int fromKey = Integer.MAX_VALUE;
+        int toKey = Integer.MIN_VALUE;
+        if (hasPrevious) {
+            fromKey = Math.min(fromKey, RoomCalendarMonth.monthKeyOf(previousStart.toLocalDate()));
+            toKey = Math.max(toKey, RoomCalendarMonth.monthKeyOf(dayAfterLast(previousStart, previousEnd).minusDays(1)));
+        }
+        if (hasCurrent) {
+            fromKey = Math.min(fromKey, RoomCalendarMonth.monthKeyOf(currentStart.toLocalDate()));
+            toKey = Math.max(toKey, RoomCalendarMonth.monthKeyOf(dayAfterLast(currentStart, currentEnd).minusDays(1)));
+        }
+        UUID propertyID = propertyIDOf(room);
+
+        Map<Integer, RoomCalendarMonth> months = loadMonths(room.getRoomID(), fromKey, toKey);
+        Set<Integer> existingKeys = new HashSet<>(months.keySet());
+
+        // A room has a single maintenance window, so clearing its bits is exact
+        if (hasPrevious) {
+            applyDays(months, room.getRoomID(), propertyID, previousStart, previousEnd, true, false, fromKey, toKey);
+        }
+        if (hasCurrent) {
+            applyDays(months, room.getRoomID(), propertyID, currentStart, currentEnd, true, true, fromKey, toKey);
+        }
+
+        saveMonths(months, existingKeys);
+    }
+
+    @Override
+    @Transactional
+    public void backfill() {
+        long start = System.currentTimeMillis();
+        calendarRepository.deleteAllInBatch();
+
+        Map<UUID, UUID> propertyByRoom = new HashMap<>();
+        Map<UUID, Map<Integer, RoomCalendarMonth>> monthsByRoom = new HashMap<>();
+
+        for (RoomCalendarSeedView room : roomRepository.findCalendarSeeds()) {
+            propertyByRoom.put(room.getRoomID(), room.getPropertyID());
+            if (room.getMaintenanceStart() != null && room.getMaintenanceEnd() != null) {
+                applyDays(monthsByRoom.computeIfAbsent(room.getRoomID(), id -> new HashMap<>()),
+                    room.getRoomID(), room.getPropertyID(), room.getMaintenanceStart(), room.getMaintenanceEnd(),
+                    true, true, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            }
+        }
+
+        for (BookingIntervalView booking : bookingRepository.findActiveBookingIntervals()) {
+            UUID propertyID = propertyByRoom.get(booking.getRoomID());
+            if (propertyID == null) {
+                continue;
+            }
+            applyDays(monthsByRoom.computeIfAbsent(booking.getRoomID(), id -> new HashMap<>()),
+                booking.getRoomID(), propertyID, booking.getCheckInDate(), booking.getCheckOutDate(),
+                false, true, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+
+        List<RoomCalendarMonth> rows = new ArrayList<>();
+        monthsByRoom.values().forEach(months -> rows.addAll(months.values()));
+        calendarRepository.saveAll(rows);
+
+        logger.info("Room calendar backfilled with {} room-month row(s) in {} ms",
+            rows.size(), System.currentTimeMillis() - start);
+    }
+
+    // ===== Helper Methods =====
+
+    // Every day the interval [start, end) touches, so two intervals that overlap always share a marked day
+    static LocalDate dayAfterLast(LocalDateTime start, LocalDateTime end) {
+        LocalDate first = start.toLocalDate();
+        LocalDate last = end.toLocalDate();
+        if (end.toLocalTime().equals(LocalTime.MIDNIGHT)) {
+            last = last.minusDays(1);
+        }
+        return (last.isAfter(first) ? last : first).plusDays(1);
+    }
+
+    // Bits of the days in [from, toExclusive) that fall inside the given month
+    static long dayMask(int monthKey, LocalDate from, LocalDate toExclusive) {
+        LocalDate monthStart = RoomCalendarMonth.firstDayOf(monthKey);
+        LocalDate monthEnd = monthStart.plusMonths(1);
+        LocalDate first = from.isAfter(monthStart) ? from : monthStart;
+        LocalDate end = toExclusive.isBefore(monthEnd) ? toExclusive : monthEnd;
+        if (!first.isBefore(end)) {
+            return 0L;
+        }
+        int days = (int) ChronoUnit.DAYS.between(first, end);
+        return ((1L << days) - 1) << (first.getDayOfMonth() - 1);
+    }
+
+    private void applyDays(Map<Integer, RoomCalendarMonth> months, UUID roomID, UUID propertyID,
+                             LocalDateTime start, LocalDateTime end, boolean maintenance, boolean set,
+                             int minKey, int maxKey) {
+        if (start == null || end == null) {
+            return;
+        }
+        LocalDate from = start.toLocalDate();
+        LocalDate to = dayAfterLast(start, end);
+        int fromKey = Math.max(minKey, RoomCalendarMonth.monthKeyOf(from));
+        int toKey = Math.min(maxKey, RoomCalendarMonth.monthKeyOf(to.minusDays(1)));
+
+        for (int key = fromKey; key <= toKey; key++) {
+            long mask = dayMask(key, from, to);
+            RoomCalendarMonth month = months.get(key);
+            if (month == null) {
+                if (!set) {
+                    continue;
+                }
+                month = RoomCalendarMonth.builder()
+                    .roomID(roomID)
+                    .monthKey(key)
+                    .propertyID(propertyID)
+                    .build();
+                months.put(key, month);
+            }
+            if (maintenance) {
+                month.setMaintenanceDays(set ? month.getMaintenanceDays() | mask : month.getMaintenanceDays() & ~mask);
+            } else {
+                month.setBookedDays(set ? month.getBookedDays() | mask : month.getBookedDays() & ~mask);
+            }
+        }
+    }
+
+    private Map<Integer, RoomCalendarMonth> loadMonths(UUID roomID, int fromKey, int toKey) {
+        Map<Integer, RoomCalendarMonth> months = new HashMap<>();
+        for (RoomCalendarMonth month : calendarRepository.findByRoomIDAndMonthKeyBetween(roomID, fromKey, toKey)) {
+            months.put(month.getMonthKey(), month);
+        }
+        return months;
+    }
+
+    // Empty months are dropped so the table only holds rooms with something scheduled
+    private void saveMonths(Map<Integer, RoomCalendarMonth> months, Set<Integer> existingKeys) {
+        List<RoomCalendarMonth> toSave = new ArrayList<>();
+        List<RoomCalendarMonth> toDelete = new ArrayList<>();
+        for (RoomCalendarMonth month : months.values()) {
+            boolean empty = month.getBookedDays() == 0L && month.getMaintenanceDays() == 0L;
+            if (!empty) {
+                toSave.add(month);
+            } else if (existingKeys.contains(month.getMonthKey())) {
+                toDelete.add(month);
+            }
+        }
+        calendarRepository.saveAll(toSave);
+        calendarRepository.deleteAll(toDelete);
+    }
+
+    // Month rows are read, changed and written back; with the room locked a booking refresh and a
+    // maintenance update cannot drop each other's bits or both insert the same month
+    private void lockRoom(Room room) {
+        roomRepository.lockForBooking(room.getRoomID());
+    }
+
+    private UUID propertyIDOf(Room room) {
+        if (room.getRoomType() == null || room.getRoomType().getProperty() == null) {
+            throw new RuntimeException("Room " + room.getRoomID() + " is not attached to a property");
+        }
+        return room.getRoomType().getProperty().getPropertyID();
+    }
+}
@@ -0,0 +1,24 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.time.Duration;
+
+public interface SchedulerLeaseService {
+    /**
+     * Take or renew the named lease for this node. Only the node that gets
+     * true should run the job for the current tick.
+     *
+     * @param ttl how long the lease stays valid without a renewal; a dead
+     *            holder is replaced once it runs out
+     */
+    boolean tryAcquire(String leaseName, Duration ttl);
+
+    /**
+     * Give the lease up early, e.g. on shutdown
+     */
+    void release(String leaseName);
+
+    /**
+     * Identifier this node writes into the lease row
+     */
+    String getHolderId();
+}
@@ -0,0 +1,100 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import apap.ti._5.accommodation_2306275600_be.model.SchedulerLease;
+import apap.ti._5.accommodation_2306275600_be.repository.SchedulerLeaseRepository;
+import jakarta.annotation.PreDestroy;
+
+@Service
+public class SchedulerLeaseServiceImpl implements SchedulerLeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerLeaseServiceImpl.class);
+
+    private final SchedulerLeaseRepository leaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String holderId;
+    private final Set<String> heldLeases = ConcurrentHashMap.newKeySet();
+
+    public SchedulerLeaseServiceImpl(SchedulerLeaseRepository leaseRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.leaseRepository = leaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Pod name on Kubernetes, plus a suffix so a restarted pod is a new holder
+        String host = System.getenv().getOrDefault("HOSTNAME", "local");
+        this.holderId = host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Override
+    public boolean tryAcquire(String leaseName, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(ttl);
+
+        Boolean claimed = transactionTemplate.execute(status ->
+            leaseRepository.claim(leaseName, holderId, now, expiresAt) > 0);
+        if (Boolean.TRUE.equals(claimed)) {
+            return markHeld(leaseName, true);
+        }
+
+        // First run ever: create the row. Losing the insert race just means another node leads.
+        try {
+            Boolean created = transactionTemplate.execute(status -> {
+                if (leaseRepository.existsById(leaseName)) {
+                    return false;
+                }
+                leaseRepository.saveAndFlush(SchedulerLease.builder()
+                    .leaseName(leaseName)
+                    .holder(holderId)
+                    .acquiredAt(now)
+                    .expiresAt(expiresAt)
+                    .build());
+                return true;
+            });
+            return markHeld(leaseName, Boolean.TRUE.equals(created));
+        } catch (DataIntegrityViolationException ex) {
+            return markHeld(leaseName, false);
+        }
+    }
+
+    @Override
+    public void release(String leaseName) {
+        transactionTemplate.executeWithoutResult(status ->
+            leaseRepository.release(leaseName, holderId, LocalDateTime.now()));
+        heldLeases.remove(leaseName);
+    }
+
+    @Override
+    public String getHolderId() {
+        return holderId;
+    }
+
+    @PreDestroy
+    public void releaseAll() {
+        for (String leaseName : Set.copyOf(heldLeases)) {
+            try {
+                release(leaseName);
+            } catch (RuntimeException ex) {
+                logger.warn("Could not release scheduler lease {}: {}", leaseName, ex.getMessage());
+            }
+        }
+    }
+
+    private boolean markHeld(String leaseName, boolean held) {
+        boolean changed = held ? heldLeases.add(leaseName) : heldLeases.remove(leaseName);
+        if (changed) {
+            logger.info("Scheduler lease {} {} by {}", leaseName, held ? "acquired" : "lost", holderId);
+        }
+        return held;
+    }
+}
@@ -0,0 +1,64 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Pulls rows other nodes changed into this node's in-memory search indexes.
+ * Every node keeps its own copy, so unlike the other jobs this one takes no lease.
+ */
+@Component
+@ConditionalOnProperty(name = "search-index.sync.enabled", havingValue = "true", matchIfMissing = true)
+public class SearchIndexSyncJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexSyncJob.class);
+
+    private final BookingSearchIndexService bookingSearchIndexService;
+    private final CustomerSearchIndexService customerSearchIndexService;
+    private final PropertySearchIndexService propertySearchIndexService;
+    private final MeterRegistry meterRegistry;
+
+    public SearchIndexSyncJob(BookingSearchIndexService bookingSearchIndexService,
+                              CustomerSearchIndexService customerSearchIndexService,
+                              PropertySearchIndexService propertySearchIndexService,
+                              MeterRegistry meterRegistry) {
+        this.bookingSearchIndexService = bookingSearchIndexService;
+        this.customerSearchIndexService = customerSearchIndexService;
+        this.propertySearchIndexService = propertySearchIndexService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${search-index.sync.fixed-delay-ms:10000}",
+               initialDelayString = "${search-index.sync.fixed-delay-ms:10000}")
+    public void run() {
+        sync("booking", bookingSearchIndexService::syncChanges);
+        sync("customer", customerSearchIndexService::syncChanges);
+        sync("property", propertySearchIndexService::syncChanges);
+    }
+
+    // One failing index must not keep the others stale
+    private void sync(String index, IntSupplier syncChanges) {
+        long start = System.nanoTime();
+        try {
+            int rows = syncChanges.getAsInt();
+            logger.debug("Search index sync: {} re-read {} row(s)", index, rows);
+        } catch (RuntimeException e) {
+            logger.warn("Search index sync: {} failed, retrying on the next run", index, e);
+        } finally {
+            Timer.builder("search.index.sync")
+                .tag("index", index)
+                .description("Duration of pulling changed rows into an in-memory search index")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
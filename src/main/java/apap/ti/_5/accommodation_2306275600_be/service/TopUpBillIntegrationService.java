@@ -4,8 +4,8 @@ import apap.ti._5.accommodation_2306275600_be.model.TopUpTransaction;
 
 public interface TopUpBillIntegrationService {
     /**
-     * Call Bill service to create a bill for top-up transaction
-     * This is a "fire and forget" operation - we don't check if it succeeds or fails
+     * Queue a call to the Bill service to create a bill for a top-up transaction.
+     * Written in the caller's transaction and delivered later by the outbox dispatcher.
      * 
      * @param topUpTransaction The top-up transaction for which to create a bill
      */
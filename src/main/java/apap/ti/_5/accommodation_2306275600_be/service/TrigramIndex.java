@@ -0,0 +1,132 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Substring index over short texts, one text per key.
+ *
+ * Every text is lowercased and split into trigrams. A keyword of three or
+ * more characters only visits keys that share its rarest trigram, and each
+ * candidate is confirmed with contains(), so the result is exactly what
+ * LOWER(text) LIKE '%keyword%' would return. Shorter keywords have no trigram
+ * to look up and scan the stored texts instead.
+ *
+ * Reads are lock-free; writes are serialized.
+ */
+public class TrigramIndex<K> {
+
+    private static final int GRAM = 3;
+    // Check the deadline once per this many candidates
+    private static final int DEADLINE_CHECK_INTERVAL = 256;
+
+    private final Map<K, String> texts = new ConcurrentHashMap<>();
+    private final Map<String, Set<K>> postings = new ConcurrentHashMap<>();
+
+    public synchronized void put(K key, String text) {
+        String normalized = normalize(text);
+        String previous = texts.put(key, normalized);
+        if (normalized.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            removePostings(key, previous);
+        }
+        for (String gram : trigrams(normalized)) {
+            postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    public synchronized void remove(K key) {
+        String previous = texts.remove(key);
+        if (previous != null) {
+            removePostings(key, previous);
+        }
+    }
+
+    public synchronized void clear() {
+        texts.clear();
+        postings.clear();
+    }
+
+    public boolean containsKey(K key) {
+        return texts.containsKey(key);
+    }
+
+    public int size() {
+        return texts.size();
+    }
+
+    /**
+     * @return keys whose text contains the keyword, ignoring case
+     */
+    public Set<K> search(String keyword) {
+        Set<K> matches = new HashSet<>();
+        scan(keyword, () -> false, matches::add);
+        return matches;
+    }
+
+    /**
+     * Hand each key whose text contains the keyword to the action, stopping early once the deadline passes.
+     * A short keyword visits every stored text, so the deadline is checked while scanning, not only per match.
+     *
+     * @param deadlineNanos System.nanoTime() after which the scan stops
+     * @return false if the deadline cut the scan short
+     */
+    public boolean searchUntil(String keyword, long deadlineNanos, Consumer<K> action) {
+        return scan(keyword, () -> System.nanoTime() - deadlineNanos > 0, action);
+    }
+
+    private boolean scan(String keyword, BooleanSupplier expired, Consumer<K> action) {
+        String needle = normalize(keyword);
+        Iterable<K> candidates;
+        if (needle.length() < GRAM) {
+            candidates = texts.keySet();
+        } else {
+            // Every match holds all of the keyword's trigrams, so the rarest one bounds the candidates
+            candidates = trigrams(needle).stream()
+                .map(gram -> postings.getOrDefault(gram, Set.of()))
+                .min(Comparator.comparingInt(Set::size))
+                .orElse(Set.of());
+        }
+
+        int seen = 0;
+        for (K key : candidates) {
+            if (++seen % DEADLINE_CHECK_INTERVAL == 0 && expired.getAsBoolean()) {
+                return false;
+            }
+            String text = texts.get(key);
+            if (text != null && text.contains(needle)) {
+                action.accept(key);
+            }
+        }
+        return true;
+    }
+
+    private void removePostings(K key, String text) {
+        for (String gram : trigrams(text)) {
+            postings.computeIfPresent(gram, (g, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
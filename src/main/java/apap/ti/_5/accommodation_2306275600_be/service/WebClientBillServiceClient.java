@@ -0,0 +1,127 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import apap.ti._5.accommodation_2306275600_be.service.BillServiceCircuitBreaker.Permit;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Sends a batch concurrently on Netty event loops, with at most maxInFlight
+ * requests open at once. Only the dispatcher thread waits for the batch.
+ * Calls the circuit breaker or bulkhead turns away come back as SKIPPED.
+ */
+@Service
+@ConditionalOnProperty(name = "bill.client.mode", havingValue = "reactive")
+public class WebClientBillServiceClient implements BillServiceClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebClientBillServiceClient.class);
+
+    private final WebClient webClient;
+    private final BillServiceCircuitBreaker circuitBreaker;
+    private final String apiKey;
+    private final int maxInFlight;
+    private final Duration batchTimeout;
+    private final Timer batchTimer;
+
+    public WebClientBillServiceClient(WebClient outboundWebClient,
+                                      BillServiceCircuitBreaker circuitBreaker,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${bill.service.url:http://localhost:8080}") String billServiceUrl,
+                                      @Value("${bill.service.api-key:ACCOMMODATION_API_KEY}") String apiKey,
+                                      @Value("${bill.client.reactive.max-in-flight:16}") int maxInFlight,
+                                      @Value("${bill.client.reactive.batch-timeout-ms:30000}") long batchTimeoutMs) {
+        this.webClient = outboundWebClient.mutate().baseUrl(billServiceUrl).build();
+        this.circuitBreaker = circuitBreaker;
+        this.apiKey = apiKey;
+        this.maxInFlight = maxInFlight;
+        this.batchTimeout = Duration.ofMillis(batchTimeoutMs);
+        this.batchTimer = Timer.builder("bill.client.batch")
+            .tag("mode", "reactive")
+            .description("Time to deliver one batch of Bill service calls")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public List<DeliveryOutcome> createBills(List<BillRequest> requests) {
+        return batchTimer.record(() -> send(requests));
+    }
+
+    private List<DeliveryOutcome> send(List<BillRequest> requests) {
+        AtomicReferenceArray<DeliveryOutcome> outcomes = new AtomicReferenceArray<>(requests.size());
+        AtomicBoolean unreachable = new AtomicBoolean();
+
+        try {
+            Flux.range(0, requests.size())
+                .flatMap(i -> post(requests.get(i), unreachable)
+                    .doOnNext(outcome -> outcomes.set(i, outcome)), maxInFlight)
+                .then()
+                .block(batchTimeout);
+        } catch (IllegalStateException e) {
+            logger.warn("Bill service batch of {} did not finish within {} ms", requests.size(), batchTimeout.toMillis());
+        }
+
+        List<DeliveryOutcome> result = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            DeliveryOutcome outcome = outcomes.get(i);
+            result.add(outcome != null ? outcome
+                : new DeliveryOutcome(DeliveryStatus.RETRY, "Batch timed out before a response arrived"));
+        }
+        return result;
+    }
+
+    private Mono<DeliveryOutcome> post(BillRequest request, AtomicBoolean unreachable) {
+        return Mono.defer(() -> {
+            // Requests that have not started yet skip a service another request could not reach
+            Permit permit = unreachable.get() ? null : circuitBreaker.tryAcquire();
+            if (permit == null) {
+                return Mono.just(DeliveryOutcome.SKIPPED);
+            }
+            request.body().setApiKey(apiKey);
+            return webClient.post()
+                .uri("/api/bill/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(IDEMPOTENCY_KEY_HEADER, request.idempotencyKey())
+                .bodyValue(request.body())
+                .retrieve()
+                .toBodilessEntity()
+                .map(response -> DeliveryOutcome.SENT)
+                .onErrorResume(error -> Mono.just(classify(error, unreachable)))
+                .doOnNext(outcome -> permit.complete(outcome.status()))
+                // Batch timeout cancels the call; free the bulkhead slot and count it as a failure
+                .doOnCancel(() -> permit.complete(DeliveryStatus.RETRY));
+        });
+    }
+
+    private static DeliveryOutcome classify(Throwable error, AtomicBoolean unreachable) {
+        if (error instanceof WebClientResponseException response) {
+            HttpStatus status = HttpStatus.resolve(response.getStatusCode().value());
+            boolean retryable = response.getStatusCode().is5xxServerError()
+                || status == HttpStatus.REQUEST_TIMEOUT
+                || status == HttpStatus.TOO_MANY_REQUESTS;
+            return DeliveryOutcome.failed(retryable ? DeliveryStatus.RETRY : DeliveryStatus.REJECTED, error);
+        }
+        if (error instanceof WebClientRequestException) {
+            unreachable.set(true);
+            return DeliveryOutcome.failed(DeliveryStatus.UNREACHABLE, error);
+        }
+        return DeliveryOutcome.failed(DeliveryStatus.RETRY, error);
+    }
+}
@@ -0,0 +1,87 @@
+package apap.ti._5.accommodation_2306275600_be.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import apap.ti._5.accommodation_2306275600_be.service.StubBillServer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.netty.resources.ConnectionProvider;
+
+class RestTemplateConfigTest {
+
+    private final RestTemplateConfig config = new RestTemplateConfig();
+
+    private SimpleMeterRegistry meterRegistry;
+    private StubBillServer billServer;
+    private ConnectionProvider connectionProvider;
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Reactor Netty publishes pool gauges to the global registry
+        meterRegistry = new SimpleMeterRegistry();
+        Metrics.addRegistry(meterRegistry);
+
+        billServer = new StubBillServer();
+        connectionProvider = config.outboundConnectionProvider(4, 10, 500, 30, 300);
+        restTemplate = config.restTemplate(config.outboundHttpClient(connectionProvider, 500, 300));
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionProvider.dispose();
+        billServer.close();
+        Metrics.removeRegistry(meterRegistry);
+    }
+
+    @Test
+    void testRestTemplate_ReusesKeepAliveConnection() {
+        for (int i = 0; i < 20; i++) {
+            ResponseEntity<String> response =
+                restTemplate.postForEntity(billServer.url() + "/api/bill/create", "{}", String.class);
+            assertEquals(201, response.getStatusCode().value());
+        }
+
+        Gauge totalConnections = meterRegistry.find("reactor.netty.connection.provider.total.connections")
+            .tag("name", RestTemplateConfig.POOL_NAME)
+            .gauge();
+        assertNotNull(totalConnections);
+        assertEquals(1.0, totalConnections.value());
+        assertEquals(20, billServer.requestCount());
+    }
+
+    @Test
+    void testRestTemplate_HungServerFailsAtReadTimeout() {
+        billServer.delay(Duration.ofSeconds(3));
+
+        long start = System.nanoTime();
+        // Netty reports the response timeout as its own unchecked exception
+        assertThrows(RuntimeException.class,
+            () -> restTemplate.postForEntity(billServer.url() + "/api/bill/create", "{}", String.class));
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(elapsedMs < 2_000, "Call took " + elapsedMs + " ms despite a 300 ms read timeout");
+    }
+
+    @Test
+    void testRestTemplate_UnreachableHostFailsFast() {
+        String url = billServer.url() + "/api/bill/create";
+        billServer.close();
+
+        long start = System.nanoTime();
+        assertThrows(ResourceAccessException.class, () -> restTemplate.postForEntity(url, "{}", String.class));
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(elapsedMs < 2_000, "Call took " + elapsedMs + " ms despite a 500 ms connect timeout");
+    }
+}
@@ -0,0 +1,329 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import apap.ti._5.accommodation_2306275600_be.model.AccommodationOwner;
+import apap.ti._5.accommodation_2306275600_be.model.Booking;
+import apap.ti._5.accommodation_2306275600_be.model.Customer;
+import apap.ti._5.accommodation_2306275600_be.model.Property;
+import apap.ti._5.accommodation_2306275600_be.model.Room;
+import apap.ti._5.accommodation_2306275600_be.model.RoomType;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingListItemDTO;
+import apap.ti._5.accommodation_2306275600_be.restservice.BookingRestServiceImpl;
+import apap.ti._5.accommodation_2306275600_be.service.BookingSearchIndexServiceImpl;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookingRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    private Property property;
+    private Room room;
+    private Customer customer;
+    private Statistics statistics;
+    private BookingRestServiceImpl bookingRestService;
+    private BookingSearchIndexServiceImpl bookingSearchIndexService;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class).getStatistics();
+        // Only the list read path is exercised, so collaborators it does not touch stay null
+        bookingSearchIndexService = new BookingSearchIndexServiceImpl(bookingRepository, propertyRepository, 300);
+        bookingRestService = new BookingRestServiceImpl(bookingRepository, null, null, null, null, null, null,
+            bookingSearchIndexService);
+
+        AccommodationOwner owner = new AccommodationOwner(
+            "owner", "Owner", "owner@example.com", "password123", "MALE");
+        entityManager.persist(owner);
+
+        customer = new Customer("customer", "Customer", "customer@example.com", "password123", "FEMALE",
+            BigDecimal.ZERO);
+        entityManager.persist(customer);
+
+        property = Property.builder()
+            .propertyName("Hotel Range")
+            .type(1)
+            .address("Jl. Test")
+            .province(1)
+            .totalRoom(1)
+            .activeStatus(1)
+            .owner(owner)
+            .ownerName(owner.getName())
+            .build();
+        entityManager.persist(property);
+
+        RoomType roomType = RoomType.builder()
+            .name("Deluxe")
+            .price(100000)
+            .capacity(2)
+            .floor(1)
+            .property(property)
+            .build();
+        entityManager.persist(roomType);
+
+        room = Room.builder()
+            .roomType(roomType)
+            .availabilityStatus(1)
+            .activeRoom(1)
+            .build();
+        entityManager.persist(room);
+    }
+
+    @Test
+    void testFindDoneBookingsByMonthAndYear_UsesHalfOpenMonthRange() {
+        persistBooking(LocalDateTime.of(2025, 11, 30, 23, 59), 4, 100000);
+        persistBooking(LocalDateTime.of(2025, 12, 1, 0, 0), 4, 200000);
+        persistBooking(LocalDateTime.of(2025, 12, 31, 23, 59), 4, 300000);
+        persistBooking(LocalDateTime.of(2026, 1, 1, 0, 0), 4, 400000);
+        persistBooking(LocalDateTime.of(2025, 12, 15, 12, 0), 1, 500000);
+
+        List<Booking> december = bookingRepository.findDoneBookingsByMonthAndYear(12, 2025);
+
+        assertEquals(2, december.size());
+        assertEquals(2, bookingRepository.countDoneBookingsByPropertyAndPeriod(
+            property.getPropertyID().toString(), 12, 2025));
+    }
+
+    @Test
+    void testAggregateDoneRevenueByPropertyBetween_SumsPerProperty() {
+        persistBooking(LocalDateTime.of(2025, 12, 10, 12, 0), 4, 200000);
+        persistBooking(LocalDateTime.of(2025, 12, 20, 12, 0), 4, 300000);
+        persistBooking(LocalDateTime.of(2025, 12, 21, 12, 0), 4, 400000);
+
+        List<PropertyRevenueView> revenues = bookingRepository.aggregateDoneRevenueByPropertyBetween(
+            LocalDate.of(2025, 12, 10).atStartOfDay(), LocalDate.of(2025, 12, 21).atStartOfDay());
+
+        assertEquals(1, revenues.size());
+        assertEquals(property.getPropertyID(), revenues.get(0).getPropertyID());
+        assertEquals(2L, revenues.get(0).getTotalBookings());
+        assertEquals(500000L, revenues.get(0).getTotalRevenue());
+    }
+
+    @Test
+    void testFindListItemsOrderedByBookingID_ReturnsListColumns() {
+        Booking booking = persistBooking(LocalDateTime.of(2025, 12, 10, 12, 0), 1, 250000);
+        entityManager.clear();
+
+        List<BookingRepository.BookingListItemView> items = bookingRepository.findListItemsOrderedByBookingID();
+
+        assertEquals(1, items.size());
+        assertEquals(booking.getBookingID(), items.get(0).getBookingID());
+        assertEquals("Hotel Range", items.get(0).getPropertyName());
+        assertEquals(room.getName(), items.get(0).getRoomNumber());
+        assertEquals(250000, items.get(0).getTotalPrice());
+        assertEquals(1, items.get(0).getStatus());
+    }
+
+    @Test
+    void testGetAllBookings_OneStatementPerPageRegardlessOfRowCount() {
+        persistBooking(LocalDateTime.of(2025, 12, 10, 12, 0), 1, 100000);
+        long smallPage = countStatementsForList(null, null, 1);
+
+        // Every extra booking sits in its own property, so lazy loading would add selects per row
+        for (int i = 0; i < 10; i++) {
+            persistBooking(persistRoomInNewProperty("Villa " + i), LocalDateTime.of(2025, 12, 10, 12, 0), 1, 100000);
+        }
+
+        assertEquals(1, smallPage);
+        assertEquals(1, countStatementsForList(null, null, 11));
+        assertEquals(1, countStatementsForList(1, null, 11));
+        // Search index not warmed yet: LIKE query
+        assertEquals(1, countStatementsForList(null, "villa", 10));
+        assertEquals(1, countStatementsForList(1, "villa", 10));
+
+        bookingSearchIndexService.rebuild();
+        assertEquals(1, countStatementsForList(null, "villa", 10));
+        assertEquals(1, countStatementsForList(1, "villa", 10));
+    }
+
+    @Test
+    void testGetAllBookings_IndexedSearchMatchesSqlSearch() {
+        persistBooking(LocalDateTime.of(2025, 12, 10, 12, 0), 1, 100000);
+        persistBooking(LocalDateTime.of(2025, 12, 11, 12, 0), 0, 100000);
+        for (int i = 0; i < 6; i++) {
+            persistBooking(persistRoomInNewProperty("Villa Melati " + i), LocalDateTime.of(2025, 12, 10, 12, 0),
+                i % 2, 100000);
+        }
+        entityManager.clear();
+
+        List<String> keywords = List.of("melati", "VILLA MELATI 3", "range", "ti", "a", room.getRoomID().toString().substring(4, 12),
+            "nothing matches");
+        List<List<UUID>> expected = new ArrayList<>();
+        for (String keyword : keywords) {
+            expected.add(bookingIDs(bookingRestService.getAllBookings(null, keyword)));
+            expected.add(bookingIDs(bookingRestService.getAllBookings(1, keyword)));
+        }
+
+        bookingSearchIndexService.rebuild();
+        List<List<UUID>> indexed = new ArrayList<>();
+        for (String keyword : keywords) {
+            indexed.add(bookingIDs(bookingRestService.getAllBookings(null, keyword)));
+            indexed.add(bookingIDs(bookingRestService.getAllBookings(1, keyword)));
+        }
+
+        // Same rows in the same order as the SQL search
+        assertEquals(expected, indexed);
+        assertEquals(6, expected.get(0).size());
+        assertEquals(3, expected.get(1).size());
+    }
+
+    @Test
+    void testSyncChanges_PicksUpBookingsAndRenamesFromOtherNodes() {
+        Booking existing = persistBooking(LocalDateTime.of(2025, 12, 10, 12, 0), 1, 100000);
+        bookingSearchIndexService.rebuild();
+
+        // Written the way another node would: straight to the database, this index is never told
+        Booking added = persistBooking(persistRoomInNewProperty("Villa Kenanga"), LocalDateTime.of(2025, 12, 11, 12, 0),
+            1, 100000);
+        Property renamed = entityManager.find(Property.class, property.getPropertyID());
+        renamed.setPropertyName("Hotel Cempaka");
+        entityManager.flush();
+
+        assertTrue(bookingRestService.getAllBookings(null, "kenanga").isEmpty());
+        assertTrue(bookingRestService.getAllBookings(null, "cempaka").isEmpty());
+
+        assertTrue(bookingSearchIndexService.syncChanges() > 0);
+        assertEquals(List.of(added.getBookingID()), bookingIDs(bookingRestService.getAllBookings(null, "kenanga")));
+        assertEquals(List.of(existing.getBookingID()), bookingIDs(bookingRestService.getAllBookings(null, "cempaka")));
+        assertTrue(bookingRestService.getAllBookings(null, "range").isEmpty());
+    }
+
+    private static List<UUID> bookingIDs(List<BookingListItemDTO> items) {
+        return items.stream().map(BookingListItemDTO::getBookingID).toList();
+    }
+
+    @Test
+    void testGetBookingsPage_WalksEveryBookingOnceAtOneStatementPerPage() {
+        Set<UUID> confirmed = new HashSet<>();
+        Set<UUID> all = new HashSet<>();
+        for (int i = 0; i < 7; i++) {
+            Booking booking = persistBooking(LocalDateTime.of(2025, 12, 10, 12, 0), 1, 100000);
+            confirmed.add(booking.getBookingID());
+            all.add(booking.getBookingID());
+        }
+        for (int i = 0; i < 2; i++) {
+            all.add(persistBooking(LocalDateTime.of(2025, 12, 10, 12, 0), 0, 100000).getBookingID());
+        }
+        // Same created date everywhere, so only the booking ID keeps pages apart
+        entityManager.getEntityManager()
+            .createQuery("UPDATE Booking b SET b.createdDate = :createdDate")
+            .setParameter("createdDate", LocalDateTime.of(2025, 12, 1, 9, 0))
+            .executeUpdate();
+
+        assertEquals(confirmed, walkBookingPages(1, 3, 3));
+        assertEquals(all, walkBookingPages(null, 4, 3));
+    }
+
+    private Set<UUID> walkBookingPages(Integer status, int size, int expectedPages) {
+        Set<UUID> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            entityManager.clear();
+            statistics.clear();
+            KeysetPageResponseDTO<BookingListItemDTO> page = bookingRestService.getBookingsPage(status, cursor, size);
+            assertEquals(1, statistics.getPrepareStatementCount());
+            page.getContent().forEach(item -> assertTrue(seen.add(item.getBookingID())));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+        assertEquals(expectedPages, pages);
+        return seen;
+    }
+
+    private long countStatementsForList(Integer status, String search, int expectedRows) {
+        entityManager.clear();
+        statistics.clear();
+
+        List<BookingListItemDTO> page = bookingRestService.getAllBookings(status, search);
+
+        assertEquals(expectedRows, page.size());
+        page.forEach(item -> {
+            assertNotNull(item.getPropertyName());
+            assertNotNull(item.getRoomNumber());
+            assertEquals("Payment Confirmed", item.getStatusText());
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Room persistRoomInNewProperty(String propertyName) {
+        AccommodationOwner owner = new AccommodationOwner(
+            propertyName, propertyName, UUID.randomUUID() + "@example.com", "password123", "MALE");
+        entityManager.persist(owner);
+
+        Property otherProperty = Property.builder()
+            .propertyName(propertyName)
+            .type(1)
+            .address("Jl. Test")
+            .province(1)
+            .totalRoom(1)
+            .activeStatus(1)
+            .owner(owner)
+            .ownerName(owner.getName())
+            .build();
+        entityManager.persist(otherProperty);
+
+        RoomType roomType = RoomType.builder()
+            .name("Standard")
+            .price(100000)
+            .capacity(2)
+            .floor(1)
+            .property(otherProperty)
+            .build();
+        entityManager.persist(roomType);
+
+        Room otherRoom = Room.builder()
+            .roomType(roomType)
+            .availabilityStatus(1)
+            .activeRoom(1)
+            .build();
+        entityManager.persist(otherRoom);
+        return otherRoom;
+    }
+
+    private Booking persistBooking(LocalDateTime checkOut, int status, int totalPrice) {
+        return persistBooking(room, checkOut, status, totalPrice);
+    }
+
+    private Booking persistBooking(Room bookedRoom, LocalDateTime checkOut, int status, int totalPrice) {
+        Booking booking = Booking.builder()
+            .room(bookedRoom)
+            .customer(customer)
+            .checkInDate(checkOut.minusDays(2))
+            .checkOutDate(checkOut)
+            .totalDays(2)
+            .totalPrice(totalPrice)
+            .status(status)
+            .capacity(1)
+            .build();
+        entityManager.persist(booking);
+        entityManager.flush();
+        return booking;
+    }
+}
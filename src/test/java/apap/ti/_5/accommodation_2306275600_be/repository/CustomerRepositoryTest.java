@@ -0,0 +1,133 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import apap.ti._5.accommodation_2306275600_be.model.Customer;
+import apap.ti._5.accommodation_2306275600_be.service.CustomerSearchIndex;
+import apap.ti._5.accommodation_2306275600_be.service.CustomerSearchIndexServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CustomerRepositoryTest {
+
+    private static final String[] NAMES = {"Budi Santoso", "Sari Dewi", "Tono Santoso", "Ani Lestari", "Dewi Sartika"};
+    private static final String[] GENDERS = {"MALE", "FEMALE", "MALE", "FEMALE", "OTHER"};
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class).getStatistics();
+
+        for (int i = 0; i < 30; i++) {
+            int slot = i % NAMES.length;
+            entityManager.persist(new Customer("user" + i, NAMES[slot] + " " + i, "user" + i + "@mail.com",
+                "password123", GENDERS[slot], BigDecimal.ZERO));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testFindPageByGender_WalksEveryMatchOnceAtOneStatementPerPage() {
+        List<UUID> expected = customerRepository.findByGenderOrderByCreatedAtDesc("MALE").stream()
+            .sorted(Comparator.comparing(this::position, KeysetCursor.LIST_ORDER))
+            .map(Customer::getId)
+            .toList();
+
+        List<UUID> walked = new ArrayList<>();
+        KeysetCursor after = null;
+        while (true) {
+            statistics.clear();
+            List<Customer> page = after == null
+                ? customerRepository.findPageByGender("MALE", PageRequest.of(0, 5))
+                : customerRepository.findPageByGenderAfter("MALE", after.createdAt(), after.id(), PageRequest.of(0, 5));
+            assertEquals(1, statistics.getPrepareStatementCount());
+            page.forEach(c -> assertEquals("MALE", c.getGender()));
+            page.forEach(c -> walked.add(c.getId()));
+            if (page.size() < 5) {
+                break;
+            }
+            after = position(page.get(page.size() - 1));
+        }
+
+        assertEquals(12, expected.size());
+        assertEquals(expected, walked);
+    }
+
+    @Test
+    void testSearchIndex_MatchesSqlSearch() {
+        CustomerSearchIndexServiceImpl indexService = newIndexService();
+        indexService.rebuild();
+
+        for (String keyword : new String[] {"santoso", "DEWI", "user1", "@mail", "xyz"}) {
+            for (String gender : new String[] {null, "MALE", "FEMALE"}) {
+                List<UUID> sql = (gender == null
+                    ? customerRepository.searchCustomers(keyword)
+                    : customerRepository.searchCustomersByGender(keyword, gender)).stream()
+                    .sorted(Comparator.comparing(this::position, KeysetCursor.LIST_ORDER))
+                    .map(Customer::getId)
+                    .toList();
+                List<UUID> indexed = indexService.page(keyword, gender, null, Integer.MAX_VALUE).stream()
+                    .map(CustomerSearchIndex.Entry::id)
+                    .toList();
+                assertEquals(sql, indexed, keyword + " / " + gender);
+            }
+        }
+    }
+
+    @Test
+    void testSyncChanges_PicksUpCustomersFromOtherNodes() {
+        CustomerSearchIndexServiceImpl indexService = newIndexService();
+        indexService.rebuild();
+
+        // Written the way another node would: straight to the database, this index is never told
+        Customer registered = entityManager.persist(new Customer("kartini", "Kartini Lestari", "kartini@mail.com",
+            "password123", "FEMALE", BigDecimal.ZERO));
+        Customer renamed = customerRepository.findAll().get(0);
+        renamed.setName("Bambang Pamungkas");
+        entityManager.flush();
+
+        assertTrue(indexService.page("kartini", null, null, 10).isEmpty());
+        assertTrue(indexService.page("bambang", null, null, 10).isEmpty());
+
+        assertTrue(indexService.syncChanges() > 0);
+        assertEquals(List.of(registered.getId()), ids(indexService.page("kartini", null, null, 10)));
+        assertEquals(List.of(renamed.getId()), ids(indexService.page("bambang", null, null, 10)));
+        assertEquals(31, indexService.page(null, null, null, Integer.MAX_VALUE).size());
+    }
+
+    private CustomerSearchIndexServiceImpl newIndexService() {
+        return new CustomerSearchIndexServiceImpl(customerRepository, new SimpleMeterRegistry(), 50, 300);
+    }
+
+    private static List<UUID> ids(List<CustomerSearchIndex.Entry> entries) {
+        return entries.stream().map(CustomerSearchIndex.Entry::id).toList();
+    }
+
+    private KeysetCursor position(Customer customer) {
+        return new KeysetCursor(customer.getCreatedAt(), customer.getId());
+    }
+}
@@ -0,0 +1,47 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import apap.ti._5.accommodation_2306275600_be.model.EndUser;
+import apap.ti._5.accommodation_2306275600_be.repository.EndUserRepositoryCustom.LoginCredentials;
+
+// The login lookup uses its own EntityManager, so it only sees committed users
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EndUserRepositoryTest {
+
+    @Autowired
+    private EndUserRepository endUserRepository;
+
+    @AfterEach
+    void tearDown() {
+        endUserRepository.deleteAll();
+    }
+
+    @Test
+    void testFindLoginCredentials_ByUsernameOrEmail() {
+        EndUser user = new EndUser();
+        user.setUsername("budi");
+        user.setName("Budi");
+        user.setEmail("budi@example.com");
+        user.setPassword("$2a$08$hash");
+        user.setRole("CUSTOMER");
+        EndUser saved = endUserRepository.save(user);
+
+        LoginCredentials byUsername = endUserRepository.findLoginCredentials("budi").orElseThrow();
+        LoginCredentials byEmail = endUserRepository.findLoginCredentials("budi@example.com").orElseThrow();
+
+        assertEquals(saved.getId(), byUsername.id());
+        assertEquals("$2a$08$hash", byUsername.password());
+        assertEquals("CUSTOMER", byUsername.role());
+        assertEquals(byUsername, byEmail);
+        assertTrue(endUserRepository.findLoginCredentials("unknown").isEmpty());
+    }
+}
@@ -0,0 +1,43 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import apap.ti._5.accommodation_2306275600_be.model.PropertyMonthlyRevenue;
+import apap.ti._5.accommodation_2306275600_be.model.PropertyMonthlyRevenue.PropertyMonthlyRevenueId;
+
+@DataJpaTest
+class PropertyMonthlyRevenueRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PropertyMonthlyRevenueRepository revenueRepository;
+
+    @Test
+    void testAddRevenue_CreatesRowThenAddsToIt() {
+        UUID propertyId = UUID.randomUUID();
+        int monthKey = 2025 * 12 + 11;
+        LocalDateTime now = LocalDateTime.of(2025, 12, 31, 23, 0);
+
+        revenueRepository.addRevenue(propertyId, monthKey, 2, 500000L, now);
+        revenueRepository.addRevenue(propertyId, monthKey, 1, 250000L, now.plusMinutes(5));
+        revenueRepository.addRevenue(propertyId, monthKey + 1, 1, 100000L, now);
+        entityManager.clear();
+
+        PropertyMonthlyRevenue december = revenueRepository.findById(new PropertyMonthlyRevenueId(propertyId, monthKey))
+            .orElseThrow();
+        assertEquals(3, december.getTotalBookings());
+        assertEquals(750000L, december.getTotalRevenue());
+        assertEquals(now.plusMinutes(5), december.getUpdatedDate());
+        assertEquals(2, revenueRepository.count());
+    }
+}
@@ -0,0 +1,227 @@
+package apap.ti._5.accommodation_2306275600_be.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.jpa.domain.Specification;
+
+import apap.ti._5.accommodation_2306275600_be.model.AccommodationOwner;
+import apap.ti._5.accommodation_2306275600_be.model.Property;
+import apap.ti._5.accommodation_2306275600_be.model.Room;
+import apap.ti._5.accommodation_2306275600_be.model.RoomType;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertyResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertySearchResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restservice.PropertyRestServiceImpl;
+import apap.ti._5.accommodation_2306275600_be.restservice.RoomRestServiceImpl;
+import apap.ti._5.accommodation_2306275600_be.service.PropertySearchIndexServiceImpl;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class PropertyRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomTypeRepository roomTypeRepository;
+
+    private Statistics statistics;
+    private PropertyRestServiceImpl propertyRestService;
+    private PropertySearchIndexServiceImpl propertySearchIndexService;
+    private int ownerCounter;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class).getStatistics();
+
+        // Only the detail read path is exercised, so collaborators it does not touch stay null
+        RoomRestServiceImpl roomRestService = new RoomRestServiceImpl(roomRepository, roomTypeRepository, null, null);
+        propertySearchIndexService = new PropertySearchIndexServiceImpl(propertyRepository, 300);
+        propertyRestService = new PropertyRestServiceImpl(propertyRepository, null, roomRestService, null, null, null, null,
+            propertySearchIndexService);
+    }
+
+    @Test
+    void testFindRoomTypesWithRoomsByPropertyID_LoadsWholeTree() {
+        UUID propertyID = persistProperty(3, 2);
+        entityManager.clear();
+
+        List<RoomType> roomTypes = propertyRepository.findRoomTypesWithRoomsByPropertyID(propertyID);
+
+        assertEquals(3, roomTypes.size());
+        roomTypes.forEach(roomType -> {
+            assertEquals(propertyID, roomType.getProperty().getPropertyID());
+            assertEquals(2, roomType.getListRoom().size());
+        });
+    }
+
+    @Test
+    void testGetPropertyById_StatementCountIndependentOfRoomTypeCount() {
+        UUID smallPropertyID = persistProperty(1, 1);
+        UUID largePropertyID = persistProperty(8, 4);
+
+        long smallStatements = countStatementsForDetail(smallPropertyID, 1);
+        long largeStatements = countStatementsForDetail(largePropertyID, 8);
+
+        assertEquals(1, smallStatements);
+        assertEquals(smallStatements, largeStatements);
+    }
+
+    @Test
+    void testGetFilteredPropertiesPage_WalksEveryActivePropertyOnce() {
+        Set<UUID> expected = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(persistProperty(1, 1));
+        }
+        entityManager.clear();
+
+        Set<UUID> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            KeysetPageResponseDTO<PropertyResponseDTO> page =
+                propertyRestService.getFilteredPropertiesPage("hotel", 1, null, null, cursor, 2);
+            page.getContent().forEach(property -> assertTrue(seen.add(UUID.fromString(property.getPropertyID()))));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, seen);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void testFindAll_FilterSpecificationsCombine() {
+        UUID match = persistProperty(1, 1);
+        persistProperty(1, 1);
+        entityManager.clear();
+
+        Property property = propertyRepository.findById(match).orElseThrow();
+        List<Property> result = propertyRepository.findAll(Specification.allOf(
+            PropertySpecifications.isActive(),
+            PropertySpecifications.nameContains(property.getPropertyName().toUpperCase()),
+            PropertySpecifications.ownedBy(property.getOwnerID())));
+
+        assertEquals(1, result.size());
+        assertEquals(match, result.get(0).getPropertyID());
+    }
+
+    @Test
+    void testSearchProperties_RankedPageAndFacetsInOneStatement() {
+        UUID first = persistProperty(1, 1);
+        UUID second = persistProperty(1, 1);
+        UUID inactive = persistProperty(1, 1);
+        Property renamed = propertyRepository.findById(first).orElseThrow();
+        renamed.setPropertyName("Melati Guesthouse");
+        renamed.setDescription("Hotel melati dekat Malioboro");
+        Property closed = propertyRepository.findById(inactive).orElseThrow();
+        closed.setActiveStatus(0);
+        entityManager.flush();
+        entityManager.clear();
+        propertySearchIndexService.rebuild();
+
+        statistics.clear();
+        PropertySearchResponseDTO result = propertyRestService.searchProperties("hotel", null, null, null, 0, 10);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        // Name matches outrank a description match; the inactive property is left out
+        assertEquals(List.of(second.toString(), first.toString()),
+            result.getContent().stream().map(PropertyResponseDTO::getPropertyID).toList());
+        assertEquals(2, result.getTotalElements());
+        assertEquals(Map.of(1, 2L), result.getTypeFacets());
+        assertEquals(Map.of(1, 2L), result.getProvinceFacets());
+    }
+
+    @Test
+    void testSyncChanges_DropsPropertiesDeactivatedOnOtherNodes() {
+        UUID closedElsewhere = persistProperty(1, 1);
+        UUID kept = persistProperty(1, 1);
+        entityManager.flush();
+        propertySearchIndexService.rebuild();
+
+        // Written the way another node would: straight to the database, this index is never told
+        propertyRepository.findById(closedElsewhere).orElseThrow().setActiveStatus(0);
+        UUID added = persistProperty(1, 1);
+        entityManager.flush();
+
+        assertEquals(2, propertyRestService.searchProperties("hotel", null, null, null, 0, 10).getTotalElements());
+
+        assertTrue(propertySearchIndexService.syncChanges() > 0);
+        PropertySearchResponseDTO result = propertyRestService.searchProperties("hotel", null, null, null, 0, 10);
+        assertEquals(Set.of(kept.toString(), added.toString()),
+            new HashSet<>(result.getContent().stream().map(PropertyResponseDTO::getPropertyID).toList()));
+        assertEquals(Map.of(1, 2L), result.getTypeFacets());
+    }
+
+    private long countStatementsForDetail(UUID propertyID, int expectedRoomTypes) {
+        entityManager.clear();
+        statistics.clear();
+
+        PropertyResponseDTO detail = propertyRestService.getPropertyById(propertyID);
+
+        assertEquals(expectedRoomTypes, detail.getRoomTypes().size());
+        detail.getRoomTypes().forEach(roomType -> assertFalse(roomType.getListRoom().isEmpty()));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private UUID persistProperty(int roomTypeCount, int roomsPerType) {
+        ownerCounter++;
+        AccommodationOwner owner = new AccommodationOwner(
+            "owner" + ownerCounter, "Owner " + ownerCounter, "owner" + ownerCounter + "@example.com",
+            "password123", "MALE");
+        entityManager.persist(owner);
+
+        Property property = Property.builder()
+            .propertyName("Hotel " + ownerCounter)
+            .type(1)
+            .address("Jl. Test")
+            .province(1)
+            .totalRoom(roomTypeCount * roomsPerType)
+            .activeStatus(1)
+            .owner(owner)
+            .ownerName(owner.getName())
+            .build();
+        entityManager.persist(property);
+
+        for (int t = 0; t < roomTypeCount; t++) {
+            RoomType roomType = RoomType.builder()
+                .name("Type " + t)
+                .price(100000 * (t + 1))
+                .capacity(2)
+                .floor(t + 1)
+                .property(property)
+                .build();
+            entityManager.persist(roomType);
+
+            for (int r = 0; r < roomsPerType; r++) {
+                Room room = Room.builder()
+                    .roomType(roomType)
+                    .availabilityStatus(1)
+                    .activeRoom(1)
+                    .build();
+                entityManager.persist(room);
+            }
+        }
+        entityManager.flush();
+        return property.getPropertyID();
+    }
+}
@@ -4,10 +4,12 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,12 +26,14 @@ import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.ChangeBook
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.CreateBookingRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.UpdateBookingRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.BaseResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingChartResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingDetailResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingListItemDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingUpdateFormDTO;
 import apap.ti._5.accommodation_2306275600_be.restservice.RBAC.BookingRestServiceRBAC;
+import apap.ti._5.accommodation_2306275600_be.service.IdempotencyService;
 
 @ExtendWith(MockitoExtension.class)
 class BookingRestControllerTest {
@@ -40,6 +44,9 @@ class BookingRestControllerTest {
     @Mock
     private BindingResult bindingResult;
 
+    @Mock
+    private IdempotencyService idempotencyService;
+
     @InjectMocks
     private BookingRestController bookingRestController;
 
@@ -52,6 +59,9 @@ class BookingRestControllerTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(idempotencyService.execute(any(), any(), any(), any()))
+            .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(3).get());
+
         testBookingId = UUID.randomUUID();
         
         mockBookingListItem = new BookingListItemDTO();
@@ -158,6 +168,36 @@ class BookingRestControllerTest {
         assertTrue(response.getBody().getMessage().contains("Failed to retrieve bookings"));
     }
 
+    @Test
+    void testGetBookingsPage_Success() {
+        KeysetPageResponseDTO<BookingListItemDTO> page = KeysetPageResponseDTO.<BookingListItemDTO>builder()
+            .content(Arrays.asList(mockBookingListItem))
+            .size(1)
+            .hasNext(true)
+            .nextCursor("next")
+            .build();
+        when(bookingRestService.getBookingsPage(1, null, 1)).thenReturn(page);
+
+        ResponseEntity<BaseResponseDTO<KeysetPageResponseDTO<BookingListItemDTO>>> response =
+            bookingRestController.getBookingsPage(1, null, 1);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("next", response.getBody().getData().getNextCursor());
+        assertTrue(response.getBody().getMessage().contains("1 booking(s)"));
+    }
+
+    @Test
+    void testGetBookingsPage_InvalidCursor_ReturnsBadRequest() {
+        when(bookingRestService.getBookingsPage(null, "garbage", 20))
+            .thenThrow(new RuntimeException("Invalid cursor"));
+
+        ResponseEntity<BaseResponseDTO<KeysetPageResponseDTO<BookingListItemDTO>>> response =
+            bookingRestController.getBookingsPage(null, "garbage", 20);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Invalid cursor", response.getBody().getMessage());
+    }
+
     // ========== GET BOOKING DETAIL TESTS ==========
     
     @Test
@@ -205,7 +245,7 @@ class BookingRestControllerTest {
 
         // Act
         ResponseEntity<BaseResponseDTO<BookingResponseDTO>> response = 
-            bookingRestController.createBooking(dto, bindingResult);
+            bookingRestController.createBooking(dto, bindingResult, null);
 
         // Assert
         assertNotNull(response);
@@ -225,7 +265,7 @@ class BookingRestControllerTest {
 
         // Act
         ResponseEntity<BaseResponseDTO<BookingResponseDTO>> response = 
-            bookingRestController.createBooking(dto, bindingResult);
+            bookingRestController.createBooking(dto, bindingResult, null);
 
         // Assert
         assertNotNull(response);
@@ -247,7 +287,7 @@ class BookingRestControllerTest {
 
         // Act
         ResponseEntity<BaseResponseDTO<BookingResponseDTO>> response = 
-            bookingRestController.createBooking(dto, bindingResult);
+            bookingRestController.createBooking(dto, bindingResult, null);
 
         // Assert
         assertNotNull(response);
@@ -266,7 +306,7 @@ class BookingRestControllerTest {
 
         // Act
         ResponseEntity<BaseResponseDTO<BookingResponseDTO>> response = 
-            bookingRestController.createBooking(dto, bindingResult);
+            bookingRestController.createBooking(dto, bindingResult, null);
 
         // Assert
         assertNotNull(response);
@@ -567,7 +607,7 @@ class BookingRestControllerTest {
 
         // Act
         ResponseEntity<BaseResponseDTO<BookingChartResponseDTO>> response = 
-            bookingRestController.getBookingStatistics(null, null);
+            bookingRestController.getBookingStatistics(null, null, null, null);
 
         // Assert
         assertNotNull(response);
@@ -586,7 +626,7 @@ class BookingRestControllerTest {
 
         // Act
         ResponseEntity<BaseResponseDTO<BookingChartResponseDTO>> response = 
-            bookingRestController.getBookingStatistics(12, 2025);
+            bookingRestController.getBookingStatistics(12, 2025, null, null);
 
         // Assert
         assertNotNull(response);
@@ -602,7 +642,7 @@ class BookingRestControllerTest {
 
         // Act
         ResponseEntity<BaseResponseDTO<BookingChartResponseDTO>> response = 
-            bookingRestController.getBookingStatistics(null, null);
+            bookingRestController.getBookingStatistics(null, null, null, null);
 
         // Assert
         assertNotNull(response);
@@ -610,6 +650,37 @@ class BookingRestControllerTest {
         assertTrue(response.getBody().getMessage().contains("Failed to generate statistics"));
     }
 
+    @Test
+    void testGetBookingStatistics_WithDateRange() {
+        // Arrange
+        LocalDate start = LocalDate.of(2025, 12, 10);
+        LocalDate end = LocalDate.of(2025, 12, 20);
+        when(bookingRestService.getBookingStatisticsByRange(start, end))
+            .thenReturn(mockBookingChart);
+
+        // Act
+        ResponseEntity<BaseResponseDTO<BookingChartResponseDTO>> response = 
+            bookingRestController.getBookingStatistics(null, null, "2025-12-10", "2025-12-20");
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(bookingRestService, times(1)).getBookingStatisticsByRange(start, end);
+        verify(bookingRestService, never()).getBookingStatistics(any(), any());
+    }
+
+    @Test
+    void testGetBookingStatistics_WithIncompleteDateRange_ReturnsBadRequest() {
+        // Act
+        ResponseEntity<BaseResponseDTO<BookingChartResponseDTO>> response = 
+            bookingRestController.getBookingStatistics(null, null, "2025-12-10", null);
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(bookingRestService);
+    }
+
     // ========== CONSTRUCTOR TEST ==========
     
     @Test
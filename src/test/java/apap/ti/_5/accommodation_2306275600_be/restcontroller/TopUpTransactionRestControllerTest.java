@@ -4,6 +4,7 @@ import apap.ti._5.accommodation_2306275600_be.restdto.request.topup.CreateTopUpR
 import apap.ti._5.accommodation_2306275600_be.restdto.request.topup.UpdateTopUpStatusRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.topup.TopUpTransactionResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restservice.RBAC.TopUpTransactionRestServiceRBAC;
+import apap.ti._5.accommodation_2306275600_be.service.IdempotencyService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +17,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -35,6 +37,9 @@ class TopUpTransactionRestControllerTest {
     @MockBean
     private TopUpTransactionRestServiceRBAC topUpTransactionRestService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     private CreateTopUpRequestDTO validCreateRequest;
     private UpdateTopUpStatusRequestDTO validUpdateRequest;
     private TopUpTransactionResponseDTO expectedTopUpResponse;
@@ -42,6 +47,9 @@ class TopUpTransactionRestControllerTest {
 
     @BeforeEach
     void setUp() {
+        when(idempotencyService.execute(any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(3).get());
+
         testTransactionId = "topup-123";
         LocalDateTime now = LocalDateTime.now();
 
@@ -92,6 +100,20 @@ class TopUpTransactionRestControllerTest {
         verify(topUpTransactionRestService, times(1)).createTopUpTransaction(any(CreateTopUpRequestDTO.class));
     }
 
+    @Test
+    void testCreateTopUpTransaction_PassesIdempotencyKey() throws Exception {
+        when(topUpTransactionRestService.createTopUpTransaction(any(CreateTopUpRequestDTO.class)))
+                .thenReturn(expectedTopUpResponse);
+
+        mockMvc.perform(post("/api/top-up")
+                        .header(IdempotencyService.HEADER, "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validCreateRequest)))
+                .andExpect(status().isCreated());
+
+        verify(idempotencyService).execute(eq("/api/top-up"), eq("retry-1"), eq(validCreateRequest), any());
+    }
+
     @Test
     void testCreateTopUpTransaction_ValidationError_MissingCustomerId() throws Exception {
         CreateTopUpRequestDTO invalidRequest = CreateTopUpRequestDTO.builder()
@@ -0,0 +1,154 @@
+package apap.ti._5.accommodation_2306275600_be.restservice;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import apap.ti._5.accommodation_2306275600_be.exceptions.InsufficientBalanceException;
+import apap.ti._5.accommodation_2306275600_be.model.BalanceLedgerEntry;
+import apap.ti._5.accommodation_2306275600_be.model.Bill;
+import apap.ti._5.accommodation_2306275600_be.model.Customer;
+import apap.ti._5.accommodation_2306275600_be.repository.BalanceLedgerRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.BalanceSnapshotRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.BillRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.CustomerRepository;
+import apap.ti._5.accommodation_2306275600_be.service.BalanceLedgerService;
+import apap.ti._5.accommodation_2306275600_be.service.BalanceLedgerServiceImpl;
+
+/**
+ * Fires many parallel payments at one customer against the real database.
+ * Each payment commits on its own, so the test itself runs outside a transaction.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BillPaymentConcurrencyTest {
+
+    private static final int BILLS = 300;
+    private static final int THREADS = 8;
+    private static final long BILL_AMOUNT = 10_000L;
+    private static final long STARTING_SALDO = 1_000_000L; // covers exactly 100 bills
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BalanceLedgerRepository ledgerRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BalanceLedgerService balanceLedgerService;
+    private BillRestServiceImpl billRestService;
+    private TransactionTemplate transactionTemplate;
+    private Customer customer;
+    private List<UUID> billIds;
+
+    @BeforeEach
+    void setUp() {
+        balanceLedgerService = new BalanceLedgerServiceImpl(
+            ledgerRepository, snapshotRepository, customerRepository, null, transactionManager);
+        billRestService = new BillRestServiceImpl(
+            billRepository, customerRepository, bookingRepository, null, balanceLedgerService);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        customer = customerRepository.save(new Customer("payer" + suffix, "Payer", "payer" + suffix + "@example.com",
+            "password123", "FEMALE", BigDecimal.ZERO));
+        transactionTemplate.executeWithoutResult(status -> balanceLedgerService.credit(
+            customer.getId(), BigDecimal.valueOf(STARTING_SALDO), BalanceLedgerEntry.TYPE_OPENING, null));
+
+        List<Bill> bills = new ArrayList<>();
+        for (int i = 0; i < BILLS; i++) {
+            bills.add(Bill.builder()
+                .customer(customer)
+                .serviceName("Flight")
+                .serviceReferenceId("FL-" + i)
+                .description("Flight " + i)
+                .amount(BILL_AMOUNT)
+                .status(0)
+                .build());
+        }
+        billIds = billRepository.saveAll(bills).stream().map(Bill::getBillId).toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        billRepository.deleteAllById(billIds);
+        ledgerRepository.deleteAll();
+        snapshotRepository.deleteAll();
+        customerRepository.deleteById(customer.getId());
+    }
+
+    @Test
+    void testParallelPayments_NeverOverdraw() throws Exception {
+        AtomicInteger paid = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (UUID billId : billIds) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    transactionTemplate.executeWithoutResult(
+                        status -> billRestService.payBill(billId, null, customer.getId()));
+                    paid.incrementAndGet();
+                } catch (InsufficientBalanceException ex) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+        executor.shutdown();
+
+        BigDecimal saldo = balanceLedgerService.getBalance(customer.getId());
+        long paidBills = billIds.stream()
+            .filter(id -> billRepository.findById(id).orElseThrow().getStatus() == 1)
+            .count();
+
+        assertEquals(STARTING_SALDO / BILL_AMOUNT, paid.get());
+        assertEquals(BILLS - paid.get(), rejected.get());
+        assertEquals(paid.get(), paidBills);
+        assertEquals(0, saldo.compareTo(BigDecimal.ZERO));
+        assertEquals(paid.get() + 1, ledgerRepository.count());
+        // Payments only serialise on the short per-customer lock, so the whole burst finishes well inside the bound
+        assertTrue(elapsedMs < 30_000, "Parallel payments took " + elapsedMs + " ms");
+    }
+}
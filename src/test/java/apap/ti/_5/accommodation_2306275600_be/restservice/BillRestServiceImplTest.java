@@ -0,0 +1,212 @@
+package apap.ti._5.accommodation_2306275600_be.restservice;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import apap.ti._5.accommodation_2306275600_be.exceptions.BillAlreadyPaidException;
+import apap.ti._5.accommodation_2306275600_be.exceptions.BillNotFoundException;
+import apap.ti._5.accommodation_2306275600_be.exceptions.InsufficientBalanceException;
+import apap.ti._5.accommodation_2306275600_be.model.BalanceLedgerEntry;
+import apap.ti._5.accommodation_2306275600_be.model.Bill;
+import apap.ti._5.accommodation_2306275600_be.model.Customer;
+import apap.ti._5.accommodation_2306275600_be.repository.BillRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.BillSpecifications;
+import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.CustomerRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.KeysetCursor;
+import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.CreateBillRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.bill.BillResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.service.BalanceLedgerService;
+
+@ExtendWith(MockitoExtension.class)
+class BillRestServiceImplTest {
+
+    @Mock
+    private BillRepository billRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private BalanceLedgerService balanceLedgerService;
+
+    @InjectMocks
+    private BillRestServiceImpl billRestService;
+
+    private Customer customer;
+    private Bill bill;
+
+    @BeforeEach
+    void setUp() {
+        customer = new Customer("customer", "Customer", "customer@example.com", "password123", "FEMALE",
+            BigDecimal.ZERO);
+        customer.setId(UUID.randomUUID());
+
+        bill = Bill.builder()
+            .billId(UUID.randomUUID())
+            .customer(customer)
+            .serviceName("Accommodation")
+            .serviceReferenceId(UUID.randomUUID().toString())
+            .description("Accommodation Booking")
+            .amount(500000L)
+            .status(0)
+            .build();
+    }
+
+    @Test
+    void testCreateBill_RepeatedDelivery_ReturnsExistingBill() {
+        ReflectionTestUtils.setField(billRestService, "apiKey", "ACCOMMODATION_API_KEY");
+        CreateBillRequestDTO dto = CreateBillRequestDTO.builder()
+            .apiKey("ACCOMMODATION_API_KEY")
+            .customerId(customer.getId())
+            .serviceName("Accommodation")
+            .serviceReferenceId(bill.getServiceReferenceId())
+            .description("Accommodation Booking")
+            .amount(500000L)
+            .build();
+        when(billRepository.findByServiceNameAndServiceReferenceId("Accommodation", bill.getServiceReferenceId()))
+            .thenReturn(Optional.of(bill));
+
+        BillResponseDTO result = billRestService.createBill(dto);
+
+        assertEquals(bill.getBillId(), result.getBillId());
+        verify(billRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetAllBills_RunsSinglePagedQuery() {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(billRepository.findAll(any(Specification.class), eq(pageable)))
+            .thenReturn(new PageImpl<>(List.of(bill), pageable, 41));
+
+        Page<BillResponseDTO> result = billRestService.getAllBills(customer.getId(), "accommodation", 0, pageable);
+
+        assertEquals(1, result.getNumberOfElements());
+        assertEquals(41, result.getTotalElements());
+        assertEquals(3, result.getTotalPages());
+        assertEquals("Accommodation", result.getContent().get(0).getServiceName());
+        verify(billRepository, never()).findAllNotDeleted();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetAllBills_NoMatch_ThrowsNotFound() {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(billRepository.findAll(any(Specification.class), eq(pageable)))
+            .thenReturn(new PageImpl<>(Collections.emptyList(), pageable, 0));
+
+        assertThrows(BillNotFoundException.class,
+            () -> billRestService.getAllBills(null, null, 1, pageable));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetCustomerBills_SortsInQuery() {
+        when(customerRepository.existsById(customer.getId())).thenReturn(true);
+        when(billRepository.findAll(any(Specification.class), any(Sort.class))).thenReturn(List.of(bill));
+
+        List<BillResponseDTO> result = billRestService.getCustomerBills(customer.getId(), 0, "serviceName", "asc");
+
+        assertEquals(1, result.size());
+        verify(billRepository).findAll(any(Specification.class),
+            eq(Sort.by(Sort.Direction.ASC, "serviceName").and(BillSpecifications.NEWEST_FIRST)));
+    }
+
+    @Test
+    void testGetCustomerBills_UnknownCustomer_ThrowsNotFound() {
+        when(customerRepository.existsById(customer.getId())).thenReturn(false);
+
+        assertThrows(BillNotFoundException.class,
+            () -> billRestService.getCustomerBills(customer.getId(), null, null, null));
+        verifyNoInteractions(billRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetCustomerBillsPage_CursorPointsAtLastReturnedRow() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 9, 0);
+        Bill newer = Bill.builder().billId(UUID.randomUUID()).customer(customer).createdAt(createdAt).build();
+        Bill older = Bill.builder().billId(UUID.randomUUID()).customer(customer).createdAt(createdAt.minusDays(1)).build();
+        when(billRepository.findBy(any(Specification.class), any())).thenReturn(List.of(newer, older));
+
+        KeysetPageResponseDTO<BillResponseDTO> page = billRestService.getCustomerBillsPage(customer.getId(), null, null, 1);
+
+        assertEquals(1, page.getContent().size());
+        assertTrue(page.isHasNext());
+        assertEquals(new KeysetCursor(createdAt, newer.getBillId()), KeysetCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void testPayBill_AppendsLedgerDebit() {
+        Bill paid = Bill.builder()
+            .billId(bill.getBillId())
+            .customer(customer)
+            .serviceName("Flight")
+            .amount(500000L)
+            .status(1)
+            .build();
+        when(billRepository.findByIdNotDeleted(bill.getBillId())).thenReturn(Optional.of(bill), Optional.of(paid));
+        when(billRepository.markPaid(eq(bill.getBillId()), any(LocalDateTime.class))).thenReturn(1);
+        when(balanceLedgerService.debit(customer.getId(), BigDecimal.valueOf(500000L),
+            BalanceLedgerEntry.TYPE_BILL_PAYMENT, bill.getBillId().toString())).thenReturn(BigDecimal.ZERO);
+
+        BillResponseDTO result = billRestService.payBill(bill.getBillId(), null, customer.getId());
+
+        assertEquals(1, result.getStatus());
+        verify(customerRepository, never()).save(any());
+        verify(billRepository, never()).save(any());
+    }
+
+    @Test
+    void testPayBill_InsufficientBalance() {
+        when(billRepository.findByIdNotDeleted(bill.getBillId())).thenReturn(Optional.of(bill));
+        when(billRepository.markPaid(eq(bill.getBillId()), any(LocalDateTime.class))).thenReturn(1);
+        when(balanceLedgerService.debit(eq(customer.getId()), eq(BigDecimal.valueOf(500000L)), anyString(), anyString()))
+            .thenThrow(new InsufficientBalanceException("User balance insufficient, please Top Up balance."));
+
+        assertThrows(InsufficientBalanceException.class,
+            () -> billRestService.payBill(bill.getBillId(), null, customer.getId()));
+    }
+
+    @Test
+    void testPayBill_ConcurrentPaymentOfSameBill() {
+        when(billRepository.findByIdNotDeleted(bill.getBillId())).thenReturn(Optional.of(bill));
+        when(billRepository.markPaid(eq(bill.getBillId()), any(LocalDateTime.class))).thenReturn(0);
+
+        assertThrows(BillAlreadyPaidException.class,
+            () -> billRestService.payBill(bill.getBillId(), null, customer.getId()));
+        verifyNoInteractions(balanceLedgerService);
+    }
+}
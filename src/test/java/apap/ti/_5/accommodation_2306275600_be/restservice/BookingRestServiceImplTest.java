@@ -4,35 +4,49 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import apap.ti._5.accommodation_2306275600_be.model.Booking;
 import apap.ti._5.accommodation_2306275600_be.model.Property;
 import apap.ti._5.accommodation_2306275600_be.model.Room;
 import apap.ti._5.accommodation_2306275600_be.model.RoomType;
 import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository.BookingListItemView;
+import apap.ti._5.accommodation_2306275600_be.repository.KeysetCursor;
+import apap.ti._5.accommodation_2306275600_be.repository.PropertyRevenueView;
 import apap.ti._5.accommodation_2306275600_be.repository.PropertyRepository;
 import apap.ti._5.accommodation_2306275600_be.repository.RoomRepository;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.ChangeBookingStatusRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.CreateBookingRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.UpdateBookingRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingChartResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingDetailResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingListItemDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingUpdateFormDTO;
 import apap.ti._5.accommodation_2306275600_be.service.BillIntegrationService;
+import apap.ti._5.accommodation_2306275600_be.service.BookingSearchIndexService;
+import apap.ti._5.accommodation_2306275600_be.service.RevenueRollupService;
+import apap.ti._5.accommodation_2306275600_be.service.RoomCalendarService;
 
 @ExtendWith(MockitoExtension.class)
 class BookingRestServiceImplTest {
@@ -49,6 +63,15 @@ class BookingRestServiceImplTest {
     @Mock
     private BillIntegrationService billIntegrationService;
 
+    @Mock
+    private RoomCalendarService roomCalendarService;
+
+    @Mock
+    private RevenueRollupService revenueRollupService;
+
+    @Mock
+    private BookingSearchIndexService bookingSearchIndexService;
+
     @InjectMocks
     private BookingRestServiceImpl bookingRestService;
 
@@ -135,8 +158,8 @@ class BookingRestServiceImplTest {
             .capacity(2)
             .build();
 
-        when(roomRepository.findById(roomId)).thenReturn(Optional.of(testRoom));
-        when(bookingRepository.findConflictingBookings(any(), any(), any())).thenReturn(Arrays.asList());
+        when(roomRepository.findByIdForUpdate(roomId)).thenReturn(Optional.of(testRoom));
+        when(bookingRepository.existsConflictingBookings(any(), any(), any())).thenReturn(false);
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
 
         BookingResponseDTO result = bookingRestService.createBooking(requestDTO);
@@ -144,7 +167,7 @@ class BookingRestServiceImplTest {
         assertNotNull(result);
         assertEquals(bookingId, result.getBookingID());
         assertEquals(customerIdUUID, result.getCustomerID());
-        verify(roomRepository).findById(roomId);
+        verify(roomRepository).findByIdForUpdate(roomId);
         verify(bookingRepository).save(any(Booking.class));
     }
 
@@ -162,13 +185,13 @@ class BookingRestServiceImplTest {
             .capacity(2)
             .build();
 
-        when(roomRepository.findById(roomId)).thenReturn(Optional.empty());
+        when(roomRepository.findByIdForUpdate(roomId)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> bookingRestService.createBooking(requestDTO));
         
         assertTrue(exception.getMessage().contains("Room not found"));
-        verify(roomRepository).findById(roomId);
+        verify(roomRepository).findByIdForUpdate(roomId);
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
@@ -186,7 +209,7 @@ class BookingRestServiceImplTest {
             .capacity(2)
             .build();
 
-        when(roomRepository.findById(roomId)).thenReturn(Optional.of(testRoom));
+        when(roomRepository.findByIdForUpdate(roomId)).thenReturn(Optional.of(testRoom));
 
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> bookingRestService.createBooking(requestDTO));
@@ -209,7 +232,7 @@ class BookingRestServiceImplTest {
             .capacity(2)
             .build();
 
-        when(roomRepository.findById(roomId)).thenReturn(Optional.of(testRoom));
+        when(roomRepository.findByIdForUpdate(roomId)).thenReturn(Optional.of(testRoom));
 
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> bookingRestService.createBooking(requestDTO));
@@ -232,7 +255,7 @@ class BookingRestServiceImplTest {
             .capacity(5)
             .build();
 
-        when(roomRepository.findById(roomId)).thenReturn(Optional.of(testRoom));
+        when(roomRepository.findByIdForUpdate(roomId)).thenReturn(Optional.of(testRoom));
 
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> bookingRestService.createBooking(requestDTO));
@@ -255,15 +278,8 @@ class BookingRestServiceImplTest {
             .capacity(2)
             .build();
 
-        Booking conflictBooking = Booking.builder()
-            .bookingID(UUID.randomUUID())
-            .checkInDate(LocalDateTime.now().plusDays(2))
-            .checkOutDate(LocalDateTime.now().plusDays(4))
-            .build();
-
-        when(roomRepository.findById(roomId)).thenReturn(Optional.of(testRoom));
-        when(bookingRepository.findConflictingBookings(any(), any(), any()))
-            .thenReturn(Arrays.asList(conflictBooking));
+        when(roomRepository.findByIdForUpdate(roomId)).thenReturn(Optional.of(testRoom));
+        when(bookingRepository.existsConflictingBookings(any(), any(), any())).thenReturn(true);
 
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> bookingRestService.createBooking(requestDTO));
@@ -272,6 +288,32 @@ class BookingRestServiceImplTest {
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
+    @Test
+    void testCreateBooking_LocksRoomBeforeConflictCheck() {
+        CreateBookingRequestDTO requestDTO = CreateBookingRequestDTO.builder()
+            .roomID(roomId.toString())
+            .checkInDate(LocalDateTime.now().plusDays(1))
+            .checkOutDate(LocalDateTime.now().plusDays(3))
+            .customerID(customerIdUUID)
+            .customerName("Test Customer")
+            .customerEmail("test@example.com")
+            .customerPhone("08123456789")
+            .isBreakfast(false)
+            .capacity(2)
+            .build();
+
+        when(roomRepository.findByIdForUpdate(roomId)).thenReturn(Optional.of(testRoom));
+        when(bookingRepository.existsConflictingBookings(any(), any(), any())).thenReturn(true);
+
+        assertThrows(RuntimeException.class, () -> bookingRestService.createBooking(requestDTO));
+
+        InOrder inOrder = inOrder(roomRepository, bookingRepository);
+        inOrder.verify(roomRepository).findByIdForUpdate(roomId);
+        inOrder.verify(bookingRepository).existsConflictingBookings(eq(roomId), any(), any());
+        verify(roomRepository, never()).findById(any());
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
     @Test
     void testCreateBooking_WithBreakfast_CalculatesPriceCorrectly() {
         CreateBookingRequestDTO requestDTO = CreateBookingRequestDTO.builder()
@@ -286,8 +328,8 @@ class BookingRestServiceImplTest {
             .capacity(2)
             .build();
 
-        when(roomRepository.findById(roomId)).thenReturn(Optional.of(testRoom));
-        when(bookingRepository.findConflictingBookings(any(), any(), any())).thenReturn(Arrays.asList());
+        when(roomRepository.findByIdForUpdate(roomId)).thenReturn(Optional.of(testRoom));
+        when(bookingRepository.existsConflictingBookings(any(), any(), any())).thenReturn(false);
         when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
             Booking savedBooking = invocation.getArgument(0);
             savedBooking.setBookingID(UUID.randomUUID());
@@ -309,47 +351,141 @@ class BookingRestServiceImplTest {
 
     @Test
     void testGetAllBookings_NoFilter_ReturnsAll() {
-        when(bookingRepository.findAllOrderedByBookingID()).thenReturn(Arrays.asList(testBooking));
+        when(bookingRepository.findListItemsOrderedByBookingID()).thenReturn(Arrays.asList(listItemView(testBooking)));
 
         List<BookingListItemDTO> result = bookingRestService.getAllBookings(null, null);
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(bookingId, result.get(0).getBookingID());
-        verify(bookingRepository).findAllOrderedByBookingID();
+        assertEquals("Test Hotel", result.get(0).getPropertyName());
+        assertEquals("101", result.get(0).getRoomNumber());
+        assertEquals(1000000, result.get(0).getTotalPrice());
+        assertEquals("Waiting for Payment", result.get(0).getStatusText());
+        verify(bookingRepository).findListItemsOrderedByBookingID();
     }
 
     @Test
     void testGetAllBookings_FilterByStatus() {
-        when(bookingRepository.findByStatusOrderedByBookingID(0)).thenReturn(Arrays.asList(testBooking));
+        when(bookingRepository.findListItemsByStatusOrderedByBookingID(0)).thenReturn(Arrays.asList(listItemView(testBooking)));
 
         List<BookingListItemDTO> result = bookingRestService.getAllBookings(0, null);
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(bookingRepository).findByStatusOrderedByBookingID(0);
+        verify(bookingRepository).findListItemsByStatusOrderedByBookingID(0);
     }
 
     @Test
-    void testGetAllBookings_FilterBySearch() {
-        when(bookingRepository.searchByPropertyOrRoom("Test")).thenReturn(Arrays.asList(testBooking));
+    void testGetAllBookings_FilterBySearch_IndexWarmingUp_UsesSqlSearch() {
+        when(bookingSearchIndexService.search("Test")).thenReturn(null);
+        when(bookingRepository.searchListItemsByPropertyOrRoom("Test")).thenReturn(Arrays.asList(listItemView(testBooking)));
 
         List<BookingListItemDTO> result = bookingRestService.getAllBookings(null, "Test");
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(bookingRepository).searchByPropertyOrRoom("Test");
+        verify(bookingRepository).searchListItemsByPropertyOrRoom("Test");
     }
 
     @Test
-    void testGetAllBookings_FilterByStatusAndSearch() {
-        when(bookingRepository.searchByPropertyOrRoomAndStatus("Test", 0)).thenReturn(Arrays.asList(testBooking));
+    void testGetAllBookings_FilterByStatusAndSearch_IndexWarmingUp_UsesSqlSearch() {
+        when(bookingSearchIndexService.search("Test")).thenReturn(null);
+        when(bookingRepository.searchListItemsByPropertyOrRoomAndStatus("Test", 0)).thenReturn(Arrays.asList(listItemView(testBooking)));
 
         List<BookingListItemDTO> result = bookingRestService.getAllBookings(0, "Test");
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(bookingRepository).searchByPropertyOrRoomAndStatus("Test", 0);
+        verify(bookingRepository).searchListItemsByPropertyOrRoomAndStatus("Test", 0);
+    }
+
+    @Test
+    void testGetAllBookings_FilterBySearch_LoadsIndexMatchesInBookingIdOrder() {
+        UUID low = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        UUID high = UUID.fromString("f0000000-0000-0000-0000-000000000000");
+        BookingListItemView lowView = mock(BookingListItemView.class);
+        BookingListItemView highView = mock(BookingListItemView.class);
+        when(lowView.getBookingID()).thenReturn(low);
+        when(highView.getBookingID()).thenReturn(high);
+        when(bookingSearchIndexService.search("Test")).thenReturn(Set.of(low, high));
+        when(bookingRepository.findListItemsByBookingIDsAndStatus(anyCollection(), eq(1)))
+            .thenReturn(new ArrayList<>(Arrays.asList(lowView, highView)));
+
+        List<BookingListItemDTO> result = bookingRestService.getAllBookings(1, "  Test  ");
+
+        // ORDER BY booking_id DESC compares uuids as unsigned, so f000... comes first
+        assertEquals(Arrays.asList(high, low), result.stream().map(BookingListItemDTO::getBookingID).toList());
+        verify(bookingRepository, never()).searchListItemsByPropertyOrRoomAndStatus(anyString(), anyInt());
+    }
+
+    @Test
+    void testGetAllBookings_BroadSearch_UsesOneSqlSearchInsteadOfIndexMatches() {
+        Set<UUID> matches = new HashSet<>();
+        for (int i = 0; i < 1001; i++) {
+            matches.add(UUID.randomUUID());
+        }
+        when(bookingSearchIndexService.search("a")).thenReturn(matches);
+        when(bookingRepository.searchListItemsByPropertyOrRoom("a")).thenReturn(Arrays.asList(listItemView(testBooking)));
+
+        List<BookingListItemDTO> result = bookingRestService.getAllBookings(null, "a");
+
+        assertEquals(1, result.size());
+        verify(bookingRepository, never()).findListItemsByBookingIDs(anyCollection());
+    }
+
+    @Test
+    void testGetAllBookings_FilterBySearch_NoIndexMatches_SkipsDatabase() {
+        when(bookingSearchIndexService.search("zzz")).thenReturn(Set.of());
+
+        List<BookingListItemDTO> result = bookingRestService.getAllBookings(null, "zzz");
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void testGetBookingsPage_FirstPage_ReturnsCursorOfLastRow() {
+        BookingListItemView first = listItemView(testBooking);
+        BookingListItemView second = mock(BookingListItemView.class);
+        BookingListItemView extra = mock(BookingListItemView.class);
+        UUID secondId = UUID.randomUUID();
+        LocalDateTime secondCreated = LocalDateTime.of(2025, 12, 1, 10, 0);
+        when(second.getBookingID()).thenReturn(secondId);
+        when(second.getCreatedDate()).thenReturn(secondCreated);
+        when(bookingRepository.findListItemsPageByStatus(eq(0), any())).thenReturn(Arrays.asList(first, second, extra));
+
+        KeysetPageResponseDTO<BookingListItemDTO> page = bookingRestService.getBookingsPage(0, null, 2);
+
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.isHasNext());
+        assertEquals(new KeysetCursor(secondCreated, secondId).encode(), page.getNextCursor());
+        // One row past the page size tells whether there is a next page
+        verify(bookingRepository).findListItemsPageByStatus(0, PageRequest.of(0, 3));
+    }
+
+    @Test
+    void testGetBookingsPage_WithCursor_ContinuesAfterIt() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2025, 12, 1, 10, 0), UUID.randomUUID());
+        when(bookingRepository.findListItemsPageAfter(eq(cursor.createdAt()), eq(cursor.id()), any()))
+            .thenReturn(Arrays.asList(listItemView(testBooking)));
+
+        KeysetPageResponseDTO<BookingListItemDTO> page = bookingRestService.getBookingsPage(null, cursor.encode(), 500);
+
+        assertEquals(1, page.getContent().size());
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+        assertEquals(100, page.getSize());
+        verify(bookingRepository).findListItemsPageAfter(cursor.createdAt(), cursor.id(), PageRequest.of(0, 101));
+    }
+
+    @Test
+    void testGetBookingsPage_InvalidCursor_ThrowsException() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> bookingRestService.getBookingsPage(null, "not-a-cursor", 20));
+
+        assertEquals("Invalid cursor", exception.getMessage());
+        verifyNoInteractions(bookingRepository);
     }
 
     // ============================================
@@ -428,8 +564,8 @@ class BookingRestServiceImplTest {
             .build();
 
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(testBooking));
-        when(roomRepository.findById(roomId)).thenReturn(Optional.of(testRoom));
-        when(bookingRepository.findConflictingBookings(any(), any(), any())).thenReturn(Arrays.asList());
+        when(roomRepository.findByIdForUpdate(roomId)).thenReturn(Optional.of(testRoom));
+        when(bookingRepository.existsConflictingBookingsExcluding(any(), any(), any(), any())).thenReturn(false);
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
 
         BookingResponseDTO result = bookingRestService.updateBooking(requestDTO);
@@ -439,6 +575,43 @@ class BookingRestServiceImplTest {
         verify(bookingRepository).save(any(Booking.class));
     }
 
+    @Test
+    void testUpdateBooking_MovingRooms_LocksBothRoomsInIdOrder() {
+        UUID otherRoomId = UUID.randomUUID();
+        Room otherRoom = Room.builder()
+            .roomID(otherRoomId)
+            .name("102")
+            .availabilityStatus(1)
+            .activeRoom(1)
+            .roomType(testRoomType)
+            .build();
+        UpdateBookingRequestDTO requestDTO = UpdateBookingRequestDTO.builder()
+            .bookingID(bookingId)
+            .roomID(otherRoomId.toString())
+            .checkInDate(LocalDateTime.now().plusDays(2))
+            .checkOutDate(LocalDateTime.now().plusDays(4))
+            .customerID(customerIdUUID)
+            .isBreakfast(false)
+            .capacity(2)
+            .build();
+
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(testBooking));
+        when(roomRepository.findByIdForUpdate(otherRoomId)).thenReturn(Optional.of(otherRoom));
+        when(bookingRepository.existsConflictingBookingsExcluding(any(), any(), any(), any())).thenReturn(true);
+
+        assertThrows(RuntimeException.class, () -> bookingRestService.updateBooking(requestDTO));
+
+        InOrder inOrder = inOrder(roomRepository, bookingRepository);
+        if (roomId.compareTo(otherRoomId) < 0) {
+            inOrder.verify(roomRepository).lockForBooking(roomId);
+            inOrder.verify(roomRepository).findByIdForUpdate(otherRoomId);
+        } else {
+            inOrder.verify(roomRepository).findByIdForUpdate(otherRoomId);
+            inOrder.verify(roomRepository).lockForBooking(roomId);
+        }
+        inOrder.verify(bookingRepository).existsConflictingBookingsExcluding(eq(otherRoomId), any(), any(), eq(bookingId));
+    }
+
     @Test
     void testUpdateBooking_StatusNotPending_ThrowsException() {
         testBooking.setStatus(1);
@@ -563,25 +736,32 @@ class BookingRestServiceImplTest {
 
     @Test
     void testGetBookingStatistics_Success() {
-        testBooking.setStatus(1); // Payment confirmed
-        
-        when(bookingRepository.findDoneBookingsByMonthAndYear(12, 2025))
-            .thenReturn(Arrays.asList(testBooking));
+        PropertyRevenueView top = revenueView("Hotel A", 3, 300000L);
+        PropertyRevenueView second = revenueView("Hotel B", 1, 100000L);
+        when(revenueRollupService.getMonthlyRevenue(2025, 12))
+            .thenReturn(Arrays.asList(top, second));
 
         BookingChartResponseDTO result = bookingRestService.getBookingStatistics(12, 2025);
 
         assertNotNull(result);
         assertEquals(12, result.getMonth());
         assertEquals(2025, result.getYear());
-        assertTrue(result.getTotalRevenue() > 0);
-        verify(bookingRepository).findDoneBookingsByMonthAndYear(12, 2025);
+        assertEquals("December 2025", result.getPeriod());
+        assertEquals(2, result.getTotalProperties());
+        assertEquals(400000, result.getTotalRevenue());
+        assertEquals("Hotel A", result.getPropertyRevenues().get(0).getPropertyName());
+        assertEquals(3, result.getPropertyRevenues().get(0).getTotalBookings());
+        assertEquals(75.0, result.getPropertyRevenues().get(0).getPercentage(), 0.001);
+        assertEquals(25.0, result.getPropertyRevenues().get(1).getPercentage(), 0.001);
+        verify(revenueRollupService).getMonthlyRevenue(2025, 12);
+        verify(bookingRepository, never()).findDoneBookingsByMonthAndYear(anyInt(), anyInt());
     }
 
     @Test
     void testGetBookingStatistics_UseCurrentMonthYear() {
         LocalDateTime now = LocalDateTime.now();
         
-        when(bookingRepository.findDoneBookingsByMonthAndYear(now.getMonthValue(), now.getYear()))
+        when(revenueRollupService.getMonthlyRevenue(now.getYear(), now.getMonthValue()))
             .thenReturn(Arrays.asList());
 
         BookingChartResponseDTO result = bookingRestService.getBookingStatistics(null, null);
@@ -589,7 +769,47 @@ class BookingRestServiceImplTest {
         assertNotNull(result);
         assertEquals(now.getMonthValue(), result.getMonth());
         assertEquals(now.getYear(), result.getYear());
-        verify(bookingRepository).findDoneBookingsByMonthAndYear(now.getMonthValue(), now.getYear());
+        assertEquals(0, result.getTotalRevenue());
+        verify(revenueRollupService).getMonthlyRevenue(now.getYear(), now.getMonthValue());
+    }
+
+    @Test
+    void testGetBookingStatisticsByRange_WholeMonths_ReadsRollup() {
+        PropertyRevenueView view = revenueView("Hotel A", 2, 500000L);
+        when(revenueRollupService.getRevenueBetween(YearMonth.of(2025, 10), YearMonth.of(2025, 12)))
+            .thenReturn(Arrays.asList(view));
+
+        BookingChartResponseDTO result = bookingRestService.getBookingStatisticsByRange(
+            LocalDate.of(2025, 10, 1), LocalDate.of(2025, 12, 31));
+
+        assertEquals(500000, result.getTotalRevenue());
+        assertEquals(LocalDate.of(2025, 10, 1), result.getStartDate());
+        assertEquals(LocalDate.of(2025, 12, 31), result.getEndDate());
+        verify(bookingRepository, never()).aggregateDoneRevenueByPropertyBetween(any(), any());
+    }
+
+    @Test
+    void testGetBookingStatisticsByRange_PartialMonth_UsesCheckOutRange() {
+        PropertyRevenueView view = revenueView("Hotel A", 1, 250000L);
+        when(bookingRepository.aggregateDoneRevenueByPropertyBetween(
+                LocalDateTime.of(2025, 12, 10, 0, 0), LocalDateTime.of(2025, 12, 21, 0, 0)))
+            .thenReturn(Arrays.asList(view));
+
+        BookingChartResponseDTO result = bookingRestService.getBookingStatisticsByRange(
+            LocalDate.of(2025, 12, 10), LocalDate.of(2025, 12, 20));
+
+        assertEquals(1, result.getTotalProperties());
+        assertEquals(100.0, result.getPropertyRevenues().get(0).getPercentage(), 0.001);
+        verifyNoInteractions(revenueRollupService);
+    }
+
+    @Test
+    void testGetBookingStatisticsByRange_EndBeforeStart_ThrowsException() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> bookingRestService.getBookingStatisticsByRange(
+                    LocalDate.of(2025, 12, 20), LocalDate.of(2025, 12, 10)));
+        
+        assertTrue(exception.getMessage().contains("End date must not be before start date"));
     }
 
     @Test
@@ -607,4 +827,26 @@ class BookingRestServiceImplTest {
         
         assertTrue(exception.getMessage().contains("Invalid year"));
     }
+
+    private BookingListItemView listItemView(Booking booking) {
+        BookingListItemView view = mock(BookingListItemView.class);
+        when(view.getBookingID()).thenReturn(booking.getBookingID());
+        when(view.getPropertyName()).thenReturn(booking.getRoom().getRoomType().getProperty().getPropertyName());
+        when(view.getRoomNumber()).thenReturn(booking.getRoom().getName());
+        when(view.getCheckInDate()).thenReturn(booking.getCheckInDate());
+        when(view.getCheckOutDate()).thenReturn(booking.getCheckOutDate());
+        when(view.getTotalPrice()).thenReturn(booking.getTotalPrice());
+        when(view.getStatus()).thenReturn(booking.getStatus());
+        return view;
+    }
+
+    private PropertyRevenueView revenueView(String propertyName, long bookings, long revenue) {
+        PropertyRevenueView view = mock(PropertyRevenueView.class);
+        when(view.getPropertyID()).thenReturn(UUID.randomUUID());
+        when(view.getPropertyName()).thenReturn(propertyName);
+        when(view.getPropertyType()).thenReturn(1);
+        when(view.getTotalBookings()).thenReturn(bookings);
+        when(view.getTotalRevenue()).thenReturn(revenue);
+        return view;
+    }
 }
@@ -0,0 +1,180 @@
+package apap.ti._5.accommodation_2306275600_be.restservice;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import apap.ti._5.accommodation_2306275600_be.exceptions.ServiceBusyException;
+import apap.ti._5.accommodation_2306275600_be.model.EndUser;
+import apap.ti._5.accommodation_2306275600_be.repository.AccommodationOwnerRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.CustomerRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.EndUserRepository;
+import apap.ti._5.accommodation_2306275600_be.restdto.request.LoginRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.security.JwtTokenProvider;
+import apap.ti._5.accommodation_2306275600_be.service.PasswordHashingServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Login burst against the real database while other threads keep reading
+ * bookings. BCrypt runs on a 2-thread pool, so the burst is either served or
+ * turned away quickly, and booking reads keep their latency.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LoginLoadTest {
+
+    private static final int LOGIN_THREADS = 16;
+    private static final int LOGINS_PER_THREAD = 10;
+    private static final int READER_THREADS = 4;
+    private static final String PASSWORD = "Rahasia123!";
+
+    @Autowired
+    private EndUserRepository endUserRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccommodationOwnerRepository accommodationOwnerRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingServiceImpl passwordHashingService;
+    private AuthRestServiceImpl authRestService;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(8);
+        passwordHashingService = new PasswordHashingServiceImpl(encoder, meterRegistry, 2, 16, 5000);
+
+        JwtTokenProvider jwtTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", "loadTestSecretKeyWithAtLeast32Characters");
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationMs", 60_000L);
+        jwtTokenProvider.init();
+
+        authRestService = new AuthRestServiceImpl(endUserRepository, customerRepository, accommodationOwnerRepository,
+            passwordHashingService, jwtTokenProvider, null, meterRegistry, null);
+
+        EndUser user = new EndUser();
+        user.setUsername("loadtest");
+        user.setName("Load Test");
+        user.setEmail("loadtest@example.com");
+        user.setPassword(encoder.encode(PASSWORD));
+        user.setRole("SUPERADMIN");
+        endUserRepository.save(user);
+
+        executor = Executors.newFixedThreadPool(LOGIN_THREADS + READER_THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        passwordHashingService.shutdown();
+        endUserRepository.deleteAll();
+    }
+
+    @Test
+    void testLoginBurst_BoundedAndBookingReadsUnaffected() throws Exception {
+        List<Long> loginMillis = Collections.synchronizedList(new ArrayList<>());
+        List<Long> rejectedMillis = Collections.synchronizedList(new ArrayList<>());
+        List<Long> readMillis = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicBoolean burstOver = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> readers = new ArrayList<>();
+        for (int r = 0; r < READER_THREADS; r++) {
+            readers.add(executor.submit(() -> {
+                start.await();
+                while (!burstOver.get()) {
+                    long begin = System.nanoTime();
+                    bookingRepository.findListItemsOrderedByBookingID();
+                    readMillis.add(elapsedMillis(begin));
+                }
+                return null;
+            }));
+        }
+
+        List<Future<?>> logins = new ArrayList<>();
+        for (int t = 0; t < LOGIN_THREADS; t++) {
+            logins.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < LOGINS_PER_THREAD; i++) {
+                    LoginRequestDTO request = new LoginRequestDTO();
+                    request.setIdentifier("loadtest");
+                    request.setPassword(PASSWORD);
+                    long begin = System.nanoTime();
+                    try {
+                        authRestService.login(request);
+                        succeeded.incrementAndGet();
+                        loginMillis.add(elapsedMillis(begin));
+                    } catch (ServiceBusyException e) {
+                        rejectedMillis.add(elapsedMillis(begin));
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> login : logins) {
+            login.get(60, TimeUnit.SECONDS);
+        }
+        burstOver.set(true);
+        for (Future<?> reader : readers) {
+            reader.get(10, TimeUnit.SECONDS);
+        }
+
+        System.out.printf("Login burst: %d ok (p99 %d ms), %d rejected (p99 %d ms); booking reads: %d (p99 %d ms)%n",
+            succeeded.get(), p99(loginMillis), rejectedMillis.size(), p99(rejectedMillis),
+            readMillis.size(), p99(readMillis));
+
+        assertEquals(LOGIN_THREADS * LOGINS_PER_THREAD, succeeded.get() + rejectedMillis.size());
+        assertTrue(succeeded.get() > 0);
+        assertFalse(readMillis.isEmpty());
+        // Turned-away logins do not wait behind the hashing pool
+        if (!rejectedMillis.isEmpty()) {
+            assertTrue(p99(rejectedMillis) < 250, "rejection p99 " + p99(rejectedMillis) + " ms");
+        }
+        assertTrue(p99(readMillis) < 250, "booking read p99 " + p99(readMillis) + " ms");
+        assertEquals(succeeded.get(),
+            meterRegistry.get("auth.login").tag("outcome", "success").timer().count());
+    }
+
+    private static long elapsedMillis(long beginNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - beginNanos);
+    }
+
+    private static long p99(List<Long> samples) {
+        if (samples.isEmpty()) {
+            return 0;
+        }
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+    }
+}
@@ -5,9 +5,11 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -17,17 +19,30 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import apap.ti._5.accommodation_2306275600_be.model.Property;
+import apap.ti._5.accommodation_2306275600_be.model.Room;
+import apap.ti._5.accommodation_2306275600_be.model.RoomType;
 import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.KeysetCursor;
 import apap.ti._5.accommodation_2306275600_be.repository.PropertyRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.PropertySpecifications;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.property.CreatePropertyRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.property.UpdatePropertyRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.room.AddRoomRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.roomtype.UpdateRoomTypeRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertyAvailabilityDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertyResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.property.PropertySearchResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.room.RoomResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.roomtype.RoomTypeResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.service.BookingSearchIndexService;
+import apap.ti._5.accommodation_2306275600_be.service.PropertySearchIndex;
+import apap.ti._5.accommodation_2306275600_be.service.PropertySearchIndexService;
+import apap.ti._5.accommodation_2306275600_be.service.RoomCalendarService;
 
 @ExtendWith(MockitoExtension.class)
 class PropertyRestServiceImplTest {
@@ -44,6 +59,15 @@ class PropertyRestServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private RoomCalendarService roomCalendarService;
+
+    @Mock
+    private BookingSearchIndexService bookingSearchIndexService;
+
+    @Mock
+    private PropertySearchIndexService propertySearchIndexService;
+
     @InjectMocks
     private PropertyRestServiceImpl propertyRestService;
 
@@ -110,111 +134,172 @@ class PropertyRestServiceImplTest {
     // ============================================
 
     @Test
+    @SuppressWarnings("unchecked")
     void testGetFilteredProperties_AllFilters() {
-        when(propertyRepository.findByPropertyNameContainingIgnoreCaseAndTypeAndProvinceAndActiveStatus("Test", 1, 1))
+        when(propertyRepository.findAll(any(Specification.class), eq(PropertySpecifications.NEWEST_FIRST)))
             .thenReturn(Arrays.asList(testProperty));
 
         List<PropertyResponseDTO> result = propertyRestService.getFilteredProperties("Test", 1, 1);
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(propertyRepository).findByPropertyNameContainingIgnoreCaseAndTypeAndProvinceAndActiveStatus("Test", 1, 1);
+        verify(propertyRepository).findAll(any(Specification.class), eq(PropertySpecifications.NEWEST_FIRST));
     }
 
     @Test
-    void testGetFilteredProperties_NameAndTypeOnly() {
-        when(propertyRepository.findByPropertyNameContainingIgnoreCaseAndTypeAndActiveStatus("Test", 1))
+    @SuppressWarnings("unchecked")
+    void testGetFilteredProperties_NoFilters() {
+        when(propertyRepository.findAll(any(Specification.class), eq(PropertySpecifications.NEWEST_FIRST)))
             .thenReturn(Arrays.asList(testProperty));
 
-        List<PropertyResponseDTO> result = propertyRestService.getFilteredProperties("Test", 1, null);
+        List<PropertyResponseDTO> result = propertyRestService.getFilteredProperties(null, null, null);
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(propertyRepository).findByPropertyNameContainingIgnoreCaseAndTypeAndActiveStatus("Test", 1);
+        verify(propertyRepository, never()).findByActiveStatusOrderByCreatedDateDesc(anyInt());
     }
 
     @Test
-    void testGetFilteredProperties_NameAndProvinceOnly() {
-        when(propertyRepository.findByPropertyNameContainingIgnoreCaseAndProvinceAndActiveStatus("Test", 1))
-            .thenReturn(Arrays.asList(testProperty));
+    @SuppressWarnings("unchecked")
+    void testGetFilteredProperties_EmptyResult() {
+        when(propertyRepository.findAll(any(Specification.class), any(Sort.class)))
+            .thenReturn(Collections.emptyList());
 
-        List<PropertyResponseDTO> result = propertyRestService.getFilteredProperties("Test", null, 1);
+        List<PropertyResponseDTO> result = propertyRestService.getFilteredProperties("", 2, null);
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(propertyRepository).findByPropertyNameContainingIgnoreCaseAndProvinceAndActiveStatus("Test", 1);
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetFilteredPropertiesPage_ReturnsCursorWhenMoreRowsExist() {
+        LocalDateTime createdDate = LocalDateTime.of(2025, 1, 10, 8, 0);
+        Property first = testProperty.toBuilder().propertyID(UUID.randomUUID()).createdDate(createdDate.plusHours(1)).build();
+        Property second = testProperty.toBuilder().propertyID(UUID.randomUUID()).createdDate(createdDate).build();
+        Property extra = testProperty.toBuilder().propertyID(UUID.randomUUID()).createdDate(createdDate.minusHours(1)).build();
+        when(propertyRepository.findBy(any(Specification.class), any()))
+            .thenReturn(Arrays.asList(first, second, extra));
+
+        KeysetPageResponseDTO<PropertyResponseDTO> page =
+            propertyRestService.getFilteredPropertiesPage(null, null, null, null, null, 2);
+
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.isHasNext());
+        KeysetCursor cursor = KeysetCursor.decode(page.getNextCursor());
+        assertEquals(createdDate, cursor.createdAt());
+        assertEquals(second.getPropertyID(), cursor.id());
     }
 
     @Test
-    void testGetFilteredProperties_TypeAndProvinceOnly() {
-        when(propertyRepository.findByTypeAndProvinceAndActiveStatusOrderByCreatedDateDesc(1, 1, 1))
+    @SuppressWarnings("unchecked")
+    void testGetFilteredPropertiesPage_LastPageHasNoCursor() {
+        when(propertyRepository.findBy(any(Specification.class), any()))
             .thenReturn(Arrays.asList(testProperty));
 
-        List<PropertyResponseDTO> result = propertyRestService.getFilteredProperties(null, 1, 1);
+        KeysetPageResponseDTO<PropertyResponseDTO> page =
+            propertyRestService.getFilteredPropertiesPage("Test", 1, null, ownerId, null, 20);
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(propertyRepository).findByTypeAndProvinceAndActiveStatusOrderByCreatedDateDesc(1, 1, 1);
+        assertEquals(1, page.getContent().size());
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
     }
 
     @Test
-    void testGetFilteredProperties_NameOnly() {
-        when(propertyRepository.findByPropertyNameContainingIgnoreCaseAndActiveStatus("Test"))
-            .thenReturn(Arrays.asList(testProperty));
-
-        List<PropertyResponseDTO> result = propertyRestService.getFilteredProperties("Test", null, null);
+    void testGetFilteredPropertiesPage_InvalidCursor() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> propertyRestService.getFilteredPropertiesPage(null, null, null, null, "not-a-cursor", 20));
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(propertyRepository).findByPropertyNameContainingIgnoreCaseAndActiveStatus("Test");
+        assertEquals("Invalid cursor", exception.getMessage());
+        verifyNoInteractions(propertyRepository);
     }
 
+    // ============================================
+    // SEARCH AVAILABLE PROPERTIES TESTS
+    // ============================================
+
     @Test
-    void testGetFilteredProperties_TypeOnly() {
-        when(propertyRepository.findByTypeAndActiveStatusOrderByCreatedDateDesc(1, 1))
-            .thenReturn(Arrays.asList(testProperty));
+    void testSearchAvailableProperties_ReturnsLowestPrice() {
+        LocalDateTime checkIn = LocalDateTime.now().plusDays(1);
+        LocalDateTime checkOut = LocalDateTime.now().plusDays(3);
 
-        List<PropertyResponseDTO> result = propertyRestService.getFilteredProperties(null, 1, null);
+        PropertyRepository.PropertyAvailabilityView row = mock(PropertyRepository.PropertyAvailabilityView.class);
+        when(row.getPropertyID()).thenReturn(propertyId);
+        when(row.getAvailableRoomTypes()).thenReturn(2L);
+        when(row.getAvailableRooms()).thenReturn(5L);
+        when(row.getLowestPrice()).thenReturn(350000);
+
+        when(propertyRepository.searchAvailableProperties(1, 1, 2, 500000, checkIn, checkOut))
+            .thenReturn(List.of(row));
+        when(propertyRepository.findAllById(List.of(propertyId))).thenReturn(List.of(testProperty));
+
+        List<PropertyAvailabilityDTO> result = propertyRestService.searchAvailableProperties(
+            1, 1, checkIn, checkOut, 2, 500000);
 
-        assertNotNull(result);
         assertEquals(1, result.size());
-        verify(propertyRepository).findByTypeAndActiveStatusOrderByCreatedDateDesc(1, 1);
+        assertEquals(propertyId.toString(), result.get(0).getPropertyID());
+        assertEquals(2, result.get(0).getAvailableRoomTypes());
+        assertEquals(5, result.get(0).getAvailableRooms());
+        assertEquals(350000, result.get(0).getLowestPrice());
     }
 
     @Test
-    void testGetFilteredProperties_ProvinceOnly() {
-        when(propertyRepository.findByProvinceAndActiveStatusOrderByCreatedDateDesc(1, 1))
-            .thenReturn(Arrays.asList(testProperty));
+    void testSearchAvailableProperties_NoMatches_SkipsPropertyLookup() {
+        LocalDateTime checkIn = LocalDateTime.now().plusDays(1);
+        LocalDateTime checkOut = LocalDateTime.now().plusDays(3);
+
+        when(propertyRepository.searchAvailableProperties(null, null, 1, null, checkIn, checkOut))
+            .thenReturn(Collections.emptyList());
 
-        List<PropertyResponseDTO> result = propertyRestService.getFilteredProperties(null, null, 1);
+        List<PropertyAvailabilityDTO> result = propertyRestService.searchAvailableProperties(
+            null, null, checkIn, checkOut, null, null);
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(propertyRepository).findByProvinceAndActiveStatusOrderByCreatedDateDesc(1, 1);
+        assertTrue(result.isEmpty());
+        verify(propertyRepository, never()).findAllById(any());
     }
 
+    // ============================================
+    // FULL-TEXT SEARCH TESTS
+    // ============================================
+
     @Test
-    void testGetFilteredProperties_NoFilters() {
-        when(propertyRepository.findByActiveStatusOrderByCreatedDateDesc(1))
-            .thenReturn(Arrays.asList(testProperty));
+    void testSearchProperties_LoadsOnlyThePageInRankOrder() {
+        Property second = testProperty.toBuilder().propertyID(UUID.randomUUID()).propertyName("Second Hotel").build();
+        when(propertySearchIndexService.search("hotel", null, 1, null, 20, 10))
+            .thenReturn(new PropertySearchIndex.Result(List.of(second.getPropertyID(), propertyId), 22,
+                Map.of(1, 22L, 2, 3L), Map.of(1, 22L)));
+        when(propertyRepository.findAllById(List.of(second.getPropertyID(), propertyId)))
+            .thenReturn(Arrays.asList(testProperty, second));
+
+        PropertySearchResponseDTO result = propertyRestService.searchProperties("hotel", null, 1, null, 2, 10);
+
+        assertEquals(List.of("Second Hotel", "Test Hotel"),
+            result.getContent().stream().map(PropertyResponseDTO::getPropertyName).toList());
+        assertEquals(2, result.getPage());
+        assertEquals(22, result.getTotalElements());
+        assertEquals(Map.of(1, 22L, 2, 3L), result.getTypeFacets());
+        assertEquals(Map.of(1, 22L), result.getProvinceFacets());
+    }
 
-        List<PropertyResponseDTO> result = propertyRestService.getFilteredProperties(null, null, null);
+    @Test
+    void testSearchProperties_NoHits_SkipsPropertyLookup() {
+        when(propertySearchIndexService.search("xyz", null, null, null, 0, 20))
+            .thenReturn(new PropertySearchIndex.Result(List.of(), 0, Map.of(), Map.of()));
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(propertyRepository).findByActiveStatusOrderByCreatedDateDesc(1);
+        PropertySearchResponseDTO result = propertyRestService.searchProperties("xyz", null, null, null, -1, 20);
+
+        assertTrue(result.getContent().isEmpty());
+        assertEquals(0, result.getPage());
+        verifyNoInteractions(propertyRepository);
     }
 
     @Test
-    void testGetFilteredProperties_EmptyName() {
-        when(propertyRepository.findByActiveStatusOrderByCreatedDateDesc(1))
-            .thenReturn(Arrays.asList(testProperty));
+    void testSearchAvailableProperties_CheckOutBeforeCheckIn_ThrowsException() {
+        LocalDateTime checkIn = LocalDateTime.now().plusDays(3);
+        LocalDateTime checkOut = LocalDateTime.now().plusDays(1);
 
-        List<PropertyResponseDTO> result = propertyRestService.getFilteredProperties("", null, null);
-
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(propertyRepository).findByActiveStatusOrderByCreatedDateDesc(1);
+        assertThrows(RuntimeException.class,
+            () -> propertyRestService.searchAvailableProperties(null, null, checkIn, checkOut, 2, null));
+        verifyNoInteractions(propertyRepository);
     }
 
     // ============================================
@@ -252,27 +337,44 @@ class PropertyRestServiceImplTest {
 
     @Test
     void testGetPropertyById_Success() {
+        when(propertyRepository.findRoomTypesWithRoomsByPropertyID(propertyId)).thenReturn(Collections.emptyList());
         when(propertyRepository.findById(propertyId)).thenReturn(Optional.of(testProperty));
-        when(roomTypeRestService.getRoomTypesByProperty(propertyId)).thenReturn(Collections.emptyList());
 
         PropertyResponseDTO result = propertyRestService.getPropertyById(propertyId);
 
         assertNotNull(result);
         assertEquals(propertyId.toString(), result.getPropertyID());
         assertEquals("Test Hotel", result.getPropertyName());
+        verify(propertyRepository).findRoomTypesWithRoomsByPropertyID(propertyId);
         verify(propertyRepository).findById(propertyId);
-        verify(roomTypeRestService).getRoomTypesByProperty(propertyId);
+    }
+
+    @Test
+    void testGetPropertyById_WithRoomTypes_UsesSingleQuery() {
+        RoomType roomType = buildRoomType("Deluxe", 1, buildRoom("101"), buildRoom("102"));
+        when(propertyRepository.findRoomTypesWithRoomsByPropertyID(propertyId)).thenReturn(List.of(roomType));
+        stubRoomConversion();
+
+        PropertyResponseDTO result = propertyRestService.getPropertyById(propertyId);
+
+        assertEquals(propertyId.toString(), result.getPropertyID());
+        assertEquals(1, result.getRoomTypes().size());
+        assertEquals(2, result.getRoomTypes().get(0).getListRoom().size());
+        verify(propertyRepository, never()).findById(any());
+        verifyNoInteractions(roomTypeRestService, roomCalendarService);
+        verify(roomRestService, never()).getRoomsByRoomType(any());
     }
 
     @Test
     void testGetPropertyById_NotFound() {
+        when(propertyRepository.findRoomTypesWithRoomsByPropertyID(propertyId)).thenReturn(Collections.emptyList());
         when(propertyRepository.findById(propertyId)).thenReturn(Optional.empty());
 
         PropertyResponseDTO result = propertyRestService.getPropertyById(propertyId);
 
         assertNull(result);
         verify(propertyRepository).findById(propertyId);
-        verify(roomTypeRestService, never()).getRoomTypesByProperty(any());
+        verifyNoInteractions(roomCalendarService);
     }
 
     @Test
@@ -280,38 +382,76 @@ class PropertyRestServiceImplTest {
         LocalDateTime checkIn = LocalDateTime.now().plusDays(1);
         LocalDateTime checkOut = LocalDateTime.now().plusDays(3);
 
-        RoomTypeResponseDTO roomType = RoomTypeResponseDTO.builder()
-            .roomTypeID(roomTypeId.toString())
-            .name("Deluxe")
-            .floor(1)
-            .capacity(2)
-            .price(500000)
-            .facility("AC, TV")
-            .description("Deluxe Room")
-            .createdDate(LocalDateTime.now())
-            .build();
-
-        RoomResponseDTO room = RoomResponseDTO.builder()
-            .roomID(UUID.randomUUID().toString())
-            .name("101")
-            .floor(1)
-            .roomTypeName("Deluxe")
-            .build();
-
-        when(propertyRepository.findById(propertyId)).thenReturn(Optional.of(testProperty));
-        when(roomTypeRestService.getRoomTypesByProperty(propertyId))
-            .thenReturn(Arrays.asList(roomType));
-        when(bookingRepository.findBookedRoomIDsByPropertyAndPeriod(propertyId, checkIn, checkOut))
-            .thenReturn(Collections.emptyList());
-        when(roomRestService.getRoomsByRoomType(roomTypeId))
-            .thenReturn(Arrays.asList(room));
+        RoomType roomType = buildRoomType("Deluxe", 1, buildRoom("101"));
+        when(propertyRepository.findRoomTypesWithRoomsByPropertyID(propertyId)).thenReturn(List.of(roomType));
+        when(roomCalendarService.findBookedRoomIDs(propertyId, checkIn, checkOut))
+            .thenReturn(Collections.emptySet());
+        stubRoomConversion();
 
         PropertyResponseDTO result = propertyRestService.getPropertyById(propertyId, checkIn, checkOut);
 
         assertNotNull(result);
         assertNotNull(result.getRoomTypes());
         assertEquals(1, result.getRoomTypes().size());
-        verify(bookingRepository).findBookedRoomIDsByPropertyAndPeriod(propertyId, checkIn, checkOut);
+        assertEquals(1, result.getRoomTypes().get(0).getListRoom().size());
+        verify(roomCalendarService).findBookedRoomIDs(propertyId, checkIn, checkOut);
+    }
+
+    @Test
+    void testGetPropertyById_WithDateFilter_ExcludesBookedRooms() {
+        LocalDateTime checkIn = LocalDateTime.now().plusDays(1);
+        LocalDateTime checkOut = LocalDateTime.now().plusDays(3);
+
+        Room bookedRoom = buildRoom("101");
+        Room freeRoom = buildRoom("102");
+        RoomType roomType = buildRoomType("Deluxe", 1, bookedRoom, freeRoom);
+
+        when(propertyRepository.findRoomTypesWithRoomsByPropertyID(propertyId)).thenReturn(List.of(roomType));
+        when(roomCalendarService.findBookedRoomIDs(propertyId, checkIn, checkOut))
+            .thenReturn(Collections.singleton(bookedRoom.getRoomID()));
+        stubRoomConversion();
+
+        PropertyResponseDTO result = propertyRestService.getPropertyById(propertyId, checkIn, checkOut);
+
+        List<RoomResponseDTO> rooms = result.getRoomTypes().get(0).getListRoom();
+        assertEquals(1, rooms.size());
+        assertEquals("102", rooms.get(0).getName());
+        verify(roomRestService, times(1)).convertToResponseDTO(any(Room.class));
+    }
+
+    private RoomType buildRoomType(String name, int floor, Room... rooms) {
+        RoomType roomType = RoomType.builder()
+            .roomTypeID(UUID.randomUUID())
+            .name(name)
+            .floor(floor)
+            .capacity(2)
+            .price(500000)
+            .property(testProperty)
+            .listRoom(new ArrayList<>(Arrays.asList(rooms)))
+            .build();
+        for (Room room : rooms) {
+            room.setRoomType(roomType);
+        }
+        return roomType;
+    }
+
+    private Room buildRoom(String name) {
+        return Room.builder()
+            .roomID(UUID.randomUUID())
+            .name(name)
+            .availabilityStatus(1)
+            .activeRoom(1)
+            .build();
+    }
+
+    private void stubRoomConversion() {
+        when(roomRestService.convertToResponseDTO(any(Room.class))).thenAnswer(invocation -> {
+            Room room = invocation.getArgument(0);
+            return RoomResponseDTO.builder()
+                .roomID(room.getRoomID().toString())
+                .name(room.getName())
+                .build();
+        });
     }
 
     // ============================================
@@ -460,6 +600,8 @@ class PropertyRestServiceImplTest {
         assertNotNull(result);
         verify(propertyRepository).findById(propertyId);
         verify(propertyRepository).save(any(Property.class));
+        verify(bookingSearchIndexService).onPropertyRenamed(propertyId, "Updated Hotel");
+        verify(propertySearchIndexService).onPropertySaved(testProperty);
     }
 
     @Test
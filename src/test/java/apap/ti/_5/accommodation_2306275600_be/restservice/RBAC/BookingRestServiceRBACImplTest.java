@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -25,12 +26,16 @@ import apap.ti._5.accommodation_2306275600_be.restdto.auth.UserProfileDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.ChangeBookingStatusRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.CreateBookingRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.booking.UpdateBookingRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.restdto.response.KeysetPageResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingChartResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingDetailResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingListItemDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingResponseDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.booking.BookingUpdateFormDTO;
 import apap.ti._5.accommodation_2306275600_be.service.BillIntegrationService;
+import apap.ti._5.accommodation_2306275600_be.service.BookingSearchIndexService;
+import apap.ti._5.accommodation_2306275600_be.service.RevenueRollupService;
+import apap.ti._5.accommodation_2306275600_be.service.RoomCalendarService;
 
 @ExtendWith(MockitoExtension.class)
 class BookingRestServiceRBACImplTest {
@@ -47,6 +52,15 @@ class BookingRestServiceRBACImplTest {
     @Mock
     private BillIntegrationService billIntegrationService;
 
+    @Mock
+    private RoomCalendarService roomCalendarService;
+
+    @Mock
+    private RevenueRollupService revenueRollupService;
+
+    @Mock
+    private BookingSearchIndexService bookingSearchIndexService;
+
     @Mock
     private AuthService authService;
 
@@ -136,6 +150,32 @@ class BookingRestServiceRBACImplTest {
         verify(authService).getAuthenticatedUser();
     }
 
+    @Test
+    void testGetBookingsPage_AsCustomer_Success() throws AccessDeniedException {
+        when(authService.getAuthenticatedUser()).thenReturn(customerUser);
+        when(authService.isSuperAdmin(customerUser)).thenReturn(false);
+        when(authService.isAccommodationOwner(customerUser)).thenReturn(false);
+        when(authService.isCustomer(customerUser)).thenReturn(true);
+
+        KeysetPageResponseDTO<BookingListItemDTO> result = bookingRestServiceRBAC.getBookingsPage(null, null, 20);
+
+        assertNotNull(result);
+        assertFalse(result.isHasNext());
+        verify(bookingRepository).findListItemsPage(any());
+    }
+
+    @Test
+    void testGetBookingsPage_WithoutRole_ThrowsAccessDeniedException() {
+        UserProfileDTO guestUser = new UserProfileDTO(userId, "guest", "Guest", "guest@test.com", "M", "GUEST", LocalDateTime.now(), LocalDateTime.now(), false);
+        when(authService.getAuthenticatedUser()).thenReturn(guestUser);
+
+        AccessDeniedException exception = assertThrows(AccessDeniedException.class,
+                () -> bookingRestServiceRBAC.getBookingsPage(null, null, 20));
+
+        assertTrue(exception.getMessage().contains("tidak memiliki akses"));
+        verifyNoInteractions(bookingRepository);
+    }
+
     // ============================================
     // GET BOOKING DETAIL TESTS
     // ============================================
@@ -243,4 +283,17 @@ class BookingRestServiceRBACImplTest {
 
         assertTrue(exception.getMessage().contains("tidak memiliki akses"));
     }
+
+    @Test
+    void testGetBookingStatisticsByRange_AsCustomer_ThrowsAccessDeniedException() {
+        when(authService.getAuthenticatedUser()).thenReturn(customerUser);
+        when(authService.isSuperAdmin(customerUser)).thenReturn(false);
+        when(authService.isAccommodationOwner(customerUser)).thenReturn(false);
+
+        AccessDeniedException exception = assertThrows(AccessDeniedException.class,
+                () -> bookingRestServiceRBAC.getBookingStatisticsByRange(
+                    LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 15)));
+
+        assertTrue(exception.getMessage().contains("tidak memiliki akses"));
+    }
 }
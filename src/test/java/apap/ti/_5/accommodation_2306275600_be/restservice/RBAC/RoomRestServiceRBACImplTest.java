@@ -9,6 +9,7 @@ import apap.ti._5.accommodation_2306275600_be.repository.RoomRepository;
 import apap.ti._5.accommodation_2306275600_be.repository.RoomTypeRepository;
 import apap.ti._5.accommodation_2306275600_be.restdto.auth.UserProfileDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.room.CreateMaintenanceRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.service.RoomCalendarService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -36,6 +37,9 @@ class RoomRestServiceRBACImplTest {
     @Mock
     private RoomTypeRepository roomTypeRepository;
 
+    @Mock
+    private RoomCalendarService roomCalendarService;
+
     @Mock
     private AuthService authService;
 
@@ -14,6 +14,7 @@ import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -28,6 +29,7 @@ import apap.ti._5.accommodation_2306275600_be.restdto.request.room.AddRoomReques
 import apap.ti._5.accommodation_2306275600_be.restdto.request.room.CreateMaintenanceRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.request.room.UpdateRoomRequestDTO;
 import apap.ti._5.accommodation_2306275600_be.restdto.response.room.RoomResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.service.RoomCalendarService;
 
 @ExtendWith(MockitoExtension.class)
 class RoomRestServiceImplTest {
@@ -41,6 +43,9 @@ class RoomRestServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private RoomCalendarService roomCalendarService;
+
     @InjectMocks
     private RoomRestServiceImpl roomRestService;
 
@@ -318,13 +323,13 @@ class RoomRestServiceImplTest {
             .activeRoom(1)
             .build();
 
-        when(roomRepository.findById(roomId)).thenReturn(Optional.of(testRoom));
+        when(roomRepository.findByIdForUpdate(roomId)).thenReturn(Optional.of(testRoom));
         when(roomRepository.save(any(Room.class))).thenReturn(testRoom);
 
         RoomResponseDTO result = roomRestService.updateRoom(roomId, requestDTO);
 
         assertNotNull(result);
-        verify(roomRepository).findById(roomId);
+        verify(roomRepository).findByIdForUpdate(roomId);
         verify(roomRepository).save(any(Room.class));
     }
 
@@ -334,7 +339,7 @@ class RoomRestServiceImplTest {
             .name("102")
             .build();
 
-        when(roomRepository.findById(roomId)).thenReturn(Optional.empty());
+        when(roomRepository.findByIdForUpdate(roomId)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> roomRestService.updateRoom(roomId, requestDTO));
@@ -353,7 +358,7 @@ class RoomRestServiceImplTest {
             .maintenanceEnd(maintenanceEnd)
             .build();
 
-        when(roomRepository.findById(roomId)).thenReturn(Optional.of(testRoom));
+        when(roomRepository.findByIdForUpdate(roomId)).thenReturn(Optional.of(testRoom));
         when(roomRepository.save(any(Room.class))).thenReturn(testRoom);
 
         RoomResponseDTO result = roomRestService.updateRoom(roomId, requestDTO);
@@ -374,7 +379,7 @@ class RoomRestServiceImplTest {
             .maintenanceEnd(null)
             .build();
 
-        when(roomRepository.findById(roomId)).thenReturn(Optional.of(testRoom));
+        when(roomRepository.findByIdForUpdate(roomId)).thenReturn(Optional.of(testRoom));
         when(roomRepository.save(any(Room.class))).thenReturn(testRoom);
 
         RoomResponseDTO result = roomRestService.updateRoom(roomId, requestDTO);
@@ -390,7 +395,7 @@ class RoomRestServiceImplTest {
             .maintenanceEnd(LocalDateTime.now().plusDays(1))
             .build();
 
-        when(roomRepository.findById(roomId)).thenReturn(Optional.of(testRoom));
+        when(roomRepository.findByIdForUpdate(roomId)).thenReturn(Optional.of(testRoom));
         when(roomRepository.save(any(Room.class))).thenReturn(testRoom);
 
         // Service doesn't validate maintenance dates in updateRoom, it just sets them
@@ -441,14 +446,42 @@ class RoomRestServiceImplTest {
             .maintenanceEnd(maintenanceEnd)
             .build();
 
-        when(roomRepository.findById(roomId)).thenReturn(Optional.of(testRoom));
+        when(roomRepository.findByIdForUpdate(roomId)).thenReturn(Optional.of(testRoom));
         when(roomRepository.save(any(Room.class))).thenReturn(testRoom);
 
         RoomResponseDTO result = roomRestService.createMaintenance(requestDTO);
 
         assertNotNull(result);
-        verify(roomRepository).findById(roomId);
+        verify(roomRepository).findByIdForUpdate(roomId);
         verify(roomRepository).save(any(Room.class));
+        verify(roomCalendarService).updateMaintenance(eq(testRoom), any(), any());
+    }
+
+    @Test
+    void testCreateMaintenance_BookingDuringPeriod_ThrowsException() {
+        LocalDateTime maintenanceStart = LocalDateTime.now().plusDays(1);
+        LocalDateTime maintenanceEnd = LocalDateTime.now().plusDays(3);
+
+        CreateMaintenanceRequestDTO requestDTO = CreateMaintenanceRequestDTO.builder()
+            .roomID(roomId.toString())
+            .maintenanceStart(maintenanceStart)
+            .maintenanceEnd(maintenanceEnd)
+            .build();
+
+        when(roomRepository.findByIdForUpdate(roomId)).thenReturn(Optional.of(testRoom));
+        when(roomCalendarService.hasBookingDuring(roomId, maintenanceStart, maintenanceEnd)).thenReturn(true);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> roomRestService.createMaintenance(requestDTO));
+
+        assertTrue(exception.getMessage().contains("active bookings"));
+        verify(roomRepository, never()).save(any(Room.class));
+
+        // The booking check runs on the room loaded under its lock
+        InOrder inOrder = inOrder(roomRepository, roomCalendarService);
+        inOrder.verify(roomRepository).findByIdForUpdate(roomId);
+        inOrder.verify(roomCalendarService).hasBookingDuring(roomId, maintenanceStart, maintenanceEnd);
+        verify(roomRepository, never()).findById(any());
     }
 
     @Test
@@ -459,7 +492,7 @@ class RoomRestServiceImplTest {
             .maintenanceEnd(LocalDateTime.now().plusDays(3))
             .build();
 
-        when(roomRepository.findById(roomId)).thenReturn(Optional.empty());
+        when(roomRepository.findByIdForUpdate(roomId)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> roomRestService.createMaintenance(requestDTO));
@@ -476,7 +509,7 @@ class RoomRestServiceImplTest {
             .maintenanceEnd(LocalDateTime.now().plusDays(1))
             .build();
 
-        when(roomRepository.findById(roomId)).thenReturn(Optional.of(testRoom));
+        when(roomRepository.findByIdForUpdate(roomId)).thenReturn(Optional.of(testRoom));
 
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> roomRestService.createMaintenance(requestDTO));
@@ -493,7 +526,7 @@ class RoomRestServiceImplTest {
             .maintenanceEnd(LocalDateTime.now().plusDays(1))
             .build();
 
-        when(roomRepository.findById(roomId)).thenReturn(Optional.of(testRoom));
+        when(roomRepository.findByIdForUpdate(roomId)).thenReturn(Optional.of(testRoom));
 
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> roomRestService.createMaintenance(requestDTO));
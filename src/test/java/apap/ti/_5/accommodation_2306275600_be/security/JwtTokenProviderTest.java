@@ -0,0 +1,115 @@
+package apap.ti._5.accommodation_2306275600_be.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.Claims;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "testSecretKeyForJwtTokenProviderTestsOnly";
+
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = newProvider(SECRET, 60_000L, 100);
+    }
+
+    @Test
+    void testParseValidClaims_ExtractsEverythingInOneCall() {
+        String userId = UUID.randomUUID().toString();
+        String token = tokenProvider.generateToken(userId, "budi", "Customer");
+
+        Claims claims = tokenProvider.parseValidClaims(token);
+
+        assertNotNull(claims);
+        assertEquals(userId, claims.getSubject());
+        assertEquals("budi", claims.get("username", String.class));
+        assertEquals("Customer", claims.get("role", String.class));
+        assertTrue(tokenProvider.validateToken(token));
+        assertEquals(userId, tokenProvider.getUserIdFromToken(token));
+    }
+
+    @Test
+    void testParseValidClaims_RepeatedTokenServedFromCache() {
+        String token = tokenProvider.generateToken(UUID.randomUUID().toString(), "budi", "Customer");
+
+        Claims first = tokenProvider.parseValidClaims(token);
+        Claims second = tokenProvider.parseValidClaims(token);
+
+        assertSame(first, second);
+        assertEquals(1, tokenProvider.cachedTokenCount());
+    }
+
+    @Test
+    void testParseValidClaims_CacheHonorsTokenExpiry() {
+        String token = tokenProvider.generateToken(UUID.randomUUID().toString(), "budi", "Customer");
+        Claims first = tokenProvider.parseValidClaims(token);
+
+        // Past the token's exp the cached entry is no longer used
+        now.addAndGet(61_000L);
+        Claims second = tokenProvider.parseValidClaims(token);
+
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void testParseValidClaims_ExpiredTokenRejectedAndNotCached() {
+        JwtTokenProvider expiredIssuer = newProvider(SECRET, -1_000L, 100);
+        String token = expiredIssuer.generateToken(UUID.randomUUID().toString(), "budi", "Customer");
+
+        assertNull(tokenProvider.parseValidClaims(token));
+        assertTrue(tokenProvider.isTokenExpired(token));
+        assertEquals(0, tokenProvider.cachedTokenCount());
+    }
+
+    @Test
+    void testParseValidClaims_WrongSignatureRejected() {
+        JwtTokenProvider otherIssuer = newProvider("anotherSecretKeyThatIsAlsoLongEnough!!", 60_000L, 100);
+        String token = otherIssuer.generateToken(UUID.randomUUID().toString(), "budi", "Superadmin");
+
+        assertNull(tokenProvider.parseValidClaims(token));
+        assertFalse(tokenProvider.validateToken(token));
+        assertNull(tokenProvider.parseValidClaims("not.a.jwt"));
+        assertEquals(0, tokenProvider.cachedTokenCount());
+    }
+
+    @Test
+    void testParseValidClaims_CacheIsBounded() {
+        JwtTokenProvider smallCache = newProvider(SECRET, 60_000L, 2);
+
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(smallCache.parseValidClaims(
+                smallCache.generateToken(UUID.randomUUID().toString(), "user" + i, "Customer")));
+        }
+
+        assertEquals(2, smallCache.cachedTokenCount());
+    }
+
+    @Test
+    void testParseValidClaims_CacheDisabled() {
+        JwtTokenProvider noCache = newProvider(SECRET, 60_000L, 0);
+        String token = noCache.generateToken(UUID.randomUUID().toString(), "budi", "Customer");
+
+        assertNotSame(noCache.parseValidClaims(token), noCache.parseValidClaims(token));
+        assertEquals(0, noCache.cachedTokenCount());
+    }
+
+    private JwtTokenProvider newProvider(String secret, long expirationMs, int cacheMaxEntries) {
+        JwtTokenProvider provider = new JwtTokenProvider(now::get);
+        ReflectionTestUtils.setField(provider, "jwtSecret", secret);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(provider, "cacheMaxEntries", cacheMaxEntries);
+        ReflectionTestUtils.setField(provider, "cacheMaxTtlSeconds", 300L);
+        provider.init();
+        return provider;
+    }
+}
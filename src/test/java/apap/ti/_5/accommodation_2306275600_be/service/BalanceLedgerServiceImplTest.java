@@ -0,0 +1,177 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import apap.ti._5.accommodation_2306275600_be.exceptions.InsufficientBalanceException;
+import apap.ti._5.accommodation_2306275600_be.model.BalanceLedgerEntry;
+import apap.ti._5.accommodation_2306275600_be.model.BalanceSnapshot;
+import apap.ti._5.accommodation_2306275600_be.repository.BalanceLedgerRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.BalanceLedgerRepository.CustomerDeltaView;
+import apap.ti._5.accommodation_2306275600_be.repository.BalanceSnapshotRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.CustomerRepository;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceLedgerServiceImplTest {
+
+    @Mock
+    private BalanceLedgerRepository ledgerRepository;
+
+    @Mock
+    private BalanceSnapshotRepository snapshotRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BalanceLedgerServiceImpl balanceLedgerService;
+    private UUID customerId;
+
+    @BeforeEach
+    void setUp() {
+        balanceLedgerService = new BalanceLedgerServiceImpl(
+            ledgerRepository, snapshotRepository, customerRepository, schedulerLeaseService, transactionManager);
+        customerId = UUID.randomUUID();
+    }
+
+    @Test
+    void testGetBalance_SnapshotPlusLaterDeltas() {
+        when(snapshotRepository.findFirstByCustomerIdOrderByLastEntryIdDesc(customerId))
+            .thenReturn(Optional.of(snapshot(customerId, 40L, 100000)));
+        when(ledgerRepository.sumDeltasAfter(customerId, 40L)).thenReturn(BigDecimal.valueOf(-25000));
+
+        assertEquals(0, BigDecimal.valueOf(75000).compareTo(balanceLedgerService.getBalance(customerId)));
+    }
+
+    @Test
+    void testGetBalances_CustomersWithoutHistoryAreZero() {
+        UUID otherId = UUID.randomUUID();
+        UUID emptyId = UUID.randomUUID();
+        CustomerDeltaView delta = mock(CustomerDeltaView.class);
+        when(delta.getCustomerId()).thenReturn(otherId);
+        when(delta.getDelta()).thenReturn(BigDecimal.valueOf(5000));
+        when(snapshotRepository.findLatestByCustomerIds(anyCollection()))
+            .thenReturn(List.of(snapshot(customerId, 3L, 20000)));
+        when(ledgerRepository.sumUnsnapshottedDeltas(anyCollection())).thenReturn(List.of(delta));
+
+        Map<UUID, BigDecimal> balances = balanceLedgerService.getBalances(List.of(customerId, otherId, emptyId));
+
+        assertEquals(0, BigDecimal.valueOf(20000).compareTo(balances.get(customerId)));
+        assertEquals(0, BigDecimal.valueOf(5000).compareTo(balances.get(otherId)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(balances.get(emptyId)));
+    }
+
+    @Test
+    void testDebit_AppendsNegativeEntryUnderLock() {
+        when(customerRepository.lockForBalanceChange(customerId)).thenReturn(Optional.of(customerId));
+        when(snapshotRepository.findFirstByCustomerIdOrderByLastEntryIdDesc(customerId)).thenReturn(Optional.empty());
+        when(ledgerRepository.sumDeltasAfter(customerId, 0L)).thenReturn(BigDecimal.valueOf(50000));
+
+        BigDecimal remaining = balanceLedgerService.debit(customerId, BigDecimal.valueOf(20000),
+            BalanceLedgerEntry.TYPE_BILL_PAYMENT, "bill-1");
+
+        assertEquals(0, BigDecimal.valueOf(30000).compareTo(remaining));
+        ArgumentCaptor<BalanceLedgerEntry> captor = ArgumentCaptor.forClass(BalanceLedgerEntry.class);
+        verify(ledgerRepository).save(captor.capture());
+        assertEquals(0, BigDecimal.valueOf(-20000).compareTo(captor.getValue().getDelta()));
+        assertEquals("bill-1", captor.getValue().getReferenceId());
+        verify(customerRepository, never()).save(any());
+    }
+
+    @Test
+    void testDebit_InsufficientBalance_WritesNothing() {
+        when(customerRepository.lockForBalanceChange(customerId)).thenReturn(Optional.of(customerId));
+        when(snapshotRepository.findFirstByCustomerIdOrderByLastEntryIdDesc(customerId)).thenReturn(Optional.empty());
+        when(ledgerRepository.sumDeltasAfter(customerId, 0L)).thenReturn(BigDecimal.valueOf(10000));
+
+        assertThrows(InsufficientBalanceException.class, () -> balanceLedgerService.debit(
+            customerId, BigDecimal.valueOf(20000), BalanceLedgerEntry.TYPE_BILL_PAYMENT, "bill-1"));
+        verify(ledgerRepository, never()).save(any());
+    }
+
+    @Test
+    void testCredit_AppendsWithoutLockingCustomer() {
+        when(snapshotRepository.findFirstByCustomerIdOrderByLastEntryIdDesc(customerId)).thenReturn(Optional.empty());
+        when(ledgerRepository.sumDeltasAfter(customerId, 0L)).thenReturn(BigDecimal.valueOf(70000));
+
+        BigDecimal balance = balanceLedgerService.credit(customerId, BigDecimal.valueOf(70000),
+            BalanceLedgerEntry.TYPE_TOP_UP, null);
+
+        assertEquals(0, BigDecimal.valueOf(70000).compareTo(balance));
+        verify(ledgerRepository).save(any(BalanceLedgerEntry.class));
+        verify(customerRepository, never()).lockForBalanceChange(any());
+    }
+
+    @Test
+    void testCompactSnapshots_FoldsOnlyEntriesBeforeCutoff() {
+        LocalDateTime cutoff = LocalDateTime.of(2025, 5, 1, 12, 0);
+        when(ledgerRepository.findCustomersToCompact(eq(cutoff), eq(20L), any(Pageable.class)))
+            .thenReturn(List.of(customerId));
+        when(ledgerRepository.findMaxEntryIdCreatedBefore(customerId, cutoff)).thenReturn(90L);
+        when(snapshotRepository.findFirstByCustomerIdOrderByLastEntryIdDesc(customerId))
+            .thenReturn(Optional.of(snapshot(customerId, 40L, 100000)));
+        when(ledgerRepository.sumDeltasBetween(customerId, 40L, 90L)).thenReturn(BigDecimal.valueOf(15000));
+
+        int written = balanceLedgerService.compactSnapshots(cutoff, 20, 500);
+
+        assertEquals(1, written);
+        verify(customerRepository, never()).lockForBalanceChange(any());
+        ArgumentCaptor<BalanceSnapshot> captor = ArgumentCaptor.forClass(BalanceSnapshot.class);
+        verify(snapshotRepository).save(captor.capture());
+        assertEquals(90L, captor.getValue().getLastEntryId());
+        assertEquals(0, BigDecimal.valueOf(115000).compareTo(captor.getValue().getBalance()));
+        verify(customerRepository).updateSnapshotSaldo(customerId, BigDecimal.valueOf(115000));
+    }
+
+    @Test
+    void testGetBalanceAt_UsesSnapshotTakenBeforeThatMoment() {
+        LocalDateTime at = LocalDateTime.of(2025, 5, 1, 0, 0);
+        when(snapshotRepository.findFirstByCustomerIdAndSnapshotAtLessThanEqualOrderByLastEntryIdDesc(customerId, at))
+            .thenReturn(Optional.of(snapshot(customerId, 10L, 30000)));
+        when(ledgerRepository.sumDeltasAfterUpToTime(customerId, 10L, at)).thenReturn(BigDecimal.valueOf(2000));
+
+        assertEquals(0, BigDecimal.valueOf(32000).compareTo(balanceLedgerService.getBalanceAt(customerId, at)));
+    }
+
+    @Test
+    void testWarmUp_WithoutLease_LeavesBackfillToLeaseHolder() {
+        when(schedulerLeaseService.tryAcquire(eq(BalanceLedgerServiceImpl.BACKFILL_LEASE_NAME), any()))
+            .thenReturn(false);
+
+        balanceLedgerService.warmUp();
+
+        verifyNoInteractions(snapshotRepository, transactionManager);
+        verify(schedulerLeaseService, never()).release(any());
+    }
+
+    private BalanceSnapshot snapshot(UUID customerId, long lastEntryId, long balance) {
+        return BalanceSnapshot.builder()
+            .customerId(customerId)
+            .lastEntryId(lastEntryId)
+            .balance(BigDecimal.valueOf(balance))
+            .snapshotAt(LocalDateTime.of(2025, 1, 1, 0, 0))
+            .build();
+    }
+}
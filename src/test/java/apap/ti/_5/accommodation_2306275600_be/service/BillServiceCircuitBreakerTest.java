@@ -0,0 +1,192 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.CreateBillRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.service.BillServiceClient.BillRequest;
+import apap.ti._5.accommodation_2306275600_be.service.BillServiceCircuitBreaker.Permit;
+import apap.ti._5.accommodation_2306275600_be.service.BillServiceCircuitBreaker.State;
+import apap.ti._5.accommodation_2306275600_be.service.BillServiceClient.DeliveryOutcome;
+import apap.ti._5.accommodation_2306275600_be.service.BillServiceClient.DeliveryStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BillServiceCircuitBreakerTest {
+
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long OPEN_DURATION_MS = 10_000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private SimpleMeterRegistry meterRegistry;
+    private BillServiceCircuitBreaker circuitBreaker;
+    private StubBillServer billServer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new BillServiceCircuitBreaker(meterRegistry, FAILURE_THRESHOLD, OPEN_DURATION_MS, 1, 2,
+            now::get);
+        billServer = new StubBillServer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        billServer.close();
+    }
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        recordFailures(FAILURE_THRESHOLD - 1);
+        recordSuccesses(1);
+        recordFailures(FAILURE_THRESHOLD - 1);
+        assertEquals(State.CLOSED, circuitBreaker.state());
+
+        recordFailures(1);
+
+        assertEquals(State.OPEN, circuitBreaker.state());
+        assertNull(circuitBreaker.tryAcquire());
+        assertEquals(1, meterRegistry.get("bill.client.calls.rejected").tag("reason", "circuit-open").counter().count());
+        assertEquals(1, meterRegistry.get("bill.client.circuit.transitions")
+            .tag("from", "closed").tag("to", "open").counter().count());
+        assertEquals(1, meterRegistry.get("bill.client.circuit.state").gauge().value());
+    }
+
+    @Test
+    void testClientErrorsDoNotTripTheCircuit() {
+        for (int i = 0; i < FAILURE_THRESHOLD * 2; i++) {
+            circuitBreaker.tryAcquire().complete(DeliveryStatus.REJECTED);
+        }
+
+        assertEquals(State.CLOSED, circuitBreaker.state());
+    }
+
+    @Test
+    void testHalfOpenProbeSuccessCloses() {
+        recordFailures(FAILURE_THRESHOLD);
+        now.addAndGet(OPEN_DURATION_MS);
+
+        Permit probe = circuitBreaker.tryAcquire();
+        assertNotNull(probe);
+        assertEquals(State.HALF_OPEN, circuitBreaker.state());
+        // Only one probe at a time
+        assertNull(circuitBreaker.tryAcquire());
+
+        probe.complete(DeliveryStatus.SENT);
+
+        assertEquals(State.CLOSED, circuitBreaker.state());
+        assertNotNull(circuitBreaker.tryAcquire());
+        assertEquals(1, meterRegistry.get("bill.client.circuit.transitions")
+            .tag("from", "half_open").tag("to", "closed").counter().count());
+    }
+
+    @Test
+    void testHalfOpenProbeFailureReopens() {
+        recordFailures(FAILURE_THRESHOLD);
+        now.addAndGet(OPEN_DURATION_MS);
+
+        circuitBreaker.tryAcquire().complete(DeliveryStatus.UNREACHABLE);
+
+        assertEquals(State.OPEN, circuitBreaker.state());
+        now.addAndGet(OPEN_DURATION_MS - 1);
+        assertNull(circuitBreaker.tryAcquire());
+        now.addAndGet(1);
+        assertNotNull(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void testBulkheadRejectsOverCapacityAndReleasesOnce() {
+        Permit first = circuitBreaker.tryAcquire();
+        Permit second = circuitBreaker.tryAcquire();
+
+        assertNull(circuitBreaker.tryAcquire());
+        assertEquals(1, meterRegistry.get("bill.client.calls.rejected").tag("reason", "bulkhead-full").counter().count());
+
+        first.complete(DeliveryStatus.SENT);
+        first.complete(DeliveryStatus.RETRY);
+        assertEquals(1, circuitBreaker.availableBulkheadSlots());
+        second.complete(DeliveryStatus.SENT);
+        assertEquals(2, circuitBreaker.availableBulkheadSlots());
+    }
+
+    @Test
+    void testSlowBillService_OpenCircuitSkipsWithoutWaiting() {
+        // Latency injected past the read timeout looks like an outage to the client
+        billServer.delay(Duration.ofMillis(1000));
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setReadTimeout(200);
+        BillServiceClient billServiceClient = new RestTemplateBillServiceClient(new RestTemplate(requestFactory),
+            circuitBreaker, meterRegistry, billServer.url(), "TEST_API_KEY");
+
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertEquals(DeliveryStatus.UNREACHABLE, billServiceClient.createBills(requests(1)).get(0).status());
+        }
+        assertEquals(State.OPEN, circuitBreaker.state());
+        int requestsBeforeOpen = billServer.requestCount();
+
+        long start = System.nanoTime();
+        List<DeliveryOutcome> outcomes = billServiceClient.createBills(requests(50));
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(outcomes.stream().allMatch(outcome -> outcome.status() == DeliveryStatus.SKIPPED));
+        assertEquals(requestsBeforeOpen, billServer.requestCount());
+        assertTrue(elapsedMs < 100, "open circuit took " + elapsedMs + " ms");
+
+        // Service recovers; after the open window one probe goes through and closes the circuit
+        billServer.delay(Duration.ZERO);
+        now.addAndGet(OPEN_DURATION_MS);
+        outcomes = billServiceClient.createBills(requests(3));
+
+        assertEquals(DeliveryStatus.SENT, outcomes.get(0).status());
+        assertEquals(State.CLOSED, circuitBreaker.state());
+    }
+
+    @Test
+    void testFailingBillService_ServerErrorsTripTheCircuit() {
+        billServer.respondWith(500);
+        BillServiceClient billServiceClient = new RestTemplateBillServiceClient(new RestTemplate(),
+            circuitBreaker, meterRegistry, billServer.url(), "TEST_API_KEY");
+
+        List<DeliveryOutcome> outcomes = billServiceClient.createBills(requests(5));
+
+        assertEquals(FAILURE_THRESHOLD, billServer.requestCount());
+        assertEquals(FAILURE_THRESHOLD,
+            outcomes.stream().filter(outcome -> outcome.status() == DeliveryStatus.RETRY).count());
+        assertEquals(DeliveryStatus.SKIPPED, outcomes.get(FAILURE_THRESHOLD).status());
+        assertEquals(State.OPEN, circuitBreaker.state());
+    }
+
+    private void recordFailures(int times) {
+        for (int i = 0; i < times; i++) {
+            circuitBreaker.tryAcquire().complete(DeliveryStatus.RETRY);
+        }
+    }
+
+    private void recordSuccesses(int times) {
+        for (int i = 0; i < times; i++) {
+            circuitBreaker.tryAcquire().complete(DeliveryStatus.SENT);
+        }
+    }
+
+    private static List<BillRequest> requests(int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> new BillRequest("message-" + i, CreateBillRequestDTO.builder()
+                .customerId(UUID.randomUUID())
+                .serviceName("Accommodation")
+                .serviceReferenceId("booking-" + i)
+                .description("Accommodation Booking - booking-" + i)
+                .amount(100000L)
+                .build()))
+            .toList();
+    }
+}
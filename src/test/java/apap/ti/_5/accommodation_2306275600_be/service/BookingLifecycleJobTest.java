@@ -0,0 +1,78 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import apap.ti._5.accommodation_2306275600_be.service.BookingLifecycleService.LifecycleResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class BookingLifecycleJobTest {
+
+    @Mock
+    private BookingLifecycleService bookingLifecycleService;
+
+    @Mock
+    private SchedulerLeaseService schedulerLeaseService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookingLifecycleJob job;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        job = new BookingLifecycleJob(bookingLifecycleService, schedulerLeaseService, meterRegistry, 600);
+    }
+
+    @Test
+    void testRun_NotLeader_SkipsTick() {
+        when(schedulerLeaseService.tryAcquire(BookingLifecycleJob.LEASE_NAME, Duration.ofSeconds(600)))
+            .thenReturn(false);
+
+        job.run();
+
+        verifyNoInteractions(bookingLifecycleService);
+        assertEquals(0.0, meterRegistry.get("booking.lifecycle.leader").gauge().value());
+        assertEquals(0L, meterRegistry.get("booking.lifecycle.run").timer().count());
+    }
+
+    @Test
+    void testRun_Leader_RecordsLatencyAndRows() {
+        when(schedulerLeaseService.tryAcquire(BookingLifecycleJob.LEASE_NAME, Duration.ofSeconds(600)))
+            .thenReturn(true);
+        when(bookingLifecycleService.runTransitions(any(), any())).thenReturn(new LifecycleResult(3, 2));
+
+        job.run();
+
+        assertEquals(1.0, meterRegistry.get("booking.lifecycle.leader").gauge().value());
+        assertEquals(1L, meterRegistry.get("booking.lifecycle.run").timer().count());
+        assertEquals(5.0, meterRegistry.get("booking.lifecycle.last.rows").gauge().value());
+        assertEquals(3.0, meterRegistry.get("booking.lifecycle.rows").tag("transition", "auto-cancel").counter().count());
+        assertEquals(2.0, meterRegistry.get("booking.lifecycle.rows").tag("transition", "auto-complete").counter().count());
+    }
+
+    @Test
+    void testRun_RenewsLeaseBeforeEachChunkAndStopsOnceLost() {
+        when(schedulerLeaseService.tryAcquire(BookingLifecycleJob.LEASE_NAME, Duration.ofSeconds(600)))
+            .thenReturn(true, true, false);
+        ArgumentCaptor<BooleanSupplier> beforeChunk = ArgumentCaptor.forClass(BooleanSupplier.class);
+        when(bookingLifecycleService.runTransitions(any(), beforeChunk.capture())).thenReturn(new LifecycleResult(0, 0));
+
+        job.run();
+
+        assertTrue(beforeChunk.getValue().getAsBoolean());
+        assertFalse(beforeChunk.getValue().getAsBoolean());
+        assertEquals(0.0, meterRegistry.get("booking.lifecycle.leader").gauge().value());
+    }
+}
@@ -0,0 +1,102 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository;
+import apap.ti._5.accommodation_2306275600_be.service.BookingLifecycleService.LifecycleResult;
+
+@ExtendWith(MockitoExtension.class)
+class BookingLifecycleServiceImplTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private RevenueRollupService revenueRollupService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BookingLifecycleServiceImpl bookingLifecycleService;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bookingLifecycleService, "chunkSize", 2);
+        now = LocalDateTime.of(2025, 12, 1, 0, 0);
+    }
+
+    @Test
+    void testAutoCancelUnpaid_UpdatesChunkByChunkAndCommitsEach() {
+        List<UUID> firstChunk = List.of(UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> secondChunk = List.of(UUID.randomUUID());
+        when(bookingRepository.lockBookingIDsByStatusAndCheckInBefore(0, now, 2))
+            .thenReturn(firstChunk, secondChunk, Collections.emptyList());
+        when(bookingRepository.updateStatusForBookings(firstChunk, 0, 2, now)).thenReturn(2);
+        when(bookingRepository.updateStatusForBookings(secondChunk, 0, 2, now)).thenReturn(1);
+
+        int cancelled = bookingLifecycleService.autoCancelUnpaid(now, () -> true);
+
+        assertEquals(3, cancelled);
+        verify(transactionManager, times(3)).commit(any());
+        verifyNoInteractions(revenueRollupService);
+    }
+
+    @Test
+    void testAutoCompletePaid_FeedsRollup() {
+        List<UUID> chunk = List.of(UUID.randomUUID());
+        when(bookingRepository.lockBookingIDsByStatusAndCheckOutBefore(1, now, 2))
+            .thenReturn(chunk, Collections.emptyList());
+        when(bookingRepository.updateStatusForBookings(chunk, 1, 4, now)).thenReturn(1);
+
+        int completed = bookingLifecycleService.autoCompletePaid(now, () -> true);
+
+        assertEquals(1, completed);
+        verify(revenueRollupService).recordCompletedBookings(chunk);
+    }
+
+    @Test
+    void testAutoCompletePaid_StopsWhenToldBeforeNextChunk() {
+        List<UUID> firstChunk = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(bookingRepository.lockBookingIDsByStatusAndCheckOutBefore(1, now, 2)).thenReturn(firstChunk);
+        when(bookingRepository.updateStatusForBookings(firstChunk, 1, 4, now)).thenReturn(2);
+        Iterator<Boolean> lease = List.of(true, false).iterator();
+
+        int completed = bookingLifecycleService.autoCompletePaid(now, lease::next);
+
+        assertEquals(2, completed);
+        verify(bookingRepository, times(1)).lockBookingIDsByStatusAndCheckOutBefore(anyInt(), any(), anyInt());
+        verify(revenueRollupService).recordCompletedBookings(firstChunk);
+    }
+
+    @Test
+    void testRunTransitions_SkipsCompletionUnlessEnabled() {
+        when(bookingRepository.lockBookingIDsByStatusAndCheckInBefore(0, now, 2))
+            .thenReturn(Collections.emptyList());
+
+        LifecycleResult result = bookingLifecycleService.runTransitions(now, () -> true);
+
+        assertEquals(0, result.total());
+        verify(bookingRepository, never()).lockBookingIDsByStatusAndCheckOutBefore(anyInt(), any(), anyInt());
+        verify(bookingRepository, never()).updateStatusForBookings(any(), anyInt(), anyInt(), any());
+    }
+}
@@ -0,0 +1,82 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BookingSearchIndexTest {
+
+    private BookingSearchIndex index;
+    private UUID propertyId;
+    private UUID roomId;
+    private UUID otherRoomId;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingSearchIndex();
+        propertyId = UUID.randomUUID();
+        roomId = UUID.fromString("11111111-aaaa-4bbb-8ccc-222222222222");
+        otherRoomId = UUID.fromString("33333333-dddd-4eee-8fff-444444444444");
+    }
+
+    @Test
+    void testSearch_ByPropertyNameCoversAllItsRooms() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        index.put(first, roomId, propertyId, "Hotel Melati");
+        index.put(second, otherRoomId, propertyId, "Hotel Melati");
+
+        assertEquals(Set.of(first, second), index.search("melati"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testSearch_ByRoomId() {
+        UUID booking = UUID.randomUUID();
+        index.put(booking, roomId, propertyId, "Hotel Melati");
+        index.put(UUID.randomUUID(), otherRoomId, UUID.randomUUID(), "Villa Mawar");
+
+        assertEquals(Set.of(booking), index.search("AAAA-4BBB"));
+        assertEquals(Set.of(booking), index.search(roomId.toString()));
+    }
+
+    @Test
+    void testPut_MovesBookingToNewRoom() {
+        UUID booking = UUID.randomUUID();
+        UUID otherPropertyId = UUID.randomUUID();
+        index.put(booking, roomId, propertyId, "Hotel Melati");
+        index.put(booking, otherRoomId, otherPropertyId, "Villa Mawar");
+
+        assertEquals(Set.of(), index.search("melati"));
+        assertEquals(Set.of(booking), index.search("mawar"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testRenameProperty_ReindexesName() {
+        UUID booking = UUID.randomUUID();
+        index.put(booking, roomId, propertyId, "Hotel Melati");
+
+        index.renameProperty(propertyId, "Hotel Kenanga");
+        index.renameProperty(UUID.randomUUID(), "Hotel Tanpa Booking");
+
+        assertEquals(Set.of(), index.search("melati"));
+        assertEquals(Set.of(booking), index.search("kenanga"));
+        assertEquals(Set.of(), index.search("tanpa"));
+    }
+
+    @Test
+    void testRemove_DropsBooking() {
+        UUID booking = UUID.randomUUID();
+        index.put(booking, roomId, propertyId, "Hotel Melati");
+
+        index.remove(booking);
+
+        assertEquals(Set.of(), index.search("melati"));
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,144 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import apap.ti._5.accommodation_2306275600_be.repository.KeysetCursor;
+import apap.ti._5.accommodation_2306275600_be.service.CustomerSearchIndex.Entry;
+import apap.ti._5.accommodation_2306275600_be.service.CustomerSearchIndex.Suggestions;
+
+class CustomerSearchIndexTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    private CustomerSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CustomerSearchIndex();
+    }
+
+    @Test
+    void testPage_MatchesNameEmailOrUsernameIgnoringCase() {
+        Entry budi = put("budi", "Budi Santoso", "budi@mail.com", "MALE", 0);
+        Entry sari = put("sari", "Sari Dewi", "sari.santoso@mail.com", "FEMALE", 1);
+        Entry tono = put("tono_s", "Tono", "tono@mail.com", "MALE", 2);
+
+        assertEquals(List.of(sari, budi), index.page("SANTOSO", null, null, 10));
+        assertEquals(List.of(tono), index.page("o_s", null, null, 10));
+        assertEquals(List.of(tono, sari, budi), index.page("mail", null, null, 10));
+        assertEquals(List.of(tono, sari, budi), index.page("", null, null, 10));
+    }
+
+    @Test
+    void testPage_KeywordNeverMatchesAcrossFields() {
+        put("budi", "Budi", "b@mail.com", "MALE", 0);
+
+        // Username and name side by side would read "budibudi", but no single field holds "dibu"
+        assertTrue(index.page("dibu", null, null, 10).isEmpty());
+    }
+
+    @Test
+    void testPage_FiltersGender() {
+        Entry budi = put("budi", "Budi", "budi@mail.com", "MALE", 0);
+        put("sari", "Sari", "sari@mail.com", "FEMALE", 1);
+        Entry tono = put("tono", "Tono", "tono@mail.com", "MALE", 2);
+
+        assertEquals(List.of(tono, budi), index.page("mail", "MALE", null, 10));
+        assertEquals(List.of(tono, budi), index.page(null, "MALE", null, 10));
+        assertTrue(index.page("sari", "MALE", null, 10).isEmpty());
+    }
+
+    @Test
+    void testPage_CursorWalksEveryMatchOnceAcrossTiedTimestamps() {
+        List<Entry> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            // Five customers per timestamp, so pages split ties and fall back to the id order
+            expected.add(put("user" + i, "Customer " + i, "user" + i + "@mail.com", i % 2 == 0 ? "MALE" : "FEMALE", i / 5));
+        }
+        expected.sort((a, b) -> KeysetCursor.LIST_ORDER.compare(a.position(), b.position()));
+
+        // Broad keywords walk the ordered set, narrow ones sort their few matches
+        for (String keyword : new String[] {"", "customer", "customer 2", "user1"}) {
+            List<Entry> matching = expected.stream()
+                .filter(e -> keyword.isEmpty() || e.name().toLowerCase().contains(keyword)
+                    || e.username().contains(keyword))
+                .toList();
+            List<Entry> walked = new ArrayList<>();
+            KeysetCursor after = null;
+            while (true) {
+                List<Entry> page = index.page(keyword, null, after, 4);
+                walked.addAll(page);
+                if (page.size() < 4) {
+                    break;
+                }
+                after = page.get(page.size() - 1).position();
+            }
+            assertEquals(matching, walked, "keyword '" + keyword + "'");
+        }
+    }
+
+    @Test
+    void testPut_ReplacesCustomerOnUpdate() {
+        Entry budi = put("budi", "Budi", "budi@mail.com", "MALE", 0);
+        Entry renamed = new Entry(budi.id(), budi.createdAt(), "OTHER", "budi", "Bambang", "bambang@mail.com");
+        index.put(renamed);
+
+        assertTrue(index.page("budi@", null, null, 10).isEmpty());
+        assertEquals(List.of(renamed), index.page("bambang", "OTHER", null, 10));
+        assertTrue(index.page(null, "MALE", null, 10).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testSuggest_PrefixMatchesFirstThenByName() {
+        Entry xanti = put("xanti", "Xanti", "xanti@mail.com", "FEMALE", 0);
+        Entry anton = put("anton", "Anton", "anton@mail.com", "MALE", 1);
+        Entry budi = put("budi", "Budi Antoni", "budi@mail.com", "MALE", 2);
+        Entry zanto = put("zanto", "Zanto", "zanto@mail.com", "MALE", 3);
+
+        Suggestions suggestions = index.suggest("ant", null, 3, System.nanoTime() + 1_000_000_000L);
+
+        assertFalse(suggestions.partial());
+        assertEquals(List.of(anton, budi, xanti), suggestions.entries());
+        assertEquals(List.of(zanto), index.suggest("zan", "MALE", 3, System.nanoTime() + 1_000_000_000L).entries());
+    }
+
+    @Test
+    void testSuggest_StopsAtDeadlineWithBestSoFar() {
+        for (int i = 0; i < 1000; i++) {
+            put("user" + i, "Customer " + i, "user" + i + "@mail.com", "MALE", i);
+        }
+
+        Suggestions suggestions = index.suggest("customer", null, 5, System.nanoTime() - 1);
+
+        assertTrue(suggestions.partial());
+        assertTrue(suggestions.entries().size() <= 5);
+    }
+
+    @Test
+    void testSuggest_ShortKeywordStopsAtDeadlineWhileScanning() {
+        for (int i = 0; i < 1000; i++) {
+            put("user" + i, "Customer " + i, "user" + i + "@mail.com", "MALE", i);
+        }
+        put("zq", "Zq", "zq@mail.com", "MALE", 1000);
+
+        // Two characters have no trigram, so every customer is a candidate but only one matches
+        Suggestions suggestions = index.suggest("zq", null, 5, System.nanoTime() - 1);
+
+        assertTrue(suggestions.partial());
+    }
+
+    private Entry put(String username, String name, String email, String gender, int minutes) {
+        Entry entry = new Entry(UUID.randomUUID(), T0.plusMinutes(minutes), gender, username, name, email);
+        index.put(entry);
+        return entry;
+    }
+}
@@ -0,0 +1,204 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import apap.ti._5.accommodation_2306275600_be.restdto.response.BaseResponseDTO;
+import apap.ti._5.accommodation_2306275600_be.security.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IdempotencyServiceImplTest {
+
+    private static final String ENDPOINT = "/api/top-up";
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong now;
+    private IdempotencyServiceImpl idempotencyService;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        now = new AtomicLong(1_000_000L);
+        idempotencyService = new IdempotencyServiceImpl(meterRegistry, 3, 60, now::get);
+        calls = new AtomicInteger();
+        loginAs("user-1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testExecute_SameKeyReplaysStoredResponse() {
+        ResponseEntity<BaseResponseDTO<String>> first = idempotencyService.execute(ENDPOINT, "k1", "body", created());
+        ResponseEntity<BaseResponseDTO<String>> second = idempotencyService.execute(ENDPOINT, "k1", "body", created());
+
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.CREATED, second.getStatusCode());
+        assertSame(first.getBody(), second.getBody());
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(1.0, meterRegistry.get("idempotency.requests").tag("outcome", "replayed").counter().count());
+    }
+
+    @Test
+    void testExecute_WithoutKey_AlwaysRuns() {
+        idempotencyService.execute(ENDPOINT, null, "body", created());
+        idempotencyService.execute(ENDPOINT, " ", "body", created());
+
+        assertEquals(2, calls.get());
+        assertEquals(0, idempotencyService.size());
+    }
+
+    @Test
+    void testExecute_KeyReusedWithDifferentBody_Returns422() {
+        idempotencyService.execute(ENDPOINT, "k1", "body", created());
+
+        ResponseEntity<BaseResponseDTO<String>> response =
+            idempotencyService.execute(ENDPOINT, "k1", "other body", created());
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testExecute_KeysAreScopedPerCallerAndEndpoint() {
+        idempotencyService.execute(ENDPOINT, "k1", "body", created());
+        idempotencyService.execute("/api/bookings/create", "k1", "body", created());
+        loginAs("user-2");
+        idempotencyService.execute(ENDPOINT, "k1", "body", created());
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testExecute_FailedResponseIsNotStored() {
+        idempotencyService.execute(ENDPOINT, "k1", "body", () -> respond(HttpStatus.BAD_REQUEST));
+        idempotencyService.execute(ENDPOINT, "k1", "body", created());
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testExecute_ExceptionReleasesKey() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(ENDPOINT, "k1", "body", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        idempotencyService.execute(ENDPOINT, "k1", "body", created());
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testExecute_RepeatWhileInFlight_Returns409() {
+        ResponseEntity<BaseResponseDTO<String>> outer = idempotencyService.execute(ENDPOINT, "k1", "body", () -> {
+            ResponseEntity<BaseResponseDTO<String>> inner =
+                idempotencyService.execute(ENDPOINT, "k1", "body", created());
+            assertEquals(HttpStatus.CONFLICT, inner.getStatusCode());
+            return respond(HttpStatus.CREATED);
+        });
+
+        assertEquals(HttpStatus.CREATED, outer.getStatusCode());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testExecute_ExpiredEntryRunsAgain() {
+        idempotencyService.execute(ENDPOINT, "k1", "body", created());
+        now.addAndGet(61_000L);
+
+        idempotencyService.execute(ENDPOINT, "k1", "body", created());
+
+        assertEquals(2, calls.get());
+        assertEquals(1, idempotencyService.size());
+    }
+
+    @Test
+    void testExecute_OldestKeyEvictedWhenFull() {
+        for (int i = 0; i < 4; i++) {
+            idempotencyService.execute(ENDPOINT, "k" + i, "body", created());
+        }
+        assertEquals(3, idempotencyService.size());
+
+        idempotencyService.execute(ENDPOINT, "k0", "body", created());
+        idempotencyService.execute(ENDPOINT, "k3", "body", created());
+
+        assertEquals(5, calls.get());
+        assertEquals(3.0, meterRegistry.get("idempotency.entries").gauge().value());
+    }
+
+    @Test
+    void testExecute_InFlightKeyNotEvictedWhenFull() {
+        ResponseEntity<BaseResponseDTO<String>> outer = idempotencyService.execute(ENDPOINT, "running", "body", () -> {
+            for (int i = 0; i < 3; i++) {
+                idempotencyService.execute(ENDPOINT, "k" + i, "body", created());
+            }
+            // Completed keys made room; the running claim still guards its key
+            assertEquals(HttpStatus.CONFLICT,
+                idempotencyService.execute(ENDPOINT, "running", "body", created()).getStatusCode());
+            return respond(HttpStatus.CREATED);
+        });
+
+        assertEquals(HttpStatus.CREATED, outer.getStatusCode());
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    void testExecute_StoreFullOfInFlightKeys_Returns503() {
+        idempotencyService.execute(ENDPOINT, "k0", "body", () ->
+            idempotencyService.execute(ENDPOINT, "k1", "body", () ->
+                idempotencyService.execute(ENDPOINT, "k2", "body", () -> {
+                    ResponseEntity<BaseResponseDTO<String>> rejected =
+                        idempotencyService.execute(ENDPOINT, "k3", "body", created());
+                    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+                    assertEquals(HttpStatus.CONFLICT,
+                        idempotencyService.execute(ENDPOINT, "k0", "body", created()).getStatusCode());
+                    return respond(HttpStatus.CREATED);
+                })));
+
+        assertEquals(1, calls.get());
+        assertEquals(1.0, meterRegistry.get("idempotency.requests").tag("outcome", "busy").counter().count());
+    }
+
+    @Test
+    void testExecute_KeyTooLong_Returns400() {
+        ResponseEntity<BaseResponseDTO<String>> response =
+            idempotencyService.execute(ENDPOINT, "x".repeat(256), "body", created());
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(0, calls.get());
+    }
+
+    private Supplier<ResponseEntity<BaseResponseDTO<String>>> created() {
+        return () -> respond(HttpStatus.CREATED);
+    }
+
+    private ResponseEntity<BaseResponseDTO<String>> respond(HttpStatus status) {
+        calls.incrementAndGet();
+        var baseResponseDTO = new BaseResponseDTO<String>();
+        baseResponseDTO.setStatus(status.value());
+        baseResponseDTO.setData("call-" + calls.get());
+        baseResponseDTO.setTimestamp(new Date());
+        return new ResponseEntity<>(baseResponseDTO, status);
+    }
+
+    private static void loginAs(String userId) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+            new UserPrincipal(userId, userId, "Customer"), null, List.of()));
+    }
+}
@@ -0,0 +1,73 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import apap.ti._5.accommodation_2306275600_be.service.OutboxService.DispatchResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatchJobTest {
+
+    private static final Duration LEASE_TTL = Duration.ofSeconds(600);
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private SchedulerLeaseService schedulerLeaseService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxDispatchJob job;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        job = new OutboxDispatchJob(outboxService, schedulerLeaseService, meterRegistry, 600, 2, 5);
+    }
+
+    @Test
+    void testRun_NotLeader_SkipsTick() {
+        when(schedulerLeaseService.tryAcquire(OutboxDispatchJob.LEASE_NAME, LEASE_TTL)).thenReturn(false);
+
+        job.run();
+
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void testRun_RenewsLeaseBeforeEachBatch() {
+        when(schedulerLeaseService.tryAcquire(OutboxDispatchJob.LEASE_NAME, LEASE_TTL)).thenReturn(true);
+        when(outboxService.dispatchDue(2)).thenReturn(
+            new DispatchResult(2, 0, 0), new DispatchResult(2, 0, 0), new DispatchResult(1, 0, 0));
+
+        job.run();
+
+        InOrder inOrder = inOrder(schedulerLeaseService, outboxService);
+        for (int batch = 0; batch < 3; batch++) {
+            inOrder.verify(schedulerLeaseService).tryAcquire(OutboxDispatchJob.LEASE_NAME, LEASE_TTL);
+            inOrder.verify(outboxService).dispatchDue(2);
+        }
+        assertEquals(5.0, meterRegistry.get("outbox.dispatch.messages").tag("outcome", "sent").counter().count());
+    }
+
+    @Test
+    void testRun_StopsOnceLeaseIsLost() {
+        when(schedulerLeaseService.tryAcquire(OutboxDispatchJob.LEASE_NAME, LEASE_TTL)).thenReturn(true, false);
+        when(outboxService.dispatchDue(2)).thenReturn(new DispatchResult(2, 0, 0));
+
+        job.run();
+
+        verify(outboxService, times(1)).dispatchDue(2);
+        assertEquals(1L, meterRegistry.get("outbox.dispatch.run").timer().count());
+    }
+}
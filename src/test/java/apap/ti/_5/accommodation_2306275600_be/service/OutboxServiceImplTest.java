@@ -0,0 +1,229 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import apap.ti._5.accommodation_2306275600_be.model.OutboxMessage;
+import apap.ti._5.accommodation_2306275600_be.repository.OutboxMessageRepository;
+import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.CreateBillRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.service.OutboxService.DispatchResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs the outbox against the real database and a local stub Bill server.
+ * Dispatch has to run outside a transaction, so the test does too.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxServiceImplTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private StubBillServer billServer;
+    private OutboxServiceImpl outboxService;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        billServer = new StubBillServer();
+        outboxService = newOutboxService(billServer.url());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        billServer.close();
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void testDispatchDue_DeliversWithApiKeyAndMarksSent() {
+        enqueue("booking-1");
+        enqueue("booking-2");
+
+        DispatchResult result = outboxService.dispatchDue(10);
+
+        assertEquals(new DispatchResult(2, 0, 0), result);
+        assertEquals(2, billServer.requestCount());
+        assertTrue(billServer.receivedBodies().get(0).contains("\"apiKey\":\"TEST_API_KEY\""));
+        outboxRepository.findAll().forEach(message -> {
+            assertEquals(OutboxMessage.STATUS_SENT, message.getStatus());
+            assertEquals(1, message.getAttempts());
+            assertNotNull(message.getSentAt());
+        });
+        assertEquals(0, outboxService.countPending());
+    }
+
+    @Test
+    void testEnqueue_StoresPayloadWithoutApiKey() {
+        enqueue("booking-1");
+
+        OutboxMessage message = outboxRepository.findAll().get(0);
+        assertFalse(message.getPayload().contains("TEST_API_KEY"));
+        assertEquals(OutboxMessage.STATUS_PENDING, message.getStatus());
+        assertNotNull(message.getNextAttemptAt());
+    }
+
+    @Test
+    void testDispatchDue_RespectsBatchSizeInIdOrder() {
+        for (int i = 0; i < 5; i++) {
+            enqueue("booking-" + i);
+        }
+
+        assertEquals(2, outboxService.dispatchDue(2).sent());
+
+        assertEquals(2, billServer.requestCount());
+        assertTrue(billServer.receivedBodies().get(0).contains("booking-0"));
+        assertTrue(billServer.receivedBodies().get(1).contains("booking-1"));
+        assertEquals(3, outboxService.countPending());
+    }
+
+    @Test
+    void testDispatchDue_ServerError_RetriesWithBackoff() {
+        enqueue("booking-1");
+        billServer.respondWith(500);
+
+        DispatchResult result = outboxService.dispatchDue(10);
+
+        assertEquals(new DispatchResult(0, 1, 0), result);
+        OutboxMessage message = outboxRepository.findAll().get(0);
+        assertEquals(OutboxMessage.STATUS_PENDING, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertNotNull(message.getLastError());
+        assertTrue(message.getNextAttemptAt().isAfter(LocalDateTime.now()));
+
+        // Not due yet, so the next tick leaves it alone
+        assertEquals(0, outboxService.dispatchDue(10).total());
+        assertEquals(1, billServer.requestCount());
+    }
+
+    @Test
+    void testDispatchDue_GivesUpAfterMaxAttempts() {
+        enqueue("booking-1");
+        billServer.respondWith(503);
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            makeDue();
+            outboxService.dispatchDue(10);
+        }
+
+        OutboxMessage message = outboxRepository.findAll().get(0);
+        assertEquals(OutboxMessage.STATUS_DEAD, message.getStatus());
+        assertEquals(MAX_ATTEMPTS, message.getAttempts());
+        assertEquals(0, outboxService.countPending());
+
+        makeDue();
+        assertEquals(0, outboxService.dispatchDue(10).total());
+    }
+
+    @Test
+    void testDispatchDue_ClientError_DeadRightAway() {
+        enqueue("booking-1");
+        billServer.respondWith(400);
+
+        DispatchResult result = outboxService.dispatchDue(10);
+
+        assertEquals(new DispatchResult(0, 0, 1), result);
+        assertEquals(OutboxMessage.STATUS_DEAD, outboxRepository.findAll().get(0).getStatus());
+    }
+
+    @Test
+    void testDispatchDue_ServerUnreachable_StopsBatchEarly() {
+        enqueue("booking-1");
+        enqueue("booking-2");
+        enqueue("booking-3");
+        billServer.close();
+
+        DispatchResult result = outboxService.dispatchDue(10);
+
+        assertEquals(new DispatchResult(0, 1, 0), result);
+        List<OutboxMessage> messages = outboxRepository.findAll();
+        assertEquals(1, messages.stream().filter(message -> message.getAttempts() == 1).count());
+        assertEquals(2, messages.stream().filter(message -> message.getAttempts() == 0).count());
+    }
+
+    @Test
+    void testDispatchDue_TimeoutAfterServerApplied_RetryReusesIdempotencyKey() {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setReadTimeout(200);
+        outboxService = newOutboxService(billServer.url(), new RestTemplate(requestFactory));
+        enqueue("booking-1");
+        billServer.delay(Duration.ofMillis(1000));
+
+        // The stub has created the bill, but the answer arrives after the client gave up
+        assertEquals(new DispatchResult(0, 1, 0), outboxService.dispatchDue(10));
+        assertEquals(1, billServer.billsCreated());
+
+        billServer.delay(Duration.ZERO);
+        makeDue();
+        assertEquals(1, outboxService.dispatchDue(10).sent());
+
+        String messageId = String.valueOf(outboxRepository.findAll().get(0).getMessageId());
+        assertEquals(List.of(messageId, messageId), billServer.receivedIdempotencyKeys());
+        assertEquals(1, billServer.billsCreated());
+    }
+
+    @Test
+    void testBackoff_DoublesUpToCap() {
+        assertEquals(Duration.ofSeconds(5), outboxService.backoff(1));
+        assertEquals(Duration.ofSeconds(10), outboxService.backoff(2));
+        assertEquals(Duration.ofSeconds(40), outboxService.backoff(4));
+        assertEquals(Duration.ofSeconds(60), outboxService.backoff(5));
+        assertEquals(Duration.ofSeconds(60), outboxService.backoff(100));
+    }
+
+    private OutboxServiceImpl newOutboxService(String url) {
+        return newOutboxService(url, new RestTemplate());
+    }
+
+    private OutboxServiceImpl newOutboxService(String url, RestTemplate restTemplate) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BillServiceCircuitBreaker circuitBreaker = new BillServiceCircuitBreaker(meterRegistry, 100, 30000, 1, 16);
+        BillServiceClient billServiceClient = new RestTemplateBillServiceClient(restTemplate, circuitBreaker,
+            meterRegistry, url, "TEST_API_KEY");
+        return new OutboxServiceImpl(outboxRepository, billServiceClient, new ObjectMapper(), transactionManager,
+            MAX_ATTEMPTS, 5, 60);
+    }
+
+    private void enqueue(String referenceId) {
+        CreateBillRequestDTO request = CreateBillRequestDTO.builder()
+            .customerId(UUID.randomUUID())
+            .serviceName("Accommodation")
+            .serviceReferenceId(referenceId)
+            .description("Accommodation Booking - " + referenceId)
+            .amount(100000L)
+            .build();
+        transactionTemplate.executeWithoutResult(status ->
+            outboxService.enqueue(OutboxMessage.TYPE_BILL_CREATE, referenceId, request));
+    }
+
+    private void makeDue() {
+        List<OutboxMessage> messages = outboxRepository.findAll();
+        messages.forEach(message -> message.setNextAttemptAt(LocalDateTime.now().minusSeconds(1)));
+        outboxRepository.saveAll(messages);
+    }
+}
@@ -0,0 +1,132 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import apap.ti._5.accommodation_2306275600_be.exceptions.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHashingServiceImplTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+    private PasswordHashingServiceImpl passwordHashingService;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (passwordHashingService != null) {
+            passwordHashingService.shutdown();
+        }
+    }
+
+    @Test
+    void testMatchesAndEncode_DelegateToEncoder() {
+        passwordHashingService = new PasswordHashingServiceImpl(new BCryptPasswordEncoder(4), meterRegistry, 2, 4, 5000);
+
+        String hash = passwordHashingService.encode("Rahasia123!");
+
+        assertTrue(passwordHashingService.matches("Rahasia123!", hash));
+        assertFalse(passwordHashingService.matches("salah", hash));
+        assertEquals(2, meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count());
+        assertEquals(1, meterRegistry.get("auth.password.hash").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void testSaturatedPool_RejectsFastAndNeverExceedsPoolSize() throws Exception {
+        BlockingEncoder encoder = new BlockingEncoder();
+        passwordHashingService = new PasswordHashingServiceImpl(encoder, meterRegistry, 2, 2, 5000);
+
+        // 2 running + 2 queued fill the pool
+        List<Future<Boolean>> admitted = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            admitted.add(callers.submit(() -> passwordHashingService.matches("pw", "hash")));
+        }
+        assertTrue(encoder.started.await(5, TimeUnit.SECONDS));
+        waitForQueueDepth(2);
+
+        long start = System.nanoTime();
+        assertThrows(ServiceBusyException.class, () -> passwordHashingService.matches("pw", "hash"));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 100, "rejection should not wait");
+        assertEquals(1, meterRegistry.get("auth.password.rejected").tag("reason", "queue-full").counter().count());
+
+        encoder.release.countDown();
+        for (Future<Boolean> future : admitted) {
+            assertTrue(future.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, encoder.maxConcurrent.get());
+    }
+
+    @Test
+    void testSlowHash_TimesOut() {
+        BlockingEncoder encoder = new BlockingEncoder();
+        passwordHashingService = new PasswordHashingServiceImpl(encoder, meterRegistry, 1, 1, 100);
+
+        assertThrows(ServiceBusyException.class, () -> passwordHashingService.matches("pw", "hash"));
+        assertEquals(1, meterRegistry.get("auth.password.rejected").tag("reason", "timeout").counter().count());
+        encoder.release.countDown();
+    }
+
+    @Test
+    void testEncoderFailure_PropagatesOriginalException() {
+        PasswordEncoder failing = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                throw new IllegalArgumentException("Encoded password does not look like BCrypt");
+            }
+        };
+        passwordHashingService = new PasswordHashingServiceImpl(failing, meterRegistry, 1, 1, 5000);
+
+        assertThrows(IllegalArgumentException.class, () -> passwordHashingService.matches("pw", "not-bcrypt"));
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("auth.password.queue.depth").gauge().value() < depth) {
+            assertTrue(System.currentTimeMillis() < deadline, "queue never filled");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Holds every matches() call until released, and records how many ran at once
+     */
+    private static class BlockingEncoder implements PasswordEncoder {
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            maxConcurrent.accumulateAndGet(running.incrementAndGet(), Math::max);
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import apap.ti._5.accommodation_2306275600_be.service.PropertySearchIndex.Document;
+import apap.ti._5.accommodation_2306275600_be.service.PropertySearchIndex.Result;
+
+class PropertySearchIndexTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    private PropertySearchIndex index;
+    private UUID ownerId;
+
+    @BeforeEach
+    void setUp() {
+        index = new PropertySearchIndex();
+        ownerId = UUID.randomUUID();
+    }
+
+    @Test
+    void testSearch_EveryWordMustMatchSomeField() {
+        Document melati = put("Hotel Melati", "Jl. Malioboro 12, Yogyakarta", "Dekat stasiun", 1, 34, 0);
+        put("Villa Mawar", "Jl. Kaliurang, Yogyakarta", "Kolam renang pribadi", 2, 34, 1);
+        put("Hotel Kenanga", "Jl. Thamrin, Jakarta", "Dekat stasiun MRT", 1, 31, 2);
+
+        assertEquals(List.of(melati.propertyID()), search("melati yogyakarta").propertyIDs());
+        assertEquals(List.of(melati.propertyID()), search("stasiun malioboro").propertyIDs());
+        assertTrue(search("melati jakarta").propertyIDs().isEmpty());
+    }
+
+    @Test
+    void testSearch_WordPrefixMatches() {
+        Document melati = put("Hotel Melati", "Jl. Malioboro", null, 1, 34, 0);
+
+        assertEquals(List.of(melati.propertyID()), search("mela").propertyIDs());
+        assertEquals(List.of(melati.propertyID()), search("MALIO").propertyIDs());
+        assertTrue(search("elati").propertyIDs().isEmpty());
+    }
+
+    @Test
+    void testSearch_RanksNameAboveAddressAboveDescription() {
+        Document inDescription = put("Hotel Kenanga", "Jl. Thamrin", "Pemandangan pantai", 1, 31, 2);
+        Document inAddress = put("Hotel Kenari", "Jl. Pantai Indah", "Kamar luas", 1, 31, 1);
+        Document inName = put("Pantai Resort", "Jl. Sudirman", "Sarapan gratis", 1, 31, 0);
+
+        assertEquals(List.of(inName.propertyID(), inAddress.propertyID(), inDescription.propertyID()),
+            search("pantai").propertyIDs());
+    }
+
+    @Test
+    void testSearch_ExactWordRanksAbovePrefix() {
+        Document prefix = put("Hotel Melatiku", "Jl. A", null, 1, 34, 1);
+        Document exact = put("Hotel Melati", "Jl. B", null, 1, 34, 0);
+
+        assertEquals(List.of(exact.propertyID(), prefix.propertyID()), search("melati").propertyIDs());
+    }
+
+    @Test
+    void testSearch_BlankQueryListsNewestFirst() {
+        Document oldest = put("Hotel A", "Jl. A", null, 1, 34, 0);
+        Document newest = put("Hotel B", "Jl. B", null, 1, 34, 5);
+
+        assertEquals(List.of(newest.propertyID(), oldest.propertyID()), search(" ").propertyIDs());
+        assertEquals(List.of(newest.propertyID(), oldest.propertyID()), search(null).propertyIDs());
+    }
+
+    @Test
+    void testSearch_FacetsIgnoreTheirOwnFilter() {
+        put("Hotel Yogya", "Yogyakarta", null, 1, 34, 0);
+        put("Villa Yogya", "Yogyakarta", null, 2, 34, 1);
+        put("Hotel Jakarta", "Jakarta", null, 1, 31, 2);
+        put("Apartemen Jakarta", "Jakarta", null, 3, 31, 3);
+
+        Result result = index.search("", 1, 34, null, 0, 10);
+
+        assertEquals(1, result.totalHits());
+        // Type counts keep the province filter, province counts keep the type filter
+        assertEquals(Map.of(1, 1L, 2, 1L), result.typeCounts());
+        assertEquals(Map.of(31, 1L, 34, 1L), result.provinceCounts());
+    }
+
+    @Test
+    void testSearch_PagesAndScopesToOwner() {
+        for (int i = 0; i < 5; i++) {
+            put("Hotel " + i, "Jl. " + i, null, 1, 34, i);
+        }
+        UUID otherOwner = UUID.randomUUID();
+        index.put(new Document(UUID.randomUUID(), T0, otherOwner, 1, 34, "Hotel Lain", "Jl. Lain", null));
+
+        Result first = index.search("hotel", null, null, ownerId, 0, 2);
+        Result last = index.search("hotel", null, null, ownerId, 4, 2);
+
+        assertEquals(5, first.totalHits());
+        assertEquals(2, first.propertyIDs().size());
+        assertEquals(1, last.propertyIDs().size());
+        assertEquals(1, index.search("hotel", null, null, otherOwner, 0, 10).totalHits());
+    }
+
+    @Test
+    void testPutAndRemove_KeepPostingsInSync() {
+        Document melati = put("Hotel Melati", "Jl. Malioboro", null, 1, 34, 0);
+        index.put(new Document(melati.propertyID(), melati.createdDate(), ownerId, 2, 31,
+            "Villa Mawar", "Jl. Thamrin", null));
+
+        assertTrue(search("melati").propertyIDs().isEmpty());
+        assertEquals(List.of(melati.propertyID()), search("mawar thamrin").propertyIDs());
+        assertEquals(Map.of(2, 1L), search("mawar").typeCounts());
+
+        index.remove(melati.propertyID());
+        assertTrue(search("mawar").propertyIDs().isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    private Result search(String query) {
+        return index.search(query, null, null, null, 0, 10);
+    }
+
+    private Document put(String name, String address, String description, int type, int province, int minutes) {
+        Document document = new Document(UUID.randomUUID(), T0.plusMinutes(minutes), ownerId, type, province,
+            name, address, description);
+        index.put(document);
+        return document;
+    }
+}
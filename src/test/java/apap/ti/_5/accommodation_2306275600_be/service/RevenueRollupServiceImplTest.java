@@ -0,0 +1,130 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import apap.ti._5.accommodation_2306275600_be.model.PropertyMonthlyRevenue;
+import apap.ti._5.accommodation_2306275600_be.model.RoomCalendarMonth;
+import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository.MonthlyRevenueAggregate;
+import apap.ti._5.accommodation_2306275600_be.repository.PropertyMonthlyRevenueRepository;
+
+@ExtendWith(MockitoExtension.class)
+class RevenueRollupServiceImplTest {
+
+    @Mock
+    private PropertyMonthlyRevenueRepository revenueRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private RevenueRollupServiceImpl revenueRollupService;
+
+    private UUID propertyId;
+    private int decemberKey;
+
+    @BeforeEach
+    void setUp() {
+        propertyId = UUID.randomUUID();
+        decemberKey = RoomCalendarMonth.monthKeyOf(LocalDate.of(2025, 12, 1));
+    }
+
+    @Test
+    void testRecordCompletedBookings_UpsertsOneRowPerPropertyMonth() {
+        MonthlyRevenueAggregate aggregate = mock(MonthlyRevenueAggregate.class);
+        when(aggregate.getPropertyID()).thenReturn(propertyId);
+        when(aggregate.getPeriodYear()).thenReturn(2025);
+        when(aggregate.getPeriodMonth()).thenReturn(12);
+        when(aggregate.getTotalBookings()).thenReturn(2L);
+        when(aggregate.getTotalRevenue()).thenReturn(1500000L);
+        List<UUID> bookingIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(bookingRepository.aggregateDoneRevenueByPropertyAndMonthForBookings(bookingIds))
+            .thenReturn(List.of(aggregate));
+
+        revenueRollupService.recordCompletedBookings(bookingIds);
+
+        verify(revenueRepository).addRevenue(eq(propertyId), eq(decemberKey), eq(2), eq(1500000L), any());
+        verify(revenueRepository, never()).save(any());
+    }
+
+    @Test
+    void testRecordCompletedBookings_IgnoresEmptyChunk() {
+        revenueRollupService.recordCompletedBookings(Collections.emptyList());
+
+        verifyNoInteractions(revenueRepository, bookingRepository);
+    }
+
+    @Test
+    void testGetMonthlyRevenue_ReadsSingleMonthKey() {
+        when(revenueRepository.findRevenueByMonthKeyRange(decemberKey, decemberKey))
+            .thenReturn(Collections.emptyList());
+
+        assertTrue(revenueRollupService.getMonthlyRevenue(2025, 12).isEmpty());
+        verify(revenueRepository).findRevenueByMonthKeyRange(decemberKey, decemberKey);
+    }
+
+    @Test
+    void testWarmUp_WithoutLease_LeavesBackfillToLeaseHolder() {
+        when(revenueRepository.count()).thenReturn(0L);
+        when(schedulerLeaseService.tryAcquire(eq(RevenueRollupServiceImpl.BACKFILL_LEASE_NAME), any()))
+            .thenReturn(false);
+
+        revenueRollupService.warmUp();
+
+        verify(revenueRepository, never()).deleteAllInBatch();
+        verifyNoInteractions(bookingRepository, transactionManager);
+    }
+
+    @Test
+    void testWarmUp_FilledRollup_SkipsLease() {
+        when(revenueRepository.count()).thenReturn(24L);
+
+        revenueRollupService.warmUp();
+
+        verifyNoInteractions(schedulerLeaseService, bookingRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBackfill_RebuildsFromAggregate() {
+        MonthlyRevenueAggregate aggregate = mock(MonthlyRevenueAggregate.class);
+        when(aggregate.getPropertyID()).thenReturn(propertyId);
+        when(aggregate.getPeriodYear()).thenReturn(2025);
+        when(aggregate.getPeriodMonth()).thenReturn(12);
+        when(aggregate.getTotalBookings()).thenReturn(4L);
+        when(aggregate.getTotalRevenue()).thenReturn(2000000L);
+        when(bookingRepository.aggregateDoneRevenueByPropertyAndMonth()).thenReturn(List.of(aggregate));
+
+        revenueRollupService.backfill();
+
+        verify(revenueRepository).deleteAllInBatch();
+        ArgumentCaptor<List<PropertyMonthlyRevenue>> captor = ArgumentCaptor.forClass(List.class);
+        verify(revenueRepository).saveAll(captor.capture());
+        PropertyMonthlyRevenue row = captor.getValue().get(0);
+        assertEquals(decemberKey, row.getMonthKey());
+        assertEquals(4, row.getTotalBookings());
+        assertEquals(2000000L, row.getTotalRevenue());
+    }
+}
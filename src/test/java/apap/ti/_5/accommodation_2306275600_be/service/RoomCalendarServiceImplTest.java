@@ -0,0 +1,248 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import apap.ti._5.accommodation_2306275600_be.model.Property;
+import apap.ti._5.accommodation_2306275600_be.model.Room;
+import apap.ti._5.accommodation_2306275600_be.model.RoomCalendarMonth;
+import apap.ti._5.accommodation_2306275600_be.model.RoomType;
+import apap.ti._5.accommodation_2306275600_be.repository.BookingRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.RoomCalendarMonthRepository;
+import apap.ti._5.accommodation_2306275600_be.repository.RoomRepository;
+
+@ExtendWith(MockitoExtension.class)
+class RoomCalendarServiceImplTest {
+
+    @Mock
+    private RoomCalendarMonthRepository calendarRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private RoomCalendarServiceImpl roomCalendarService;
+
+    private UUID roomId;
+    private UUID propertyId;
+    private Room testRoom;
+    private int januaryKey;
+
+    @BeforeEach
+    void setUp() {
+        roomId = UUID.randomUUID();
+        propertyId = UUID.randomUUID();
+
+        Property property = Property.builder().propertyID(propertyId).build();
+        RoomType roomType = RoomType.builder().roomTypeID(UUID.randomUUID()).property(property).build();
+        testRoom = Room.builder().roomID(roomId).roomType(roomType).build();
+
+        januaryKey = RoomCalendarMonth.monthKeyOf(LocalDate.of(2025, 1, 1));
+    }
+
+    @Test
+    void testDayMask_ClipsToMonth() {
+        // Jan 30 -> Feb 2 (exclusive) covers Jan 30, Jan 31, Feb 1
+        LocalDate from = LocalDate.of(2025, 1, 30);
+        LocalDate to = LocalDate.of(2025, 2, 2);
+
+        assertEquals((1L << 29) | (1L << 30), RoomCalendarServiceImpl.dayMask(januaryKey, from, to));
+        assertEquals(1L, RoomCalendarServiceImpl.dayMask(januaryKey + 1, from, to));
+        assertEquals(0L, RoomCalendarServiceImpl.dayMask(januaryKey + 2, from, to));
+    }
+
+    @Test
+    void testDayAfterLast_EndAtMidnightDoesNotTouchThatDay() {
+        assertEquals(LocalDate.of(2025, 1, 13), RoomCalendarServiceImpl.dayAfterLast(
+            LocalDateTime.of(2025, 1, 10, 14, 0), LocalDateTime.of(2025, 1, 12, 12, 0)));
+        assertEquals(LocalDate.of(2025, 1, 12), RoomCalendarServiceImpl.dayAfterLast(
+            LocalDateTime.of(2025, 1, 10, 14, 0), LocalDateTime.of(2025, 1, 12, 0, 0)));
+    }
+
+    @Test
+    void testHasBookingDuring_SharedCheckOutDay_DecidedBySqlOverlap() {
+        // Stay Jan 10 14:00 -> Jan 12 12:00 touches Jan 10, 11 and 12
+        RoomCalendarMonth january = RoomCalendarMonth.builder()
+            .roomID(roomId)
+            .monthKey(januaryKey)
+            .propertyID(propertyId)
+            .bookedDays((1L << 9) | (1L << 10) | (1L << 11))
+            .build();
+        when(calendarRepository.findByRoomIDAndMonthKeyBetween(eq(roomId), anyInt(), anyInt()))
+            .thenReturn(List.of(january));
+        LocalDateTime start = LocalDateTime.of(2025, 1, 12, 14, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 1, 14, 12, 0);
+        when(bookingRepository.existsBookingsDuringPeriod(roomId, start, end)).thenReturn(false);
+
+        // Same day as the check-out but after it: free, like the property search
+        assertFalse(roomCalendarService.hasBookingDuring(roomId, start, end));
+        verify(bookingRepository).existsBookingsDuringPeriod(roomId, start, end);
+    }
+
+    @Test
+    void testHasBookingDuring_NoMarkedDay_SkipsSql() {
+        RoomCalendarMonth january = RoomCalendarMonth.builder()
+            .roomID(roomId)
+            .monthKey(januaryKey)
+            .propertyID(propertyId)
+            .bookedDays((1L << 9) | (1L << 10) | (1L << 11))
+            .maintenanceDays(-1L)
+            .build();
+        when(calendarRepository.findByRoomIDAndMonthKeyBetween(eq(roomId), anyInt(), anyInt()))
+            .thenReturn(List.of(january));
+
+        assertFalse(roomCalendarService.hasBookingDuring(roomId,
+            LocalDateTime.of(2025, 1, 13, 14, 0), LocalDateTime.of(2025, 1, 15, 12, 0)));
+        assertFalse(roomCalendarService.hasBookingDuring(roomId,
+            LocalDateTime.of(2025, 1, 7, 14, 0), LocalDateTime.of(2025, 1, 9, 12, 0)));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void testFindBookedRoomIDs_ConfirmsMarkedRoomsInSql() {
+        UUID freeRoomId = UUID.randomUUID();
+        UUID sameDayRoomId = UUID.randomUUID();
+        RoomCalendarMonth booked = RoomCalendarMonth.builder()
+            .roomID(roomId).monthKey(januaryKey).propertyID(propertyId).bookedDays(1L << 4).build();
+        RoomCalendarMonth sameDay = RoomCalendarMonth.builder()
+            .roomID(sameDayRoomId).monthKey(januaryKey).propertyID(propertyId).bookedDays(1L << 3).build();
+        RoomCalendarMonth free = RoomCalendarMonth.builder()
+            .roomID(freeRoomId).monthKey(januaryKey).propertyID(propertyId).bookedDays(1L << 20).build();
+        when(calendarRepository.findByPropertyIDAndMonthKeyBetween(propertyId, januaryKey, januaryKey))
+            .thenReturn(Arrays.asList(booked, sameDay, free));
+        LocalDateTime start = LocalDateTime.of(2025, 1, 4, 14, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 1, 6, 12, 0);
+        when(bookingRepository.findBookedRoomIDsAmongRoomsAndPeriod(Set.of(roomId, sameDayRoomId), start, end))
+            .thenReturn(List.of(roomId));
+
+        Set<UUID> result = roomCalendarService.findBookedRoomIDs(propertyId, start, end);
+
+        assertEquals(Set.of(roomId), result);
+        verifyNoInteractions(roomRepository);
+    }
+
+    @Test
+    void testFindBookedRoomIDs_IncludesRoomsUnderMaintenance() {
+        RoomCalendarMonth maintenance = RoomCalendarMonth.builder()
+            .roomID(roomId).monthKey(januaryKey).propertyID(propertyId).maintenanceDays(1L << 5).build();
+        when(calendarRepository.findByPropertyIDAndMonthKeyBetween(propertyId, januaryKey, januaryKey))
+            .thenReturn(List.of(maintenance));
+        LocalDateTime start = LocalDateTime.of(2025, 1, 4, 14, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 1, 6, 12, 0);
+        when(roomRepository.findRoomIDsUnderMaintenanceDuring(Set.of(roomId), start, end))
+            .thenReturn(List.of(roomId));
+
+        Set<UUID> result = roomCalendarService.findBookedRoomIDs(propertyId, start, end);
+
+        assertEquals(Set.of(roomId), result);
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void testWarmUp_WithoutLease_LeavesBackfillToLeaseHolder() {
+        when(calendarRepository.count()).thenReturn(0L);
+        when(schedulerLeaseService.tryAcquire(eq(RoomCalendarServiceImpl.BACKFILL_LEASE_NAME), any()))
+            .thenReturn(false);
+
+        roomCalendarService.warmUp();
+
+        verify(calendarRepository, never()).deleteAllInBatch();
+        verifyNoInteractions(roomRepository, transactionManager);
+    }
+
+    @Test
+    void testWarmUp_FilledCalendar_SkipsLease() {
+        when(calendarRepository.count()).thenReturn(12L);
+
+        roomCalendarService.warmUp();
+
+        verifyNoInteractions(schedulerLeaseService, roomRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUpdateMaintenance_ReplacesPreviousWindow() {
+        RoomCalendarMonth january = RoomCalendarMonth.builder()
+            .roomID(roomId)
+            .monthKey(januaryKey)
+            .propertyID(propertyId)
+            .maintenanceDays((1L << 0) | (1L << 1))
+            .bookedDays(1L << 20)
+            .build();
+        when(calendarRepository.findByRoomIDAndMonthKeyBetween(roomId, januaryKey, januaryKey))
+            .thenReturn(List.of(january));
+
+        testRoom.setMaintenanceStart(LocalDateTime.of(2025, 1, 5, 8, 0));
+        testRoom.setMaintenanceEnd(LocalDateTime.of(2025, 1, 6, 17, 0));
+
+        roomCalendarService.updateMaintenance(testRoom,
+            LocalDateTime.of(2025, 1, 1, 8, 0), LocalDateTime.of(2025, 1, 3, 17, 0));
+
+        ArgumentCaptor<List<RoomCalendarMonth>> captor = ArgumentCaptor.forClass(List.class);
+        verify(calendarRepository).saveAll(captor.capture());
+        RoomCalendarMonth saved = captor.getValue().get(0);
+        assertEquals(1L << 4, saved.getMaintenanceDays());
+        assertEquals(1L << 20, saved.getBookedDays());
+    }
+
+    @Test
+    void testUpdateMaintenance_LocksRoomBeforeReadingMonths() {
+        when(calendarRepository.findByRoomIDAndMonthKeyBetween(roomId, januaryKey, januaryKey))
+            .thenReturn(Collections.emptyList());
+        testRoom.setMaintenanceStart(LocalDateTime.of(2025, 1, 5, 8, 0));
+        testRoom.setMaintenanceEnd(LocalDateTime.of(2025, 1, 6, 17, 0));
+
+        roomCalendarService.updateMaintenance(testRoom, null, null);
+
+        InOrder inOrder = inOrder(roomRepository, calendarRepository);
+        inOrder.verify(roomRepository).lockForBooking(roomId);
+        inOrder.verify(calendarRepository).findByRoomIDAndMonthKeyBetween(roomId, januaryKey, januaryKey);
+    }
+
+    @Test
+    void testRefreshBookedDays_DeletesMonthThatBecameEmpty() {
+        RoomCalendarMonth january = RoomCalendarMonth.builder()
+            .roomID(roomId)
+            .monthKey(januaryKey)
+            .propertyID(propertyId)
+            .bookedDays(1L << 9)
+            .build();
+        when(calendarRepository.findByRoomIDAndMonthKeyBetween(roomId, januaryKey, januaryKey))
+            .thenReturn(List.of(january));
+        when(bookingRepository.findActiveBookingIntervalsByRoomAndPeriod(eq(roomId), any(), any()))
+            .thenReturn(Collections.emptyList());
+
+        roomCalendarService.refreshBookedDays(testRoom,
+            LocalDateTime.of(2025, 1, 10, 14, 0), LocalDateTime.of(2025, 1, 11, 12, 0));
+
+        verify(calendarRepository).deleteAll(List.of(january));
+    }
+}
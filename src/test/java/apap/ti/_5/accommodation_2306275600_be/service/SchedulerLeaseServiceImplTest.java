@@ -0,0 +1,83 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import apap.ti._5.accommodation_2306275600_be.model.SchedulerLease;
+import apap.ti._5.accommodation_2306275600_be.repository.SchedulerLeaseRepository;
+
+@ExtendWith(MockitoExtension.class)
+class SchedulerLeaseServiceImplTest {
+
+    private static final String LEASE = "booking-lifecycle";
+
+    @Mock
+    private SchedulerLeaseRepository leaseRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SchedulerLeaseServiceImpl leaseService;
+
+    @BeforeEach
+    void setUp() {
+        leaseService = new SchedulerLeaseServiceImpl(leaseRepository, transactionManager);
+    }
+
+    @Test
+    void testTryAcquire_RenewsOrTakesOverExistingRow() {
+        when(leaseRepository.claim(eq(LEASE), eq(leaseService.getHolderId()), any(), any())).thenReturn(1);
+
+        assertTrue(leaseService.tryAcquire(LEASE, Duration.ofMinutes(10)));
+        verify(leaseRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testTryAcquire_HeldByLiveNode_ReturnsFalse() {
+        when(leaseRepository.claim(eq(LEASE), anyString(), any(), any())).thenReturn(0);
+        when(leaseRepository.existsById(LEASE)).thenReturn(true);
+
+        assertFalse(leaseService.tryAcquire(LEASE, Duration.ofMinutes(10)));
+        verify(leaseRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testTryAcquire_CreatesRowOnFirstRun() {
+        when(leaseRepository.claim(eq(LEASE), anyString(), any(), any())).thenReturn(0);
+        when(leaseRepository.existsById(LEASE)).thenReturn(false);
+
+        assertTrue(leaseService.tryAcquire(LEASE, Duration.ofMinutes(10)));
+        verify(leaseRepository).saveAndFlush(any(SchedulerLease.class));
+    }
+
+    @Test
+    void testTryAcquire_LosesInsertRace_ReturnsFalse() {
+        when(leaseRepository.claim(eq(LEASE), anyString(), any(), any())).thenReturn(0);
+        when(leaseRepository.existsById(LEASE)).thenReturn(false);
+        when(leaseRepository.saveAndFlush(any(SchedulerLease.class)))
+            .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertFalse(leaseService.tryAcquire(LEASE, Duration.ofMinutes(10)));
+    }
+
+    @Test
+    void testReleaseAll_ReleasesHeldLeases() {
+        when(leaseRepository.claim(eq(LEASE), anyString(), any(), any())).thenReturn(1);
+        leaseService.tryAcquire(LEASE, Duration.ofMinutes(10));
+
+        leaseService.releaseAll();
+
+        verify(leaseRepository).release(eq(LEASE), eq(leaseService.getHolderId()), any());
+    }
+}
@@ -0,0 +1,111 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for the external Bill service. Records every request body
+ * and answers with a configurable status after a configurable delay. Like the
+ * real service it creates a bill only once per Idempotency-Key.
+ */
+public class StubBillServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final List<String> receivedBodies = new CopyOnWriteArrayList<>();
+    private final List<String> receivedIdempotencyKeys = new CopyOnWriteArrayList<>();
+    private final Set<String> appliedKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger billsCreated = new AtomicInteger();
+    private volatile int status = 201;
+    private volatile Duration delay = Duration.ZERO;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private boolean closed;
+
+    public StubBillServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/bill/create", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void respondWith(int status) {
+        this.status = status;
+    }
+
+    public void delay(Duration delay) {
+        this.delay = delay;
+    }
+
+    public List<String> receivedBodies() {
+        return receivedBodies;
+    }
+
+    public int requestCount() {
+        return receivedBodies.size();
+    }
+
+    public List<String> receivedIdempotencyKeys() {
+        return receivedIdempotencyKeys;
+    }
+
+    // Bills the stub would hold, counting repeats of one Idempotency-Key once
+    public int billsCreated() {
+        return billsCreated.get();
+    }
+
+    // Highest number of requests the stub was handling at the same time
+    public int maxConcurrentRequests() {
+        return maxInFlight.get();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            server.stop(0);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        receivedBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        String idempotencyKey = exchange.getRequestHeaders().getFirst(BillServiceClient.IDEMPOTENCY_KEY_HEADER);
+        receivedIdempotencyKeys.add(String.valueOf(idempotencyKey));
+        // Applied before the (possibly delayed) response, as a slow server would
+        if (status < 300 && (idempotencyKey == null || appliedKeys.add(idempotencyKey))) {
+            billsCreated.incrementAndGet();
+        }
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            if (!delay.isZero()) {
+                Thread.sleep(delay.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+
+        byte[] response = ("{\"status\":" + status + "}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(response);
+        }
+    }
+}
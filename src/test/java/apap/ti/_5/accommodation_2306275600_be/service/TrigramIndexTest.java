@@ -0,0 +1,74 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TrigramIndexTest {
+
+    private TrigramIndex<Integer> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex<>();
+        index.put(1, "Hotel Melati");
+        index.put(2, "Villa Mawar");
+        index.put(3, "Melati Residence");
+    }
+
+    @Test
+    void testSearch_SubstringIgnoringCase() {
+        assertEquals(Set.of(1, 3), index.search("MELATI"));
+        assertEquals(Set.of(1), index.search("tel mel"));
+        assertEquals(Set.of(), index.search("melatti"));
+    }
+
+    @Test
+    void testSearch_TrigramsMustAppearTogether() {
+        // "mel" and "war" are both indexed, but never in one text as "melwar"
+        index.put(4, "melxwar");
+
+        assertEquals(Set.of(), index.search("melwar"));
+    }
+
+    @Test
+    void testSearch_ShortKeywordScansTexts() {
+        assertEquals(Set.of(2), index.search("aw"));
+        assertEquals(Set.of(1, 2, 3), index.search("a"));
+        assertEquals(Set.of(1, 2, 3), index.search(""));
+    }
+
+    @Test
+    void testSearchUntil_StopsScanningAtDeadline() {
+        for (int i = 4; i < 1000; i++) {
+            index.put(i, "Room " + i);
+        }
+        Set<Integer> found = new HashSet<>();
+
+        assertTrue(index.searchUntil("melati", System.nanoTime() + 1_000_000_000L, found::add));
+        assertEquals(Set.of(1, 3), found);
+        // Past deadline: the short keyword gives up part way through the stored texts
+        assertFalse(index.searchUntil("zz", System.nanoTime() - 1, found::add));
+    }
+
+    @Test
+    void testPut_ReplacesPreviousText() {
+        index.put(1, "Hotel Kenanga");
+
+        assertEquals(Set.of(3), index.search("melati"));
+        assertEquals(Set.of(1), index.search("kenanga"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testRemove_DropsKey() {
+        index.remove(3);
+
+        assertEquals(Set.of(1), index.search("melati"));
+        assertFalse(index.containsKey(3));
+    }
+}
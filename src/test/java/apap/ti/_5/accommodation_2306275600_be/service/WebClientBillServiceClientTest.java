@@ -0,0 +1,149 @@
+package apap.ti._5.accommodation_2306275600_be.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import apap.ti._5.accommodation_2306275600_be.restdto.request.bill.CreateBillRequestDTO;
+import apap.ti._5.accommodation_2306275600_be.service.BillServiceClient.BillRequest;
+import apap.ti._5.accommodation_2306275600_be.service.BillServiceClient.DeliveryOutcome;
+import apap.ti._5.accommodation_2306275600_be.service.BillServiceClient.DeliveryStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class WebClientBillServiceClientTest {
+
+    private static final int MAX_IN_FLIGHT = 4;
+
+    private StubBillServer billServer;
+    private SimpleMeterRegistry meterRegistry;
+    private WebClientBillServiceClient billServiceClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        billServer = new StubBillServer();
+        meterRegistry = new SimpleMeterRegistry();
+        billServiceClient = new WebClientBillServiceClient(WebClient.create(), permissiveCircuitBreaker(), meterRegistry,
+            billServer.url(), "TEST_API_KEY", MAX_IN_FLIGHT, 5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        billServer.close();
+    }
+
+    @Test
+    void testCreateBills_AllSentWithApiKey() {
+        List<DeliveryOutcome> outcomes = billServiceClient.createBills(requests(6));
+
+        assertEquals(6, outcomes.size());
+        assertTrue(outcomes.stream().allMatch(outcome -> outcome.status() == DeliveryStatus.SENT));
+        assertEquals(6, billServer.requestCount());
+        assertTrue(billServer.receivedBodies().stream().allMatch(body -> body.contains("\"apiKey\":\"TEST_API_KEY\"")));
+        assertEquals(6, billServer.receivedIdempotencyKeys().stream().filter(key -> key.startsWith("message-")).count());
+        assertEquals(1, meterRegistry.get("bill.client.batch").tag("mode", "reactive").timer().count());
+    }
+
+    @Test
+    void testCreateBills_ConcurrentButBoundedByMaxInFlight() {
+        billServer.delay(Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        List<DeliveryOutcome> outcomes = billServiceClient.createBills(requests(12));
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(outcomes.stream().allMatch(outcome -> outcome.status() == DeliveryStatus.SENT));
+        assertTrue(billServer.maxConcurrentRequests() > 1, "requests should overlap");
+        assertTrue(billServer.maxConcurrentRequests() <= MAX_IN_FLIGHT,
+            "at most " + MAX_IN_FLIGHT + " in flight, saw " + billServer.maxConcurrentRequests());
+        // 12 x 200 ms one after another would take 2.4 s
+        assertTrue(elapsedMs < 1800, "batch took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void testCreateBills_FasterThanBlockingClientForSameBatch() {
+        billServer.delay(Duration.ofMillis(100));
+        RestTemplateBillServiceClient blockingClient = new RestTemplateBillServiceClient(new RestTemplate(),
+            permissiveCircuitBreaker(), meterRegistry, billServer.url(), "TEST_API_KEY");
+
+        long blockingMs = time(() -> blockingClient.createBills(requests(8)));
+        long reactiveMs = time(() -> billServiceClient.createBills(requests(8)));
+
+        assertTrue(reactiveMs < blockingMs, "reactive " + reactiveMs + " ms vs blocking " + blockingMs + " ms");
+    }
+
+    @Test
+    void testCreateBills_ClientErrorRejected() {
+        billServer.respondWith(400);
+
+        List<DeliveryOutcome> outcomes = billServiceClient.createBills(requests(2));
+
+        assertTrue(outcomes.stream().allMatch(outcome -> outcome.status() == DeliveryStatus.REJECTED));
+        assertNotNull(outcomes.get(0).error());
+    }
+
+    @Test
+    void testCreateBills_ServerErrorAndThrottlingRetried() {
+        billServer.respondWith(503);
+        assertEquals(DeliveryStatus.RETRY, billServiceClient.createBills(requests(1)).get(0).status());
+
+        billServer.respondWith(429);
+        assertEquals(DeliveryStatus.RETRY, billServiceClient.createBills(requests(1)).get(0).status());
+    }
+
+    @Test
+    void testCreateBills_ServerUnreachable() {
+        billServer.close();
+
+        List<DeliveryOutcome> outcomes = billServiceClient.createBills(requests(10));
+
+        assertEquals(10, outcomes.size());
+        // Up to maxInFlight requests may already be connecting when the first one fails
+        assertTrue(outcomes.stream().noneMatch(outcome -> outcome.status() == DeliveryStatus.SENT));
+        assertTrue(outcomes.stream().filter(outcome -> outcome.status() == DeliveryStatus.UNREACHABLE).count()
+            <= MAX_IN_FLIGHT);
+        assertTrue(outcomes.stream().anyMatch(outcome -> outcome.status() == DeliveryStatus.SKIPPED));
+    }
+
+    @Test
+    void testCreateBills_BatchTimeoutMarksUnfinishedForRetry() {
+        billServer.delay(Duration.ofMillis(1000));
+        WebClientBillServiceClient impatientClient = new WebClientBillServiceClient(WebClient.create(),
+            permissiveCircuitBreaker(), meterRegistry, billServer.url(), "TEST_API_KEY", MAX_IN_FLIGHT, 200);
+
+        List<DeliveryOutcome> outcomes = impatientClient.createBills(requests(2));
+
+        assertTrue(outcomes.stream().allMatch(outcome -> outcome.status() == DeliveryStatus.RETRY));
+    }
+
+    // Thresholds high enough that the breaker never gets in the way of these tests
+    private BillServiceCircuitBreaker permissiveCircuitBreaker() {
+        return new BillServiceCircuitBreaker(meterRegistry, 1000, 30000, 1, 1000);
+    }
+
+    private static List<BillRequest> requests(int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> new BillRequest("message-" + i, CreateBillRequestDTO.builder()
+                .customerId(UUID.randomUUID())
+                .serviceName("Accommodation")
+                .serviceReferenceId("booking-" + i)
+                .description("Accommodation Booking - booking-" + i)
+                .amount(100000L)
+                .build()))
+            .toList();
+    }
+
+    private static long time(Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        return Duration.ofNanos(System.nanoTime() - start).toMillis();
+    }
+}